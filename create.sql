@@ -1,10 +1,12 @@
-create table account_types (id  bigserial not null, monthly_fee numeric(19, 2), transaction_fee numeric(19, 2), type varchar(255), primary key (id));
+create sequence transactions_id_seq start 1 increment 50;
+create table account_types (id  bigserial not null, monthly_fee numeric(19, 2), transaction_fee numeric(19, 2), type varchar(255), velocity_max_amount numeric(19, 2), velocity_max_count int4, velocity_window_minutes int4, primary key (id));
 create table cd_accounts (id  bigserial not null, created_on timestamp not null, balance numeric(19, 2), iban varchar(255) not null, expiration_date date not null, interest numeric(19, 2) not null, outcome_amount numeric(19, 2) not null, period_in_years int4 not null, type_id int8, user_id int8 not null, primary key (id));
 create table checking_accounts (id  bigserial not null, created_on timestamp not null, balance numeric(19, 2), iban varchar(255) not null, type_id int8, user_id int8 not null, primary key (id));
 create table loan_types (id  bigserial not null, consideration_fee numeric(19, 2) not null, interest_rate numeric(19, 2) not null, monthly_fee numeric(19, 2) not null, name varchar(255), primary key (id));
 create table loans (id  bigserial not null, created_on timestamp not null, approved boolean not null, beginning_loan_amount numeric(19, 2) not null, due_date date not null, maturity_date date not null, monthly_payment numeric(19, 2) not null, period_in_months int4 not null, remaining_loan_amount numeric(19, 2) not null, total_amount_sum numeric(19, 2) not null, account_id int8 not null, type_id int8 not null, primary key (id));
 create table roles (id  bigserial not null, role varchar(255), primary key (id));
-create table transactions (id  bigserial not null, created_on timestamp not null, uuid VARCHAR not null, amount numeric(19, 2) not null, reason TEXT, type varchar(255), account_id int8, primary key (id));
+create table transactions (id int8 not null, created_on timestamp not null, uuid UUID not null, amount numeric(19, 2) not null, reason TEXT, type SMALLINT, account_id int8, primary key (id, created_on)) partition by range (created_on);
+create table transactions_default partition of transactions default;
 create table users (id  bigserial not null, created_on timestamp not null, email varchar(255) not null, full_name varchar(255) not null, has_loan boolean default false not null, password varchar(255) not null, phone_number varchar(255), username varchar(255) not null, primary key (id));
 create table users_roles (user_id int8 not null, role_id int8 not null, primary key (user_id, role_id));
 alter table cd_accounts add constraint UK_2k7akumex8puigm5pnqdab71r unique (iban);
@@ -20,3 +22,43 @@ alter table loans add constraint FKk5ld0bmden8fxcgjqgl76nf5i foreign key (type_i
 alter table transactions add constraint FK8euimpqfd44lygudtohsj0ugd foreign key (account_id) references checking_accounts;
 alter table users_roles add constraint FKj6m8fwv7oqv74fcehir1a9ffy foreign key (role_id) references roles;
 alter table users_roles add constraint FK2o0jvgh89lemvvo17cbqvdxaa foreign key (user_id) references users;
+create table idempotency_keys (id  bigserial not null, created_on timestamp not null, idempotency_key varchar(255) not null, operation varchar(255) not null, request_hash varchar(255) not null, response TEXT, user_id int8 not null, primary key (id));
+alter table idempotency_keys add constraint UK_idempotency_keys_user_key unique (user_id, idempotency_key);
+create index idx_idempotency_keys_created_on on idempotency_keys (created_on);
+create index idx_transactions_created_on_id on transactions (created_on, id);
+create index idx_transactions_account_created_on_id on transactions (account_id, created_on, id);
+create table daily_balances (id  bigserial not null, created_on timestamp not null, account_id int8 not null, closing_balance numeric(19, 2) not null, credit_total numeric(19, 2) not null, debit_total numeric(19, 2) not null, fee_total numeric(19, 2) not null, opening_balance numeric(19, 2) not null, snapshot_date date not null, primary key (id));
+alter table daily_balances add constraint UK_daily_balances_account_date unique (account_id, snapshot_date);
+create table daily_balance_totals (id  bigserial not null, created_on timestamp not null, account_id int8 not null, credit_total numeric(19, 2) not null, debit_total numeric(19, 2) not null, snapshot_date date not null, transaction_count int8 not null, type varchar(255) not null, primary key (id));
+alter table daily_balance_totals add constraint UK_daily_balance_totals_account_date_type unique (account_id, snapshot_date, type);
+create sequence ledger_postings_id_seq start 1 increment 50;
+create table ledger_postings (id int8 not null, created_on timestamp not null, account_id int8, amount numeric(19, 2) not null, entry_uuid UUID not null, ledger_account varchar(32) not null, transaction_id int8, primary key (id));
+create index idx_ledger_postings_account_id on ledger_postings (account_id);
+create index idx_ledger_postings_entry_uuid on ledger_postings (entry_uuid);
+create table ledger_balances (id  bigserial not null, created_on timestamp not null, account_id int8 not null, balance numeric(19, 2) not null, posting_count int8 not null, primary key (id));
+alter table ledger_balances add constraint UK_ledger_balances_account unique (account_id);
+create sequence outbox_events_id_seq start 1 increment 50;
+create table outbox_events (id int8 not null, created_on timestamp not null, account_id int8 not null, amount numeric(19, 2) not null, credit boolean not null, fee numeric(19, 2) not null, relayed_on timestamp, transaction_id int8 not null, transaction_uuid UUID not null, type SMALLINT not null, primary key (id));
+create index idx_outbox_events_relayed_on_id on outbox_events (relayed_on, id);
+create index idx_outbox_events_pending on outbox_events (id) where relayed_on is null;
+create table transfer_requests (id  bigserial not null, created_on timestamp not null, account_from varchar(255) not null, account_to varchar(255) not null, amount numeric(19, 2) not null, failure_reason TEXT, finished_on timestamp, reason TEXT, status varchar(16) not null, transaction_id int8, user_id int8 not null, uuid UUID not null, primary key (id));
+alter table transfer_requests add constraint UK_transfer_requests_uuid unique (uuid);
+create index idx_transfer_requests_status_created_on on transfer_requests (status, created_on);
+create index idx_transfer_requests_finished_on on transfer_requests (finished_on);
+create index idx_ledger_postings_transaction_id on ledger_postings (transaction_id);
+create table reconciliation_runs (id  bigserial not null, created_on timestamp not null, checked_accounts int8 not null, chunk_size int4 not null, discrepancies int8 not null, finished_on timestamp, max_account_id int8 not null, primary key (id));
+create table reconciliation_chunks (id  bigserial not null, created_on timestamp not null, checked_accounts int4 not null, chunk int8 not null, discrepancies int4 not null, run_id int8 not null, primary key (id));
+alter table reconciliation_chunks add constraint UK_reconciliation_chunks_run_chunk unique (run_id, chunk);
+create table reconciliation_discrepancies (id  bigserial not null, created_on timestamp not null, account_id int8 not null, balance numeric(19, 2) not null, expected_balance numeric(19, 2) not null, fee_total numeric(19, 2) not null, opening_balance numeric(19, 2) not null, run_id int8 not null, transaction_total numeric(19, 2) not null, primary key (id));
+create index idx_reconciliation_discrepancies_run_account on reconciliation_discrepancies (run_id, account_id);
+create table batch_job_runs (id  bigserial not null, created_on timestamp not null, chunk_size int4 not null, finished_on timestamp, first_id int8 not null, job_name varchar(50) not null, last_id int8 not null, processed_items int8 not null, run_key varchar(50) not null, primary key (id));
+alter table batch_job_runs add constraint UK_batch_job_runs_job_key unique (job_name, run_key);
+create table batch_job_chunks (id  bigserial not null, created_on timestamp not null, attempts int4 not null, chunk int8 not null, items int4 not null, run_id int8 not null, primary key (id));
+alter table batch_job_chunks add constraint UK_batch_job_chunks_run_chunk unique (run_id, chunk);
+create index idx_loans_maturity_date on loans (maturity_date);
+create index idx_loans_due_date on loans (due_date);
+create index idx_cd_accounts_expiration_date on cd_accounts (expiration_date);
+create table scheduler_leases (id  bigserial not null, created_on timestamp not null, locked_until timestamp not null, name varchar(100) not null, owner varchar(100) not null, primary key (id));
+alter table scheduler_leases add constraint UK_scheduler_leases_name unique (name);
+create table scheduler_checkpoints (id  bigserial not null, created_on timestamp not null, job_name varchar(50) not null, last_business_date date not null, primary key (id));
+alter table scheduler_checkpoints add constraint UK_scheduler_checkpoints_job_name unique (job_name);
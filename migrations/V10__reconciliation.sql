@@ -0,0 +1,42 @@
+-- Reports of the reconciliation of the checking account balances against their transactions. Every checked chunk
+-- of account ids is a checkpoint an interrupted run resumes from.
+CREATE TABLE IF NOT EXISTS reconciliation_runs
+(
+    id               bigserial NOT NULL PRIMARY KEY,
+    created_on       timestamp NOT NULL,
+    chunk_size       int4      NOT NULL,
+    max_account_id   int8      NOT NULL,
+    checked_accounts int8      NOT NULL,
+    discrepancies    int8      NOT NULL,
+    finished_on      timestamp
+);
+
+CREATE TABLE IF NOT EXISTS reconciliation_chunks
+(
+    id               bigserial NOT NULL PRIMARY KEY,
+    created_on       timestamp NOT NULL,
+    run_id           int8      NOT NULL,
+    chunk            int8      NOT NULL,
+    checked_accounts int4      NOT NULL,
+    discrepancies    int4      NOT NULL,
+    CONSTRAINT UK_reconciliation_chunks_run_chunk UNIQUE (run_id, chunk)
+);
+
+CREATE TABLE IF NOT EXISTS reconciliation_discrepancies
+(
+    id                bigserial      NOT NULL PRIMARY KEY,
+    created_on        timestamp      NOT NULL,
+    run_id            int8           NOT NULL,
+    account_id        int8           NOT NULL,
+    balance           numeric(19, 2) NOT NULL,
+    expected_balance  numeric(19, 2) NOT NULL,
+    opening_balance   numeric(19, 2) NOT NULL,
+    transaction_total numeric(19, 2) NOT NULL,
+    fee_total         numeric(19, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_discrepancies_run_account
+    ON reconciliation_discrepancies (run_id, account_id);
+
+-- The reconciliation finds the postings and the fee of every transaction by its id.
+CREATE INDEX IF NOT EXISTS idx_ledger_postings_transaction_id ON ledger_postings (transaction_id);
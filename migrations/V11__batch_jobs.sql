@@ -0,0 +1,31 @@
+-- Runs of the scheduled batch jobs. Every committed chunk of ids is a checkpoint an interrupted run resumes from,
+-- and a job runs only once for the same key.
+CREATE TABLE IF NOT EXISTS batch_job_runs
+(
+    id              bigserial   NOT NULL PRIMARY KEY,
+    created_on      timestamp   NOT NULL,
+    job_name        varchar(50) NOT NULL,
+    run_key         varchar(50) NOT NULL,
+    chunk_size      int4        NOT NULL,
+    first_id        int8        NOT NULL,
+    last_id         int8        NOT NULL,
+    processed_items int8        NOT NULL,
+    finished_on     timestamp,
+    CONSTRAINT UK_batch_job_runs_job_key UNIQUE (job_name, run_key)
+);
+
+CREATE TABLE IF NOT EXISTS batch_job_chunks
+(
+    id         bigserial NOT NULL PRIMARY KEY,
+    created_on timestamp NOT NULL,
+    run_id     int8      NOT NULL,
+    chunk      int8      NOT NULL,
+    items      int4      NOT NULL,
+    attempts   int4      NOT NULL,
+    CONSTRAINT UK_batch_job_chunks_run_chunk UNIQUE (run_id, chunk)
+);
+
+-- The jobs look up the loans and CD accounts of a date within a range of ids.
+CREATE INDEX IF NOT EXISTS idx_loans_maturity_date ON loans (maturity_date);
+CREATE INDEX IF NOT EXISTS idx_loans_due_date ON loans (due_date);
+CREATE INDEX IF NOT EXISTS idx_cd_accounts_expiration_date ON cd_accounts (expiration_date);
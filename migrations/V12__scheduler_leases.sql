@@ -0,0 +1,11 @@
+-- Leases of the scheduled jobs, so a job triggered on every node runs on only one of them. An expired lease, such
+-- as the one of a crashed node, is taken over by the next node triggering the job.
+CREATE TABLE IF NOT EXISTS scheduler_leases
+(
+    id           bigserial    NOT NULL PRIMARY KEY,
+    created_on   timestamp    NOT NULL,
+    name         varchar(100) NOT NULL,
+    owner        varchar(100) NOT NULL,
+    locked_until timestamp    NOT NULL,
+    CONSTRAINT UK_scheduler_leases_name UNIQUE (name)
+);
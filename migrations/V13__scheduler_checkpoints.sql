@@ -0,0 +1,10 @@
+-- The last business date every date-driven scheduled job processed, so the dates missed while the application was
+-- down are caught up by the next run.
+CREATE TABLE IF NOT EXISTS scheduler_checkpoints
+(
+    id                 bigserial   NOT NULL PRIMARY KEY,
+    created_on         timestamp   NOT NULL,
+    job_name           varchar(50) NOT NULL,
+    last_business_date date        NOT NULL,
+    CONSTRAINT UK_scheduler_checkpoints_job_name UNIQUE (job_name)
+);
@@ -0,0 +1,5 @@
+-- Transaction ids are now reserved from transactions_id_seq in blocks of 50 (Hibernate pooled-lo), so inserts
+-- into transactions can be batched. The sequence used to back a bigserial column with an increment of 1.
+ALTER TABLE transactions ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+SELECT setval('transactions_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions), false);
@@ -0,0 +1,4 @@
+-- Transaction searches page through (created_on, id) from the newest to the oldest, optionally for one account.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_created_on_id ON transactions (created_on, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_account_created_on_id
+    ON transactions (account_id, created_on, id);
@@ -0,0 +1,63 @@
+-- Turns transactions into a table partitioned by month of created_on, so listings, statements and cleanups only
+-- touch the months they ask for. The copy holds an exclusive lock on transactions, run it in a maintenance window.
+-- Partitions of the following months are created by the application (TransactionPartitionScheduler).
+BEGIN;
+
+LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+ALTER INDEX IF EXISTS idx_transactions_created_on_id RENAME TO idx_transactions_unpartitioned_created_on_id;
+ALTER INDEX IF EXISTS idx_transactions_account_created_on_id
+    RENAME TO idx_transactions_unpartitioned_account_created_on_id;
+
+-- The partition key has to be part of the primary key, ids stay unique through transactions_id_seq.
+CREATE TABLE transactions
+(
+    id         int8           NOT NULL,
+    created_on timestamp      NOT NULL,
+    uuid       VARCHAR        NOT NULL,
+    amount     numeric(19, 2) NOT NULL,
+    reason     TEXT,
+    type       varchar(255),
+    account_id int8,
+    PRIMARY KEY (id, created_on),
+    CONSTRAINT FK8euimpqfd44lygudtohsj0ugd FOREIGN KEY (account_id) REFERENCES checking_accounts
+) PARTITION BY RANGE (created_on);
+
+-- Indexes of the parent are created on every partition, existing and future.
+CREATE INDEX idx_transactions_created_on_id ON transactions (created_on, id);
+CREATE INDEX idx_transactions_account_created_on_id ON transactions (account_id, created_on, id);
+
+-- Catches rows of months without a partition, it should stay empty.
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+-- One partition for every month from the oldest transaction up to three months ahead.
+DO
+$$
+    DECLARE
+        month date;
+    BEGIN
+        FOR month IN
+            SELECT m::date
+            FROM generate_series(
+                         (SELECT date_trunc('month', COALESCE(MIN(created_on), now())) FROM transactions_unpartitioned),
+                         date_trunc('month', now()) + interval '3 months',
+                         interval '1 month') AS m
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                               'transactions_p' || to_char(month, 'YYYY_MM'), month, month + interval '1 month');
+            END LOOP;
+    END
+$$;
+
+INSERT INTO transactions (id, created_on, uuid, amount, reason, type, account_id)
+SELECT id, created_on, uuid, amount, reason, type, account_id
+FROM transactions_unpartitioned;
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+DROP TABLE transactions_unpartitioned;
+
+ANALYZE transactions;
+
+COMMIT;
@@ -0,0 +1,36 @@
+-- Daily balance snapshots of the checking accounts, kept up to date by the application with every transaction.
+CREATE TABLE IF NOT EXISTS daily_balances
+(
+    id              bigserial      NOT NULL PRIMARY KEY,
+    created_on      timestamp      NOT NULL,
+    account_id      int8           NOT NULL,
+    snapshot_date   date           NOT NULL,
+    opening_balance numeric(19, 2) NOT NULL,
+    closing_balance numeric(19, 2) NOT NULL,
+    debit_total     numeric(19, 2) NOT NULL,
+    credit_total    numeric(19, 2) NOT NULL,
+    fee_total       numeric(19, 2) NOT NULL,
+    CONSTRAINT UK_daily_balances_account_date UNIQUE (account_id, snapshot_date)
+);
+
+CREATE TABLE IF NOT EXISTS daily_balance_totals
+(
+    id                bigserial      NOT NULL PRIMARY KEY,
+    created_on        timestamp      NOT NULL,
+    account_id        int8           NOT NULL,
+    snapshot_date     date           NOT NULL,
+    type              varchar(255)   NOT NULL,
+    debit_total       numeric(19, 2) NOT NULL,
+    credit_total      numeric(19, 2) NOT NULL,
+    transaction_count int8           NOT NULL,
+    CONSTRAINT UK_daily_balance_totals_account_date_type UNIQUE (account_id, snapshot_date, type)
+);
+
+-- The fees were never stored with the transactions, so the history can't be replayed into exact balances.
+-- Every account starts with a snapshot of today instead: statements from today on are exact, and days before it
+-- show today's opening balance.
+INSERT INTO daily_balances (created_on, account_id, snapshot_date, opening_balance, closing_balance, debit_total,
+                            credit_total, fee_total)
+SELECT now(), id, current_date, COALESCE(balance, 0), COALESCE(balance, 0), 0, 0, 0
+FROM checking_accounts
+ON CONFLICT (account_id, snapshot_date) DO NOTHING;
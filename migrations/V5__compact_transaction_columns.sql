@@ -0,0 +1,40 @@
+-- Stores the type of a transaction as a smallint code (TransactionType) instead of its label, and the UUID as a
+-- native 16-byte uuid instead of its 36 character text. ALTER COLUMN ... TYPE rewrites every partition and rebuilds
+-- its indexes under an exclusive lock, run it in a maintenance window.
+--
+-- To compare before and after, run these before the migration and again after it (followed by VACUUM ANALYZE):
+--   SELECT pg_size_pretty(sum(pg_table_size(inhrelid))) AS table_size,
+--          pg_size_pretty(sum(pg_indexes_size(inhrelid))) AS index_size
+--   FROM pg_inherits WHERE inhparent = 'transactions'::regclass;
+--   EXPLAIN (ANALYZE, BUFFERS) SELECT type, count(*) FROM transactions GROUP BY type;
+BEGIN;
+
+-- Fail before rewriting anything when a row has a type without a code.
+DO
+$$
+    DECLARE
+        unknown_type text;
+    BEGIN
+        SELECT type INTO unknown_type FROM transactions
+        WHERE type NOT IN ('deposit', 'withdraw', 'send', 'received', 'loan payment', 'monthly fee')
+        LIMIT 1;
+        IF FOUND THEN
+            RAISE EXCEPTION 'Transaction type % has no code', unknown_type;
+        END IF;
+    END
+$$;
+
+ALTER TABLE transactions
+    ALTER COLUMN uuid TYPE uuid USING uuid::uuid,
+    ALTER COLUMN type TYPE smallint USING CASE type
+                                              WHEN 'deposit' THEN 1
+                                              WHEN 'withdraw' THEN 2
+                                              WHEN 'send' THEN 3
+                                              WHEN 'received' THEN 4
+                                              WHEN 'loan payment' THEN 5
+                                              WHEN 'monthly fee' THEN 6
+        END;
+
+COMMIT;
+
+VACUUM ANALYZE transactions;
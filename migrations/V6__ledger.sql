@@ -0,0 +1,49 @@
+-- Append-only double-entry ledger. Every money movement is an entry of postings that add up to zero, the balance
+-- of a checking account is the sum of its postings and ledger_balances keeps it as a running total.
+CREATE SEQUENCE IF NOT EXISTS ledger_postings_id_seq START 1 INCREMENT 50;
+
+CREATE TABLE IF NOT EXISTS ledger_postings
+(
+    id             int8           NOT NULL PRIMARY KEY,
+    created_on     timestamp      NOT NULL,
+    entry_uuid     uuid           NOT NULL,
+    transaction_id int8,
+    ledger_account varchar(32)    NOT NULL,
+    account_id     int8,
+    amount         numeric(19, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_postings_account_id ON ledger_postings (account_id);
+CREATE INDEX IF NOT EXISTS idx_ledger_postings_entry_uuid ON ledger_postings (entry_uuid);
+
+CREATE TABLE IF NOT EXISTS ledger_balances
+(
+    id            bigserial      NOT NULL PRIMARY KEY,
+    created_on    timestamp      NOT NULL,
+    account_id    int8           NOT NULL,
+    balance       numeric(19, 2) NOT NULL,
+    posting_count int8           NOT NULL,
+    CONSTRAINT UK_ledger_balances_account UNIQUE (account_id)
+);
+
+-- As with the daily balances, the history can't be replayed without the fees, so every existing balance is opened
+-- as one entry against the opening balances account of the bank.
+WITH opening AS (
+    SELECT id AS account_id, balance, gen_random_uuid() AS entry_uuid
+    FROM checking_accounts
+    WHERE COALESCE(balance, 0) <> 0
+      AND NOT EXISTS (SELECT 1 FROM ledger_balances b WHERE b.account_id = checking_accounts.id)
+)
+INSERT INTO ledger_postings (id, created_on, entry_uuid, transaction_id, ledger_account, account_id, amount)
+SELECT nextval('ledger_postings_id_seq'), now(), entry_uuid, NULL, posting.ledger_account, posting.account_id,
+       posting.amount
+FROM opening,
+     LATERAL (VALUES ('CHECKING', opening.account_id, opening.balance),
+                     ('OPENING_BALANCES', NULL::int8, -opening.balance)) AS posting (ledger_account, account_id, amount);
+
+INSERT INTO ledger_balances (created_on, account_id, balance, posting_count)
+SELECT now(), account_id, SUM(amount), COUNT(*)
+FROM ledger_postings
+WHERE ledger_account = 'CHECKING'
+GROUP BY account_id
+ON CONFLICT (account_id) DO NOTHING;
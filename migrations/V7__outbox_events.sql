@@ -0,0 +1,21 @@
+-- Transactional outbox of the money movements, appended in the database transaction of every movement and
+-- relayed to the consumers of the application in batches.
+CREATE SEQUENCE IF NOT EXISTS outbox_events_id_seq START 1 INCREMENT 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id               int8           NOT NULL PRIMARY KEY,
+    created_on       timestamp      NOT NULL,
+    transaction_id   int8           NOT NULL,
+    transaction_uuid uuid           NOT NULL,
+    account_id       int8           NOT NULL,
+    type             smallint       NOT NULL,
+    amount           numeric(19, 2) NOT NULL,
+    fee              numeric(19, 2) NOT NULL,
+    credit           boolean        NOT NULL,
+    relayed_on       timestamp
+);
+
+-- The relay only ever reads the waiting events, which stay a small part of the table.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (id) WHERE relayed_on IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_relayed_on_id ON outbox_events (relayed_on, id);
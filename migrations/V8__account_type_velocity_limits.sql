@@ -0,0 +1,6 @@
+-- Velocity limits of the withdrawals and transfers of every account type. An account may make at most
+-- velocity_max_count of them, for at most velocity_max_amount in total, per velocity_window_minutes.
+-- NULL leaves the count or the amount unlimited.
+ALTER TABLE account_types ADD COLUMN IF NOT EXISTS velocity_max_count integer;
+ALTER TABLE account_types ADD COLUMN IF NOT EXISTS velocity_max_amount numeric(19, 2);
+ALTER TABLE account_types ADD COLUMN IF NOT EXISTS velocity_window_minutes integer;
@@ -0,0 +1,21 @@
+-- Transfers submitted for asynchronous execution, polled by their UUID until they complete or fail.
+CREATE TABLE IF NOT EXISTS transfer_requests
+(
+    id             bigserial      NOT NULL PRIMARY KEY,
+    created_on     timestamp      NOT NULL,
+    uuid           uuid           NOT NULL,
+    user_id        int8           NOT NULL,
+    account_from   varchar(255)   NOT NULL,
+    account_to     varchar(255)   NOT NULL,
+    amount         numeric(19, 2) NOT NULL,
+    reason         text,
+    status         varchar(16)    NOT NULL,
+    failure_reason text,
+    transaction_id int8,
+    finished_on    timestamp,
+    CONSTRAINT UK_transfer_requests_uuid UNIQUE (uuid)
+);
+
+-- The recovery looks for the old pending transfers, the cleanup for the ones finished long ago.
+CREATE INDEX IF NOT EXISTS idx_transfer_requests_status_created_on ON transfer_requests (status, created_on);
+CREATE INDEX IF NOT EXISTS idx_transfer_requests_finished_on ON transfer_requests (finished_on);
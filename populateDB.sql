@@ -7,7 +7,8 @@ VALUES(CURRENT_DATE, 'support@scalefocus.com', 'Ivan Petrov Petrov', '$2a$10$R34
 '0879372165', 'stanchoyy');
 --The encrypted password: 12345
 
-INSERT INTO account_types(type,monthly_fee,transaction_fee) VALUES('Checking',4,1),('Certification of deposit',0,50);
+INSERT INTO account_types(type,monthly_fee,transaction_fee,velocity_max_count,velocity_max_amount,velocity_window_minutes)
+VALUES('Checking',4,1,20,5000,60),('Certification of deposit',0,50,NULL,NULL,NULL);
 
 INSERT INTO checking_accounts(created_on, balance, user_id, type_id, iban)
 VALUES(CURRENT_DATE, 1400.50, 1, 1, 'BG79BNPA94409332615387'),
@@ -15,14 +16,37 @@ VALUES(CURRENT_DATE, 1400.50, 1, 1, 'BG79BNPA94409332615387'),
 (CURRENT_DATE, 560.50, 3, 1, 'BG85IORT80948136525651'),
 (CURRENT_DATE, 70.70, 3, 1, 'BG85IORT80948136525777');
 
+--The seeded balances are opened in the ledger the same way V6 opens the existing ones, one entry per account
+--against the opening balances account, so the ledger verification and the reconciliation find no drift.
+WITH opening AS (
+    SELECT id AS account_id, balance, gen_random_uuid() AS entry_uuid
+    FROM checking_accounts
+    WHERE COALESCE(balance, 0) <> 0
+      AND NOT EXISTS (SELECT 1 FROM ledger_balances b WHERE b.account_id = checking_accounts.id)
+)
+INSERT INTO ledger_postings (id, created_on, entry_uuid, transaction_id, ledger_account, account_id, amount)
+SELECT nextval('ledger_postings_id_seq'), now(), entry_uuid, NULL, posting.ledger_account, posting.account_id,
+       posting.amount
+FROM opening,
+     LATERAL (VALUES ('CHECKING', opening.account_id, opening.balance),
+                     ('OPENING_BALANCES', NULL::int8, -opening.balance)) AS posting (ledger_account, account_id, amount);
+
+INSERT INTO ledger_balances (created_on, account_id, balance, posting_count)
+SELECT now(), account_id, SUM(amount), COUNT(*)
+FROM ledger_postings
+WHERE ledger_account = 'CHECKING'
+GROUP BY account_id
+ON CONFLICT (account_id) DO NOTHING;
+
 INSERT INTO roles(role)
 VALUES('USER'),
 ('ADMIN');
 
-INSERT INTO transactions(created_on, uuid, amount, reason, type, account_id)
-VALUES(CURRENT_DATE, '3ccee586-3271-11ed-a261-0242ac120002', 320, 'family', 'withdraw', 1),
-(CURRENT_DATE, '4c8a23dc-3271-11ed-a261-0242ac120002', 320, 'family', 'deposit', 2),
-(CURRENT_DATE, '56d477c0-3271-11ed-a261-0242ac120002', 5000, '', 'deposit', 3);
+--Transaction ids have no default, every row takes its own block of transactions_id_seq like the application does.
+INSERT INTO transactions(id, created_on, uuid, amount, reason, type, account_id)
+VALUES(nextval('transactions_id_seq'), CURRENT_DATE, '3ccee586-3271-11ed-a261-0242ac120002', 320, 'family', 2, 1),
+(nextval('transactions_id_seq'), CURRENT_DATE, '4c8a23dc-3271-11ed-a261-0242ac120002', 320, 'family', 1, 2),
+(nextval('transactions_id_seq'), CURRENT_DATE, '56d477c0-3271-11ed-a261-0242ac120002', 5000, '', 1, 3);
 
 INSERT INTO users_roles(user_id, role_id)
 VALUES(1, 1),
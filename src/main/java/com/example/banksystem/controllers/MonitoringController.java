@@ -0,0 +1,160 @@
+package com.example.banksystem.controllers;
+
+import com.example.banksystem.models.responses.AccountActivityResponse;
+import com.example.banksystem.models.responses.AccountCacheMetricsResponse;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import com.example.banksystem.models.responses.LedgerVerificationResponse;
+import com.example.banksystem.models.responses.OutboxMetricsResponse;
+import com.example.banksystem.models.responses.ReconciliationRunResponse;
+import com.example.banksystem.models.responses.ShardMetricsResponse;
+import com.example.banksystem.models.responses.VelocityLimitMetricsResponse;
+import com.example.banksystem.services.aggregates.AccountActivityAggregates;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.interfaces.CDMaturityService;
+import com.example.banksystem.services.interfaces.LedgerService;
+import com.example.banksystem.services.interfaces.LoanPaymentService;
+import com.example.banksystem.services.interfaces.OutboxService;
+import com.example.banksystem.services.interfaces.ReconciliationService;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import com.example.banksystem.services.sharding.AccountShardExecutor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class MonitoringController {
+	private final AccountShardExecutor accountShardExecutor;
+	private final LedgerService ledgerService;
+	private final OutboxService outboxService;
+	private final AccountCache accountCache;
+	private final AccountActivityAggregates accountActivityAggregates;
+	private final VelocityLimiter velocityLimiter;
+	private final ReconciliationService reconciliationService;
+	private final LoanPaymentService loanPaymentService;
+	private final CDMaturityService cdMaturityService;
+
+	public MonitoringController(AccountShardExecutor accountShardExecutor, LedgerService ledgerService,
+	                            OutboxService outboxService, AccountCache accountCache,
+	                            AccountActivityAggregates accountActivityAggregates,
+	                            VelocityLimiter velocityLimiter, ReconciliationService reconciliationService,
+	                            LoanPaymentService loanPaymentService, CDMaturityService cdMaturityService) {
+		this.accountShardExecutor = accountShardExecutor;
+		this.ledgerService = ledgerService;
+		this.outboxService = outboxService;
+		this.accountCache = accountCache;
+		this.accountActivityAggregates = accountActivityAggregates;
+		this.velocityLimiter = velocityLimiter;
+		this.reconciliationService = reconciliationService;
+		this.loanPaymentService = loanPaymentService;
+		this.cdMaturityService = cdMaturityService;
+	}
+
+	/**
+	 * Gets the queue depth and the commit latency of every account shard.
+	 * @return a {@link ResponseEntity} containing a {@link List} of {@link ShardMetricsResponse}s.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/shards")
+	public ResponseEntity<List<ShardMetricsResponse>> getShardMetrics() {
+		return ResponseEntity.ok(accountShardExecutor.getMetrics());
+	}
+
+	/**
+	 * Verifies the balance of every checking account against the ledger.
+	 * @return a {@link ResponseEntity} containing a {@link LedgerVerificationResponse} with every drift found.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/ledger")
+	public ResponseEntity<LedgerVerificationResponse> verifyLedger() {
+		return ResponseEntity.ok(ledgerService.verify());
+	}
+
+	/**
+	 * Reconciles the balance of every checking account against its transactions, resuming the last run when it
+	 * didn't finish.
+	 * @return a {@link ResponseEntity} containing the {@link ReconciliationRunResponse} of the finished run.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@PostMapping("/monitoring/reconciliation")
+	public ResponseEntity<ReconciliationRunResponse> reconcile() {
+		return ResponseEntity.ok(reconciliationService.reconcile());
+	}
+
+	/**
+	 * Gets the progress and the discrepancies of a reconciliation run.
+	 * @param runId the id of the run.
+	 * @return a {@link ResponseEntity} containing a {@link ReconciliationRunResponse}.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/reconciliation/{runId}")
+	public ResponseEntity<ReconciliationRunResponse> getReconciliationRun(@PathVariable Long runId) {
+		return ResponseEntity.ok(reconciliationService.getRun(runId));
+	}
+
+	/**
+	 * Gets the number of events waiting in the outbox and the counters of the relay.
+	 * @return a {@link ResponseEntity} containing an {@link OutboxMetricsResponse}.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/outbox")
+	public ResponseEntity<OutboxMetricsResponse> getOutboxMetrics() {
+		return ResponseEntity.ok(outboxService.getMetrics());
+	}
+
+	/**
+	 * Gets the size, the hit rate and the measured staleness of the account cache of this node.
+	 * @return a {@link ResponseEntity} containing an {@link AccountCacheMetricsResponse}.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/account-cache")
+	public ResponseEntity<AccountCacheMetricsResponse> getAccountCacheMetrics() {
+		return ResponseEntity.ok(accountCache.getMetrics());
+	}
+
+	/**
+	 * Gets the withdrawals and the sent transfers of a checking account in the last 24 hours and 30 days, as counted
+	 * by this node.
+	 * @param id the id of the checking account.
+	 * @return a {@link ResponseEntity} containing a {@link List} of {@link AccountActivityResponse}s.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/accounts/{id}/activity")
+	public ResponseEntity<List<AccountActivityResponse>> getAccountActivity(@PathVariable Long id) {
+		return ResponseEntity.ok(accountActivityAggregates.getActivity(id));
+	}
+
+	/**
+	 * Gets the number of withdrawals and transfers allowed and rejected by the velocity limits of this node.
+	 * @return a {@link ResponseEntity} containing a {@link VelocityLimitMetricsResponse}.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/velocity-limits")
+	public ResponseEntity<VelocityLimitMetricsResponse> getVelocityLimitMetrics() {
+		return ResponseEntity.ok(velocityLimiter.getMetrics());
+	}
+
+	/**
+	 * Tells which business dates the loan and CD account schedulers would process on their next run and how many
+	 * items are due on them, without running them.
+	 * @param date the date the schedulers would run for, today when not given.
+	 * @return a {@link ResponseEntity} containing a {@link List} of {@link CatchUpReportResponse}s, one for each job.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/monitoring/scheduler-catch-up")
+	public ResponseEntity<List<CatchUpReportResponse>> previewSchedulerCatchUp(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		LocalDate businessDate = date == null ? LocalDate.now() : date;
+		List<CatchUpReportResponse> reports = new ArrayList<>(loanPaymentService.previewCatchUp(businessDate));
+		reports.add(cdMaturityService.previewCatchUp(businessDate));
+		return ResponseEntity.ok(reports);
+	}
+}
@@ -1,29 +1,54 @@
 package com.example.banksystem.controllers;
 
 import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.requsts.TransactionExportFormat;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
 import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransactionPageResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
+import com.example.banksystem.models.responses.TransferBatchResponse;
 import com.example.banksystem.models.responses.TransferResponse;
+import com.example.banksystem.models.responses.TransferStatusResponse;
 import com.example.banksystem.models.user.UserAuthenticationDetails;
+import com.example.banksystem.services.interfaces.AsyncTransferService;
+import com.example.banksystem.services.interfaces.IdempotencyService;
 import com.example.banksystem.services.interfaces.TransactionService;
+import com.example.banksystem.services.interfaces.TransferBatchService;
+import com.example.banksystem.services.sharding.AccountShardExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 public class TransactionController {
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	private final TransactionService transactionService;
+	private final AccountShardExecutor accountShardExecutor;
+	private final IdempotencyService idempotencyService;
+	private final TransferBatchService transferBatchService;
+	private final AsyncTransferService asyncTransferService;
 	private final Logger logger = LogManager.getLogger(TransactionController.class);
 
-	public TransactionController(TransactionService transactionService) {
+	public TransactionController(TransactionService transactionService, AccountShardExecutor accountShardExecutor,
+	                             IdempotencyService idempotencyService, TransferBatchService transferBatchService,
+	                             AsyncTransferService asyncTransferService) {
 		this.transactionService = transactionService;
+		this.accountShardExecutor = accountShardExecutor;
+		this.idempotencyService = idempotencyService;
+		this.transferBatchService = transferBatchService;
+		this.asyncTransferService = asyncTransferService;
 	}
 
 	/**
@@ -31,14 +56,22 @@ public class TransactionController {
 	 *
 	 * @param body        a {@link TransactionCreationRequest} entity in which all deposit information is inserted.
 	 * @param userDetails a {@link UserAuthenticationDetails} entity with which we authenticate the user.
+	 * @param idempotencyKey an optional key; a retry with the same key returns the first deposit instead of a new one.
 	 * @return a {@link TransactionResponse} containing the information of the created deposit.
 	 */
 	@PreAuthorize("hasAuthority('USER')")
 	@PostMapping("/transactions/deposits")
 	public ResponseEntity<TransactionResponse> makeDeposit(
 													@Valid @RequestBody TransactionCreationRequest body,
-													@AuthenticationPrincipal UserAuthenticationDetails userDetails) {
-		TransactionResponse model = transactionService.deposit(userDetails.getId(), body);
+													@AuthenticationPrincipal UserAuthenticationDetails userDetails,
+													@RequestHeader(value = "Idempotency-Key", required = false)
+													String idempotencyKey) {
+		// The shards commit on their own threads, so the key can't share their transaction.
+		TransactionResponse model = accountShardExecutor.isEnabled()
+				? idempotencyService.executeOutsideTransaction(userDetails.getId(), idempotencyKey, "deposit", body,
+						TransactionResponse.class, () -> accountShardExecutor.deposit(userDetails.getId(), body))
+				: idempotencyService.execute(userDetails.getId(), idempotencyKey, "deposit", body,
+						TransactionResponse.class, () -> transactionService.deposit(userDetails.getId(), body));
 
 		logger.info("User with name {} successfully made a deposit", userDetails.getFullName());
 		return ResponseEntity.created(URI.create("/transactions/deposits/" + model.getId())).body(model);
@@ -49,14 +82,21 @@ public class TransactionController {
 	 *
 	 * @param body        a {@link TransactionCreationRequest} entity in which all withdraw information is inserted.
 	 * @param userDetails a {@link UserAuthenticationDetails} entity with which we authenticate the user.
+	 * @param idempotencyKey an optional key; a retry with the same key returns the first withdraw instead of a new one.
 	 * @return a {@link TransactionResponse} containing the information of the created withdraw.
 	 */
 	@PreAuthorize("hasAuthority('USER')")
 	@PostMapping("/transactions/withdrawals")
 	public ResponseEntity<TransactionResponse> makeWithdrawal(
 													@Valid @RequestBody TransactionCreationRequest body,
-													@AuthenticationPrincipal UserAuthenticationDetails userDetails) {
-		TransactionResponse model = transactionService.withdraw(userDetails.getId(), body);
+													@AuthenticationPrincipal UserAuthenticationDetails userDetails,
+													@RequestHeader(value = "Idempotency-Key", required = false)
+													String idempotencyKey) {
+		TransactionResponse model = accountShardExecutor.isEnabled()
+				? idempotencyService.executeOutsideTransaction(userDetails.getId(), idempotencyKey, "withdraw", body,
+						TransactionResponse.class, () -> accountShardExecutor.withdraw(userDetails.getId(), body))
+				: idempotencyService.execute(userDetails.getId(), idempotencyKey, "withdraw", body,
+						TransactionResponse.class, () -> transactionService.withdraw(userDetails.getId(), body));
 
 		logger.info("User with name {} successfully made withdrawal", userDetails.getFullName());
 		return ResponseEntity.created(URI.create("/transactions/withdrawals/" + model.getId())).body(model);
@@ -67,30 +107,133 @@ public class TransactionController {
 	 *
 	 * @param body        a {@link TransferCreationRequest} entity in which all transfer information is inserted.
 	 * @param userDetails a {@link UserAuthenticationDetails} entity with which we authenticate the user.
+	 * @param idempotencyKey an optional key; a retry with the same key returns the first transfer instead of a new one.
 	 * @return a {@link TransactionResponse} containing the information of the created transfer.
 	 */
 	@PreAuthorize("hasAuthority('USER')")
 	@PostMapping("/transactions/transfers")
 	public ResponseEntity<TransferResponse> makeTransfer(
 													@Valid @RequestBody TransferCreationRequest body,
-													@AuthenticationPrincipal UserAuthenticationDetails userDetails) {
-		TransferResponse model = this.transactionService.transfer(userDetails.getId(), body);
+													@AuthenticationPrincipal UserAuthenticationDetails userDetails,
+													@RequestHeader(value = "Idempotency-Key", required = false)
+													String idempotencyKey) {
+		TransferResponse model = idempotencyService.execute(userDetails.getId(), idempotencyKey, "transfer", body,
+				TransferResponse.class, () -> this.transactionService.transfer(userDetails.getId(), body));
 
 		logger.info("User with name {} successfully made a transfer", userDetails.getFullName());
 		return ResponseEntity.created(URI.create("/transactions/transfers/" + model.getId())).body(model);
 	}
 
+	/**
+	 * Validates a transfer and queues it, without waiting for it to be made.
+	 * <p>The transfer is made in the background, and its state is polled from the URL in the Location header.
+	 *
+	 * @param body        a {@link TransferCreationRequest} entity in which all transfer information is inserted.
+	 * @param userDetails a {@link UserAuthenticationDetails} entity with which we authenticate the user.
+	 * @param idempotencyKey an optional key; a retry with the same key returns the first transfer instead of a new one.
+	 * @return a {@link TransferStatusResponse} of the pending transfer.
+	 */
+	@PreAuthorize("hasAuthority('USER')")
+	@PostMapping("/transactions/transfers/async")
+	public ResponseEntity<TransferStatusResponse> submitTransfer(
+													@Valid @RequestBody TransferCreationRequest body,
+													@AuthenticationPrincipal UserAuthenticationDetails userDetails,
+													@RequestHeader(value = "Idempotency-Key", required = false)
+													String idempotencyKey) {
+		TransferStatusResponse model = idempotencyService.execute(userDetails.getId(), idempotencyKey,
+				"transfer-async", body, TransferStatusResponse.class,
+				() -> asyncTransferService.submit(userDetails.getId(), body));
+
+		logger.info("User with name {} submitted transfer {}", userDetails.getFullName(), model.getUuid());
+		return ResponseEntity.accepted().location(URI.create("/transactions/transfers/async/" + model.getUuid()))
+				.body(model);
+	}
+
+	/**
+	 * Returns the state of a transfer submitted by the logged-in user.
+	 *
+	 * @param uuid        the UUID returned when the transfer was submitted.
+	 * @param userDetails a {@link UserAuthenticationDetails} entity with which we authenticate the user.
+	 * @return a {@link TransferStatusResponse} with the state and the outcome of the transfer.
+	 */
+	@PreAuthorize("hasAuthority('USER')")
+	@GetMapping("/transactions/transfers/async/{uuid}")
+	public ResponseEntity<TransferStatusResponse> getTransferStatus(
+													@PathVariable UUID uuid,
+													@AuthenticationPrincipal UserAuthenticationDetails userDetails) {
+		return ResponseEntity.ok(asyncTransferService.getStatus(userDetails.getId(), uuid));
+	}
+
+	/**
+	 * Creates a batch of transfers from the accounts of the logged-in user.
+	 * <p>Every transfer is validated and executed on its own, so the invalid ones and the ones the account can't cover
+	 * are rejected while the rest of the batch is still made.
+	 *
+	 * @param body        a {@link List} of {@link TransferCreationRequest}s, one for every transfer.
+	 * @param userDetails a {@link UserAuthenticationDetails} entity with which we authenticate the user.
+	 * @return a {@link TransferBatchResponse} with the result of every transfer, in the order of the batch.
+	 */
+	@PreAuthorize("hasAuthority('USER')")
+	@PostMapping("/transactions/transfers/batch")
+	public ResponseEntity<TransferBatchResponse> makeTransfers(
+													@RequestBody List<TransferCreationRequest> body,
+													@AuthenticationPrincipal UserAuthenticationDetails userDetails) {
+		TransferBatchResponse model = transferBatchService.transfer(userDetails.getId(), body);
+
+		logger.info("User with name {} made a batch of transfers - {} accepted, {} rejected",
+				userDetails.getFullName(), model.getAccepted(), model.getRejected());
+		return ResponseEntity.ok(model);
+	}
+
+	/**
+	 * Returns one page of all transactions, from the newest to the oldest, admin only method.
+	 * <p> A variety of query params can be given to filter through the transactions - type, dateOn, dateBefore,
+	 * dateAfter, minAmount and maxAmount. The page size is set by size and capped. When there are more transactions,
+	 * the cursor of the next page is returned in the X-Next-Cursor header and is sent back as the cursor param.
+	 * @param request a {@link TransactionSearchRequest} with the query params.
+	 * @return a {@link List} of {@link TransactionResponse}, filtered depending on the given params.
+	 */
 	@PreAuthorize("hasAuthority('ADMIN')")
 	@GetMapping("/transactions")
-	public ResponseEntity<List<TransactionResponse>> findTransactionsByCriteria(
-					@RequestParam(required = false) String type,
-					String dateOn,
-					@RequestParam(required = false)
-					String dateBefore,
-					@RequestParam(required = false)
-					String dateAfter) {
-		return ResponseEntity.ok(transactionService.getAllTransactionsByGivenCriteria(type,
-						dateOn, dateBefore, dateAfter));
+	public ResponseEntity<List<TransactionResponse>> findTransactionsByCriteria(TransactionSearchRequest request) {
+		return toResponse(transactionService.getAllTransactionsByGivenCriteria(request));
+	}
+
+	/**
+	 * Streams all transactions as NDJSON or CSV, from the oldest to the newest, admin only method.
+	 * <p> The same filters as in the listing can be given - type, dateOn, dateBefore, dateAfter, minAmount and
+	 * maxAmount. The rows are written to the response while they are read from the database, so the export needs the
+	 * same memory for a thousand rows as for millions.
+	 * @param request a {@link TransactionSearchRequest} with the query params.
+	 * @param format the format of the export - ndjson (the default) or csv.
+	 * @param response the response the export is written to.
+	 * @throws IOException when the response can't be written to.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/transactions/export")
+	public void exportTransactions(TransactionSearchRequest request,
+								   @RequestParam(defaultValue = "ndjson") String format,
+								   HttpServletResponse response) throws IOException {
+		TransactionExportFormat exportFormat = TransactionExportFormat.of(format);
+		response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"transactions." + exportFormat.name().toLowerCase() + "\"");
+
+		long rows = transactionService.exportTransactions(request, exportFormat, response.getOutputStream());
+		logger.info("Exported {} transactions as {}", rows, exportFormat);
+	}
+
+	/**
+	 * Converts a page of transactions to a response with the cursor of the next page in the X-Next-Cursor header.
+	 * @param page a {@link TransactionPageResponse}.
+	 * @return a {@link ResponseEntity} with the transactions of the page.
+	 */
+	static ResponseEntity<List<TransactionResponse>> toResponse(TransactionPageResponse page) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.getNextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+		}
+		return response.body(page.getTransactions());
 	}
 
 }
\ No newline at end of file
@@ -1,18 +1,22 @@
 package com.example.banksystem.controllers;
 
 import com.example.banksystem.models.requsts.PasswordChangeRequest;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
 import com.example.banksystem.models.requsts.UserUpdateRequest;
 import com.example.banksystem.models.responses.CDAccountResponse;
 import com.example.banksystem.models.responses.CheckingAccountResponse;
+import com.example.banksystem.models.responses.StatementResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
 import com.example.banksystem.models.responses.UserResponse;
 import com.example.banksystem.models.user.UserAuthenticationDetails;
+import com.example.banksystem.services.interfaces.BalanceSnapshotService;
 import com.example.banksystem.services.interfaces.CDAccountService;
 import com.example.banksystem.services.interfaces.CheckingAccountService;
 import com.example.banksystem.services.interfaces.TransactionService;
 import com.example.banksystem.services.interfaces.UserService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +25,7 @@ import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -30,14 +35,17 @@ public class UserController {
 	private final CheckingAccountService checkingAccountService;
 	private final CDAccountService cdAccountService;
 	private final TransactionService transactionService;
+	private final BalanceSnapshotService balanceSnapshotService;
 	private final Logger logger = LogManager.getLogger(UserController.class);
 
 	public UserController(UserService userService, CheckingAccountService checkingAccountService,
-						  CDAccountService cdAccountService, TransactionService transactionService) {
+						  CDAccountService cdAccountService, TransactionService transactionService,
+						  BalanceSnapshotService balanceSnapshotService) {
 		this.userService = userService;
 		this.checkingAccountService = checkingAccountService;
 		this.cdAccountService = cdAccountService;
 		this.transactionService = transactionService;
+		this.balanceSnapshotService = balanceSnapshotService;
 	}
 
 	/**
@@ -153,49 +161,76 @@ public class UserController {
 	}
 
 	/**
-	 * Returns a {@link List} of {@link TransactionResponse} of a given account that belongs to the currently logged-in user.
-	 * <p> A variety of query params can be given to filter through the transactions.
+	 * Returns one page of the {@link TransactionResponse}s of a given account, admin only method.
+	 * <p> A variety of query params can be given to filter through the transactions - type, dateOn, dateBefore,
+	 * dateAfter, minAmount and maxAmount, together with the size and the cursor of the page.
 	 * @param userId the id of the user.
 	 * @param accountId the id of the user's account.
-	 * @param type type of transaction to filter by.
-	 * @param dateOn date on which the transactions are made.
-	 * @param dateBefore a date before which the transactions were made.
-	 * @param dateAfter a date after which the transactions are made.
-	 * @return a {@link List} of {@link TransactionResponse}, filtered depending on the given params.
+	 * @param request a {@link TransactionSearchRequest} with the query params.
+	 * @return a {@link List} of {@link TransactionResponse}, filtered depending on the given params, with the cursor
+	 * of the next page in the X-Next-Cursor header.
 	 */
 	@PreAuthorize("hasAuthority('ADMIN')")
 	@GetMapping("/users/{userId}/accounts/{accountId}/transactions")
 	public ResponseEntity<List<TransactionResponse>> findTransactionsByCriteria
-			(@PathVariable Long userId, @PathVariable Long accountId, @RequestParam(required = false) String type,
-			 @RequestParam(required = false) String dateOn,
-			 @RequestParam(required = false) String dateBefore,
-			 @RequestParam(required = false) String dateAfter) {
-		return ResponseEntity.ok(transactionService.getAllTransactionsForUserByGivenCriteria(userId, accountId, type,
-				dateOn, dateBefore, dateAfter));
+			(@PathVariable Long userId, @PathVariable Long accountId, TransactionSearchRequest request) {
+		return TransactionController.toResponse(
+				transactionService.getAllTransactionsForUserByGivenCriteria(userId, accountId, request));
 	}
 
 
 	/**
-	 * Returns a {@link List} of {@link TransactionResponse} of a given account, admin only method.
-	 * <p> A variety of query params can be given to filter through the transactions.
+	 * Returns one page of the {@link TransactionResponse}s of an account of the logged-in user.
+	 * <p> A variety of query params can be given to filter through the transactions - type, dateOn, dateBefore,
+	 * dateAfter, minAmount and maxAmount, together with the size and the cursor of the page.
 	 * @param userDetails the details of the logged-in user.
-	 * @param accountId the id of the logged-in user.
-	 * @param type type of transaction to filter by.
-	 * @param dateOn date on which the transactions are made.
-	 * @param dateBefore a date before which the transactions were made.
-	 * @param dateAfter a date after which the transactions are made.
-	 * @return a {@link List} of {@link TransactionResponse}, filtered depending on the given params.
+	 * @param accountId the id of the logged-in user's account.
+	 * @param request a {@link TransactionSearchRequest} with the query params.
+	 * @return a {@link List} of {@link TransactionResponse}, filtered depending on the given params, with the cursor
+	 * of the next page in the X-Next-Cursor header.
 	 */
 	@PreAuthorize("hasAuthority('USER')")
 	@GetMapping("/users/accounts/{accountId}/transactions")
 	public ResponseEntity<List<TransactionResponse>> findTransactionsByCriteriaForUser
 			(@AuthenticationPrincipal UserAuthenticationDetails userDetails,
-			 @PathVariable Long accountId, @RequestParam(required = false) String type,
-			 @RequestParam(required = false) String dateOn,
-			 @RequestParam(required = false) String dateBefore,
-			 @RequestParam(required = false) String dateAfter) {
-		return ResponseEntity.ok(transactionService.getAllTransactionsForUserByGivenCriteria(userDetails.getId(),
-				accountId, type, dateOn, dateBefore, dateAfter));
+			 @PathVariable Long accountId, TransactionSearchRequest request) {
+		return TransactionController.toResponse(
+				transactionService.getAllTransactionsForUserByGivenCriteria(userDetails.getId(), accountId, request));
 	}
 
+	/**
+	 * Returns the statement of a given account between two days, admin only method.
+	 * @param userId the id of the user.
+	 * @param accountId the id of the user's account.
+	 * @param from the first day of the statement, in yyyy-MM-dd format.
+	 * @param to the last day of the statement, in yyyy-MM-dd format.
+	 * @return a {@link StatementResponse} with the opening and the closing balance, the totals per transaction type
+	 * and the days on which the balance changed.
+	 */
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@GetMapping("/users/{userId}/accounts/{accountId}/statement")
+	public ResponseEntity<StatementResponse> getStatement(
+			@PathVariable Long userId, @PathVariable Long accountId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return ResponseEntity.ok(balanceSnapshotService.getStatement(userId, accountId, from, to));
+	}
+
+	/**
+	 * Returns the statement of an account of the logged-in user between two days.
+	 * @param userDetails the details of the logged-in user.
+	 * @param accountId the id of the logged-in user's account.
+	 * @param from the first day of the statement, in yyyy-MM-dd format.
+	 * @param to the last day of the statement, in yyyy-MM-dd format.
+	 * @return a {@link StatementResponse} with the opening and the closing balance, the totals per transaction type
+	 * and the days on which the balance changed.
+	 */
+	@PreAuthorize("hasAuthority('USER')")
+	@GetMapping("/users/accounts/{accountId}/statement")
+	public ResponseEntity<StatementResponse> getStatementForUser(
+			@AuthenticationPrincipal UserAuthenticationDetails userDetails, @PathVariable Long accountId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return ResponseEntity.ok(balanceSnapshotService.getStatement(userDetails.getId(), accountId, from, to));
+	}
 }
@@ -0,0 +1,17 @@
+package com.example.banksystem.exceptions;
+
+/**Constructs a <code>IdempotencyKeyConflictException</code> with a custom message.
+ * <p>This exception occurs when an Idempotency-Key is reused for a different request, or while the request it was
+ * first sent with is still being processed.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException{
+    /**
+     * Constructs a new IdempotencyKeyConflict exception with the specified detail message.
+     *
+     * @param message the detail message. The detail message is saved for
+     *                later retrieval by the {@link #getMessage()} method.
+     */
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
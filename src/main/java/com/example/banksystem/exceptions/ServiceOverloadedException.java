@@ -0,0 +1,16 @@
+package com.example.banksystem.exceptions;
+
+/**Constructs a <code>ServiceOverloadedException</code> with a custom message.
+ * <p>This exception occurs when a request can't be accepted because the queue that should process it is full.
+ */
+public class ServiceOverloadedException extends RuntimeException{
+    /**
+     * Constructs a new ServiceOverloaded exception with the specified detail message.
+     *
+     * @param message the detail message. The detail message is saved for
+     *                later retrieval by the {@link #getMessage()} method.
+     */
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
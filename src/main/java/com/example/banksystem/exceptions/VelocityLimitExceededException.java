@@ -0,0 +1,17 @@
+package com.example.banksystem.exceptions;
+
+/**Constructs a <code>VelocityLimitExceededException</code> with a custom message.
+ * <p>This exception occurs when an account makes more withdrawals and transfers, or moves more money, in a short
+ * time than the velocity limits of its account type allow.
+ */
+public class VelocityLimitExceededException extends RuntimeException{
+    /**
+     * Constructs a new VelocityLimitExceeded exception with the specified detail message.
+     *
+     * @param message the detail message. The detail message is saved for
+     *                later retrieval by the {@link #getMessage()} method.
+     */
+    public VelocityLimitExceededException(String message) {
+        super(message);
+    }
+}
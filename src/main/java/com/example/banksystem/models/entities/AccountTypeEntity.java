@@ -20,6 +20,12 @@ public class AccountTypeEntity {
 
     private String type;
 
+    private Integer velocityMaxCount;
+
+    private BigDecimal velocityMaxAmount;
+
+    private Integer velocityWindowMinutes;
+
     @OneToMany(mappedBy="type")
     private List<CheckingAccountEntity> checkingAccounts;
 
@@ -76,4 +82,49 @@ public class AccountTypeEntity {
         this.monthlyFee = monthlyFee;
         return this;
     }
+
+    /** Gets the number of withdrawals and transfers an account of this type can make in the velocity window.
+     * @return An Integer representing the maximum count, or null when the count is not limited.
+     */
+    public Integer getVelocityMaxCount() {
+        return velocityMaxCount;
+    }
+
+    /** Returns {@link AccountTypeEntity} with the velocity count limit set.
+     * @param velocityMaxCount An Integer containing the maximum count, or null for no limit.
+     */
+    public AccountTypeEntity setVelocityMaxCount(Integer velocityMaxCount) {
+        this.velocityMaxCount = velocityMaxCount;
+        return this;
+    }
+
+    /** Gets the amount an account of this type can withdraw and transfer in the velocity window.
+     * @return A BigDecimal representing the maximum amount, without the fees, or null when it's not limited.
+     */
+    public BigDecimal getVelocityMaxAmount() {
+        return velocityMaxAmount;
+    }
+
+    /** Returns {@link AccountTypeEntity} with the velocity amount limit set.
+     * @param velocityMaxAmount A BigDecimal containing the maximum amount, or null for no limit.
+     */
+    public AccountTypeEntity setVelocityMaxAmount(BigDecimal velocityMaxAmount) {
+        this.velocityMaxAmount = velocityMaxAmount;
+        return this;
+    }
+
+    /** Gets the length of the velocity window, over which the limits are refilled.
+     * @return An Integer representing the window in minutes, or null when the account type has no velocity limits.
+     */
+    public Integer getVelocityWindowMinutes() {
+        return velocityWindowMinutes;
+    }
+
+    /** Returns {@link AccountTypeEntity} with the velocity window set.
+     * @param velocityWindowMinutes An Integer containing the window in minutes.
+     */
+    public AccountTypeEntity setVelocityWindowMinutes(Integer velocityWindowMinutes) {
+        this.velocityWindowMinutes = velocityWindowMinutes;
+        return this;
+    }
 }
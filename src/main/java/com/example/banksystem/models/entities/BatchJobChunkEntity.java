@@ -0,0 +1,88 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+
+/** Represents a committed chunk of a batch job run, the checkpoint a resumed run continues from.
+ * <p>A chunk is saved in the same transaction as the work done on its items, so a chunk is either fully processed
+ * or processed again.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "batch_job_chunks",
+        uniqueConstraints = @UniqueConstraint(name = "UK_batch_job_chunks_run_chunk",
+                columnNames = {"run_id", "chunk"}))
+public class BatchJobChunkEntity extends BaseEntity {
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "chunk", nullable = false)
+    private long chunk;
+
+    @Column(name = "items", nullable = false)
+    private int items;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /** Gets the id of the batch job run.
+     * @return A Long representing the id of the run.
+     */
+    public Long getRunId() {
+        return runId;
+    }
+
+    /** Returns {@link BatchJobChunkEntity} with the id of the batch job run set.
+     * @param runId A Long containing the id of the run.
+     */
+    public BatchJobChunkEntity setRunId(Long runId) {
+        this.runId = runId;
+        return this;
+    }
+
+    /** Gets the number of the chunk, the ids of chunk n start at the first id of the run plus n times its chunk size.
+     * @return A long representing the number of the chunk.
+     */
+    public long getChunk() {
+        return chunk;
+    }
+
+    /** Returns {@link BatchJobChunkEntity} with the number of the chunk set.
+     * @param chunk A long containing the number of the chunk.
+     */
+    public BatchJobChunkEntity setChunk(long chunk) {
+        this.chunk = chunk;
+        return this;
+    }
+
+    /** Gets the number of items processed in the chunk.
+     * @return An int representing the number of processed items.
+     */
+    public int getItems() {
+        return items;
+    }
+
+    /** Returns {@link BatchJobChunkEntity} with the number of processed items set.
+     * @param items An int containing the number of processed items.
+     */
+    public BatchJobChunkEntity setItems(int items) {
+        this.items = items;
+        return this;
+    }
+
+    /** Gets the number of attempts it took to commit the chunk.
+     * @return An int representing the number of attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /** Returns {@link BatchJobChunkEntity} with the number of attempts set.
+     * @param attempts An int containing the number of attempts.
+     */
+    public BatchJobChunkEntity setAttempts(int attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/** Represents a run of a scheduled batch job, like the monthly fee collection of one month.
+ * <p>A run is identified by the name of its job and its key, so a job runs only once for the same key. The ids from
+ * {@code firstId} to {@code lastId} are split into chunks of {@code chunkSize} when the run starts, so a resumed run
+ * processes exactly the chunks it didn't commit before. A run without {@code finishedOn} is still running or was
+ * interrupted.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "batch_job_runs",
+        uniqueConstraints = @UniqueConstraint(name = "UK_batch_job_runs_job_key",
+                columnNames = {"job_name", "run_key"}))
+public class BatchJobRunEntity extends BaseEntity {
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    @Column(name = "run_key", nullable = false, length = 50)
+    private String runKey;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "first_id", nullable = false)
+    private long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "processed_items", nullable = false)
+    private long processedItems;
+
+    @Column(name = "finished_on")
+    private LocalDateTime finishedOn;
+
+    /** Gets the name of the job.
+     * @return A String representing the name of the job.
+     */
+    public String getJobName() {
+        return jobName;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the name of the job set.
+     * @param jobName A String containing the name of the job.
+     */
+    public BatchJobRunEntity setJobName(String jobName) {
+        this.jobName = jobName;
+        return this;
+    }
+
+    /** Gets the key of the run, like the month or the business date it processes.
+     * @return A String representing the key of the run.
+     */
+    public String getRunKey() {
+        return runKey;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the key of the run set.
+     * @param runKey A String containing the key of the run.
+     */
+    public BatchJobRunEntity setRunKey(String runKey) {
+        this.runKey = runKey;
+        return this;
+    }
+
+    /** Gets the number of ids in every chunk of the run.
+     * @return An int representing the size of the chunks.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the size of the chunks set.
+     * @param chunkSize An int containing the number of ids in every chunk.
+     */
+    public BatchJobRunEntity setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /** Gets the lowest id processed by the run.
+     * @return A long representing the first id of the first chunk.
+     */
+    public long getFirstId() {
+        return firstId;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the lowest id set.
+     * @param firstId A long containing the first id of the first chunk.
+     */
+    public BatchJobRunEntity setFirstId(long firstId) {
+        this.firstId = firstId;
+        return this;
+    }
+
+    /** Gets the highest id processed by the run, lower than the first id when there was nothing to process.
+     * @return A long representing the last id of the last chunk.
+     */
+    public long getLastId() {
+        return lastId;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the highest id set.
+     * @param lastId A long containing the last id of the last chunk.
+     */
+    public BatchJobRunEntity setLastId(long lastId) {
+        this.lastId = lastId;
+        return this;
+    }
+
+    /** Gets the number of items processed by the committed chunks of the run.
+     * @return A long representing the number of processed items.
+     */
+    public long getProcessedItems() {
+        return processedItems;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the number of processed items set.
+     * @param processedItems A long containing the number of processed items.
+     */
+    public BatchJobRunEntity setProcessedItems(long processedItems) {
+        this.processedItems = processedItems;
+        return this;
+    }
+
+    /** Gets the date the run finished on.
+     * @return A LocalDateTime representing the end of the run, null while it isn't finished.
+     */
+    public LocalDateTime getFinishedOn() {
+        return finishedOn;
+    }
+
+    /** Returns {@link BatchJobRunEntity} with the date the run finished on set.
+     * @param finishedOn A LocalDateTime containing the end of the run.
+     */
+    public BatchJobRunEntity setFinishedOn(LocalDateTime finishedOn) {
+        this.finishedOn = finishedOn;
+        return this;
+    }
+
+    /** Gets the number of chunks the ids of the run are split into.
+     * @return A long representing the number of chunks.
+     */
+    public long getChunks() {
+        return lastId < firstId ? 0 : (lastId - firstId) / chunkSize + 1;
+    }
+}
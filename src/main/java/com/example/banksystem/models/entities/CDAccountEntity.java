@@ -2,12 +2,14 @@ package com.example.banksystem.models.entities;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "cd_accounts")
+@Table(name = "cd_accounts", indexes = @Index(name = "idx_cd_accounts_expiration_date",
+        columnList = "expiration_date"))
 public class CDAccountEntity extends AccountEntity{
     @Column(nullable = false)
     private Integer periodInYears;
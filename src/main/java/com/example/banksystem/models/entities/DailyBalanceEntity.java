@@ -0,0 +1,144 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Represents the balance of a checking account at the start and at the end of a day, together with the totals of
+ * the money that went in and out of it that day.
+ * <p>Opening balance + credit total - debit total - fee total is always the closing balance.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "daily_balances",
+        uniqueConstraints = @UniqueConstraint(name = "UK_daily_balances_account_date",
+                columnNames = {"account_id", "snapshot_date"}))
+public class DailyBalanceEntity extends BaseEntity {
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "opening_balance", nullable = false)
+    private BigDecimal openingBalance;
+
+    @Column(name = "closing_balance", nullable = false)
+    private BigDecimal closingBalance;
+
+    @Column(name = "debit_total", nullable = false)
+    private BigDecimal debitTotal;
+
+    @Column(name = "credit_total", nullable = false)
+    private BigDecimal creditTotal;
+
+    @Column(name = "fee_total", nullable = false)
+    private BigDecimal feeTotal;
+
+    /** Gets the id of the checking account.
+     * @return A Long representing the id of the checking account.
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the id of the checking account set.
+     * @param accountId A Long containing the id of the checking account.
+     */
+    public DailyBalanceEntity setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the day of the snapshot.
+     * @return A LocalDate representing the day.
+     */
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the day of the snapshot set.
+     * @param snapshotDate A LocalDate containing the day.
+     */
+    public DailyBalanceEntity setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+        return this;
+    }
+
+    /** Gets the balance before the first transaction of the day.
+     * @return A BigDecimal representing the opening balance.
+     */
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the balance before the first transaction of the day set.
+     * @param openingBalance A BigDecimal containing the opening balance.
+     */
+    public DailyBalanceEntity setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+        return this;
+    }
+
+    /** Gets the balance after the last transaction of the day.
+     * @return A BigDecimal representing the closing balance.
+     */
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the balance after the last transaction of the day set.
+     * @param closingBalance A BigDecimal containing the closing balance.
+     */
+    public DailyBalanceEntity setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+        return this;
+    }
+
+    /** Gets the total of the amounts taken from the account, without the fees.
+     * @return A BigDecimal representing the debit total.
+     */
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the total of the amounts taken from the account set.
+     * @param debitTotal A BigDecimal containing the debit total.
+     */
+    public DailyBalanceEntity setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+        return this;
+    }
+
+    /** Gets the total of the amounts added to the account.
+     * @return A BigDecimal representing the credit total.
+     */
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the total of the amounts added to the account set.
+     * @param creditTotal A BigDecimal containing the credit total.
+     */
+    public DailyBalanceEntity setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+        return this;
+    }
+
+    /** Gets the total of the transaction fees taken from the account.
+     * @return A BigDecimal representing the fee total.
+     */
+    public BigDecimal getFeeTotal() {
+        return feeTotal;
+    }
+
+    /** Returns {@link DailyBalanceEntity} with the total of the transaction fees set.
+     * @param feeTotal A BigDecimal containing the fee total.
+     */
+    public DailyBalanceEntity setFeeTotal(BigDecimal feeTotal) {
+        this.feeTotal = feeTotal;
+        return this;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Represents the totals of the transactions of one type on a checking account for a day.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "daily_balance_totals",
+        uniqueConstraints = @UniqueConstraint(name = "UK_daily_balance_totals_account_date_type",
+                columnNames = {"account_id", "snapshot_date", "type"}))
+public class DailyBalanceTotalEntity extends BaseEntity {
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "debit_total", nullable = false)
+    private BigDecimal debitTotal;
+
+    @Column(name = "credit_total", nullable = false)
+    private BigDecimal creditTotal;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    /** Gets the id of the checking account.
+     * @return A Long representing the id of the checking account.
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /** Returns {@link DailyBalanceTotalEntity} with the id of the checking account set.
+     * @param accountId A Long containing the id of the checking account.
+     */
+    public DailyBalanceTotalEntity setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the day of the totals.
+     * @return A LocalDate representing the day.
+     */
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    /** Returns {@link DailyBalanceTotalEntity} with the day of the totals set.
+     * @param snapshotDate A LocalDate containing the day.
+     */
+    public DailyBalanceTotalEntity setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+        return this;
+    }
+
+    /** Gets the type of the transactions.
+     * @return A String representing the type of the transactions.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /** Returns {@link DailyBalanceTotalEntity} with the type of the transactions set.
+     * @param type A String containing the type of the transactions.
+     */
+    public DailyBalanceTotalEntity setType(String type) {
+        this.type = type;
+        return this;
+    }
+
+    /** Gets the total of the amounts taken from the account.
+     * @return A BigDecimal representing the debit total.
+     */
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    /** Returns {@link DailyBalanceTotalEntity} with the total of the amounts taken from the account set.
+     * @param debitTotal A BigDecimal containing the debit total.
+     */
+    public DailyBalanceTotalEntity setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+        return this;
+    }
+
+    /** Gets the total of the amounts added to the account.
+     * @return A BigDecimal representing the credit total.
+     */
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    /** Returns {@link DailyBalanceTotalEntity} with the total of the amounts added to the account set.
+     * @param creditTotal A BigDecimal containing the credit total.
+     */
+    public DailyBalanceTotalEntity setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+        return this;
+    }
+
+    /** Gets the number of the transactions.
+     * @return A long representing the number of the transactions.
+     */
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /** Returns {@link DailyBalanceTotalEntity} with the number of the transactions set.
+     * @param transactionCount A long containing the number of the transactions.
+     */
+    public DailyBalanceTotalEntity setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+        return this;
+    }
+}
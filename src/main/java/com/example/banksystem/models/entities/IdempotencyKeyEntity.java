@@ -0,0 +1,114 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+/** Represents an idempotency key sent by a client together with the response of the request it was sent with.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "UK_idempotency_keys_user_key",
+                columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_keys_created_on", columnList = "created_on"))
+public class IdempotencyKeyEntity extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "operation", nullable = false)
+    private String operation;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "response", columnDefinition = "TEXT")
+    private String response;
+
+    public IdempotencyKeyEntity() {
+    }
+
+    public IdempotencyKeyEntity(Long userId, String idempotencyKey, String operation, String requestHash) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.operation = operation;
+        this.requestHash = requestHash;
+    }
+
+    /** Gets the id of the user that sent the key.
+     * @return A Long representing the id of the user that sent the key.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /** Returns {@link IdempotencyKeyEntity} with the id of the user that sent the key set.
+     * @param userId A Long containing the id of the user that sent the key.
+     */
+    public IdempotencyKeyEntity setUserId(Long userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    /** Gets the key, sent in the Idempotency-Key header.
+     * @return A String representing the key.
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /** Returns {@link IdempotencyKeyEntity} with the key set.
+     * @param idempotencyKey A String containing the key, sent in the Idempotency-Key header.
+     */
+    public IdempotencyKeyEntity setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+        return this;
+    }
+
+    /** Gets the operation the key was used for.
+     * @return A String representing the operation - deposit, withdraw or transfer.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /** Returns {@link IdempotencyKeyEntity} with the operation set.
+     * @param operation A String containing the operation the key was used for.
+     */
+    public IdempotencyKeyEntity setOperation(String operation) {
+        this.operation = operation;
+        return this;
+    }
+
+    /** Gets the hash of the request body the key was first sent with.
+     * @return A String representing the hash of the request body.
+     */
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    /** Returns {@link IdempotencyKeyEntity} with the hash of the request body set.
+     * @param requestHash A String containing the hash of the request body.
+     */
+    public IdempotencyKeyEntity setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+        return this;
+    }
+
+    /** Gets the stored response of the request.
+     * @return A String representing the response as JSON.
+     */
+    public String getResponse() {
+        return response;
+    }
+
+    /** Returns {@link IdempotencyKeyEntity} with the stored response set.
+     * @param response A String containing the response as JSON.
+     */
+    public IdempotencyKeyEntity setResponse(String response) {
+        this.response = response;
+        return this;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.banksystem.models.entities;
+
+/** Represents an account of the posting ledger.
+ * <p>Every checking account has its own {@link #CHECKING} ledger account, the other ones belong to the bank.
+ */
+public enum LedgerAccount {
+    /** The money of a customer in a checking account. */
+    CHECKING,
+    /** The money deposited into and withdrawn from the bank. */
+    CASH,
+    /** The transaction fees and the monthly fees earned by the bank. */
+    FEE_REVENUE,
+    /** The loan payments taken from the checking accounts. */
+    LOANS,
+    /** The balances the checking accounts had before they got postings, and those of converted CD accounts. */
+    OPENING_BALANCES
+}
@@ -0,0 +1,69 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/** Represents the running total of the {@link LedgerPostingEntity}s of a checking account, so its ledger balance
+ * is read without summing all of its postings.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "ledger_balances",
+        uniqueConstraints = @UniqueConstraint(name = "UK_ledger_balances_account", columnNames = "account_id"))
+public class LedgerBalanceEntity extends BaseEntity {
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "posting_count", nullable = false)
+    private long postingCount;
+
+    /** Gets the id of the checking account.
+     * @return A Long representing the id of the checking account.
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /** Returns {@link LedgerBalanceEntity} with the id of the checking account set.
+     * @param accountId A Long containing the id of the checking account.
+     */
+    public LedgerBalanceEntity setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the sum of the postings of the account.
+     * @return A BigDecimal representing the ledger balance.
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /** Returns {@link LedgerBalanceEntity} with the sum of the postings set.
+     * @param balance A BigDecimal containing the ledger balance.
+     */
+    public LedgerBalanceEntity setBalance(BigDecimal balance) {
+        this.balance = balance;
+        return this;
+    }
+
+    /** Gets the number of the postings of the account.
+     * @return A long representing the number of postings.
+     */
+    public long getPostingCount() {
+        return postingCount;
+    }
+
+    /** Returns {@link LedgerBalanceEntity} with the number of postings set.
+     * @param postingCount A long containing the number of postings.
+     */
+    public LedgerBalanceEntity setPostingCount(long postingCount) {
+        this.postingCount = postingCount;
+        return this;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.banksystem.models.entities;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Represents a single posting of the ledger. Postings are only ever inserted, never changed or deleted.
+ * <p>A positive amount is a credit and a negative one a debit of the {@link LedgerAccount}, and the postings of one
+ * entry always add up to zero. The balance of a checking account is the sum of its postings.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "ledger_postings", indexes = {
+        @Index(name = "idx_ledger_postings_account_id", columnList = "account_id"),
+        @Index(name = "idx_ledger_postings_entry_uuid", columnList = "entry_uuid"),
+        @Index(name = "idx_ledger_postings_transaction_id", columnList = "transaction_id")
+})
+public class LedgerPostingEntity extends TimestampedEntity {
+
+    /** The database sequence that posting ids are taken from. */
+    public static final String ID_SEQUENCE = "ledger_postings_id_seq";
+
+    @Id
+    @GeneratedValue(generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = ID_SEQUENCE),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
+    private Long id;
+
+    @Column(name = "entry_uuid", columnDefinition = "UUID", nullable = false)
+    private UUID entryUuid;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ledger_account", length = 32, nullable = false)
+    private LedgerAccount ledgerAccount;
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    /** Gets the posting's id.
+     * @return A Long representing the posting's id.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /** Gets the id of the entry the posting belongs to, the UUID of its transaction when it has one.
+     * @return A UUID representing the entry.
+     */
+    public UUID getEntryUuid() {
+        return entryUuid;
+    }
+
+    /** Returns {@link LedgerPostingEntity} with the id of the entry set.
+     * @param entryUuid A UUID containing the id of the entry.
+     */
+    public LedgerPostingEntity setEntryUuid(UUID entryUuid) {
+        this.entryUuid = entryUuid;
+        return this;
+    }
+
+    /** Gets the id of the transaction the posting records, null for an opening balance.
+     * @return A Long representing the id of the transaction.
+     */
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    /** Returns {@link LedgerPostingEntity} with the id of the transaction set.
+     * @param transactionId A Long containing the id of the transaction.
+     */
+    public LedgerPostingEntity setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+        return this;
+    }
+
+    /** Gets the ledger account of the posting.
+     * @return A {@link LedgerAccount} representing the ledger account.
+     */
+    public LedgerAccount getLedgerAccount() {
+        return ledgerAccount;
+    }
+
+    /** Returns {@link LedgerPostingEntity} with the ledger account set.
+     * @param ledgerAccount A {@link LedgerAccount} containing the ledger account.
+     */
+    public LedgerPostingEntity setLedgerAccount(LedgerAccount ledgerAccount) {
+        this.ledgerAccount = ledgerAccount;
+        return this;
+    }
+
+    /** Gets the id of the checking account of a {@link LedgerAccount#CHECKING} posting, null for the other ones.
+     * @return A Long representing the id of the checking account.
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /** Returns {@link LedgerPostingEntity} with the id of the checking account set.
+     * @param accountId A Long containing the id of the checking account.
+     */
+    public LedgerPostingEntity setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the signed amount of the posting, positive for a credit and negative for a debit.
+     * @return A BigDecimal representing the amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /** Returns {@link LedgerPostingEntity} with the signed amount set.
+     * @param amount A BigDecimal containing the amount.
+     */
+    public LedgerPostingEntity setAmount(BigDecimal amount) {
+        this.amount = amount;
+        return this;
+    }
+}
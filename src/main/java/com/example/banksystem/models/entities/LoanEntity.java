@@ -11,7 +11,10 @@ import java.time.LocalDate;
  * @since 1.1.0
  */
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+		@Index(name = "idx_loans_maturity_date", columnList = "maturity_date"),
+		@Index(name = "idx_loans_due_date", columnList = "due_date")
+})
 public class LoanEntity extends BaseEntity {
 	/**
 	 * Represents the account to which the loan will be added
@@ -0,0 +1,187 @@
+package com.example.banksystem.models.entities;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Represents a money movement waiting in the outbox to be relayed to the consumers of the application.
+ * <p>Events are appended in the database transaction of the movement, so an event exists if and only if the
+ * movement was committed. The relay sets the relayed date once every consumer has received the event.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_relayed_on_id", columnList = "relayed_on, id")
+})
+public class OutboxEventEntity extends TimestampedEntity {
+
+    /** The database sequence that event ids are taken from. */
+    public static final String ID_SEQUENCE = "outbox_events_id_seq";
+
+    @Id
+    @GeneratedValue(generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = ID_SEQUENCE),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "transaction_uuid", columnDefinition = "UUID", nullable = false)
+    private UUID transactionUuid;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Convert(converter = TransactionTypeConverter.class)
+    @Column(name = "type", columnDefinition = "SMALLINT", nullable = false)
+    private TransactionType type;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "fee", nullable = false)
+    private BigDecimal fee;
+
+    @Column(name = "credit", nullable = false)
+    private boolean credit;
+
+    @Column(name = "relayed_on")
+    private LocalDateTime relayedOn;
+
+    /** Gets the event's id.
+     * @return A Long representing the event's id.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /** Gets the id of the transaction that recorded the movement.
+     * @return A Long representing the id of the transaction.
+     */
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the id of the transaction set.
+     * @param transactionId A Long containing the id of the transaction.
+     */
+    public OutboxEventEntity setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+        return this;
+    }
+
+    /** Gets the UUID of the transaction, shared by both sides of a transfer.
+     * @return A UUID representing the transaction.
+     */
+    public UUID getTransactionUuid() {
+        return transactionUuid;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the UUID of the transaction set.
+     * @param transactionUuid A UUID containing the UUID of the transaction.
+     */
+    public OutboxEventEntity setTransactionUuid(UUID transactionUuid) {
+        this.transactionUuid = transactionUuid;
+        return this;
+    }
+
+    /** Gets the id of the checking account whose balance changed.
+     * @return A Long representing the id of the checking account.
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the id of the checking account set.
+     * @param accountId A Long containing the id of the checking account.
+     */
+    public OutboxEventEntity setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the type of the transaction.
+     * @return A {@link TransactionType} representing the type of the transaction.
+     */
+    public TransactionType getType() {
+        return type;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the type of the transaction set.
+     * @param type A {@link TransactionType} containing the type of the transaction.
+     */
+    public OutboxEventEntity setType(TransactionType type) {
+        this.type = type;
+        return this;
+    }
+
+    /** Gets the amount of the transaction.
+     * @return A BigDecimal representing the amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the amount set.
+     * @param amount A BigDecimal containing the amount.
+     */
+    public OutboxEventEntity setAmount(BigDecimal amount) {
+        this.amount = amount;
+        return this;
+    }
+
+    /** Gets the transaction fee taken together with the amount, zero for a credit.
+     * @return A BigDecimal representing the fee.
+     */
+    public BigDecimal getFee() {
+        return fee;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the fee set.
+     * @param fee A BigDecimal containing the fee.
+     */
+    public OutboxEventEntity setFee(BigDecimal fee) {
+        this.fee = fee;
+        return this;
+    }
+
+    /** Gets whether the movement added money to the account.
+     * @return A boolean, true for a credit and false for a debit.
+     */
+    public boolean isCredit() {
+        return credit;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the direction of the movement set.
+     * @param credit A boolean, true for a credit and false for a debit.
+     */
+    public OutboxEventEntity setCredit(boolean credit) {
+        this.credit = credit;
+        return this;
+    }
+
+    /** Gets the date the event was relayed to the consumers.
+     * @return A LocalDateTime representing the date, null while the event is waiting in the outbox.
+     */
+    public LocalDateTime getRelayedOn() {
+        return relayedOn;
+    }
+
+    /** Returns {@link OutboxEventEntity} with the relayed date set.
+     * @param relayedOn A LocalDateTime containing the date.
+     */
+    public OutboxEventEntity setRelayedOn(LocalDateTime relayedOn) {
+        this.relayedOn = relayedOn;
+        return this;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+
+/** Represents a checked chunk of a reconciliation run, the checkpoint a resumed run continues from.
+ * <p>A chunk is saved in the same transaction as its discrepancies, so a chunk is either fully reported or checked
+ * again.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "reconciliation_chunks",
+        uniqueConstraints = @UniqueConstraint(name = "UK_reconciliation_chunks_run_chunk",
+                columnNames = {"run_id", "chunk"}))
+public class ReconciliationChunkEntity extends BaseEntity {
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "chunk", nullable = false)
+    private long chunk;
+
+    @Column(name = "checked_accounts", nullable = false)
+    private int checkedAccounts;
+
+    @Column(name = "discrepancies", nullable = false)
+    private int discrepancies;
+
+    /** Gets the id of the reconciliation run.
+     * @return A Long representing the id of the run.
+     */
+    public Long getRunId() {
+        return runId;
+    }
+
+    /** Returns {@link ReconciliationChunkEntity} with the id of the reconciliation run set.
+     * @param runId A Long containing the id of the run.
+     */
+    public ReconciliationChunkEntity setRunId(Long runId) {
+        this.runId = runId;
+        return this;
+    }
+
+    /** Gets the number of the chunk, the account ids of chunk n start at n times the chunk size of the run.
+     * @return A long representing the number of the chunk.
+     */
+    public long getChunk() {
+        return chunk;
+    }
+
+    /** Returns {@link ReconciliationChunkEntity} with the number of the chunk set.
+     * @param chunk A long containing the number of the chunk.
+     */
+    public ReconciliationChunkEntity setChunk(long chunk) {
+        this.chunk = chunk;
+        return this;
+    }
+
+    /** Gets the number of accounts checked in the chunk.
+     * @return An int representing the number of checked accounts.
+     */
+    public int getCheckedAccounts() {
+        return checkedAccounts;
+    }
+
+    /** Returns {@link ReconciliationChunkEntity} with the number of checked accounts set.
+     * @param checkedAccounts An int containing the number of checked accounts.
+     */
+    public ReconciliationChunkEntity setCheckedAccounts(int checkedAccounts) {
+        this.checkedAccounts = checkedAccounts;
+        return this;
+    }
+
+    /** Gets the number of discrepancies found in the chunk.
+     * @return An int representing the number of discrepancies.
+     */
+    public int getDiscrepancies() {
+        return discrepancies;
+    }
+
+    /** Returns {@link ReconciliationChunkEntity} with the number of discrepancies set.
+     * @param discrepancies An int containing the number of discrepancies.
+     */
+    public ReconciliationChunkEntity setDiscrepancies(int discrepancies) {
+        this.discrepancies = discrepancies;
+        return this;
+    }
+}
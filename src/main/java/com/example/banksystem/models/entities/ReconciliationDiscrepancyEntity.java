@@ -0,0 +1,141 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/** Represents a checking account whose balance didn't match its opening value plus its transactions, less its fees,
+ * in a reconciliation run.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "reconciliation_discrepancies",
+        indexes = @Index(name = "idx_reconciliation_discrepancies_run_account", columnList = "run_id, account_id"))
+public class ReconciliationDiscrepancyEntity extends BaseEntity {
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "expected_balance", nullable = false)
+    private BigDecimal expectedBalance;
+
+    @Column(name = "opening_balance", nullable = false)
+    private BigDecimal openingBalance;
+
+    @Column(name = "transaction_total", nullable = false)
+    private BigDecimal transactionTotal;
+
+    @Column(name = "fee_total", nullable = false)
+    private BigDecimal feeTotal;
+
+    /** Gets the id of the reconciliation run.
+     * @return A Long representing the id of the run.
+     */
+    public Long getRunId() {
+        return runId;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the id of the reconciliation run set.
+     * @param runId A Long containing the id of the run.
+     */
+    public ReconciliationDiscrepancyEntity setRunId(Long runId) {
+        this.runId = runId;
+        return this;
+    }
+
+    /** Gets the id of the checking account.
+     * @return A Long representing the id of the checking account.
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the id of the checking account set.
+     * @param accountId A Long containing the id of the checking account.
+     */
+    public ReconciliationDiscrepancyEntity setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the balance stored on the checking account.
+     * @return A BigDecimal representing the balance of the account.
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the balance of the account set.
+     * @param balance A BigDecimal containing the balance of the account.
+     */
+    public ReconciliationDiscrepancyEntity setBalance(BigDecimal balance) {
+        this.balance = balance;
+        return this;
+    }
+
+    /** Gets the balance the account should have.
+     * @return A BigDecimal representing the opening value plus the transactions, less the fees.
+     */
+    public BigDecimal getExpectedBalance() {
+        return expectedBalance;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the expected balance set.
+     * @param expectedBalance A BigDecimal containing the balance the account should have.
+     */
+    public ReconciliationDiscrepancyEntity setExpectedBalance(BigDecimal expectedBalance) {
+        this.expectedBalance = expectedBalance;
+        return this;
+    }
+
+    /** Gets the opening value of the account.
+     * @return A BigDecimal representing the money that entered the account without a transaction.
+     */
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the opening value set.
+     * @param openingBalance A BigDecimal containing the opening value of the account.
+     */
+    public ReconciliationDiscrepancyEntity setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+        return this;
+    }
+
+    /** Gets the signed sum of the transactions of the account.
+     * @return A BigDecimal representing the credits less the debits of the account.
+     */
+    public BigDecimal getTransactionTotal() {
+        return transactionTotal;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the signed sum of the transactions set.
+     * @param transactionTotal A BigDecimal containing the credits less the debits of the account.
+     */
+    public ReconciliationDiscrepancyEntity setTransactionTotal(BigDecimal transactionTotal) {
+        this.transactionTotal = transactionTotal;
+        return this;
+    }
+
+    /** Gets the fees charged on top of the transactions of the account.
+     * @return A BigDecimal representing the fee total.
+     */
+    public BigDecimal getFeeTotal() {
+        return feeTotal;
+    }
+
+    /** Returns {@link ReconciliationDiscrepancyEntity} with the fee total set.
+     * @param feeTotal A BigDecimal containing the fees of the account.
+     */
+    public ReconciliationDiscrepancyEntity setFeeTotal(BigDecimal feeTotal) {
+        this.feeTotal = feeTotal;
+        return this;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/** Represents a run of the reconciliation of the checking account balances against their transactions.
+ * <p>The ids of the accounts up to {@code maxAccountId} are split into chunks of {@code chunkSize}, so a resumed run
+ * checks exactly the chunks it didn't check before. A run without {@code finishedOn} is still running or was
+ * interrupted.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "reconciliation_runs")
+public class ReconciliationRunEntity extends BaseEntity {
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "max_account_id", nullable = false)
+    private long maxAccountId;
+
+    @Column(name = "checked_accounts", nullable = false)
+    private long checkedAccounts;
+
+    @Column(name = "discrepancies", nullable = false)
+    private long discrepancies;
+
+    @Column(name = "finished_on")
+    private LocalDateTime finishedOn;
+
+    /** Gets the number of account ids in every chunk of the run.
+     * @return An int representing the size of the chunks.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /** Returns {@link ReconciliationRunEntity} with the size of the chunks set.
+     * @param chunkSize An int containing the number of account ids in every chunk.
+     */
+    public ReconciliationRunEntity setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /** Gets the highest account id when the run was started.
+     * @return A long representing the last account id checked by the run.
+     */
+    public long getMaxAccountId() {
+        return maxAccountId;
+    }
+
+    /** Returns {@link ReconciliationRunEntity} with the highest account id set.
+     * @param maxAccountId A long containing the last account id checked by the run.
+     */
+    public ReconciliationRunEntity setMaxAccountId(long maxAccountId) {
+        this.maxAccountId = maxAccountId;
+        return this;
+    }
+
+    /** Gets the number of accounts checked by the finished run.
+     * @return A long representing the number of checked accounts.
+     */
+    public long getCheckedAccounts() {
+        return checkedAccounts;
+    }
+
+    /** Returns {@link ReconciliationRunEntity} with the number of checked accounts set.
+     * @param checkedAccounts A long containing the number of checked accounts.
+     */
+    public ReconciliationRunEntity setCheckedAccounts(long checkedAccounts) {
+        this.checkedAccounts = checkedAccounts;
+        return this;
+    }
+
+    /** Gets the number of accounts the finished run found a discrepancy in.
+     * @return A long representing the number of discrepancies.
+     */
+    public long getDiscrepancies() {
+        return discrepancies;
+    }
+
+    /** Returns {@link ReconciliationRunEntity} with the number of discrepancies set.
+     * @param discrepancies A long containing the number of discrepancies.
+     */
+    public ReconciliationRunEntity setDiscrepancies(long discrepancies) {
+        this.discrepancies = discrepancies;
+        return this;
+    }
+
+    /** Gets the date the run finished on.
+     * @return A LocalDateTime representing the end of the run, null while it isn't finished.
+     */
+    public LocalDateTime getFinishedOn() {
+        return finishedOn;
+    }
+
+    /** Returns {@link ReconciliationRunEntity} with the date the run finished on set.
+     * @param finishedOn A LocalDateTime containing the end of the run.
+     */
+    public ReconciliationRunEntity setFinishedOn(LocalDateTime finishedOn) {
+        this.finishedOn = finishedOn;
+        return this;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/** Represents the last business date a scheduled job processed, the dates after it up to the current one are the
+ * ones the job still has to catch up on.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "scheduler_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "UK_scheduler_checkpoints_job_name", columnNames = "job_name"))
+public class SchedulerCheckpointEntity extends BaseEntity {
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    @Column(name = "last_business_date", nullable = false)
+    private LocalDate lastBusinessDate;
+
+    /** Gets the name of the job.
+     * @return A String representing the name of the job.
+     */
+    public String getJobName() {
+        return jobName;
+    }
+
+    /** Returns {@link SchedulerCheckpointEntity} with the name of the job set.
+     * @param jobName A String containing the name of the job.
+     */
+    public SchedulerCheckpointEntity setJobName(String jobName) {
+        this.jobName = jobName;
+        return this;
+    }
+
+    /** Gets the last business date the job processed, together with every date before it.
+     * @return A LocalDate representing the last processed business date.
+     */
+    public LocalDate getLastBusinessDate() {
+        return lastBusinessDate;
+    }
+
+    /** Returns {@link SchedulerCheckpointEntity} with the last processed business date set.
+     * @param lastBusinessDate A LocalDate containing the last processed business date.
+     */
+    public SchedulerCheckpointEntity setLastBusinessDate(LocalDate lastBusinessDate) {
+        this.lastBusinessDate = lastBusinessDate;
+        return this;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/** Represents the lease of a scheduled job, which lets only the node holding it run the job.
+ * <p>A lease is held until {@code lockedUntil}, so the lease of a node that crashed while holding it expires on its
+ * own and another node takes it over.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "scheduler_leases",
+        uniqueConstraints = @UniqueConstraint(name = "UK_scheduler_leases_name", columnNames = "name"))
+public class SchedulerLeaseEntity extends BaseEntity {
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "owner", nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    /** Gets the name of the lease, the job or the partition of a job it is held for.
+     * @return A String representing the name of the lease.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /** Returns {@link SchedulerLeaseEntity} with the name of the lease set.
+     * @param name A String containing the name of the lease.
+     */
+    public SchedulerLeaseEntity setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /** Gets the owner of the lease, the node and the acquisition it was last taken by.
+     * @return A String representing the owner of the lease.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /** Returns {@link SchedulerLeaseEntity} with the owner of the lease set.
+     * @param owner A String containing the owner of the lease.
+     */
+    public SchedulerLeaseEntity setOwner(String owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    /** Gets the time the lease is held until, after which another node may take it.
+     * @return A LocalDateTime representing the end of the lease.
+     */
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    /** Returns {@link SchedulerLeaseEntity} with the end of the lease set.
+     * @param lockedUntil A LocalDateTime containing the end of the lease.
+     */
+    public SchedulerLeaseEntity setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+        return this;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.banksystem.models.entities;
+
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+/** Represents a base that keeps the date every entity generated after it extends it is created on.
+ * @version 1.0
+ * @since 1.0
+ */
+@MappedSuperclass
+@EntityListeners(AuditingEntityListener.class)
+public abstract class TimestampedEntity {
+
+    @Column(name = "created_on", nullable = false)
+    private LocalDateTime createdOn;
+
+
+    public TimestampedEntity() {
+        this.createdOn = LocalDateTime.now();
+    }
+
+    /** Gets the entity's date that it is created on.
+     * @return A LocalDateTime representing the entity's date that it is created on.
+     */
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    /** Returns {@link TimestampedEntity} with date that it is created on set.
+     * @param createdOn A LocalDateTime containing entity's date that it is created on .
+     */
+    public TimestampedEntity setCreatedOn(LocalDateTime createdOn) {
+        this.createdOn = createdOn;
+        return this;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.banksystem.models.entities;
+
+import java.util.Arrays;
+
+/** Represents the type of a {@link TransactionEntity}.
+ * <p>A type is stored as its small integer code, and is shown and searched for by its label.
+ * The codes are persisted, so an existing code must never be changed or reused.
+ */
+public enum TransactionType {
+    DEPOSIT(1, "deposit"),
+    WITHDRAW(2, "withdraw"),
+    SEND(3, "send"),
+    RECEIVED(4, "received"),
+    LOAN_PAYMENT(5, "loan payment"),
+    MONTHLY_FEE(6, "monthly fee"),
+    CD_PAYOUT(7, "cd payout");
+
+    private static final TransactionType[] BY_CODE = new TransactionType[values().length + 1];
+
+    static {
+        for (TransactionType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final short code;
+    private final String label;
+
+    TransactionType(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    /** Gets the code the type is stored with.
+     * @return A short representing the type in the database.
+     */
+    public short getCode() {
+        return code;
+    }
+
+    /** Gets the label of the type.
+     * @return A String representing the type in requests and responses.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /** Gets the type stored with the given code.
+     * @param code the code of the type.
+     * @return the {@link TransactionType} with this code.
+     * @throws IllegalArgumentException when there is no type with this code.
+     */
+    public static TransactionType fromCode(short code) {
+        if (code < 1 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown transaction type code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /** Gets the type with the given label.
+     * @param label the label of the type.
+     * @return the {@link TransactionType} with this label.
+     * @throws IllegalArgumentException when there is no type with this label.
+     */
+    public static TransactionType fromLabel(String label) {
+        return Arrays.stream(values())
+                .filter(type -> type.label.equalsIgnoreCase(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown transaction type! Please use one of " +
+                        Arrays.stream(values()).map(TransactionType::getLabel).reduce((a, b) -> a + ", " + b)
+                                .orElse("") + "!"));
+    }
+
+    /** Gets the label of the type, so the type is mapped to responses the same way it was before it had codes. */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/** Stores a {@link TransactionType} as its code in a {@code smallint} column.
+ */
+@Converter
+public class TransactionTypeConverter implements AttributeConverter<TransactionType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionType type) {
+        return type == null ? null : type.getCode();
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(Short code) {
+        return code == null ? null : TransactionType.fromCode(code);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.banksystem.models.entities;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Represents a transfer submitted for asynchronous execution, together with its outcome.
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "transfer_requests",
+        uniqueConstraints = @UniqueConstraint(name = "UK_transfer_requests_uuid", columnNames = "uuid"),
+        indexes = {@Index(name = "idx_transfer_requests_status_created_on", columnList = "status, created_on"),
+                @Index(name = "idx_transfer_requests_finished_on", columnList = "finished_on")})
+public class TransferRequestEntity extends BaseEntity {
+
+    @Column(name = "uuid", columnDefinition = "UUID", nullable = false)
+    private UUID uuid;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "account_from", nullable = false)
+    private String accountFrom;
+
+    @Column(name = "account_to", nullable = false)
+    private String accountTo;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "reason", columnDefinition = "TEXT")
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private TransferStatus status;
+
+    @Column(name = "failure_reason", columnDefinition = "TEXT")
+    private String failureReason;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "finished_on")
+    private LocalDateTime finishedOn;
+
+    public TransferRequestEntity() {
+    }
+
+    public TransferRequestEntity(UUID uuid, Long userId, String accountFrom, String accountTo, BigDecimal amount,
+                                 String reason) {
+        this.uuid = uuid;
+        this.userId = userId;
+        this.accountFrom = accountFrom;
+        this.accountTo = accountTo;
+        this.amount = amount;
+        this.reason = reason;
+        this.status = TransferStatus.PENDING;
+    }
+
+    /** Gets the id of the transfer, handed out to the client to poll its status with.
+     * @return A UUID representing the transfer.
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the id of the transfer set.
+     * @param uuid A UUID containing the id of the transfer.
+     */
+    public TransferRequestEntity setUuid(UUID uuid) {
+        this.uuid = uuid;
+        return this;
+    }
+
+    /** Gets the id of the user that submitted the transfer.
+     * @return A Long representing the id of the user.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the id of the user that submitted the transfer set.
+     * @param userId A Long containing the id of the user.
+     */
+    public TransferRequestEntity setUserId(Long userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    /** Gets the IBAN of the sending account.
+     * @return A String representing the IBAN of the sending account.
+     */
+    public String getAccountFrom() {
+        return accountFrom;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the IBAN of the sending account set.
+     * @param accountFrom A String containing the IBAN of the sending account.
+     */
+    public TransferRequestEntity setAccountFrom(String accountFrom) {
+        this.accountFrom = accountFrom;
+        return this;
+    }
+
+    /** Gets the IBAN of the receiving account.
+     * @return A String representing the IBAN of the receiving account.
+     */
+    public String getAccountTo() {
+        return accountTo;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the IBAN of the receiving account set.
+     * @param accountTo A String containing the IBAN of the receiving account.
+     */
+    public TransferRequestEntity setAccountTo(String accountTo) {
+        this.accountTo = accountTo;
+        return this;
+    }
+
+    /** Gets the amount of the transfer.
+     * @return A BigDecimal representing the amount, without the fee.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the amount of the transfer set.
+     * @param amount A BigDecimal containing the amount, without the fee.
+     */
+    public TransferRequestEntity setAmount(BigDecimal amount) {
+        this.amount = amount;
+        return this;
+    }
+
+    /** Gets the reason of the transfer.
+     * @return A String representing the reason given by the user.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the reason of the transfer set.
+     * @param reason A String containing the reason given by the user.
+     */
+    public TransferRequestEntity setReason(String reason) {
+        this.reason = reason;
+        return this;
+    }
+
+    /** Gets the state of the transfer.
+     * @return A {@link TransferStatus} representing the state of the transfer.
+     */
+    public TransferStatus getStatus() {
+        return status;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the state of the transfer set.
+     * @param status A {@link TransferStatus} containing the state of the transfer.
+     */
+    public TransferRequestEntity setStatus(TransferStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    /** Gets the reason the transfer failed for.
+     * @return A String representing the error message, or null when the transfer didn't fail.
+     */
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the reason the transfer failed for set.
+     * @param failureReason A String containing the error message.
+     */
+    public TransferRequestEntity setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+        return this;
+    }
+
+    /** Gets the id of the transaction recorded for the receiving account.
+     * @return A Long representing the id of the transaction, or null until the transfer is completed.
+     */
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the id of the transaction of the receiving account set.
+     * @param transactionId A Long containing the id of the transaction.
+     */
+    public TransferRequestEntity setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+        return this;
+    }
+
+    /** Gets the time the transfer was completed or failed at.
+     * @return A LocalDateTime representing the end of the transfer, or null while it's pending.
+     */
+    public LocalDateTime getFinishedOn() {
+        return finishedOn;
+    }
+
+    /** Returns {@link TransferRequestEntity} with the end of the transfer set.
+     * @param finishedOn A LocalDateTime containing the time the transfer was completed or failed at.
+     */
+    public TransferRequestEntity setFinishedOn(LocalDateTime finishedOn) {
+        this.finishedOn = finishedOn;
+        return this;
+    }
+}
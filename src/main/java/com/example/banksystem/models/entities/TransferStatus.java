@@ -0,0 +1,11 @@
+package com.example.banksystem.models.entities;
+
+/** The states of a {@link TransferRequestEntity}. A request is created pending and ends up completed or failed.
+ * @version 1.0
+ * @since 1.0
+ */
+public enum TransferStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,34 @@
+package com.example.banksystem.models.requsts;
+
+import java.util.Arrays;
+
+/**
+ * The formats in which transactions can be exported.
+ */
+public enum TransactionExportFormat {
+	NDJSON("application/x-ndjson"),
+	CSV("text/csv");
+
+	private final String contentType;
+
+	TransactionExportFormat(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * Gets the format with the given name, ignoring the case.
+	 * @param name the name of the format - ndjson or csv.
+	 * @return the matching {@link TransactionExportFormat}.
+	 * @throws IllegalArgumentException when there is no format with that name.
+	 */
+	public static TransactionExportFormat of(String name) {
+		return Arrays.stream(values())
+				.filter(format -> format.name().equalsIgnoreCase(name))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unsupported export format! Please use ndjson or csv!"));
+	}
+}
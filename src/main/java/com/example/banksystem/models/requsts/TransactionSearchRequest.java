@@ -0,0 +1,87 @@
+package com.example.banksystem.models.requsts;
+
+import java.math.BigDecimal;
+
+public class TransactionSearchRequest {
+
+	private String type;
+	private String dateOn;
+	private String dateBefore;
+	private String dateAfter;
+	private BigDecimal minAmount;
+	private BigDecimal maxAmount;
+	private String cursor;
+	private Integer size;
+
+	public String getType() {
+		return type;
+	}
+
+	public TransactionSearchRequest setType(String type) {
+		this.type = type;
+		return this;
+	}
+
+	public String getDateOn() {
+		return dateOn;
+	}
+
+	public TransactionSearchRequest setDateOn(String dateOn) {
+		this.dateOn = dateOn;
+		return this;
+	}
+
+	public String getDateBefore() {
+		return dateBefore;
+	}
+
+	public TransactionSearchRequest setDateBefore(String dateBefore) {
+		this.dateBefore = dateBefore;
+		return this;
+	}
+
+	public String getDateAfter() {
+		return dateAfter;
+	}
+
+	public TransactionSearchRequest setDateAfter(String dateAfter) {
+		this.dateAfter = dateAfter;
+		return this;
+	}
+
+	public BigDecimal getMinAmount() {
+		return minAmount;
+	}
+
+	public TransactionSearchRequest setMinAmount(BigDecimal minAmount) {
+		this.minAmount = minAmount;
+		return this;
+	}
+
+	public BigDecimal getMaxAmount() {
+		return maxAmount;
+	}
+
+	public TransactionSearchRequest setMaxAmount(BigDecimal maxAmount) {
+		this.maxAmount = maxAmount;
+		return this;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+
+	public TransactionSearchRequest setCursor(String cursor) {
+		this.cursor = cursor;
+		return this;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public TransactionSearchRequest setSize(Integer size) {
+		this.size = size;
+		return this;
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+
+public class AccountActivityResponse {
+    private String type;
+    private String window;
+    private long count;
+    private BigDecimal amount;
+
+    public String getType() {
+        return type;
+    }
+
+    public AccountActivityResponse setType(String type) {
+        this.type = type;
+        return this;
+    }
+
+    /** Gets the name of the rolling window the totals are counted in. */
+    public String getWindow() {
+        return window;
+    }
+
+    public AccountActivityResponse setWindow(String window) {
+        this.window = window;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public AccountActivityResponse setCount(long count) {
+        this.count = count;
+        return this;
+    }
+
+    /** Gets the total amount of the transactions, without the transaction fees. */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public AccountActivityResponse setAmount(BigDecimal amount) {
+        this.amount = amount;
+        return this;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.banksystem.models.responses;
+
+public class AccountCacheMetricsResponse {
+    private int size;
+    private int capacity;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long writeThroughs;
+    private long evictions;
+    private long expirations;
+    private long verifiedReads;
+    private long staleReads;
+    private long averageHitAgeMillis;
+
+    public int getSize() {
+        return size;
+    }
+
+    public AccountCacheMetricsResponse setSize(int size) {
+        this.size = size;
+        return this;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public AccountCacheMetricsResponse setCapacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public AccountCacheMetricsResponse setHits(long hits) {
+        this.hits = hits;
+        return this;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public AccountCacheMetricsResponse setMisses(long misses) {
+        this.misses = misses;
+        return this;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public AccountCacheMetricsResponse setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+        return this;
+    }
+
+    /** Gets the number of balances written through to the cache by money movements. */
+    public long getWriteThroughs() {
+        return writeThroughs;
+    }
+
+    public AccountCacheMetricsResponse setWriteThroughs(long writeThroughs) {
+        this.writeThroughs = writeThroughs;
+        return this;
+    }
+
+    /** Gets the number of accounts removed to keep the cache within its capacity. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public AccountCacheMetricsResponse setEvictions(long evictions) {
+        this.evictions = evictions;
+        return this;
+    }
+
+    /** Gets the number of accounts removed because they were cached for longer than the time to live. */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public AccountCacheMetricsResponse setExpirations(long expirations) {
+        this.expirations = expirations;
+        return this;
+    }
+
+    /** Gets the number of cache hits that were compared to the database. */
+    public long getVerifiedReads() {
+        return verifiedReads;
+    }
+
+    public AccountCacheMetricsResponse setVerifiedReads(long verifiedReads) {
+        this.verifiedReads = verifiedReads;
+        return this;
+    }
+
+    /** Gets the number of verified reads whose cached balance differed from the database. */
+    public long getStaleReads() {
+        return staleReads;
+    }
+
+    public AccountCacheMetricsResponse setStaleReads(long staleReads) {
+        this.staleReads = staleReads;
+        return this;
+    }
+
+    /** Gets how long the accounts returned by cache hits had been cached, on average. */
+    public long getAverageHitAgeMillis() {
+        return averageHitAgeMillis;
+    }
+
+    public AccountCacheMetricsResponse setAverageHitAgeMillis(long averageHitAgeMillis) {
+        this.averageHitAgeMillis = averageHitAgeMillis;
+        return this;
+    }
+}
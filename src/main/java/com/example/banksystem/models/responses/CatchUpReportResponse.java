@@ -0,0 +1,86 @@
+package com.example.banksystem.models.responses;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What a scheduled job would process if it ran for a business date, without running it.
+ */
+public class CatchUpReportResponse {
+    private String jobName;
+    private LocalDate businessDate;
+    private LocalDate lastProcessedDate;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private long pendingItems;
+    private List<String> unfinishedRuns;
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public CatchUpReportResponse setJobName(String jobName) {
+        this.jobName = jobName;
+        return this;
+    }
+
+    /** Gets the business date the job would run for. */
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public CatchUpReportResponse setBusinessDate(LocalDate businessDate) {
+        this.businessDate = businessDate;
+        return this;
+    }
+
+    /** Gets the last business date the job processed, null when it never finished a run. */
+    public LocalDate getLastProcessedDate() {
+        return lastProcessedDate;
+    }
+
+    public CatchUpReportResponse setLastProcessedDate(LocalDate lastProcessedDate) {
+        this.lastProcessedDate = lastProcessedDate;
+        return this;
+    }
+
+    /** Gets the first date the run would process, null when the job is up to date. */
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public CatchUpReportResponse setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+        return this;
+    }
+
+    /** Gets the last date the run would process, null when the job is up to date. */
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public CatchUpReportResponse setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+        return this;
+    }
+
+    /** Gets the number of items due on the dates the run would process. */
+    public long getPendingItems() {
+        return pendingItems;
+    }
+
+    public CatchUpReportResponse setPendingItems(long pendingItems) {
+        this.pendingItems = pendingItems;
+        return this;
+    }
+
+    /** Gets the keys of the unfinished runs of the job, which its next run resumes first. */
+    public List<String> getUnfinishedRuns() {
+        return unfinishedRuns;
+    }
+
+    public CatchUpReportResponse setUnfinishedRuns(List<String> unfinishedRuns) {
+        this.unfinishedRuns = unfinishedRuns;
+        return this;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyBalanceResponse {
+    private LocalDate date;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private BigDecimal debitTotal;
+    private BigDecimal creditTotal;
+    private BigDecimal feeTotal;
+
+    public DailyBalanceResponse() {
+    }
+
+    public DailyBalanceResponse(LocalDate date, BigDecimal openingBalance, BigDecimal closingBalance,
+                                BigDecimal debitTotal, BigDecimal creditTotal, BigDecimal feeTotal) {
+        this.date = date;
+        this.openingBalance = openingBalance;
+        this.closingBalance = closingBalance;
+        this.debitTotal = debitTotal;
+        this.creditTotal = creditTotal;
+        this.feeTotal = feeTotal;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public DailyBalanceResponse setDate(LocalDate date) {
+        this.date = date;
+        return this;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public DailyBalanceResponse setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+        return this;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public DailyBalanceResponse setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+        return this;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    public DailyBalanceResponse setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+        return this;
+    }
+
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    public DailyBalanceResponse setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+        return this;
+    }
+
+    public BigDecimal getFeeTotal() {
+        return feeTotal;
+    }
+
+    public DailyBalanceResponse setFeeTotal(BigDecimal feeTotal) {
+        this.feeTotal = feeTotal;
+        return this;
+    }
+}
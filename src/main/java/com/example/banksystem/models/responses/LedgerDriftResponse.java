@@ -0,0 +1,49 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+
+public class LedgerDriftResponse {
+    private Long accountId;
+    private BigDecimal accountBalance;
+    private BigDecimal ledgerBalance;
+    private BigDecimal cachedBalance;
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LedgerDriftResponse setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the balance stored on the checking account. */
+    public BigDecimal getAccountBalance() {
+        return accountBalance;
+    }
+
+    public LedgerDriftResponse setAccountBalance(BigDecimal accountBalance) {
+        this.accountBalance = accountBalance;
+        return this;
+    }
+
+    /** Gets the balance recomputed from the postings of the account. */
+    public BigDecimal getLedgerBalance() {
+        return ledgerBalance;
+    }
+
+    public LedgerDriftResponse setLedgerBalance(BigDecimal ledgerBalance) {
+        this.ledgerBalance = ledgerBalance;
+        return this;
+    }
+
+    /** Gets the running total of the postings of the account. */
+    public BigDecimal getCachedBalance() {
+        return cachedBalance;
+    }
+
+    public LedgerDriftResponse setCachedBalance(BigDecimal cachedBalance) {
+        this.cachedBalance = cachedBalance;
+        return this;
+    }
+}
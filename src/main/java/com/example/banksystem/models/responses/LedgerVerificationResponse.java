@@ -0,0 +1,78 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class LedgerVerificationResponse {
+    private LocalDateTime verifiedOn;
+    private long elapsedMillis;
+    private int checkedAccounts;
+    private List<LedgerDriftResponse> drifts;
+    private List<UUID> unbalancedEntries;
+    private Map<String, BigDecimal> bankBalances;
+
+    public LocalDateTime getVerifiedOn() {
+        return verifiedOn;
+    }
+
+    public LedgerVerificationResponse setVerifiedOn(LocalDateTime verifiedOn) {
+        this.verifiedOn = verifiedOn;
+        return this;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public LedgerVerificationResponse setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        return this;
+    }
+
+    public int getCheckedAccounts() {
+        return checkedAccounts;
+    }
+
+    public LedgerVerificationResponse setCheckedAccounts(int checkedAccounts) {
+        this.checkedAccounts = checkedAccounts;
+        return this;
+    }
+
+    /** Gets the checking accounts whose balance doesn't match their postings, ordered by id. */
+    public List<LedgerDriftResponse> getDrifts() {
+        return drifts;
+    }
+
+    public LedgerVerificationResponse setDrifts(List<LedgerDriftResponse> drifts) {
+        this.drifts = drifts;
+        return this;
+    }
+
+    /** Gets the entries whose postings don't add up to zero. */
+    public List<UUID> getUnbalancedEntries() {
+        return unbalancedEntries;
+    }
+
+    public LedgerVerificationResponse setUnbalancedEntries(List<UUID> unbalancedEntries) {
+        this.unbalancedEntries = unbalancedEntries;
+        return this;
+    }
+
+    /** Gets the balance of every ledger account of the bank, by name. */
+    public Map<String, BigDecimal> getBankBalances() {
+        return bankBalances;
+    }
+
+    public LedgerVerificationResponse setBankBalances(Map<String, BigDecimal> bankBalances) {
+        this.bankBalances = bankBalances;
+        return this;
+    }
+
+    /** Tells whether every account matches its postings and every entry is balanced. */
+    public boolean isConsistent() {
+        return drifts.isEmpty() && unbalancedEntries.isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.banksystem.models.responses;
+
+public class OutboxMetricsResponse {
+    private long pendingEvents;
+    private long relayedEvents;
+    private long failedBatches;
+
+    public long getPendingEvents() {
+        return pendingEvents;
+    }
+
+    public OutboxMetricsResponse setPendingEvents(long pendingEvents) {
+        this.pendingEvents = pendingEvents;
+        return this;
+    }
+
+    /** Gets the number of events relayed since the application started. */
+    public long getRelayedEvents() {
+        return relayedEvents;
+    }
+
+    public OutboxMetricsResponse setRelayedEvents(long relayedEvents) {
+        this.relayedEvents = relayedEvents;
+        return this;
+    }
+
+    /** Gets the number of batches a consumer failed on since the application started. */
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+
+    public OutboxMetricsResponse setFailedBatches(long failedBatches) {
+        this.failedBatches = failedBatches;
+        return this;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+
+public class ReconciliationDiscrepancyResponse {
+    private Long accountId;
+    private BigDecimal balance;
+    private BigDecimal expectedBalance;
+    private BigDecimal openingBalance;
+    private BigDecimal transactionTotal;
+    private BigDecimal feeTotal;
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public ReconciliationDiscrepancyResponse setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /** Gets the balance stored on the checking account. */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public ReconciliationDiscrepancyResponse setBalance(BigDecimal balance) {
+        this.balance = balance;
+        return this;
+    }
+
+    /** Gets the opening value plus the transactions, less the fees. */
+    public BigDecimal getExpectedBalance() {
+        return expectedBalance;
+    }
+
+    public ReconciliationDiscrepancyResponse setExpectedBalance(BigDecimal expectedBalance) {
+        this.expectedBalance = expectedBalance;
+        return this;
+    }
+
+    /** Gets the money that entered the account without a transaction. */
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public ReconciliationDiscrepancyResponse setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+        return this;
+    }
+
+    /** Gets the credits less the debits of the account. */
+    public BigDecimal getTransactionTotal() {
+        return transactionTotal;
+    }
+
+    public ReconciliationDiscrepancyResponse setTransactionTotal(BigDecimal transactionTotal) {
+        this.transactionTotal = transactionTotal;
+        return this;
+    }
+
+    /** Gets the fees charged on top of the debits of the account. */
+    public BigDecimal getFeeTotal() {
+        return feeTotal;
+    }
+
+    public ReconciliationDiscrepancyResponse setFeeTotal(BigDecimal feeTotal) {
+        this.feeTotal = feeTotal;
+        return this;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.banksystem.models.responses;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReconciliationRunResponse {
+    private Long runId;
+    private LocalDateTime startedOn;
+    private LocalDateTime finishedOn;
+    private long elapsedMillis;
+    private long totalChunks;
+    private long skippedChunks;
+    private long checkedAccounts;
+    private long discrepancyCount;
+    private List<ReconciliationDiscrepancyResponse> discrepancies;
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public ReconciliationRunResponse setRunId(Long runId) {
+        this.runId = runId;
+        return this;
+    }
+
+    public LocalDateTime getStartedOn() {
+        return startedOn;
+    }
+
+    public ReconciliationRunResponse setStartedOn(LocalDateTime startedOn) {
+        this.startedOn = startedOn;
+        return this;
+    }
+
+    public LocalDateTime getFinishedOn() {
+        return finishedOn;
+    }
+
+    public ReconciliationRunResponse setFinishedOn(LocalDateTime finishedOn) {
+        this.finishedOn = finishedOn;
+        return this;
+    }
+
+    /** Gets the time this call spent on the run, without the time of the calls it resumes. */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public ReconciliationRunResponse setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        return this;
+    }
+
+    public long getTotalChunks() {
+        return totalChunks;
+    }
+
+    public ReconciliationRunResponse setTotalChunks(long totalChunks) {
+        this.totalChunks = totalChunks;
+        return this;
+    }
+
+    /** Gets the number of chunks checked before the run was resumed. */
+    public long getSkippedChunks() {
+        return skippedChunks;
+    }
+
+    public ReconciliationRunResponse setSkippedChunks(long skippedChunks) {
+        this.skippedChunks = skippedChunks;
+        return this;
+    }
+
+    public long getCheckedAccounts() {
+        return checkedAccounts;
+    }
+
+    public ReconciliationRunResponse setCheckedAccounts(long checkedAccounts) {
+        this.checkedAccounts = checkedAccounts;
+        return this;
+    }
+
+    public long getDiscrepancyCount() {
+        return discrepancyCount;
+    }
+
+    public ReconciliationRunResponse setDiscrepancyCount(long discrepancyCount) {
+        this.discrepancyCount = discrepancyCount;
+        return this;
+    }
+
+    /** Gets the first discrepancies of the run, ordered by account id. */
+    public List<ReconciliationDiscrepancyResponse> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    public ReconciliationRunResponse setDiscrepancies(List<ReconciliationDiscrepancyResponse> discrepancies) {
+        this.discrepancies = discrepancies;
+        return this;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.banksystem.models.responses;
+
+public class ShardMetricsResponse {
+    private int shard;
+    private int queueDepth;
+    private long committedBatches;
+    private long processedOperations;
+    private long lastCommitLatencyMillis;
+    private long maxCommitLatencyMillis;
+    private double averageCommitLatencyMillis;
+
+    public int getShard() {
+        return shard;
+    }
+
+    public ShardMetricsResponse setShard(int shard) {
+        this.shard = shard;
+        return this;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public ShardMetricsResponse setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+        return this;
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches;
+    }
+
+    public ShardMetricsResponse setCommittedBatches(long committedBatches) {
+        this.committedBatches = committedBatches;
+        return this;
+    }
+
+    public long getProcessedOperations() {
+        return processedOperations;
+    }
+
+    public ShardMetricsResponse setProcessedOperations(long processedOperations) {
+        this.processedOperations = processedOperations;
+        return this;
+    }
+
+    public long getLastCommitLatencyMillis() {
+        return lastCommitLatencyMillis;
+    }
+
+    public ShardMetricsResponse setLastCommitLatencyMillis(long lastCommitLatencyMillis) {
+        this.lastCommitLatencyMillis = lastCommitLatencyMillis;
+        return this;
+    }
+
+    public long getMaxCommitLatencyMillis() {
+        return maxCommitLatencyMillis;
+    }
+
+    public ShardMetricsResponse setMaxCommitLatencyMillis(long maxCommitLatencyMillis) {
+        this.maxCommitLatencyMillis = maxCommitLatencyMillis;
+        return this;
+    }
+
+    public double getAverageCommitLatencyMillis() {
+        return averageCommitLatencyMillis;
+    }
+
+    public ShardMetricsResponse setAverageCommitLatencyMillis(double averageCommitLatencyMillis) {
+        this.averageCommitLatencyMillis = averageCommitLatencyMillis;
+        return this;
+    }
+}
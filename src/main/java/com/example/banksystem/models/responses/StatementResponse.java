@@ -0,0 +1,112 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class StatementResponse {
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private BigDecimal debitTotal;
+    private BigDecimal creditTotal;
+    private BigDecimal feeTotal;
+    private List<StatementTotalResponse> totals;
+    private List<DailyBalanceResponse> days;
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public StatementResponse setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public StatementResponse setFrom(LocalDate from) {
+        this.from = from;
+        return this;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public StatementResponse setTo(LocalDate to) {
+        this.to = to;
+        return this;
+    }
+
+    /** Gets the balance at the start of the first day of the statement. */
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public StatementResponse setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+        return this;
+    }
+
+    /** Gets the balance at the end of the last day of the statement. */
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public StatementResponse setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+        return this;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    public StatementResponse setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+        return this;
+    }
+
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    public StatementResponse setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+        return this;
+    }
+
+    public BigDecimal getFeeTotal() {
+        return feeTotal;
+    }
+
+    public StatementResponse setFeeTotal(BigDecimal feeTotal) {
+        this.feeTotal = feeTotal;
+        return this;
+    }
+
+    /** Gets the debit and credit totals of every transaction type in the statement. */
+    public List<StatementTotalResponse> getTotals() {
+        return totals;
+    }
+
+    public StatementResponse setTotals(List<StatementTotalResponse> totals) {
+        this.totals = totals;
+        return this;
+    }
+
+    /** Gets the days of the statement on which the balance changed. */
+    public List<DailyBalanceResponse> getDays() {
+        return days;
+    }
+
+    public StatementResponse setDays(List<DailyBalanceResponse> days) {
+        this.days = days;
+        return this;
+    }
+}
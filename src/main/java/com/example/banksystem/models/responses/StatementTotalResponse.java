@@ -0,0 +1,56 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+
+public class StatementTotalResponse {
+    private String type;
+    private BigDecimal debitTotal;
+    private BigDecimal creditTotal;
+    private long transactionCount;
+
+    public StatementTotalResponse() {
+    }
+
+    public StatementTotalResponse(String type, BigDecimal debitTotal, BigDecimal creditTotal, Long transactionCount) {
+        this.type = type;
+        this.debitTotal = debitTotal;
+        this.creditTotal = creditTotal;
+        this.transactionCount = transactionCount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public StatementTotalResponse setType(String type) {
+        this.type = type;
+        return this;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    public StatementTotalResponse setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+        return this;
+    }
+
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    public StatementTotalResponse setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+        return this;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public StatementTotalResponse setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+        return this;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.banksystem.models.responses;
+
+import java.util.List;
+
+public class TransactionPageResponse {
+    private List<TransactionResponse> transactions;
+    private String nextCursor;
+
+    public List<TransactionResponse> getTransactions() {
+        return transactions;
+    }
+
+    public TransactionPageResponse setTransactions(List<TransactionResponse> transactions) {
+        this.transactions = transactions;
+        return this;
+    }
+
+    /** Gets the cursor of the next page, or null when this is the last page. */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public TransactionPageResponse setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+        return this;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.banksystem.models.responses;
 
+import com.example.banksystem.models.entities.TransactionType;
+
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.time.LocalDateTime;
@@ -27,6 +29,15 @@ public class TransactionResponse {
         this.userName = userName;
     }
 
+    /**
+     * Used by projection queries, which build the response straight from the transaction, its account and its user.
+     */
+    public TransactionResponse(Long id, UUID uuid, String iban, LocalDateTime createdOn, BigDecimal amount,
+                               TransactionType type, String userName) {
+        this(uuid, iban, createdOn, amount, type == null ? null : type.getLabel(), userName);
+        this.id = id;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,53 @@
+package com.example.banksystem.models.responses;
+
+import java.util.UUID;
+
+public class TransferBatchItemResponse {
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private UUID uuid;
+    private String message;
+
+    /** Gets the position of the transfer in the submitted batch, starting from 0. */
+    public int getIndex() {
+        return index;
+    }
+
+    public TransferBatchItemResponse setIndex(int index) {
+        this.index = index;
+        return this;
+    }
+
+    /** Gets the outcome of the transfer - ACCEPTED or REJECTED. */
+    public String getStatus() {
+        return status;
+    }
+
+    public TransferBatchItemResponse setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    /** Gets the UUID shared by the two transactions of an accepted transfer, or null when it was rejected. */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public TransferBatchItemResponse setUuid(UUID uuid) {
+        this.uuid = uuid;
+        return this;
+    }
+
+    /** Gets the reason a transfer was rejected, or null when it was accepted. */
+    public String getMessage() {
+        return message;
+    }
+
+    public TransferBatchItemResponse setMessage(String message) {
+        this.message = message;
+        return this;
+    }
+}
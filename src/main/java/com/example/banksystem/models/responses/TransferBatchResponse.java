@@ -0,0 +1,37 @@
+package com.example.banksystem.models.responses;
+
+import java.util.List;
+
+public class TransferBatchResponse {
+    private int accepted;
+    private int rejected;
+    private List<TransferBatchItemResponse> results;
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public TransferBatchResponse setAccepted(int accepted) {
+        this.accepted = accepted;
+        return this;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public TransferBatchResponse setRejected(int rejected) {
+        this.rejected = rejected;
+        return this;
+    }
+
+    /** Gets the result of every submitted transfer, in the order of the batch. */
+    public List<TransferBatchItemResponse> getResults() {
+        return results;
+    }
+
+    public TransferBatchResponse setResults(List<TransferBatchItemResponse> results) {
+        this.results = results;
+        return this;
+    }
+}
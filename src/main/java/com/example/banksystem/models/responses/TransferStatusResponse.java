@@ -0,0 +1,112 @@
+package com.example.banksystem.models.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class TransferStatusResponse {
+    private UUID uuid;
+    private String status;
+    private String senderIBAN;
+    private String receiverIBAN;
+    private BigDecimal amount;
+    private String reason;
+    private LocalDateTime createdOn;
+    private LocalDateTime finishedOn;
+    private Long transactionId;
+    private String failureReason;
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public TransferStatusResponse setUuid(UUID uuid) {
+        this.uuid = uuid;
+        return this;
+    }
+
+    /** Gets the state of the transfer - PENDING, COMPLETED or FAILED. */
+    public String getStatus() {
+        return status;
+    }
+
+    public TransferStatusResponse setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public String getSenderIBAN() {
+        return senderIBAN;
+    }
+
+    public TransferStatusResponse setSenderIBAN(String senderIBAN) {
+        this.senderIBAN = senderIBAN;
+        return this;
+    }
+
+    public String getReceiverIBAN() {
+        return receiverIBAN;
+    }
+
+    public TransferStatusResponse setReceiverIBAN(String receiverIBAN) {
+        this.receiverIBAN = receiverIBAN;
+        return this;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public TransferStatusResponse setAmount(BigDecimal amount) {
+        this.amount = amount;
+        return this;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public TransferStatusResponse setReason(String reason) {
+        this.reason = reason;
+        return this;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public TransferStatusResponse setCreatedOn(LocalDateTime createdOn) {
+        this.createdOn = createdOn;
+        return this;
+    }
+
+    /** Gets the time the transfer was completed or failed at, null while it's pending. */
+    public LocalDateTime getFinishedOn() {
+        return finishedOn;
+    }
+
+    public TransferStatusResponse setFinishedOn(LocalDateTime finishedOn) {
+        this.finishedOn = finishedOn;
+        return this;
+    }
+
+    /** Gets the id of the transaction recorded for the receiving account, once the transfer is completed. */
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public TransferStatusResponse setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+        return this;
+    }
+
+    /** Gets the reason the transfer failed for, null unless it failed. */
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public TransferStatusResponse setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+        return this;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.banksystem.models.responses;
+
+public class VelocityLimitMetricsResponse {
+    private int trackedAccounts;
+    private long allowedOperations;
+    private long rejectedByCount;
+    private long rejectedByAmount;
+
+    /** Gets the number of accounts with a token bucket on this node. */
+    public int getTrackedAccounts() {
+        return trackedAccounts;
+    }
+
+    public VelocityLimitMetricsResponse setTrackedAccounts(int trackedAccounts) {
+        this.trackedAccounts = trackedAccounts;
+        return this;
+    }
+
+    public long getAllowedOperations() {
+        return allowedOperations;
+    }
+
+    public VelocityLimitMetricsResponse setAllowedOperations(long allowedOperations) {
+        this.allowedOperations = allowedOperations;
+        return this;
+    }
+
+    /** Gets the number of operations rejected since the application started because of the count limit. */
+    public long getRejectedByCount() {
+        return rejectedByCount;
+    }
+
+    public VelocityLimitMetricsResponse setRejectedByCount(long rejectedByCount) {
+        this.rejectedByCount = rejectedByCount;
+        return this;
+    }
+
+    /** Gets the number of operations rejected since the application started because of the amount limit. */
+    public long getRejectedByAmount() {
+        return rejectedByAmount;
+    }
+
+    public VelocityLimitMetricsResponse setRejectedByAmount(long rejectedByAmount) {
+        this.rejectedByAmount = rejectedByAmount;
+        return this;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.banksystem.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * The balance of a checking account, read without loading the whole account.
+ */
+public final class AccountBalance {
+    private final Long accountId;
+    private final BigDecimal balance;
+
+    public AccountBalance(Long accountId, BigDecimal balance) {
+        this.accountId = accountId;
+        this.balance = balance;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.banksystem.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * The balance of a checking account next to the parts it is expected to add up to: its opening value, the signed
+ * sum of its transactions and the fees charged on top of them.
+ */
+public final class AccountReconciliation {
+    private final Long accountId;
+    private final BigDecimal balance;
+    private final BigDecimal openingBalance;
+    private final BigDecimal transactionTotal;
+    private final BigDecimal feeTotal;
+
+    public AccountReconciliation(Long accountId, BigDecimal balance, BigDecimal openingBalance,
+                                 BigDecimal transactionTotal, BigDecimal feeTotal) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.openingBalance = openingBalance;
+        this.transactionTotal = transactionTotal;
+        this.feeTotal = feeTotal;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public BigDecimal getTransactionTotal() {
+        return transactionTotal;
+    }
+
+    public BigDecimal getFeeTotal() {
+        return feeTotal;
+    }
+
+    /**
+     * Gets the balance the account should have, its opening value plus its transactions, less the fees.
+     * @return the expected balance.
+     */
+    public BigDecimal getExpectedBalance() {
+        return openingBalance.add(transactionTotal).subtract(feeTotal);
+    }
+
+    /**
+     * Tells whether the balance of the account differs from the expected one.
+     * @return true when the account doesn't reconcile.
+     */
+    public boolean isDiscrepancy() {
+        return balance.compareTo(getExpectedBalance()) != 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.BatchJobChunkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BatchJobChunkRepository extends JpaRepository<BatchJobChunkEntity, Long> {
+    /**
+     * Gets the numbers of the chunks a run already committed.
+     * @param runId the id of the batch job run.
+     * @return a {@link List} with the numbers of the committed chunks.
+     */
+    @Query("SELECT c.chunk FROM BatchJobChunkEntity c WHERE c.runId = :runId")
+    List<Long> findChunksByRunId(@Param("runId") Long runId);
+
+    /**
+     * Sums the processed items of all committed chunks of a run.
+     * @param runId the id of the batch job run.
+     * @return the number of processed items.
+     */
+    @Query("SELECT COALESCE(SUM(c.items), 0) FROM BatchJobChunkEntity c WHERE c.runId = :runId")
+    long sumItemsByRunId(@Param("runId") Long runId);
+
+    long countByRunId(Long runId);
+
+    boolean existsByRunIdAndChunk(Long runId, long chunk);
+}
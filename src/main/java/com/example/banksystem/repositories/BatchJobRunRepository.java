@@ -0,0 +1,44 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.BatchJobRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobRunRepository extends JpaRepository<BatchJobRunEntity, Long> {
+    /**
+     * Gets the run of a job with the given key.
+     * @param jobName the name of the job.
+     * @param runKey the key of the run.
+     * @return an {@link Optional} with the {@link BatchJobRunEntity}.
+     */
+    Optional<BatchJobRunEntity> findByJobNameAndRunKey(String jobName, String runKey);
+
+    /**
+     * Gets the runs of a job that didn't finish, the oldest first.
+     * @param jobName the name of the job.
+     * @return a {@link List} with the unfinished {@link BatchJobRunEntity}s.
+     */
+    List<BatchJobRunEntity> findAllByJobNameAndFinishedOnIsNullOrderById(String jobName);
+
+    /**
+     * Updates the processed items of a run that didn't finish yet, and finishes it when {@code finishedOn} is set.
+     * A run finished by another node meanwhile is left as it is.
+     * @param id the id of the run.
+     * @param processedItems the number of items processed by all its committed chunks.
+     * @param finishedOn the time the run finished, or null when it still has chunks left.
+     * @return the number of updated rows - 0 if the run already finished.
+     */
+    @Modifying
+    @Query("UPDATE BatchJobRunEntity r SET r.processedItems = :processedItems, r.finishedOn = :finishedOn " +
+            "WHERE r.id = :id AND r.finishedOn IS NULL")
+    int updateProgress(@Param("id") Long id, @Param("processedItems") long processedItems,
+                       @Param("finishedOn") LocalDateTime finishedOn);
+}
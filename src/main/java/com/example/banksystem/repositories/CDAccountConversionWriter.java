@@ -0,0 +1,68 @@
+package com.example.banksystem.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Converts expired CD accounts to checking accounts with set-based statements - one {@code INSERT ... SELECT} of the
+ * checking accounts and one {@code DELETE} of the CD accounts for a whole range of ids - instead of saving and
+ * deleting every account on its own. The writer joins the transaction of the caller.
+ */
+@Repository
+public class CDAccountConversionWriter {
+    private static final String INSERT_SQL = "INSERT INTO checking_accounts " +
+            "(created_on, iban, balance, type_id, user_id) " +
+            "SELECT ?, d.iban, d.outcome_amount, ?, d.user_id FROM cd_accounts d " +
+            "WHERE d.expiration_date BETWEEN ? AND ? AND d.id BETWEEN ? AND ?";
+    private static final String SELECT_SQL = "SELECT c.id, c.user_id, c.balance FROM checking_accounts c " +
+            "JOIN cd_accounts d ON d.iban = c.iban " +
+            "WHERE d.expiration_date BETWEEN ? AND ? AND d.id BETWEEN ? AND ? ORDER BY c.id";
+    private static final String DELETE_SQL = "DELETE FROM cd_accounts " +
+            "WHERE expiration_date BETWEEN ? AND ? AND id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CDAccountConversionWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Opens a checking account of the given type for every CD account expiring in the given range of dates with an
+     * id in the given range, both ends included, with the IBAN and the user of the CD account and its outcome amount
+     * as the balance, and deletes the CD accounts.
+     *
+     * @param fromDate the first expiration date.
+     * @param toDate the last expiration date.
+     * @param fromId the first id of the CD accounts.
+     * @param toId the last id of the CD accounts.
+     * @param checkingTypeId the ID of the account type of the checking accounts.
+     * @param createdOn the time the checking accounts are created on.
+     * @return a {@link List} of the {@link ConvertedCDAccount}s, ordered by the id of the checking account.
+     * @throws IllegalStateException when a CD account was added to or removed from the range meanwhile, so the
+     * caller's transaction rolls back.
+     */
+    public List<ConvertedCDAccount> convertAll(LocalDate fromDate, LocalDate toDate, long fromId, long toId,
+                                               Long checkingTypeId, LocalDateTime createdOn) {
+        Date from = Date.valueOf(fromDate);
+        Date to = Date.valueOf(toDate);
+        int inserted = jdbcTemplate.update(INSERT_SQL, Timestamp.valueOf(createdOn), checkingTypeId, from, to,
+                fromId, toId);
+        if (inserted == 0) {
+            return List.of();
+        }
+
+        List<ConvertedCDAccount> converted = jdbcTemplate.query(SELECT_SQL, (rs, row) ->
+                new ConvertedCDAccount(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3)), from, to, fromId, toId);
+        int deleted = jdbcTemplate.update(DELETE_SQL, from, to, fromId, toId);
+        if (converted.size() != inserted || deleted != inserted) {
+            throw new IllegalStateException("A CD account changed while its chunk was being converted!");
+        }
+        return converted;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.banksystem.repositories;
 
 import com.example.banksystem.models.entities.CDAccountEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -20,4 +22,36 @@ public interface CDAccountRepository extends JpaRepository<CDAccountEntity,Long>
     List<CDAccountEntity> findAllByExpirationDate (LocalDate date);
 
     List<CDAccountEntity> findAllByUser_Id(Long userId);
+
+    /**
+     * Gets the CD accounts expiring on a date of the given range with an id in the given range, all ends included,
+     * together with their users.
+     * @param fromDate the first expiration date of the range.
+     * @param toDate the last expiration date of the range.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return a {@link List} of the matching {@link CDAccountEntity}s.
+     */
+    @Query("SELECT a FROM CDAccountEntity a JOIN FETCH a.user " +
+            "WHERE a.expirationDate BETWEEN :fromDate AND :toDate AND a.id BETWEEN :fromId AND :toId")
+    List<CDAccountEntity> findAllByExpirationDateBetweenAndIdBetween(@Param("fromDate") LocalDate fromDate,
+                                                                     @Param("toDate") LocalDate toDate,
+                                                                     @Param("fromId") Long fromId,
+                                                                     @Param("toId") Long toId);
+
+    long countByExpirationDateBetween(LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Gets the lowest id of a CD account.
+     * @return the lowest id, or null when there are no CD accounts.
+     */
+    @Query("SELECT MIN(a.id) FROM CDAccountEntity a")
+    Long findMinId();
+
+    /**
+     * Gets the highest id of a CD account.
+     * @return the highest id, or null when there are no CD accounts.
+     */
+    @Query("SELECT MAX(a.id) FROM CDAccountEntity a")
+    Long findMaxId();
 }
@@ -3,8 +3,15 @@ package com.example.banksystem.repositories;
 import com.example.banksystem.models.entities.AccountTypeEntity;
 import com.example.banksystem.models.entities.CheckingAccountEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +40,123 @@ public interface CheckingAccountRepository extends JpaRepository<CheckingAccount
     List<CheckingAccountEntity> findByUserId(Long userId);
 
     List<CheckingAccountEntity> findByTypeAndUserId(AccountTypeEntity type, Long userId);
+
+    /**
+     * Gets all {@link CheckingAccountEntity}s with one of the given IBANs in a single query, together with their
+     * types and users.
+     * @param ibans the IBANs of the checking accounts.
+     * @return a {@link List<CheckingAccountEntity>} with the found accounts, IBANs without an account are skipped.
+     */
+    @Query("SELECT a FROM CheckingAccountEntity a JOIN FETCH a.type JOIN FETCH a.user WHERE a.iban IN :ibans")
+    List<CheckingAccountEntity> findAllByIbanIn(@Param("ibans") Collection<String> ibans);
+
+    /**
+     * Gets the balances of every checking account with an id in the given range, both ends included.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return a {@link List} of {@link AccountBalance}s.
+     */
+    @Query("SELECT new com.example.banksystem.repositories.AccountBalance(a.id, a.balance) " +
+            "FROM CheckingAccountEntity a WHERE a.id BETWEEN :fromId AND :toId")
+    List<AccountBalance> findBalancesByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Gets the balances of the checking accounts with the given ids.
+     * @param ids the ids of the accounts.
+     * @return a {@link List} of {@link AccountBalance}s, one for every existing account.
+     */
+    @Query("SELECT new com.example.banksystem.repositories.AccountBalance(a.id, a.balance) " +
+            "FROM CheckingAccountEntity a WHERE a.id IN :ids")
+    List<AccountBalance> findBalancesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gets the highest id of a checking account.
+     * @return the highest id, or null when there are no accounts.
+     */
+    @Query("SELECT MAX(a.id) FROM CheckingAccountEntity a")
+    Long findMaxId();
+
+    /**
+     * Gets the lowest id of a checking account.
+     * @return the lowest id, or null when there are no accounts.
+     */
+    @Query("SELECT MIN(a.id) FROM CheckingAccountEntity a")
+    Long findMinId();
+
+    /**
+     * Gets the ids of the checking accounts of the given type with an id in the given range, both ends included.
+     * @param typeId the ID of the account type.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return a {@link List} with the ids of the accounts, in ascending order.
+     */
+    @Query("SELECT a.id FROM CheckingAccountEntity a WHERE a.type.id = :typeId AND a.id BETWEEN :fromId AND :toId " +
+            "ORDER BY a.id")
+    List<Long> findIdsByTypeIdAndIdBetween(@Param("typeId") Long typeId, @Param("fromId") Long fromId,
+                                           @Param("toId") Long toId);
+
+    /**
+     * Subtracts the given fee from the balance of every checking account of the given type with an id in the given
+     * range, both ends included, in a single update. The balance may go below zero.
+     * @param typeId the ID of the account type.
+     * @param fee the fee to subtract from the balances.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return the number of charged accounts.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CheckingAccountEntity a SET a.balance = a.balance - :fee " +
+            "WHERE a.type.id = :typeId AND a.id BETWEEN :fromId AND :toId")
+    int chargeByTypeIdAndIdBetween(@Param("typeId") Long typeId, @Param("fee") BigDecimal fee,
+                                   @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Gets the IDs of the checking accounts with one of the given IBANs, without loading the accounts.
+     * @param ibans the IBANs of the checking accounts.
+     * @return a {@link List} of the IDs, IBANs without an account are skipped.
+     */
+    @Query("SELECT a.id FROM CheckingAccountEntity a WHERE a.iban IN :ibans")
+    List<Long> findIdsByIbanIn(@Param("ibans") Collection<String> ibans);
+
+    /**
+     * Gets all {@link CheckingAccountEntity}s with the given IDs and locks their rows until the end of the
+     * transaction. The rows are locked in ascending order of the IDs, so two callers locking overlapping sets of
+     * accounts can't deadlock.
+     * @param ids the IDs of the checking accounts.
+     * @return a {@link List<CheckingAccountEntity>} with the found accounts, ordered by ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM CheckingAccountEntity a WHERE a.id IN :ids ORDER BY a.id")
+    List<CheckingAccountEntity> findAllWithLockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gets a {@link CheckingAccountEntity} with the given IBAN and locks its row until the end of the transaction.
+     * @param iban the IBAN of the checking account.
+     * @return a {@link CheckingAccountEntity} with the given IBAN from the repository.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM CheckingAccountEntity a WHERE a.iban = :iban")
+    Optional<CheckingAccountEntity> findWithLockByIban(@Param("iban") String iban);
+
+    /**
+     * Subtracts the given amount from the balance of an account in a single guarded update. The row is changed
+     * only when its current balance covers the amount, so concurrent debits can't overdraw the account.
+     * @param accountId the ID of the account to be debited.
+     * @param amount the amount to subtract from the balance.
+     * @return the number of updated rows - 1 if the account was debited, 0 if the funds are insufficient.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CheckingAccountEntity a SET a.balance = a.balance - :amount " +
+            "WHERE a.id = :accountId AND a.balance >= :amount")
+    int debitIfCovered(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Adds the given amount to the balance of an account in a single update.
+     * @param accountId the ID of the account to be credited.
+     * @param amount the amount to add to the balance.
+     * @return the number of updated rows - 0 if there is no account with this ID.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CheckingAccountEntity a SET a.balance = a.balance + :amount WHERE a.id = :accountId")
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
 }
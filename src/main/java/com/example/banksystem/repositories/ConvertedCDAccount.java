@@ -0,0 +1,31 @@
+package com.example.banksystem.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * A checking account opened for an expired CD account - its id, the user it belongs to and the outcome amount of
+ * the CD account it got as its balance.
+ */
+public final class ConvertedCDAccount {
+    private final Long accountId;
+    private final Long userId;
+    private final BigDecimal amount;
+
+    public ConvertedCDAccount(Long accountId, Long userId, BigDecimal amount) {
+        this.accountId = accountId;
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
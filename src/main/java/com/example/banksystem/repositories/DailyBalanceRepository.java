@@ -0,0 +1,110 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.DailyBalanceEntity;
+import com.example.banksystem.models.responses.DailyBalanceResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalanceEntity, Long> {
+    /**
+     * Adds money movements to the {@link DailyBalanceEntity} of the given account and day.
+     * @param accountId the id of the checking account.
+     * @param date the day of the movements.
+     * @param change the signed change of the balance, fees included.
+     * @param debits the amounts taken from the account, without the fees.
+     * @param credits the amounts added to the account.
+     * @param fees the transaction fees taken from the account.
+     * @return the number of updated snapshots, 0 when the account has none for that day yet.
+     */
+    @Modifying
+    @Query("UPDATE DailyBalanceEntity d SET d.closingBalance = d.closingBalance + :change, " +
+            "d.debitTotal = d.debitTotal + :debits, d.creditTotal = d.creditTotal + :credits, " +
+            "d.feeTotal = d.feeTotal + :fees WHERE d.accountId = :accountId AND d.snapshotDate = :date")
+    int addMovements(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                     @Param("change") BigDecimal change, @Param("debits") BigDecimal debits,
+                     @Param("credits") BigDecimal credits, @Param("fees") BigDecimal fees);
+
+    /**
+     * Moves the opening and the closing balance of every {@link DailyBalanceEntity} of the given account after the
+     * given day by the given change, for movements added to an earlier day than the last snapshot.
+     * @param accountId the id of the checking account.
+     * @param date the day of the movements.
+     * @param change the signed change of the balance, fees included.
+     * @return the number of moved snapshots.
+     */
+    @Modifying
+    @Query("UPDATE DailyBalanceEntity d SET d.openingBalance = d.openingBalance + :change, " +
+            "d.closingBalance = d.closingBalance + :change WHERE d.accountId = :accountId AND d.snapshotDate > :date")
+    int shiftLaterDays(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                       @Param("change") BigDecimal change);
+
+    /**
+     * Creates the first {@link DailyBalanceEntity} of the given account and day from the current balance, which
+     * already includes the given movements. The closing balance is the current balance without the changes of the
+     * later days - the ones of their snapshots and the given ones not recorded yet - and the opening balance is the
+     * closing balance minus the change.
+     * @param accountId the id of the checking account.
+     * @param date the day of the movements.
+     * @param change the signed change of the balance, fees included.
+     * @param laterChange the signed change of the balance on later days that has no snapshot yet.
+     * @param debits the amounts taken from the account, without the fees.
+     * @param credits the amounts added to the account.
+     * @param fees the transaction fees taken from the account.
+     * @param createdOn the creation time of the snapshot.
+     * @return the number of created snapshots, 0 when the account doesn't exist.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_balances (created_on, account_id, snapshot_date, opening_balance, " +
+            "closing_balance, debit_total, credit_total, fee_total) " +
+            "SELECT :createdOn, a.id, :date, a.balance - l.change - :laterChange - :change, " +
+            "a.balance - l.change - :laterChange, :debits, :credits, :fees " +
+            "FROM checking_accounts a CROSS JOIN (SELECT COALESCE(SUM(d.closing_balance - d.opening_balance), 0) " +
+            "AS change FROM daily_balances d WHERE d.account_id = :accountId AND d.snapshot_date > :date) l " +
+            "WHERE a.id = :accountId", nativeQuery = true)
+    int insertFromCurrentBalance(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                                 @Param("change") BigDecimal change, @Param("laterChange") BigDecimal laterChange,
+                                 @Param("debits") BigDecimal debits, @Param("credits") BigDecimal credits,
+                                 @Param("fees") BigDecimal fees, @Param("createdOn") LocalDateTime createdOn);
+
+    /**
+     * Gets the snapshots of the given account between the given days, both included.
+     * @param accountId the id of the checking account.
+     * @param from the first day.
+     * @param to the last day.
+     * @return a {@link List} of {@link DailyBalanceResponse}s, ordered by day.
+     */
+    @Query("SELECT new com.example.banksystem.models.responses.DailyBalanceResponse(d.snapshotDate, " +
+            "d.openingBalance, d.closingBalance, d.debitTotal, d.creditTotal, d.feeTotal) " +
+            "FROM DailyBalanceEntity d WHERE d.accountId = :accountId AND d.snapshotDate BETWEEN :from AND :to " +
+            "ORDER BY d.snapshotDate")
+    List<DailyBalanceResponse> findDays(@Param("accountId") Long accountId, @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    /**
+     * Gets the last snapshot of the given account before the given day.
+     * @param accountId the id of the checking account.
+     * @param date the day.
+     * @return an {@link Optional} with the matching {@link DailyBalanceEntity}.
+     */
+    Optional<DailyBalanceEntity> findFirstByAccountIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(
+            Long accountId, LocalDate date);
+
+    /**
+     * Gets the first snapshot of the given account after the given day.
+     * @param accountId the id of the checking account.
+     * @param date the day.
+     * @return an {@link Optional} with the matching {@link DailyBalanceEntity}.
+     */
+    Optional<DailyBalanceEntity> findFirstByAccountIdAndSnapshotDateAfterOrderBySnapshotDateAsc(
+            Long accountId, LocalDate date);
+}
@@ -0,0 +1,48 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.DailyBalanceTotalEntity;
+import com.example.banksystem.models.responses.StatementTotalResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyBalanceTotalRepository extends JpaRepository<DailyBalanceTotalEntity, Long> {
+    /**
+     * Adds transactions to the {@link DailyBalanceTotalEntity} of the given account, day and type.
+     * @param accountId the id of the checking account.
+     * @param date the day of the transactions.
+     * @param type the type of the transactions.
+     * @param debits the amounts taken from the account.
+     * @param credits the amounts added to the account.
+     * @param count the number of the transactions.
+     * @return the number of updated totals, 0 when there are none for that account, day and type yet.
+     */
+    @Modifying
+    @Query("UPDATE DailyBalanceTotalEntity t SET t.debitTotal = t.debitTotal + :debits, " +
+            "t.creditTotal = t.creditTotal + :credits, t.transactionCount = t.transactionCount + :count " +
+            "WHERE t.accountId = :accountId AND t.snapshotDate = :date AND t.type = :type")
+    int addTransactions(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                        @Param("type") String type, @Param("debits") BigDecimal debits,
+                        @Param("credits") BigDecimal credits, @Param("count") long count);
+
+    /**
+     * Sums the totals of the given account between the given days, both included, for every transaction type.
+     * @param accountId the id of the checking account.
+     * @param from the first day.
+     * @param to the last day.
+     * @return a {@link List} of {@link StatementTotalResponse}s, ordered by type.
+     */
+    @Query("SELECT new com.example.banksystem.models.responses.StatementTotalResponse(t.type, SUM(t.debitTotal), " +
+            "SUM(t.creditTotal), SUM(t.transactionCount)) FROM DailyBalanceTotalEntity t " +
+            "WHERE t.accountId = :accountId AND t.snapshotDate BETWEEN :from AND :to " +
+            "GROUP BY t.type ORDER BY t.type")
+    List<StatementTotalResponse> sumByType(@Param("accountId") Long accountId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+}
@@ -0,0 +1,48 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * The number and the total amount of the transactions of one type that a checking account made in one hour.
+ */
+public final class HourlyActivity {
+    private final Long accountId;
+    private final TransactionType type;
+    private final long hour;
+    private final long count;
+    private final BigDecimal amount;
+
+    public HourlyActivity(Long accountId, TransactionType type, long hour, long count, BigDecimal amount) {
+        this.accountId = accountId;
+        this.type = type;
+        this.hour = hour;
+        this.count = count;
+        this.amount = amount;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the hour of the transactions.
+     * @return the number of whole hours between 1970-01-01T00:00 and the creation time of the transactions.
+     */
+    public long getHour() {
+        return hour;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
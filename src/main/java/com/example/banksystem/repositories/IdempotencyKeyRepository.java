@@ -0,0 +1,31 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, Long> {
+    /**
+     * Gets the {@link IdempotencyKeyEntity} that the given user sent with the given key.
+     * @param userId the id of the user that sent the key.
+     * @param idempotencyKey the key, sent in the Idempotency-Key header.
+     * @return an {@link Optional} with the matching {@link IdempotencyKeyEntity}.
+     */
+    Optional<IdempotencyKeyEntity> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Deletes all {@link IdempotencyKeyEntity}s that are created before the given date.
+     * @param date the date before which the keys are deleted.
+     * @return the number of deleted keys.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.createdOn < :date")
+    int deleteAllCreatedBefore(@Param("date") LocalDateTime date);
+}
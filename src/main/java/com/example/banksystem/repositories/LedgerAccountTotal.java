@@ -0,0 +1,26 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.LedgerAccount;
+
+import java.math.BigDecimal;
+
+/**
+ * The sum of all postings of one of the ledger accounts of the bank.
+ */
+public final class LedgerAccountTotal {
+    private final LedgerAccount ledgerAccount;
+    private final BigDecimal total;
+
+    public LedgerAccountTotal(LedgerAccount ledgerAccount, BigDecimal total) {
+        this.ledgerAccount = ledgerAccount;
+        this.total = total;
+    }
+
+    public LedgerAccount getLedgerAccount() {
+        return ledgerAccount;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
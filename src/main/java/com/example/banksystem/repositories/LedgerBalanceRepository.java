@@ -0,0 +1,45 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.LedgerBalanceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerBalanceRepository extends JpaRepository<LedgerBalanceEntity, Long> {
+    /**
+     * Adds postings to the running total of the given checking account.
+     * <p>The update doesn't flush the session first. Only the totals are touched, and new totals are inserted right
+     * away, so an event with many accounts doesn't dirty-check all of its postings once per account.
+     * @param accountId the id of the checking account.
+     * @param amount the sum of the signed amounts of the postings.
+     * @param count the number of the postings.
+     * @return the number of updated totals, 0 when the account has no running total yet.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("UPDATE LedgerBalanceEntity b SET b.balance = b.balance + :amount, " +
+            "b.postingCount = b.postingCount + :count WHERE b.accountId = :accountId")
+    int addPostings(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount,
+                    @Param("count") long count);
+
+    Optional<LedgerBalanceEntity> findByAccountId(Long accountId);
+
+    /**
+     * Gets the running totals of every checking account with an id in the given range, both ends included.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return a {@link List} of {@link AccountBalance}s, one for every account with a running total.
+     */
+    @Query("SELECT new com.example.banksystem.repositories.AccountBalance(b.accountId, b.balance) " +
+            "FROM LedgerBalanceEntity b WHERE b.accountId BETWEEN :fromId AND :toId")
+    List<AccountBalance> findBalancesByAccountIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,46 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.LedgerPostingEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPostingEntity, Long> {
+    /**
+     * Sums the postings of every checking account with an id in the given range, both ends included.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return a {@link List} of {@link AccountBalance}s, one for every account with postings.
+     */
+    @Query("SELECT new com.example.banksystem.repositories.AccountBalance(p.accountId, SUM(p.amount)) " +
+            "FROM LedgerPostingEntity p " +
+            "WHERE p.ledgerAccount = com.example.banksystem.models.entities.LedgerAccount.CHECKING " +
+            "AND p.accountId BETWEEN :fromId AND :toId GROUP BY p.accountId")
+    List<AccountBalance> sumByAccountIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Sums the postings of every ledger account of the bank.
+     * @return a {@link List} of {@link LedgerAccountTotal}s, one for every ledger account with postings.
+     */
+    @Query("SELECT new com.example.banksystem.repositories.LedgerAccountTotal(p.ledgerAccount, SUM(p.amount)) " +
+            "FROM LedgerPostingEntity p " +
+            "WHERE p.ledgerAccount <> com.example.banksystem.models.entities.LedgerAccount.CHECKING " +
+            "GROUP BY p.ledgerAccount")
+    List<LedgerAccountTotal> sumBankAccounts();
+
+    /**
+     * Finds entries whose postings don't add up to zero.
+     * @param pageable the maximum number of entries to return.
+     * @return a {@link List} with the ids of the unbalanced entries.
+     */
+    @Query("SELECT p.entryUuid FROM LedgerPostingEntity p GROUP BY p.entryUuid HAVING SUM(p.amount) <> 0")
+    List<UUID> findUnbalancedEntries(Pageable pageable);
+
+    List<LedgerPostingEntity> findAllByEntryUuid(UUID entryUuid);
+}
@@ -0,0 +1,38 @@
+package com.example.banksystem.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The instalment of a loan due on a date - the date, the account it is charged to and the monthly payment together with the
+ * monthly fee of its loan type - read without loading the loan, its account or its loan type.
+ */
+public final class LoanInstalment {
+    private final Long loanId;
+    private final Long accountId;
+    private final BigDecimal payment;
+    private final LocalDate maturityDate;
+
+    public LoanInstalment(Long loanId, Long accountId, BigDecimal payment, LocalDate maturityDate) {
+        this.loanId = loanId;
+        this.accountId = accountId;
+        this.payment = payment;
+        this.maturityDate = maturityDate;
+    }
+
+    public Long getLoanId() {
+        return loanId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getPayment() {
+        return payment;
+    }
+
+    public LocalDate getMaturityDate() {
+        return maturityDate;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.banksystem.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Charges {@link LoanInstalment}s with plain JDBC batches - one batch of balance updates of the accounts and one of
+ * the loans - instead of saving every account and loan on its own. The writer joins the transaction of the caller.
+ */
+@Repository
+public class LoanInstalmentWriter {
+    private static final String CHARGE_ACCOUNT_SQL =
+            "UPDATE checking_accounts SET balance = balance - ? WHERE id = ?";
+    private static final String ADVANCE_LOAN_SQL = "UPDATE loans SET maturity_date = ?, " +
+            "remaining_loan_amount = remaining_loan_amount - ? WHERE id = ? AND maturity_date = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoanInstalmentWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the payments of the given instalments out of the balances of their accounts, which may go below zero,
+     * takes them off the remaining amounts of the loans and moves their next instalments a month later. An account
+     * with several loans is charged once for each of them.
+     * <p>The accounts are updated in ascending order of their ids and the loans in ascending order of theirs, like
+     * the transfers lock their accounts, so concurrent writers wait for each other instead of deadlocking.
+     *
+     * @param instalments the {@link LoanInstalment}s to charge.
+     * @throws IllegalStateException when a loan isn't due on the date of its instalment anymore or an account is
+     * gone, so the caller's transaction rolls back.
+     */
+    public void chargeAll(Collection<LoanInstalment> instalments) {
+        if (instalments.isEmpty()) {
+            return;
+        }
+        List<LoanInstalment> byAccount = sorted(instalments,
+                Comparator.comparing(LoanInstalment::getAccountId).thenComparing(LoanInstalment::getLoanId));
+        int[][] charged = jdbcTemplate.batchUpdate(CHARGE_ACCOUNT_SQL, byAccount, byAccount.size(),
+                (ps, instalment) -> {
+                    ps.setBigDecimal(1, instalment.getPayment());
+                    ps.setLong(2, instalment.getAccountId());
+                });
+        if (!allUpdated(charged)) {
+            throw new IllegalStateException("An account was deleted while its loan instalment was being charged!");
+        }
+
+        List<LoanInstalment> byLoan = sorted(instalments, Comparator.comparing(LoanInstalment::getLoanId));
+        int[][] advanced = jdbcTemplate.batchUpdate(ADVANCE_LOAN_SQL, byLoan, byLoan.size(),
+                (ps, instalment) -> {
+                    ps.setDate(1, Date.valueOf(instalment.getMaturityDate().plusMonths(1)));
+                    ps.setBigDecimal(2, instalment.getPayment());
+                    ps.setLong(3, instalment.getLoanId());
+                    ps.setDate(4, Date.valueOf(instalment.getMaturityDate()));
+                });
+        if (!allUpdated(advanced)) {
+            throw new IllegalStateException("A loan changed while its instalment was being charged!");
+        }
+    }
+
+    private static List<LoanInstalment> sorted(Collection<LoanInstalment> instalments,
+                                               Comparator<LoanInstalment> order) {
+        return instalments.stream().sorted(order).collect(Collectors.toList());
+    }
+
+    /**
+     * Tells whether every statement of the batches updated one row. Drivers that don't report the counts of a
+     * batch are trusted.
+     */
+    private static boolean allUpdated(int[][] batches) {
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
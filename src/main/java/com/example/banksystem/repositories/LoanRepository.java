@@ -2,6 +2,8 @@ package com.example.banksystem.repositories;
 
 import com.example.banksystem.models.entities.LoanEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -16,4 +18,66 @@ public interface LoanRepository extends JpaRepository<LoanEntity, Long> {
 	List<LoanEntity> findAllByMaturityDate(LocalDate maturityDate);
 
 	Optional<LoanEntity> findLoanById(Long loanId);
+
+	/**
+	 * Gets the instalments of the loans due on a date of the given range with an id in the given range, all ends
+	 * included, in a single query that doesn't load the loans, their accounts or their loan types. The instalments
+	 * after the due date of a loan are never returned, as the loan ended with the one on its due date.
+	 * @param fromDate the first date of the range.
+	 * @param toDate the last date of the range.
+	 * @param fromId the first id of the range.
+	 * @param toId the last id of the range.
+	 * @return a {@link List} of {@link LoanInstalment}s, ordered by the id of the loan.
+	 */
+	@Query("SELECT new com.example.banksystem.repositories.LoanInstalment(l.id, l.account.id, " +
+			"l.monthlyPayment + t.monthlyFee, l.maturityDate) FROM LoanEntity l JOIN l.loanType t " +
+			"WHERE l.maturityDate BETWEEN :fromDate AND :toDate AND l.maturityDate <= l.dueDate " +
+			"AND l.id BETWEEN :fromId AND :toId ORDER BY l.id")
+	List<LoanInstalment> findInstalmentsByMaturityDateBetweenAndIdBetween(@Param("fromDate") LocalDate fromDate,
+	                                                                      @Param("toDate") LocalDate toDate,
+	                                                                      @Param("fromId") Long fromId,
+	                                                                      @Param("toId") Long toId);
+
+	/**
+	 * Gets the loans ending on a date of the given range with an id in the given range, all ends included,
+	 * together with their accounts and users.
+	 * @param fromDate the first date of the range.
+	 * @param toDate the last date of the range.
+	 * @param fromId the first id of the range.
+	 * @param toId the last id of the range.
+	 * @return a {@link List} of the matching {@link LoanEntity}s.
+	 */
+	@Query("SELECT l FROM LoanEntity l JOIN FETCH l.account a JOIN FETCH a.user " +
+			"WHERE l.dueDate BETWEEN :fromDate AND :toDate AND l.id BETWEEN :fromId AND :toId")
+	List<LoanEntity> findAllByDueDateBetweenAndIdBetween(@Param("fromDate") LocalDate fromDate,
+	                                                     @Param("toDate") LocalDate toDate,
+	                                                     @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+	/**
+	 * Counts the loans with an instalment due on a date of the given range, both ends included, that is not after
+	 * the due date of the loan.
+	 * @param fromDate the first date of the range.
+	 * @param toDate the last date of the range.
+	 * @return the number of due instalments.
+	 */
+	@Query("SELECT COUNT(l) FROM LoanEntity l " +
+			"WHERE l.maturityDate BETWEEN :fromDate AND :toDate AND l.maturityDate <= l.dueDate")
+	long countByMaturityDateBetween(@Param("fromDate") LocalDate fromDate,
+	                                @Param("toDate") LocalDate toDate);
+
+	long countByDueDateBetween(LocalDate fromDate, LocalDate toDate);
+
+	/**
+	 * Gets the lowest id of a loan.
+	 * @return the lowest id, or null when there are no loans.
+	 */
+	@Query("SELECT MIN(l.id) FROM LoanEntity l")
+	Long findMinId();
+
+	/**
+	 * Gets the highest id of a loan.
+	 * @return the highest id, or null when there are no loans.
+	 */
+	@Query("SELECT MAX(l.id) FROM LoanEntity l")
+	Long findMaxId();
 }
@@ -0,0 +1,45 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.OutboxEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+    /**
+     * Gets the oldest {@link OutboxEventEntity}s that haven't been relayed yet.
+     * @param pageable the maximum number of events to return.
+     * @return a {@link List} of {@link OutboxEventEntity}s in ascending order of their ids.
+     */
+    @Query("SELECT e FROM OutboxEventEntity e WHERE e.relayedOn IS NULL ORDER BY e.id")
+    List<OutboxEventEntity> findPending(Pageable pageable);
+
+    long countByRelayedOnIsNull();
+
+    /**
+     * Marks the {@link OutboxEventEntity}s with the given ids as relayed.
+     * @param ids the ids of the relayed events.
+     * @param relayedOn the date the events were relayed.
+     * @return the number of marked events.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.relayedOn = :relayedOn WHERE e.id IN :ids")
+    int markRelayed(@Param("ids") Collection<Long> ids, @Param("relayedOn") LocalDateTime relayedOn);
+
+    /**
+     * Deletes all {@link OutboxEventEntity}s that are relayed before the given date.
+     * @param date the date before which the relayed events are deleted.
+     * @return the number of deleted events.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEventEntity e WHERE e.relayedOn < :date")
+    int deleteAllRelayedBefore(@Param("date") LocalDateTime date);
+}
@@ -0,0 +1,38 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.ReconciliationChunkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationChunkRepository extends JpaRepository<ReconciliationChunkEntity, Long> {
+    /**
+     * Gets the numbers of the chunks a run already checked.
+     * @param runId the id of the reconciliation run.
+     * @return a {@link List} with the numbers of the checked chunks.
+     */
+    @Query("SELECT c.chunk FROM ReconciliationChunkEntity c WHERE c.runId = :runId")
+    List<Long> findChunksByRunId(@Param("runId") Long runId);
+
+    /**
+     * Sums the checked accounts of all chunks of a run.
+     * @param runId the id of the reconciliation run.
+     * @return the number of checked accounts.
+     */
+    @Query("SELECT COALESCE(SUM(c.checkedAccounts), 0) FROM ReconciliationChunkEntity c WHERE c.runId = :runId")
+    long sumCheckedAccountsByRunId(@Param("runId") Long runId);
+
+    /**
+     * Sums the discrepancies of all chunks of a run.
+     * @param runId the id of the reconciliation run.
+     * @return the number of discrepancies.
+     */
+    @Query("SELECT COALESCE(SUM(c.discrepancies), 0) FROM ReconciliationChunkEntity c WHERE c.runId = :runId")
+    long sumDiscrepanciesByRunId(@Param("runId") Long runId);
+
+    long countByRunId(Long runId);
+}
@@ -0,0 +1,13 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.ReconciliationDiscrepancyEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancyEntity, Long> {
+    List<ReconciliationDiscrepancyEntity> findAllByRunIdOrderByAccountId(Long runId, Pageable pageable);
+}
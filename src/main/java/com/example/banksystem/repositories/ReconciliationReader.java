@@ -0,0 +1,58 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.LedgerAccount;
+import com.example.banksystem.models.entities.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reads the balances of the checking accounts together with the opening values, transactions and fees they should
+ * add up to, one range of account ids at a time.
+ * <p>The transactions don't hold the fee charged on top of them, and the balances from before the ledger was
+ * started were opened in it without replaying their history. So the opening value of an account is the sum of its
+ * ledger postings without a transaction, only the transactions posted to the ledger are summed, and the fee of a
+ * transaction is its fee revenue posting. The monthly fee is a transaction of its own, its fee revenue posting is
+ * the counter side of the amount and not a fee on top of it.
+ */
+@Repository
+public class ReconciliationReader {
+    private static final String RANGE_SQL =
+            "SELECT a.id, COALESCE(a.balance, 0), COALESCE(o.total, 0), COALESCE(m.total, 0), COALESCE(m.fees, 0) " +
+            "FROM checking_accounts a " +
+            "LEFT JOIN (SELECT p.account_id, SUM(p.amount) AS total FROM ledger_postings p " +
+            "    WHERE p.ledger_account = '" + LedgerAccount.CHECKING.name() + "' AND p.transaction_id IS NULL " +
+            "    AND p.account_id BETWEEN ? AND ? GROUP BY p.account_id) o ON o.account_id = a.id " +
+            "LEFT JOIN (SELECT t.account_id, " +
+            "    SUM(CASE WHEN t.type IN (" + TransactionType.DEPOSIT.getCode() + ", " +
+            TransactionType.RECEIVED.getCode() + ", " + TransactionType.CD_PAYOUT.getCode() + ") " +
+            "        THEN t.amount ELSE -t.amount END) AS total, " +
+            "    SUM(COALESCE(f.amount, 0)) AS fees " +
+            "    FROM transactions t " +
+            "    JOIN ledger_postings c ON c.transaction_id = t.id " +
+            "        AND c.ledger_account = '" + LedgerAccount.CHECKING.name() + "' " +
+            "    LEFT JOIN ledger_postings f ON f.transaction_id = t.id " +
+            "        AND f.ledger_account = '" + LedgerAccount.FEE_REVENUE.name() + "' " +
+            "        AND t.type <> " + TransactionType.MONTHLY_FEE.getCode() + " " +
+            "    WHERE t.account_id BETWEEN ? AND ? GROUP BY t.account_id) m ON m.account_id = a.id " +
+            "WHERE a.id BETWEEN ? AND ? ORDER BY a.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReconciliationReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads every checking account with an id in the given range, both ends included.
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @return a {@link List} of {@link AccountReconciliation}s, ordered by account id.
+     */
+    public List<AccountReconciliation> readRange(long fromId, long toId) {
+        return jdbcTemplate.query(RANGE_SQL, (rs, row) -> new AccountReconciliation(rs.getLong(1),
+                rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getBigDecimal(4), rs.getBigDecimal(5)),
+                fromId, toId, fromId, toId, fromId, toId);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.ReconciliationRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRunEntity, Long> {
+    /**
+     * Gets the latest run that didn't finish, the one a new reconciliation resumes.
+     * @return an {@link Optional} with the unfinished {@link ReconciliationRunEntity}.
+     */
+    Optional<ReconciliationRunEntity> findFirstByFinishedOnIsNullOrderByIdDesc();
+}
@@ -0,0 +1,33 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.SchedulerCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SchedulerCheckpointRepository extends JpaRepository<SchedulerCheckpointEntity, Long> {
+    /**
+     * Gets the checkpoint of a job.
+     * @param jobName the name of the job.
+     * @return an {@link Optional} with the {@link SchedulerCheckpointEntity}, empty when the job never finished a
+     * run.
+     */
+    Optional<SchedulerCheckpointEntity> findByJobName(String jobName);
+
+    /**
+     * Moves the checkpoint of a job forward to the given date, a checkpoint already at or after it is left as it is.
+     * @param jobName the name of the job.
+     * @param lastBusinessDate the last business date the job processed.
+     * @return the number of updated rows - 0 if the checkpoint doesn't exist or is already at the date.
+     */
+    @Modifying
+    @Query("UPDATE SchedulerCheckpointEntity c SET c.lastBusinessDate = :lastBusinessDate " +
+            "WHERE c.jobName = :jobName AND c.lastBusinessDate < :lastBusinessDate")
+    int advance(@Param("jobName") String jobName, @Param("lastBusinessDate") LocalDate lastBusinessDate);
+}
@@ -0,0 +1,46 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.SchedulerLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLeaseEntity, Long> {
+    /**
+     * Takes a lease that expired, in a single guarded update. Of several nodes taking the same lease at once, the
+     * update of only one of them matches the row, the others see it locked by then.
+     * @param name the name of the lease.
+     * @param owner the new owner of the lease.
+     * @param now the current time, the lease is taken only when it expired before it.
+     * @param lockedUntil the time the lease is held until.
+     * @return the number of updated rows - 1 if the lease was taken, 0 if it is held or doesn't exist yet.
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.owner = :owner, l.lockedUntil = :lockedUntil " +
+            "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Moves the end of a lease, as long as it is still held by the given owner. Renews the lease while its job runs
+     * and shortens it when the job is done.
+     * @param name the name of the lease.
+     * @param owner the owner of the lease.
+     * @param lockedUntil the new time the lease is held until.
+     * @return the number of updated rows - 0 if the lease was taken over by another owner.
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.lockedUntil = :lockedUntil WHERE l.name = :name AND l.owner = :owner")
+    int extend(@Param("name") String name, @Param("owner") String owner,
+               @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    Optional<SchedulerLeaseEntity> findByName(String name);
+
+    boolean existsByName(String name);
+}
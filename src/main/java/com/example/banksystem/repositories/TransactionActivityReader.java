@@ -0,0 +1,56 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the recent activity of the checking accounts, summed up per hour by the database.
+ * <p>The hour is computed from the creation time as if it was UTC, both by PostgreSQL and by H2, the same way as
+ * {@link java.time.LocalDateTime#toEpochSecond} with {@link java.time.ZoneOffset#UTC} does.
+ */
+@Repository
+public class TransactionActivityReader {
+    private static final String HOUR_SQL = "FLOOR(EXTRACT(EPOCH FROM t.created_on) / 3600)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionActivityReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Passes the hourly totals of the transactions of the given types created since the given time to the given
+     * action, one {@link HourlyActivity} for every account, type and hour with at least one transaction.
+     * @param from the creation time of the oldest transaction to read.
+     * @param types the types of the transactions to read.
+     * @param action the action, called once for every row.
+     * @return the number of read rows.
+     */
+    public long forEachHour(LocalDateTime from, Collection<TransactionType> types, Consumer<HourlyActivity> action) {
+        List<Object> params = new ArrayList<>();
+        params.add(from);
+        types.forEach(type -> params.add(type.getCode()));
+        String placeholders = types.stream().map(type -> "?").collect(Collectors.joining(", "));
+
+        String sql = "SELECT t.account_id, t.type, " + HOUR_SQL + ", COUNT(*), SUM(t.amount) " +
+                "FROM transactions t WHERE t.created_on >= ? AND t.type IN (" + placeholders + ") " +
+                "GROUP BY t.account_id, t.type, " + HOUR_SQL;
+
+        long[] rows = {0};
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            action.accept(new HourlyActivity(rs.getLong(1), TransactionType.fromCode(rs.getShort(2)),
+                    rs.getLong(3), rs.getLong(4), rs.getBigDecimal(5)));
+            rows[0]++;
+        }, params.toArray());
+        return rows[0];
+    }
+}
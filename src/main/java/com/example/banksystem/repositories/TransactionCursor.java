@@ -0,0 +1,82 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.responses.TransactionResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * A position in a list of {@link TransactionEntity}s ordered from the newest to the oldest. The next page starts
+ * with the first transaction after the one the cursor points at, so it is found through the (created_on, id) index
+ * no matter how deep into the history it is.
+ */
+public class TransactionCursor {
+    private final LocalDateTime createdOn;
+    private final Long id;
+
+    public TransactionCursor(LocalDateTime createdOn, Long id) {
+        this.createdOn = createdOn;
+        this.id = id;
+    }
+
+    /**
+     * Creates a cursor pointing at the given transaction.
+     * @param transaction the last {@link TransactionResponse} of a page.
+     * @return a {@link TransactionCursor} pointing at the transaction.
+     */
+    public static TransactionCursor of(TransactionResponse transaction) {
+        return new TransactionCursor(transaction.getCreatedOn(), transaction.getId());
+    }
+
+    /**
+     * Reads a cursor created by {@link #encode()}.
+     * @param value the encoded cursor.
+     * @return the decoded {@link TransactionCursor}, or null when no value is given.
+     * @throws IllegalArgumentException when the value is not a valid cursor.
+     */
+    public static TransactionCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+            return new TransactionCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor! Please use the one returned with the previous page!");
+        }
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL safe String.
+     * @return the encoded cursor.
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdOn + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionCursor that = (TransactionCursor) o;
+        return Objects.equals(createdOn, that.createdOn) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdOn, id);
+    }
+}
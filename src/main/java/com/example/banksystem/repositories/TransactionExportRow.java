@@ -0,0 +1,62 @@
+package com.example.banksystem.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A single exported transaction, read straight from the result set by {@link TransactionExporter}.
+ */
+public final class TransactionExportRow {
+    private final long id;
+    private final String uuid;
+    private final String iban;
+    private final LocalDateTime createdOn;
+    private final BigDecimal amount;
+    private final String type;
+    private final String reason;
+    private final String userName;
+
+    TransactionExportRow(long id, String uuid, String iban, LocalDateTime createdOn, BigDecimal amount, String type,
+                         String reason, String userName) {
+        this.id = id;
+        this.uuid = uuid;
+        this.iban = iban;
+        this.createdOn = createdOn;
+        this.amount = amount;
+        this.type = type;
+        this.reason = reason;
+        this.userName = userName;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getIban() {
+        return iban;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+}
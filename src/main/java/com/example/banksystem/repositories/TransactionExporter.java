@@ -0,0 +1,82 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads transactions for exports through a forward-only JDBC cursor.
+ * <p>Rows are fetched from the database {@code bank.export.fetch-size} at a time and handed over one by one, so an
+ * export holds a single fetch in memory however many rows it has. PostgreSQL only uses a cursor inside a
+ * transaction, so the caller has to run the export in one.
+ */
+@Repository
+public class TransactionExporter {
+    private static final String SELECT_SQL = "SELECT t.id, t.uuid, a.iban, t.created_on, t.amount, t.type, " +
+            "t.reason, u.username FROM transactions t " +
+            "JOIN checking_accounts a ON a.id = t.account_id " +
+            "JOIN users u ON u.id = a.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionExporter(JdbcTemplate jdbcTemplate, @Value("${bank.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes every transaction matching the given criteria to the given action, from the oldest to the newest.
+     * @param criteria the {@link TransactionSearchCriteria} of the export.
+     * @param action the action, called once for every row.
+     * @return the number of exported rows.
+     */
+    public long forEach(TransactionSearchCriteria criteria, Consumer<TransactionExportRow> action) {
+        List<String> predicates = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (criteria.getAccountId() != null) {
+            predicates.add("t.account_id = ?");
+            params.add(criteria.getAccountId());
+        }
+        if (criteria.getType() != null) {
+            predicates.add("t.type = ?");
+            params.add(criteria.getType().getCode());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add("t.created_on >= ?");
+            params.add(criteria.getCreatedFrom());
+        }
+        if (criteria.getCreatedBefore() != null) {
+            predicates.add("t.created_on < ?");
+            params.add(criteria.getCreatedBefore());
+        }
+        if (criteria.getMinAmount() != null) {
+            predicates.add("t.amount >= ?");
+            params.add(criteria.getMinAmount());
+        }
+        if (criteria.getMaxAmount() != null) {
+            predicates.add("t.amount <= ?");
+            params.add(criteria.getMaxAmount());
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        sql.append(" ORDER BY t.created_on, t.id");
+
+        long[] rows = {0};
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            action.accept(new TransactionExportRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    rs.getTimestamp(4).toLocalDateTime(), rs.getBigDecimal(5),
+                    TransactionType.fromCode(rs.getShort(6)).getLabel(), rs.getString(7), rs.getString(8)));
+            rows[0]++;
+        }, params.toArray());
+        return rows[0];
+    }
+}
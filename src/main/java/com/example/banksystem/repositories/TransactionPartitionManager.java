@@ -0,0 +1,91 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionEntity;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Creates the monthly partitions of the {@link TransactionEntity} table.
+ * <p>On PostgreSQL the table is partitioned by range of created_on, one partition per calendar month, named
+ * {@code transactions_pYYYY_MM}. Rows of a month without a partition go to {@code transactions_default}, so the
+ * partitions are created ahead of time to keep the default one empty. On any other database, or when the table
+ * is not partitioned, nothing is done.
+ */
+@Repository
+public class TransactionPartitionManager {
+    private static final String IS_PARTITIONED_SQL = "SELECT count(*) FROM pg_partitioned_table p " +
+            "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = 'transactions' " +
+            "AND pg_table_is_visible(c.oid)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Checks whether the transactions table is a partitioned PostgreSQL table.
+     * @return true when monthly partitions can be created.
+     */
+    public boolean isPartitioned() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return false;
+        }
+        Integer tables = jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Integer.class);
+        return tables != null && tables > 0;
+    }
+
+    /**
+     * Makes sure the partitions of the month of the given date and of the given number of months after it exist.
+     * @param today the current date.
+     * @param monthsAhead how many months after the current one should already have a partition.
+     * @return the number of months that have a partition.
+     */
+    public int createPartitions(LocalDate today, int monthsAhead) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        int ready = 0;
+        YearMonth month = YearMonth.from(today);
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            try {
+                jdbcTemplate.execute(createPartitionSql(month));
+                ready++;
+            } catch (DataAccessException e) {
+                // Usually rows of that month already sit in the default partition and have to be moved by hand.
+                log.error("Couldn't create the transactions partition for {}", month, e);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Builds the DDL of the partition of the given month.
+     * @param month the month of the partition.
+     * @return a {@code CREATE TABLE IF NOT EXISTS ... PARTITION OF transactions} statement.
+     */
+    static String createPartitionSql(YearMonth month) {
+        return String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF transactions " +
+                        "FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Gets the name of the partition of the given month.
+     * @param month the month of the partition.
+     * @return the name of the partition, for example {@code transactions_p2022_09}.
+     */
+    static String partitionName(YearMonth month) {
+        return String.format("transactions_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
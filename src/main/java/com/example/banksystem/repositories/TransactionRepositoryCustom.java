@@ -0,0 +1,22 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.responses.TransactionResponse;
+
+import java.util.List;
+
+/**
+ * Queries of {@link TransactionRepository} that are built at runtime.
+ */
+public interface TransactionRepositoryCustom {
+    /**
+     * Gets a page of {@link TransactionEntity}s matching the given criteria, ordered from the newest to the oldest.
+     * <p>The transactions are projected straight into {@link TransactionResponse}s together with the IBAN of their
+     * account and the username of its owner, so a page of any size takes a single statement.
+     * @param criteria the filters of the search.
+     * @param after the last transaction of the previous page, or null for the first page.
+     * @param limit the maximum number of transactions to return.
+     * @return a {@link List <TransactionResponse>} with at most limit matching transactions.
+     */
+    List<TransactionResponse> search(TransactionSearchCriteria criteria, TransactionCursor after, int limit);
+}
@@ -0,0 +1,69 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.responses.TransactionResponse;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The implementation of {@link TransactionRepositoryCustom}, picked up by Spring Data through its name.
+ */
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionResponse> search(TransactionSearchCriteria criteria, TransactionCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionResponse> query = cb.createQuery(TransactionResponse.class);
+        Root<TransactionEntity> transaction = query.from(TransactionEntity.class);
+        Join<TransactionEntity, CheckingAccountEntity> account = transaction.join("accountEntity");
+        Join<CheckingAccountEntity, UserEntity> user = account.join("user");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getAccountId() != null) {
+            predicates.add(cb.equal(account.get("id"), criteria.getAccountId()));
+        }
+        if (criteria.getType() != null) {
+            predicates.add(cb.equal(transaction.get("type"), criteria.getType()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transaction.get("createdOn"), criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedBefore() != null) {
+            predicates.add(cb.lessThan(transaction.get("createdOn"), criteria.getCreatedBefore()));
+        }
+        if (criteria.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transaction.get("amount"), criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(transaction.get("amount"), criteria.getMaxAmount()));
+        }
+        if (after != null) {
+            // (created_on, id) < (:createdOn, :id), spelled out since JPQL has no row value comparison. The plain
+            // created_on bound comes first and outside the OR, so PostgreSQL prunes the monthly partitions above it.
+            predicates.add(cb.lessThanOrEqualTo(transaction.<LocalDateTime>get("createdOn"), after.getCreatedOn()));
+            predicates.add(cb.or(
+                    cb.lessThan(transaction.<LocalDateTime>get("createdOn"), after.getCreatedOn()),
+                    cb.lessThan(transaction.get("id"), after.getId())));
+        }
+
+        query.select(cb.construct(TransactionResponse.class, transaction.get("id"), transaction.get("UUid"),
+                        account.get("iban"), transaction.get("createdOn"), transaction.get("amount"),
+                        transaction.get("type"), user.get("username")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(transaction.get("createdOn")), cb.desc(transaction.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * The filters of a {@link TransactionEntity} search. Every filter that is left null is not applied.
+ */
+public class TransactionSearchCriteria {
+    private Long accountId;
+    private TransactionType type;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdBefore;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public TransactionSearchCriteria setAccountId(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public TransactionSearchCriteria setType(TransactionType type) {
+        this.type = type;
+        return this;
+    }
+
+    /** Gets the moment from which the transactions are created, inclusive. */
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public TransactionSearchCriteria setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+        return this;
+    }
+
+    /** Gets the moment before which the transactions are created, exclusive. */
+    public LocalDateTime getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public TransactionSearchCriteria setCreatedBefore(LocalDateTime createdBefore) {
+        this.createdBefore = createdBefore;
+        return this;
+    }
+
+    /** Gets the smallest amount of the transactions, inclusive. */
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public TransactionSearchCriteria setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+        return this;
+    }
+
+    /** Gets the largest amount of the transactions, inclusive. */
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public TransactionSearchCriteria setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionSearchCriteria that = (TransactionSearchCriteria) o;
+        return Objects.equals(accountId, that.accountId) && Objects.equals(type, that.type) && Objects.equals(createdFrom, that.createdFrom) && Objects.equals(createdBefore, that.createdBefore) && Objects.equals(minAmount, that.minAmount) && Objects.equals(maxAmount, that.maxAmount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, type, createdFrom, createdBefore, minAmount, maxAmount);
+    }
+}
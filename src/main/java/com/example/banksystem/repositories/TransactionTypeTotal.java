@@ -0,0 +1,32 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * The sum and the number of the transactions of one type of a checking account.
+ */
+public final class TransactionTypeTotal {
+    private final TransactionType type;
+    private final BigDecimal amount;
+    private final long count;
+
+    public TransactionTypeTotal(TransactionType type, BigDecimal amount, Long count) {
+        this.type = type;
+        this.amount = amount;
+        this.count = count;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
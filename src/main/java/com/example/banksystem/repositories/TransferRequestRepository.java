@@ -0,0 +1,56 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.TransferRequestEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TransferRequestRepository extends JpaRepository<TransferRequestEntity, Long> {
+    /**
+     * Gets the {@link TransferRequestEntity} with the given UUID.
+     * @param uuid the UUID handed out when the transfer was submitted.
+     * @return an {@link Optional} with the matching {@link TransferRequestEntity}.
+     */
+    Optional<TransferRequestEntity> findByUuid(UUID uuid);
+
+    /**
+     * Gets a {@link TransferRequestEntity} and locks its row until the end of the transaction, so a transfer is only
+     * ever executed by one worker at a time.
+     * @param id the id of the transfer request.
+     * @return an {@link Optional} with the matching {@link TransferRequestEntity}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TransferRequestEntity r WHERE r.id = :id")
+    Optional<TransferRequestEntity> findWithLockById(@Param("id") Long id);
+
+    /**
+     * Gets the ids of the transfers that are still pending since before the given date, the oldest first.
+     * @param date the date before which the transfers were submitted.
+     * @param pageable the maximum number of ids to return.
+     * @return a {@link List} of ids of pending transfer requests.
+     */
+    @Query("SELECT r.id FROM TransferRequestEntity r " +
+            "WHERE r.status = com.example.banksystem.models.entities.TransferStatus.PENDING " +
+            "AND r.createdOn < :date ORDER BY r.id")
+    List<Long> findPendingIdsCreatedBefore(@Param("date") LocalDateTime date, Pageable pageable);
+
+    /**
+     * Deletes the completed and failed transfer requests that finished before the given date.
+     * @param date the date before which the requests are deleted.
+     * @return the number of deleted requests.
+     */
+    @Modifying
+    @Query("DELETE FROM TransferRequestEntity r WHERE r.finishedOn < :date")
+    int deleteAllFinishedBefore(@Param("date") LocalDateTime date);
+}
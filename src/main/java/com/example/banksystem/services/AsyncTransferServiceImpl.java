@@ -0,0 +1,243 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.*;
+import com.example.banksystem.models.entities.TransferRequestEntity;
+import com.example.banksystem.models.entities.TransferStatus;
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransferResponse;
+import com.example.banksystem.models.responses.TransferStatusResponse;
+import com.example.banksystem.repositories.TransferRequestRepository;
+import com.example.banksystem.services.interfaces.AsyncTransferService;
+import com.example.banksystem.services.interfaces.CheckingAccountService;
+import com.example.banksystem.services.interfaces.TransactionService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An implementation of {@link AsyncTransferService} interface.
+ * <p>The pool has {@code bank.transfers.async.threads} workers and room for {@code bank.transfers.async.queue-capacity}
+ * waiting transfers. A slot is taken before anything is saved, so a full pool rejects new transfers without touching
+ * the database.
+ * <p>A worker locks the request, makes the transfer and marks it completed in one database transaction, so a
+ * transfer is made at most once even when two nodes pick up the same request. A transfer rejected by the bank is
+ * marked failed, any other error leaves it pending, to be queued again once it's stale.
+ */
+@Service
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+	private final TransferRequestRepository transferRequestRepository;
+	private final CheckingAccountService checkingAccountService;
+	private final TransactionService transactionService;
+	private final TransactionTemplate transactionTemplate;
+	private final ThreadPoolExecutor workers;
+	private final Semaphore slots;
+	private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+	private final long staleSeconds;
+	private final long retentionHours;
+
+	private final Logger logger = LogManager.getLogger(this.getClass());
+
+	public AsyncTransferServiceImpl(TransferRequestRepository transferRequestRepository,
+	                                CheckingAccountService checkingAccountService,
+	                                TransactionService transactionService,
+	                                PlatformTransactionManager transactionManager,
+	                                @Value("${bank.transfers.async.threads:4}") int threads,
+	                                @Value("${bank.transfers.async.queue-capacity:1000}") int queueCapacity,
+	                                @Value("${bank.transfers.async.stale-seconds:60}") long staleSeconds,
+	                                @Value("${bank.transfers.async.retention-hours:24}") long retentionHours) {
+		this.transferRequestRepository = transferRequestRepository;
+		this.checkingAccountService = checkingAccountService;
+		this.transactionService = transactionService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		AtomicInteger workerIndex = new AtomicInteger();
+		this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+				runnable -> new Thread(runnable, "async-transfer-" + workerIndex.getAndIncrement()));
+		this.slots = new Semaphore(threads + queueCapacity);
+		this.staleSeconds = staleSeconds;
+		this.retentionHours = retentionHours;
+	}
+
+	/**
+	 * Lets the workers finish the transfers they already started. The queued ones stay pending and are picked up
+	 * again by the recovery.
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		workers.shutdown();
+		workers.getQueue().clear();
+		if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>When the transfer is submitted inside a database transaction, it's queued only after the transaction
+	 * commits, so a worker never looks for a request that isn't saved yet.
+	 *
+	 * @param userId the id of the user, issuing the transfer.
+	 * @param body   a {@link TransferCreationRequest} entity, containing all the parameters for the transfer.
+	 * @return a {@link TransferStatusResponse} of the pending transfer.
+	 */
+	@Override
+	public TransferStatusResponse submit(Long userId, TransferCreationRequest body) {
+		if (!slots.tryAcquire()) {
+			throw new ServiceOverloadedException("Too many transfers are waiting to be made, try again later.");
+		}
+
+		TransferRequestEntity request;
+		try {
+			checkingAccountService.getAccountByUserIdAndIban(userId, body.getAccountFrom());
+			checkingAccountService.getAccountByIban(body.getAccountTo());
+			request = transferRequestRepository.save(new TransferRequestEntity(UUID.randomUUID(), userId,
+					body.getAccountFrom(), body.getAccountTo(), body.getAmount(), body.getReason()));
+		} catch (RuntimeException e) {
+			slots.release();
+			throw e;
+		}
+
+		Long id = request.getId();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						enqueue(id);
+					} else {
+						slots.release();
+					}
+				}
+			});
+		} else {
+			enqueue(id);
+		}
+		return toResponse(request);
+	}
+
+	@Override
+	public TransferStatusResponse getStatus(Long userId, UUID uuid) {
+		TransferRequestEntity request = transferRequestRepository.findByUuid(uuid)
+				.orElseThrow(() -> new EntityNotFoundException("Transfer"));
+		if (!request.getUserId().equals(userId)) {
+			throw new ResourceNotBelongingToUser("Transfer");
+		}
+		return toResponse(request);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Only as many transfers are queued as there are free slots, and the ones still queued on this node are
+	 * skipped.
+	 *
+	 * @return the number of queued transfers.
+	 */
+	@Override
+	public int resubmitStalePending() {
+		int free = slots.availablePermits();
+		if (free == 0) {
+			return 0;
+		}
+
+		List<Long> ids = transferRequestRepository.findPendingIdsCreatedBefore(
+				LocalDateTime.now().minusSeconds(staleSeconds), PageRequest.of(0, free));
+		int resubmitted = 0;
+		for (Long id : ids) {
+			if (!queued.contains(id) && slots.tryAcquire()) {
+				enqueue(id);
+				resubmitted++;
+			}
+		}
+		return resubmitted;
+	}
+
+	@Override
+	public int deleteFinishedRequests() {
+		LocalDateTime finishedBefore = LocalDateTime.now().minusHours(retentionHours);
+		Integer deleted = transactionTemplate.execute(status ->
+				transferRequestRepository.deleteAllFinishedBefore(finishedBefore));
+		return deleted == null ? 0 : deleted;
+	}
+
+	/**
+	 * Hands a transfer to the workers, which release its slot when they are done with it.
+	 */
+	private void enqueue(Long id) {
+		if (!queued.add(id)) {
+			slots.release();
+			return;
+		}
+		try {
+			workers.execute(() -> {
+				try {
+					execute(id);
+				} finally {
+					queued.remove(id);
+					slots.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// Shutting down, the transfer stays pending and is queued again after the restart.
+			queued.remove(id);
+			slots.release();
+		}
+	}
+
+	void execute(Long id) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				TransferRequestEntity request = transferRequestRepository.findWithLockById(id).orElse(null);
+				if (request == null || request.getStatus() != TransferStatus.PENDING) {
+					return;
+				}
+				TransferResponse response = transactionService.transfer(request.getUserId(),
+						new TransferCreationRequest().setAccountFrom(request.getAccountFrom())
+								.setAccountTo(request.getAccountTo()).setAmount(request.getAmount())
+								.setReason(request.getReason()));
+				// The balance updates of the transfer clear the persistence context, so the request is merged back.
+				transferRequestRepository.save(request.setStatus(TransferStatus.COMPLETED)
+						.setTransactionId(response.getId()).setFinishedOn(LocalDateTime.now()));
+			});
+		} catch (InsufficientFundsException | AccountNotBelongToUserException | EntityNotFoundException |
+		         VelocityLimitExceededException | IllegalArgumentException e) {
+			fail(id, e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("Failed to make transfer {}, it will be retried", id, e);
+		}
+	}
+
+	private void fail(Long id, String reason) {
+		transactionTemplate.executeWithoutResult(status ->
+				transferRequestRepository.findWithLockById(id)
+						.filter(request -> request.getStatus() == TransferStatus.PENDING)
+						.ifPresent(request -> request.setStatus(TransferStatus.FAILED).setFailureReason(reason)
+								.setFinishedOn(LocalDateTime.now())));
+	}
+
+	private static TransferStatusResponse toResponse(TransferRequestEntity request) {
+		return new TransferStatusResponse()
+				.setUuid(request.getUuid())
+				.setStatus(request.getStatus().name())
+				.setSenderIBAN(request.getAccountFrom())
+				.setReceiverIBAN(request.getAccountTo())
+				.setAmount(request.getAmount())
+				.setReason(request.getReason())
+				.setCreatedOn(request.getCreatedOn())
+				.setFinishedOn(request.getFinishedOn())
+				.setTransactionId(request.getTransactionId())
+				.setFailureReason(request.getFailureReason());
+	}
+}
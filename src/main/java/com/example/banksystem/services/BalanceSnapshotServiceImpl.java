@@ -0,0 +1,251 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.models.entities.DailyBalanceEntity;
+import com.example.banksystem.models.entities.DailyBalanceTotalEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.responses.DailyBalanceResponse;
+import com.example.banksystem.models.responses.StatementResponse;
+import com.example.banksystem.models.responses.StatementTotalResponse;
+import com.example.banksystem.repositories.DailyBalanceRepository;
+import com.example.banksystem.repositories.DailyBalanceTotalRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.TransactionTypeTotal;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.BalanceSnapshotService;
+import com.example.banksystem.services.interfaces.LedgerService;
+import com.example.banksystem.services.interfaces.UserService;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link BalanceSnapshotService} interface.
+ * <p>The snapshots are written while the row of the account is still locked by the balance update, so the
+ * movements of one account are added one transaction after another and the opening balance of a new day is always
+ * the closing balance of the previous one. A movement is added to the day it was made on, which is an earlier day
+ * for the charges of a business day that is caught up.
+ * <p>The current balance of a statement is read from the running total of the account in the ledger, which is
+ * updated in the same transactions as the balance of the account.
+ */
+@Service
+public class BalanceSnapshotServiceImpl implements BalanceSnapshotService {
+	private static final Set<TransactionType> CREDIT_TYPES =
+			EnumSet.of(TransactionType.DEPOSIT, TransactionType.RECEIVED, TransactionType.CD_PAYOUT);
+
+	private final DailyBalanceRepository dailyBalanceRepository;
+	private final DailyBalanceTotalRepository dailyBalanceTotalRepository;
+	private final TransactionRepository transactionRepository;
+	private final LedgerService ledgerService;
+	private final UserService userService;
+
+	public BalanceSnapshotServiceImpl(DailyBalanceRepository dailyBalanceRepository,
+	                                  DailyBalanceTotalRepository dailyBalanceTotalRepository,
+	                                  TransactionRepository transactionRepository, LedgerService ledgerService,
+	                                  UserService userService) {
+		this.dailyBalanceRepository = dailyBalanceRepository;
+		this.dailyBalanceTotalRepository = dailyBalanceTotalRepository;
+		this.transactionRepository = transactionRepository;
+		this.ledgerService = ledgerService;
+		this.userService = userService;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Every account gets one update of its {@link DailyBalanceEntity} and one update per transaction type of its
+	 * {@link DailyBalanceTotalEntity}s for every day of its movements, the rows are inserted only by the first
+	 * movement of the day. The days are recorded from the oldest one, and the snapshots after a past day are moved
+	 * by its change.
+	 *
+	 * @param event a {@link MoneyMovementEvent} with the movements.
+	 */
+	@Override
+	@EventListener
+	@Transactional
+	public void recordMovements(MoneyMovementEvent event) {
+		LocalDate today = LocalDate.now();
+		Map<Long, List<MoneyMovement>> byAccount = event.getMovements().stream()
+				.collect(Collectors.groupingBy(MoneyMovement::getAccountId, LinkedHashMap::new, Collectors.toList()));
+
+		for (Map.Entry<Long, List<MoneyMovement>> account : byAccount.entrySet()) {
+			BigDecimal laterChange = sum(account.getValue(), MoneyMovement::getBalanceChange);
+			Map<LocalDate, List<MoneyMovement>> byDay = account.getValue().stream()
+					.collect(Collectors.groupingBy(movement -> movement.getCreatedOn().toLocalDate(), TreeMap::new,
+							Collectors.toList()));
+
+			for (Map.Entry<LocalDate, List<MoneyMovement>> day : byDay.entrySet()) {
+				BigDecimal change = sum(day.getValue(), MoneyMovement::getBalanceChange);
+				laterChange = laterChange.subtract(change);
+				recordDay(account.getKey(), day.getKey(), day.getValue(), change, laterChange, today);
+			}
+		}
+	}
+
+	private void recordDay(Long accountId, LocalDate date, List<MoneyMovement> movements, BigDecimal change,
+	                       BigDecimal laterChange, LocalDate today) {
+		BigDecimal debits = sum(movements, movement -> movement.isCredit() ? BigDecimal.ZERO : movement.getAmount());
+		BigDecimal credits = sum(movements, movement -> movement.isCredit() ? movement.getAmount() : BigDecimal.ZERO);
+		BigDecimal fees = sum(movements, MoneyMovement::getFee);
+
+		if (date.isBefore(today)) {
+			dailyBalanceRepository.shiftLaterDays(accountId, date, change);
+		}
+		if (dailyBalanceRepository.addMovements(accountId, date, change, debits, credits, fees) == 0) {
+			dailyBalanceRepository.insertFromCurrentBalance(accountId, date, change, laterChange, debits, credits,
+					fees, LocalDateTime.now());
+		}
+
+		movements.stream()
+				.collect(Collectors.groupingBy(MoneyMovement::getType, LinkedHashMap::new, Collectors.toList()))
+				.forEach((type, ofType) -> recordTotals(accountId, date, type, ofType));
+	}
+
+	private void recordTotals(Long accountId, LocalDate date, TransactionType type, List<MoneyMovement> movements) {
+		BigDecimal debits = sum(movements, movement -> movement.isCredit() ? BigDecimal.ZERO : movement.getAmount());
+		BigDecimal credits = sum(movements, movement -> movement.isCredit() ? movement.getAmount() : BigDecimal.ZERO);
+
+		if (dailyBalanceTotalRepository.addTransactions(accountId, date, type.getLabel(), debits, credits,
+				movements.size()) == 0) {
+			dailyBalanceTotalRepository.save(new DailyBalanceTotalEntity()
+					.setAccountId(accountId)
+					.setSnapshotDate(date)
+					.setType(type.getLabel())
+					.setDebitTotal(debits)
+					.setCreditTotal(credits)
+					.setTransactionCount(movements.size()));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The days before today are read from their snapshots. Today is still changing, so it is read from at most
+	 * one day of its transactions and the current balance, and its fees are whatever the transactions don't explain
+	 * between the opening and the closing balance.
+	 * <p>Days without a snapshot had no movements, so their balance is the closing balance of the last snapshot
+	 * before them. Only when the account has no snapshot before the statement either, the opening balance of the
+	 * first snapshot after it or the current balance is used.
+	 *
+	 * @param userId    the id of the user.
+	 * @param accountId the id of the user's account.
+	 * @param from      the first day of the statement.
+	 * @param to        the last day of the statement.
+	 * @return a {@link StatementResponse} of the account.
+	 * @throws AccountNotBelongToUserException when the account doesn't belong to the user.
+	 * @throws IllegalArgumentException        when the first day is after the last one.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public StatementResponse getStatement(Long userId, Long accountId, LocalDate from, LocalDate to) {
+		if (from.isAfter(to)) {
+			throw new IllegalArgumentException("The start date can't be after the end date!");
+		}
+		if (!Objects.equals(userService.getUserByAccountId(accountId).getId(),
+				userService.getUserEntityById(userId).getId())) {
+			throw new AccountNotBelongToUserException();
+		}
+
+		LocalDate today = LocalDate.now();
+		LocalDate lastSnapshotDay = to.isBefore(today) ? to : today.minusDays(1);
+		List<DailyBalanceResponse> days = new ArrayList<>();
+		Map<String, StatementTotalResponse> totals = new TreeMap<>();
+		if (!from.isAfter(lastSnapshotDay)) {
+			days.addAll(dailyBalanceRepository.findDays(accountId, from, lastSnapshotDay));
+			dailyBalanceTotalRepository.sumByType(accountId, from, lastSnapshotDay)
+					.forEach(total -> totals.put(total.getType(), total));
+		}
+		if (!from.isAfter(today) && !to.isBefore(today)) {
+			readDay(accountId, today, totals).ifPresent(days::add);
+		}
+
+		BigDecimal openingBalance = days.isEmpty()
+				? balanceWithoutMovements(accountId, from, to)
+				: days.get(0).getOpeningBalance();
+		BigDecimal closingBalance = days.isEmpty()
+				? openingBalance
+				: days.get(days.size() - 1).getClosingBalance();
+
+		return new StatementResponse()
+				.setAccountId(accountId)
+				.setFrom(from)
+				.setTo(to)
+				.setOpeningBalance(openingBalance)
+				.setClosingBalance(closingBalance)
+				.setDebitTotal(sum(days, DailyBalanceResponse::getDebitTotal))
+				.setCreditTotal(sum(days, DailyBalanceResponse::getCreditTotal))
+				.setFeeTotal(sum(days, DailyBalanceResponse::getFeeTotal))
+				.setTotals(new ArrayList<>(totals.values()))
+				.setDays(days);
+	}
+
+	/**
+	 * Builds the day of the given account from its transactions and adds them to the totals per type.
+	 * <p>The opening balance is the closing balance of the last snapshot before the day, or the opening balance of
+	 * the snapshot of the day when it is the first one of the account.
+	 */
+	private Optional<DailyBalanceResponse> readDay(Long accountId, LocalDate date,
+	                                               Map<String, StatementTotalResponse> totals) {
+		List<TransactionTypeTotal> transactions = transactionRepository.sumByTypeCreatedBetween(accountId,
+				date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+		if (transactions.isEmpty()) {
+			return Optional.empty();
+		}
+
+		BigDecimal debits = BigDecimal.ZERO;
+		BigDecimal credits = BigDecimal.ZERO;
+		for (TransactionTypeTotal transaction : transactions) {
+			boolean credit = CREDIT_TYPES.contains(transaction.getType());
+			BigDecimal debit = credit ? BigDecimal.ZERO : transaction.getAmount();
+			BigDecimal added = credit ? transaction.getAmount() : BigDecimal.ZERO;
+			debits = debits.add(debit);
+			credits = credits.add(added);
+			totals.merge(transaction.getType().getLabel(), new StatementTotalResponse(transaction.getType().getLabel(),
+					debit, added, transaction.getCount()), BalanceSnapshotServiceImpl::add);
+		}
+
+		BigDecimal closingBalance = ledgerService.getBalance(accountId);
+		BigDecimal openingBalance = dailyBalanceRepository
+				.findFirstByAccountIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(accountId, date)
+				.map(DailyBalanceEntity::getClosingBalance)
+				.or(() -> dailyBalanceRepository
+						.findFirstByAccountIdAndSnapshotDateAfterOrderBySnapshotDateAsc(accountId, date.minusDays(1))
+						.map(DailyBalanceEntity::getOpeningBalance))
+				.orElse(closingBalance.subtract(credits).add(debits));
+
+		return Optional.of(new DailyBalanceResponse(date, openingBalance, closingBalance, debits, credits,
+				openingBalance.add(credits).subtract(debits).subtract(closingBalance)));
+	}
+
+	private BigDecimal balanceWithoutMovements(Long accountId, LocalDate from, LocalDate to) {
+		return dailyBalanceRepository.findFirstByAccountIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(accountId, from)
+				.map(DailyBalanceEntity::getClosingBalance)
+				.or(() -> dailyBalanceRepository.findFirstByAccountIdAndSnapshotDateAfterOrderBySnapshotDateAsc(accountId, to)
+						.map(DailyBalanceEntity::getOpeningBalance))
+				.orElseGet(() -> ledgerService.getBalance(accountId));
+	}
+
+	private static StatementTotalResponse add(StatementTotalResponse total, StatementTotalResponse other) {
+		return new StatementTotalResponse(total.getType(), total.getDebitTotal().add(other.getDebitTotal()),
+				total.getCreditTotal().add(other.getCreditTotal()),
+				total.getTransactionCount() + other.getTransactionCount());
+	}
+
+	private static <T> BigDecimal sum(List<T> values, Function<T, BigDecimal> amount) {
+		return values.stream().map(amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+}
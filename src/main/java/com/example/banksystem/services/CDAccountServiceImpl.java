@@ -7,12 +7,17 @@ import com.example.banksystem.exceptions.ResourceNotBelongingToUser;
 import com.example.banksystem.models.entities.AccountTypeEntity;
 import com.example.banksystem.models.entities.CDAccountEntity;
 import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
 import com.example.banksystem.models.entities.UserEntity;
 import com.example.banksystem.models.requsts.CDAccountCreationRequest;
 import com.example.banksystem.models.requsts.TransactionCreationRequest;
 import com.example.banksystem.models.responses.CDAccountResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
 import com.example.banksystem.repositories.CDAccountRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
 import com.example.banksystem.services.interfaces.AccountTypeService;
 import com.example.banksystem.services.interfaces.CDAccountService;
 import com.example.banksystem.services.interfaces.TransactionService;
@@ -20,12 +25,15 @@ import com.example.banksystem.services.interfaces.UserService;
 import org.iban4j.CountryCode;
 import org.iban4j.Iban;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -41,16 +49,21 @@ public class CDAccountServiceImpl implements CDAccountService {
     private final CheckingAccountServiceImpl checkingAccountService;
     private final ModelMapper modelMapper;
     private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CDAccountServiceImpl(CDAccountRepository cdAccountRepository, AccountTypeService accountTypeService,
                                 UserService userService, CheckingAccountServiceImpl checkingAccountService,
-                                ModelMapper modelMapper, TransactionService transactionService) {
+                                ModelMapper modelMapper, TransactionService transactionService,
+                                TransactionRepository transactionRepository, ApplicationEventPublisher eventPublisher) {
         this.cdAccountRepository = cdAccountRepository;
         this.accountTypeService = accountTypeService;
         this.userService = userService;
         this.checkingAccountService = checkingAccountService;
         this.modelMapper = modelMapper;
         this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -153,11 +166,14 @@ public class CDAccountServiceImpl implements CDAccountService {
 
     /**
      * {@inheritDoc}
+     * <p>The balance is paid out to the new account with a {@link TransactionType#CD_PAYOUT} transaction, like the
+     * matured accounts get, so the ledger and the daily balances see it as a money movement.
      * @param cdAccount the Certification of deposit account to be transformed.
      * @param balance the balance that will be set upon transformation of the account.
      * @return a {@link CheckingAccountEntity} made from the given Certification of deposit account.
      */
     @Override
+    @Transactional
     public CheckingAccountEntity transformCDAccountToCheckingAccount(CDAccountEntity cdAccount, BigDecimal balance) {
         CheckingAccountEntity checkingAccount = new CheckingAccountEntity();
         checkingAccount.setIban(cdAccount.getIban());
@@ -165,6 +181,12 @@ public class CDAccountServiceImpl implements CDAccountService {
         checkingAccount.setBalance(balance);
         checkingAccount.setType(accountTypeService.findAccountTypeByType("Checking"));
         checkingAccountService.saveAccount(checkingAccount);
+        // An empty CD account opens an empty checking account, like it didn't get an opening balance before.
+        if (balance.signum() != 0) {
+            TransactionEntity payout = transactionRepository.save(new TransactionEntity(UUID.randomUUID(), balance,
+                    "-", TransactionType.CD_PAYOUT, checkingAccount));
+            eventPublisher.publishEvent(new MoneyMovementEvent(MoneyMovement.credit(payout)));
+        }
         cdAccountRepository.delete(cdAccount);
         return checkingAccount;
     }
@@ -0,0 +1,138 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import com.example.banksystem.repositories.CDAccountConversionWriter;
+import com.example.banksystem.repositories.CDAccountRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.ConvertedCDAccount;
+import com.example.banksystem.repositories.TransactionBatchWriter;
+import com.example.banksystem.services.batch.BusinessDateJob;
+import com.example.banksystem.services.batch.BusinessDateJobRunner;
+import com.example.banksystem.services.batch.BusinessDateRange;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.AccountTypeService;
+import com.example.banksystem.services.interfaces.CDMaturityService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link CDMaturityService} interface.
+ * <p>The conversion is a {@link BusinessDateJob} over the ids of the CD accounts, with one run per range of business
+ * dates.
+ * <p>A chunk is converted with one {@code INSERT ... SELECT} of the checking accounts and one {@code DELETE} of the CD
+ * accounts, and the payout transactions are written with one JDBC batch, all in the transaction of the chunk.
+ */
+@Service
+public class CDMaturityServiceImpl implements CDMaturityService, BusinessDateJob {
+    private static final String CHECKING_TYPE = "Checking";
+
+    private final CDAccountRepository cdAccountRepository;
+    private final CDAccountConversionWriter cdAccountConversionWriter;
+    private final CheckingAccountRepository checkingAccountRepository;
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final AccountTypeService accountTypeService;
+    private final AccountCache accountCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessDateJobRunner businessDateJobRunner;
+
+    public CDMaturityServiceImpl(CDAccountRepository cdAccountRepository,
+                                 CDAccountConversionWriter cdAccountConversionWriter,
+                                 CheckingAccountRepository checkingAccountRepository,
+                                 TransactionBatchWriter transactionBatchWriter, AccountTypeService accountTypeService,
+                                 AccountCache accountCache, ApplicationEventPublisher eventPublisher,
+                                 BusinessDateJobRunner businessDateJobRunner) {
+        this.cdAccountRepository = cdAccountRepository;
+        this.cdAccountConversionWriter = cdAccountConversionWriter;
+        this.checkingAccountRepository = checkingAccountRepository;
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.accountTypeService = accountTypeService;
+        this.accountCache = accountCache;
+        this.eventPublisher = eventPublisher;
+        this.businessDateJobRunner = businessDateJobRunner;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param businessDate the last expiration date to convert the accounts of.
+     * @return the number of accounts converted by the run.
+     */
+    @Override
+    public long convertExpiredAccounts(LocalDate businessDate) {
+        return businessDateJobRunner.runThrough(this, businessDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param businessDate the last date the job would process.
+     * @return the {@link CatchUpReportResponse} of the job.
+     */
+    @Override
+    public CatchUpReportResponse previewCatchUp(LocalDate businessDate) {
+        return businessDateJobRunner.preview(this, businessDate);
+    }
+
+    @Override
+    public String getName() {
+        return "cd-maturity";
+    }
+
+    @Override
+    public Long findMinId() {
+        return cdAccountRepository.findMinId();
+    }
+
+    @Override
+    public Long findMaxId() {
+        return cdAccountRepository.findMaxId();
+    }
+
+    @Override
+    public long countItems(BusinessDateRange range) {
+        return cdAccountRepository.countByExpirationDateBetween(range.getFrom(), range.getTo());
+    }
+
+    @Override
+    public int processChunk(String runKey, long fromId, long toId) {
+        BusinessDateRange range = BusinessDateRange.parse(runKey);
+        LocalDateTime createdOn = LocalDateTime.now();
+        List<ConvertedCDAccount> converted = cdAccountConversionWriter.convertAll(range.getFrom(), range.getTo(),
+                fromId, toId, accountTypeService.findAccountTypeByType(CHECKING_TYPE).getId(), createdOn);
+        if (converted.isEmpty()) {
+            return 0;
+        }
+
+        List<TransactionEntity> payouts = new ArrayList<>();
+        for (ConvertedCDAccount account : converted) {
+            // An empty CD account opens an empty checking account, like it didn't get an opening balance before.
+            if (account.getAmount().signum() != 0) {
+                TransactionEntity payout = new TransactionEntity(UUID.randomUUID(), account.getAmount(), "-",
+                        TransactionType.CD_PAYOUT, checkingAccountRepository.getReferenceById(account.getAccountId()));
+                payout.setCreatedOn(createdOn);
+                payouts.add(payout);
+            }
+        }
+        transactionBatchWriter.insertAll(payouts);
+        if (!payouts.isEmpty()) {
+            eventPublisher.publishEvent(new MoneyMovementEvent(payouts.stream()
+                    .map(MoneyMovement::credit)
+                    .collect(Collectors.toList())));
+        }
+
+        converted.stream()
+                .map(ConvertedCDAccount::getUserId)
+                .distinct()
+                .forEach(accountCache::evictUser);
+        return converted.size();
+    }
+}
@@ -7,12 +7,16 @@ import com.example.banksystem.models.entities.CheckingAccountEntity;
 import com.example.banksystem.models.entities.UserEntity;
 import com.example.banksystem.models.responses.CheckingAccountResponse;
 import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.cache.CachedAccount;
 import com.example.banksystem.services.interfaces.AccountTypeService;
 import com.example.banksystem.services.interfaces.CheckingAccountService;
 import com.example.banksystem.services.interfaces.UserService;
+import com.example.banksystem.services.limits.VelocityLimiter;
 import org.iban4j.Iban;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,14 +31,19 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 	private final UserService userService;
 	private final AccountTypeService accountTypeService;
 	private final ModelMapper modelMapper;
+	private final AccountCache accountCache;
+	private final VelocityLimiter velocityLimiter;
 
 	public CheckingAccountServiceImpl(CheckingAccountRepository checkingAccountRepository,
 	                                  UserService userService, AccountTypeService accountTypeService,
-	                                  ModelMapper modelMapper) {
+	                                  ModelMapper modelMapper, AccountCache accountCache,
+	                                  VelocityLimiter velocityLimiter) {
 		this.checkingAccountRepository = checkingAccountRepository;
 		this.userService = userService;
 		this.accountTypeService = accountTypeService;
 		this.modelMapper = modelMapper;
+		this.accountCache = accountCache;
+		this.velocityLimiter = velocityLimiter;
 	}
 
 	/**
@@ -58,6 +67,7 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 		accountEntity.setIban(iban);
 
 		CheckingAccountEntity saved = checkingAccountRepository.save(accountEntity);
+		accountCache.evictUser(id);
 
 		return mapAccountEntityToAccountResponse(saved);
 	}
@@ -104,34 +114,72 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 
 	/**
 	 * {@inheritDoc}
+	 * <p>The balance is changed with a single conditional update, which is applied only when the balance
+	 * covers the amount plus the transaction fee, so concurrent withdrawals can't lose updates or overdraw.
+	 * The velocity limits of the account are checked first, so an account over its limits never reaches the
+	 * database.
 	 *
 	 * @param account the account on which the transaction will be executed.
 	 * @param amount  the amount to be withdrawn from the account.
+	 * @return the transaction fee, taken from the account together with the amount.
 	 * @throws com.example.banksystem.exceptions.InsufficientFundsException when the
 	 * given amount to withdraw is greater than the balance in the account.
+	 * @throws VelocityLimitExceededException when the account made too many withdrawals and transfers, or moved
+	 * too much money, in the velocity window of its account type.
 	 */
 	@Override
-	public void withdraw(CheckingAccountEntity account, BigDecimal amount) {
-		BigDecimal totalWithdraw =
-				amount.add(accountTypeService.findAccountTypeByType(account.getType().getType()).getTransactionFee());
+	@Transactional
+	public BigDecimal withdraw(CheckingAccountEntity account, BigDecimal amount) {
+		velocityLimiter.acquire(account, amount);
+		return debit(account, amount);
+	}
 
-		if (totalWithdraw.compareTo(account.getBalance()) > 0)
-			throw new InsufficientFundsException("The selected account has Insufficient funds for this transaction!");
+	private BigDecimal debit(CheckingAccountEntity account, BigDecimal amount) {
+		BigDecimal fee = accountTypeService.findAccountTypeByType(account.getType().getType()).getTransactionFee();
 
-		account.setBalance(account.getBalance().subtract(totalWithdraw));
-		this.checkingAccountRepository.save(account);
+		if (this.checkingAccountRepository.debitIfCovered(account.getId(), amount.add(fee)) == 0)
+			throw new InsufficientFundsException("The selected account has Insufficient funds for this transaction!");
+		return fee;
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>The balance is changed with a single update in the database instead of a read-modify-write.
 	 *
 	 * @param account the account on which the transaction will be executed.
 	 * @param amount  the amount to be deposited in the account.
+	 * @throws EntityNotFoundException when the account no longer exists.
 	 */
 	@Override
+	@Transactional
 	public void deposit(CheckingAccountEntity account, BigDecimal amount) {
-		account.setBalance(account.getBalance().add(amount));
-		this.checkingAccountRepository.save(account);
+		if (this.checkingAccountRepository.credit(account.getId(), amount) == 0)
+			throw new EntityNotFoundException("CheckingAccount");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Both balance updates are issued in ascending order of the account IDs, so every transfer takes the row
+	 * locks of the two accounts in the same canonical order and crossing transfers (A to B and B to A) can't
+	 * deadlock. If the sender can't cover the amount plus the fee, the whole transaction is rolled back.
+	 * <p>The velocity limits are not checked here, the caller checks them before it looks up the receiver.
+	 *
+	 * @param accountFrom the account from which the amount will be withdrawn.
+	 * @param accountTo   the account to which the amount will be deposited.
+	 * @param amount      the amount to be transferred.
+	 * @return the transaction fee, taken from the sending account together with the amount.
+	 * @throws InsufficientFundsException when the sender's balance doesn't cover the amount and the fee.
+	 */
+	@Override
+	@Transactional
+	public BigDecimal transfer(CheckingAccountEntity accountFrom, CheckingAccountEntity accountTo, BigDecimal amount) {
+		if (accountFrom.getId() <= accountTo.getId()) {
+			BigDecimal fee = debit(accountFrom, amount);
+			deposit(accountTo, amount);
+			return fee;
+		}
+		deposit(accountTo, amount);
+		return debit(accountFrom, amount);
 	}
 
 	@Override
@@ -145,25 +193,33 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 
 	/**
 	 * {@inheritDoc}
+	 * <p>The account is read from the {@link AccountCache}.
 	 * @param accountId the ID of the account.
 	 * @return an {@link CheckingAccountEntity}.
 	 * @throws EntityNotFoundException when an account with the given id is not found.
 	 */
 	@Override
 	public CheckingAccountResponse getAccountById(Long accountId) {
-		CheckingAccountEntity account = checkingAccountRepository.findById(accountId)
-						.orElseThrow(() -> new EntityNotFoundException("CheckingAccount"));
-		return modelMapper.map(account, CheckingAccountResponse.class);
+		return getCachedAccount(accountId).toResponse();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The account and the account list of its user are removed from the {@link AccountCache}, the balance of a
+	 * saved account isn't a movement the cache can write through.
+	 * @param account the account to save.
+	 * @return the saved {@link CheckingAccountEntity}.
+	 */
 	@Override
 	public CheckingAccountEntity saveAccount(CheckingAccountEntity account) {
-		return checkingAccountRepository.save(account);
+		CheckingAccountEntity saved = checkingAccountRepository.save(account);
+		accountCache.evict(saved);
+		return saved;
 	}
 
 	/**
-	 * Retrieves a list of {@link CheckingAccountEntity} from {@link CheckingAccountRepository} with the given userId
-	 * and maps it to {@link CheckingAccountResponse}.
+	 * Retrieves a list of {@link CheckingAccountEntity} with the given userId from the {@link AccountCache}, or from
+	 * {@link CheckingAccountRepository} when they are not cached, and maps it to {@link CheckingAccountResponse}.
 	 *
 	 * @param userId the ID of the user to whom the accounts are assigned.
 	 * @return a {@link List<CheckingAccountEntity>} with all matching {@link CheckingAccountEntity}s from
@@ -175,11 +231,11 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 		if(!isAdmin(loggedInUserId) && !userId.equals(loggedInUserId)) {
 			throw new ResourceNotBelongingToUser("Checking account");
 		}
-		List<CheckingAccountEntity> allAccounts = checkingAccountRepository.findByUserId(userId);
+		List<CachedAccount> allAccounts = accountCache.getAllOfUser(userId, checkingAccountRepository::findByUserId);
 			if (allAccounts.isEmpty()) {
 				throw new NoRecordsOfEntityInTheDatabase("CheckingAccount");
 			}
-		return allAccounts.stream().map(this::mapAccountEntityToAccountResponse).collect(Collectors.toList());
+		return allAccounts.stream().map(CachedAccount::toResponse).collect(Collectors.toList());
 	}
 
 	/**
@@ -208,14 +264,13 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 
 	@Override
 	public CheckingAccountResponse getCheckingAccountById(Long acId, Long usId) {
-		CheckingAccountEntity checkingAccount = this.checkingAccountRepository.findById(acId)
-				.orElseThrow(() -> new EntityNotFoundException("CheckingAccount"));
+		CachedAccount checkingAccount = getCachedAccount(acId);
 		UserEntity user = userService.getUserEntityById(usId);
 		if(user.getRoles().stream().noneMatch(role -> role.getRole().equals("ADMIN")) &&
-				checkingAccount.getUser().getId() != usId){
+				!checkingAccount.getUserId().equals(usId)){
 			throw new ResourceNotBelongingToUser("Checking Account");
 		}
-		return modelMapper.map(checkingAccount,CheckingAccountResponse.class).setUserFullName(user.getFullName());
+		return checkingAccount.toResponse().setUserFullName(user.getFullName());
 	}
 
 	/**
@@ -231,6 +286,11 @@ public class CheckingAccountServiceImpl implements CheckingAccountService {
 		return viewModel;
 	}
 
+	private CachedAccount getCachedAccount(Long accountId) {
+		return accountCache.get(accountId, checkingAccountRepository::findById)
+				.orElseThrow(() -> new EntityNotFoundException("CheckingAccount"));
+	}
+
 	private boolean isAdmin(Long usId) {
 		return this.userService.getUserEntityById(usId)
 				.getRoles().stream().anyMatch(role -> role.getRole().equals("ADMIN"));
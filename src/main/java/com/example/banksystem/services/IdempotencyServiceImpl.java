@@ -0,0 +1,202 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.IdempotencyKeyConflictException;
+import com.example.banksystem.models.entities.IdempotencyKeyEntity;
+import com.example.banksystem.repositories.IdempotencyKeyRepository;
+import com.example.banksystem.services.interfaces.IdempotencyService;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private final IdempotencyKeyRepository idempotencyKeyRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final long retentionHours;
+	private final Map<String, IdempotencyKeyEntity> completedKeys;
+	private final Logger log = LogManager.getLogger(this.getClass());
+	// Field based, so the responses are stored with their raw values instead of the formatted ones of the getters.
+	private final ObjectMapper objectMapper = JsonMapper.builder()
+			.addModule(new JavaTimeModule())
+			.visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+			.visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+			.build();
+
+	public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+	                              PlatformTransactionManager transactionManager,
+	                              @Value("${bank.idempotency.cache-size:10000}") int cacheSize,
+	                              @Value("${bank.idempotency.retention-hours:24}") long retentionHours) {
+		this.idempotencyKeyRepository = idempotencyKeyRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.retentionHours = retentionHours;
+		this.completedKeys = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKeyEntity> eldest) {
+				return size() > cacheSize;
+			}
+		});
+		this.objectMapper.configOverride(DecimalFormat.class).setIsIgnoredType(true);
+	}
+
+	@Override
+	public <T> T execute(Long userId, String idempotencyKey, String operation, Object request, Class<T> responseType,
+	                     Supplier<T> action) {
+		if (idempotencyKey == null) {
+			return action.get();
+		}
+		validate(idempotencyKey);
+
+		String cacheKey = userId + ":" + idempotencyKey;
+		String requestHash = hash(request);
+		Optional<IdempotencyKeyEntity> stored = findCompleted(cacheKey, userId, idempotencyKey);
+		if (stored.isPresent()) {
+			return replay(stored.get(), operation, requestHash, responseType);
+		}
+
+		IdempotencyKeyEntity completed;
+		try {
+			// The key is claimed in the same transaction as the money movement, so either both are committed or
+			// neither is. A concurrent request with the same key waits on the unique index and fails once this
+			// one commits.
+			completed = transactionTemplate.execute(status -> {
+				IdempotencyKeyEntity claimed = idempotencyKeyRepository.saveAndFlush(
+						new IdempotencyKeyEntity(userId, idempotencyKey, operation, requestHash));
+				return idempotencyKeyRepository.save(claimed.setResponse(write(action.get())));
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Either a concurrent request with the same key won, or the action itself failed.
+			completed = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+					.orElseThrow(() -> e);
+		}
+		completedKeys.put(cacheKey, completed);
+		return replay(completed, operation, requestHash, responseType);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The claim is committed before the action runs, so the request thread doesn't hold a connection while it
+	 * waits for the transaction of the action. A key whose response couldn't be stored stays claimed until it
+	 * expires, so a retry is refused instead of moving the money again.
+	 */
+	@Override
+	public <T> T executeOutsideTransaction(Long userId, String idempotencyKey, String operation, Object request,
+	                                       Class<T> responseType, Supplier<T> action) {
+		if (idempotencyKey == null) {
+			return action.get();
+		}
+		validate(idempotencyKey);
+
+		String cacheKey = userId + ":" + idempotencyKey;
+		String requestHash = hash(request);
+		Optional<IdempotencyKeyEntity> stored = findCompleted(cacheKey, userId, idempotencyKey);
+		if (stored.isPresent()) {
+			return replay(stored.get(), operation, requestHash, responseType);
+		}
+
+		IdempotencyKeyEntity claimed;
+		try {
+			claimed = transactionTemplate.execute(status -> idempotencyKeyRepository.saveAndFlush(
+					new IdempotencyKeyEntity(userId, idempotencyKey, operation, requestHash)));
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent request with the same key claimed it first.
+			return replay(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+					.orElseThrow(() -> e), operation, requestHash, responseType);
+		}
+
+		T response;
+		try {
+			response = action.get();
+		} catch (RuntimeException e) {
+			// The action failed without moving any money, so a retry may execute it.
+			transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(claimed.getId()));
+			throw e;
+		}
+		try {
+			completedKeys.put(cacheKey, transactionTemplate.execute(status ->
+					idempotencyKeyRepository.save(claimed.setResponse(write(response)))));
+		} catch (RuntimeException e) {
+			log.error("The response of the request with the Idempotency-Key {} of user {} couldn't be stored",
+					idempotencyKey, userId, e);
+		}
+		return response;
+	}
+
+	@Override
+	public int deleteExpiredKeys() {
+		return transactionTemplate.execute(status -> idempotencyKeyRepository.deleteAllCreatedBefore(expiresBefore()));
+	}
+
+	private Optional<IdempotencyKeyEntity> findCompleted(String cacheKey, Long userId, String idempotencyKey) {
+		IdempotencyKeyEntity cached = completedKeys.get(cacheKey);
+		if (cached != null && cached.getCreatedOn().isAfter(expiresBefore())) {
+			return Optional.of(cached);
+		}
+		completedKeys.remove(cacheKey);
+
+		Optional<IdempotencyKeyEntity> stored = idempotencyKeyRepository
+				.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+		stored.filter(entity -> entity.getResponse() != null).ifPresent(entity -> completedKeys.put(cacheKey, entity));
+		return stored;
+	}
+
+	private <T> T replay(IdempotencyKeyEntity stored, String operation, String requestHash, Class<T> responseType) {
+		if (!stored.getOperation().equals(operation) || !stored.getRequestHash().equals(requestHash)) {
+			throw new IdempotencyKeyConflictException(
+					"The Idempotency-Key was already used for a different request.");
+		}
+		if (stored.getResponse() == null) {
+			throw new IdempotencyKeyConflictException(
+					"A request with this Idempotency-Key is still being processed.");
+		}
+		try {
+			return objectMapper.readValue(stored.getResponse(), responseType);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("The stored response can't be read.", e);
+		}
+	}
+
+	private static void validate(String idempotencyKey) {
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			throw new IllegalArgumentException("The Idempotency-Key header must be between 1 and "
+					+ MAX_KEY_LENGTH + " characters long.");
+		}
+	}
+
+	private String hash(Object request) {
+		return DigestUtils.md5DigestAsHex(write(request).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String write(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("The value can't be stored.", e);
+		}
+	}
+
+	private LocalDateTime expiresBefore() {
+		return LocalDateTime.now().minusHours(retentionHours);
+	}
+}
@@ -0,0 +1,261 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.LedgerAccount;
+import com.example.banksystem.models.entities.LedgerBalanceEntity;
+import com.example.banksystem.models.entities.LedgerPostingEntity;
+import com.example.banksystem.models.responses.LedgerDriftResponse;
+import com.example.banksystem.models.responses.LedgerVerificationResponse;
+import com.example.banksystem.repositories.AccountBalance;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.LedgerAccountTotal;
+import com.example.banksystem.repositories.LedgerBalanceRepository;
+import com.example.banksystem.repositories.LedgerPostingRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.LedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link LedgerService} interface.
+ * <p>The entry of a movement is identified by the UUID of its transaction, so both sides of a transfer belong to
+ * the same entry. Only the checking accounts have running totals, they are updated while the row of the account is
+ * still locked by the balance update. The ledger accounts of the bank are touched by almost every movement, so
+ * their balances are summed by the verification instead of being kept as totals every writer would wait for.
+ */
+@Service
+public class LedgerServiceImpl implements LedgerService {
+	private static final int MAX_REPORTED_ENTRIES = 100;
+
+	private final LedgerPostingRepository ledgerPostingRepository;
+	private final LedgerBalanceRepository ledgerBalanceRepository;
+	private final CheckingAccountRepository checkingAccountRepository;
+	private final TransactionTemplate verificationTemplate;
+	private final int verifyThreads;
+	private final int verifyChunkSize;
+
+	public LedgerServiceImpl(LedgerPostingRepository ledgerPostingRepository,
+	                         LedgerBalanceRepository ledgerBalanceRepository,
+	                         CheckingAccountRepository checkingAccountRepository,
+	                         PlatformTransactionManager transactionManager,
+	                         @Value("${bank.ledger.verify-threads:4}") int verifyThreads,
+	                         @Value("${bank.ledger.verify-chunk-size:1000}") int verifyChunkSize) {
+		this.ledgerPostingRepository = ledgerPostingRepository;
+		this.ledgerBalanceRepository = ledgerBalanceRepository;
+		this.checkingAccountRepository = checkingAccountRepository;
+		// Every chunk reads the accounts, their postings and their totals from one snapshot, so movements committed
+		// in between can't show up as drift.
+		this.verificationTemplate = new TransactionTemplate(transactionManager);
+		this.verificationTemplate.setReadOnly(true);
+		this.verificationTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		this.verifyThreads = verifyThreads;
+		this.verifyChunkSize = verifyChunkSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>All postings of the event are inserted together, and every checking account gets one update of its
+	 * running total.
+	 *
+	 * @param event a {@link MoneyMovementEvent} with the movements.
+	 */
+	@Override
+	@EventListener
+	@Transactional
+	public void recordMovements(MoneyMovementEvent event) {
+		List<LedgerPostingEntity> postings = new ArrayList<>();
+		for (MoneyMovement movement : event.getMovements()) {
+			postings.add(posting(movement, LedgerAccount.CHECKING, movement.getAccountId(),
+					movement.getBalanceChange()));
+			if (movement.getFee().signum() != 0) {
+				postings.add(posting(movement, LedgerAccount.FEE_REVENUE, null, movement.getFee()));
+			}
+			LedgerAccount counterAccount = counterAccount(movement);
+			if (counterAccount != null) {
+				postings.add(posting(movement, counterAccount, null,
+						movement.isCredit() ? movement.getAmount().negate() : movement.getAmount()));
+			}
+		}
+		save(postings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param accountId the id of the checking account.
+	 * @param amount    the amount added to the account.
+	 */
+	@Override
+	@Transactional
+	public void recordOpeningBalance(Long accountId, BigDecimal amount) {
+		if (amount.signum() == 0) {
+			return;
+		}
+		UUID entry = UUID.randomUUID();
+		save(List.of(
+				new LedgerPostingEntity().setEntryUuid(entry).setLedgerAccount(LedgerAccount.CHECKING)
+						.setAccountId(accountId).setAmount(amount),
+				new LedgerPostingEntity().setEntryUuid(entry).setLedgerAccount(LedgerAccount.OPENING_BALANCES)
+						.setAmount(amount.negate())));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal getBalance(Long accountId) {
+		return ledgerBalanceRepository.findByAccountId(accountId)
+				.map(LedgerBalanceEntity::getBalance)
+				.orElse(BigDecimal.ZERO);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The ids of the checking accounts are split into ranges of {@code bank.ledger.verify-chunk-size}, and the
+	 * ranges are checked in parallel on {@code bank.ledger.verify-threads} threads.
+	 *
+	 * @return a {@link LedgerVerificationResponse} with every drift found.
+	 */
+	@Override
+	public LedgerVerificationResponse verify() {
+		long started = System.nanoTime();
+		Long maxId = checkingAccountRepository.findMaxId();
+		List<LedgerDriftResponse> drifts = new ArrayList<>();
+		int checkedAccounts = 0;
+
+		if (maxId != null) {
+			ExecutorService pool = Executors.newFixedThreadPool(verifyThreads);
+			try {
+				List<Future<ChunkResult>> chunks = new ArrayList<>();
+				for (long fromId = 0; fromId <= maxId; fromId += verifyChunkSize) {
+					long from = fromId;
+					long to = Math.min(maxId, fromId + verifyChunkSize - 1);
+					chunks.add(pool.submit(() -> verificationTemplate.execute(status -> verifyChunk(from, to))));
+				}
+				for (Future<ChunkResult> chunk : chunks) {
+					ChunkResult result = chunk.get();
+					checkedAccounts += result.checkedAccounts;
+					drifts.addAll(result.drifts);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("The ledger verification was interrupted", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("The ledger verification failed", e.getCause());
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		Map<String, BigDecimal> bankBalances = new TreeMap<>();
+		ledgerPostingRepository.sumBankAccounts()
+				.forEach(total -> bankBalances.put(total.getLedgerAccount().name(), total.getTotal()));
+
+		return new LedgerVerificationResponse()
+				.setVerifiedOn(LocalDateTime.now())
+				.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+				.setCheckedAccounts(checkedAccounts)
+				.setDrifts(drifts)
+				.setUnbalancedEntries(ledgerPostingRepository.findUnbalancedEntries(
+						PageRequest.of(0, MAX_REPORTED_ENTRIES)))
+				.setBankBalances(bankBalances);
+	}
+
+	private ChunkResult verifyChunk(long fromId, long toId) {
+		List<AccountBalance> accounts = checkingAccountRepository.findBalancesByIdBetween(fromId, toId);
+		Map<Long, BigDecimal> ledgerBalances = toMap(ledgerPostingRepository.sumByAccountIdBetween(fromId, toId));
+		Map<Long, BigDecimal> cachedBalances =
+				toMap(ledgerBalanceRepository.findBalancesByAccountIdBetween(fromId, toId));
+
+		List<LedgerDriftResponse> drifts = accounts.stream()
+				.sorted(Comparator.comparing(AccountBalance::getAccountId))
+				.map(account -> new LedgerDriftResponse()
+						.setAccountId(account.getAccountId())
+						.setAccountBalance(account.getBalance())
+						.setLedgerBalance(ledgerBalances.getOrDefault(account.getAccountId(), BigDecimal.ZERO))
+						.setCachedBalance(cachedBalances.getOrDefault(account.getAccountId(), BigDecimal.ZERO)))
+				.filter(drift -> drift.getAccountBalance().compareTo(drift.getLedgerBalance()) != 0
+						|| drift.getCachedBalance().compareTo(drift.getLedgerBalance()) != 0)
+				.collect(Collectors.toList());
+		return new ChunkResult(accounts.size(), drifts);
+	}
+
+	private void save(List<LedgerPostingEntity> postings) {
+		ledgerPostingRepository.saveAll(postings);
+
+		Map<Long, List<LedgerPostingEntity>> byAccount = postings.stream()
+				.filter(posting -> posting.getLedgerAccount() == LedgerAccount.CHECKING)
+				.collect(Collectors.groupingBy(LedgerPostingEntity::getAccountId, TreeMap::new, Collectors.toList()));
+		byAccount.forEach((accountId, accountPostings) -> {
+			BigDecimal total = accountPostings.stream()
+					.map(LedgerPostingEntity::getAmount)
+					.reduce(BigDecimal.ZERO, BigDecimal::add);
+			if (ledgerBalanceRepository.addPostings(accountId, total, accountPostings.size()) == 0) {
+				ledgerBalanceRepository.save(new LedgerBalanceEntity()
+						.setAccountId(accountId)
+						.setBalance(total)
+						.setPostingCount(accountPostings.size()));
+			}
+		});
+	}
+
+	/**
+	 * Gets the ledger account of the bank on the other side of a movement, or null when the other side is another
+	 * checking account, like the receiving account of a transfer.
+	 */
+	private static LedgerAccount counterAccount(MoneyMovement movement) {
+		switch (movement.getType()) {
+			case SEND:
+			case RECEIVED:
+				return null;
+			case MONTHLY_FEE:
+				return LedgerAccount.FEE_REVENUE;
+			case LOAN_PAYMENT:
+				return LedgerAccount.LOANS;
+			case CD_PAYOUT:
+				return LedgerAccount.OPENING_BALANCES;
+			default:
+				return LedgerAccount.CASH;
+		}
+	}
+
+	private static LedgerPostingEntity posting(MoneyMovement movement, LedgerAccount ledgerAccount, Long accountId,
+	                                           BigDecimal amount) {
+		LedgerPostingEntity posting = new LedgerPostingEntity()
+				.setEntryUuid(movement.getUuid())
+				.setTransactionId(movement.getTransactionId())
+				.setLedgerAccount(ledgerAccount)
+				.setAccountId(accountId)
+				.setAmount(amount);
+		posting.setCreatedOn(movement.getCreatedOn());
+		return posting;
+	}
+
+	private static Map<Long, BigDecimal> toMap(List<AccountBalance> balances) {
+		return balances.stream().collect(Collectors.toMap(AccountBalance::getAccountId, AccountBalance::getBalance));
+	}
+
+	private static final class ChunkResult {
+		private final int checkedAccounts;
+		private final List<LedgerDriftResponse> drifts;
+
+		private ChunkResult(int checkedAccounts, List<LedgerDriftResponse> drifts) {
+			this.checkedAccounts = checkedAccounts;
+			this.drifts = drifts;
+		}
+	}
+}
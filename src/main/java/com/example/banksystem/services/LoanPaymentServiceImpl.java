@@ -0,0 +1,196 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.LoanEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.LoanInstalment;
+import com.example.banksystem.repositories.LoanInstalmentWriter;
+import com.example.banksystem.repositories.LoanRepository;
+import com.example.banksystem.repositories.TransactionBatchWriter;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import com.example.banksystem.services.batch.BusinessDateJob;
+import com.example.banksystem.services.batch.BusinessDateJobRunner;
+import com.example.banksystem.services.batch.BusinessDateRange;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.LoanPaymentService;
+import com.example.banksystem.services.interfaces.UserService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link LoanPaymentService} interface.
+ * <p>The instalments and the closing of the loans are two {@link BusinessDateJob}s over the ids of the loans, with
+ * one run per range of business dates. The loans are closed only after their instalments are charged through the
+ * same date, so no instalment of a closed loan is left uncharged.
+ * <p>A chunk of instalments is read with one query that doesn't load the loans, and charged with a JDBC batch of
+ * account updates, one of loan updates and one of payment transactions, all in the transaction of the chunk.
+ */
+@Service
+public class LoanPaymentServiceImpl implements LoanPaymentService {
+	private final Logger log = LogManager.getLogger(this.getClass());
+
+	private final LoanRepository loanRepository;
+	private final CheckingAccountRepository checkingAccountRepository;
+	private final LoanInstalmentWriter loanInstalmentWriter;
+	private final TransactionBatchWriter transactionBatchWriter;
+	private final UserService userService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final BusinessDateJobRunner businessDateJobRunner;
+	private final BusinessDateJob instalmentJob = new InstalmentJob();
+	private final BusinessDateJob closingJob = new ClosingJob();
+
+	public LoanPaymentServiceImpl(LoanRepository loanRepository, CheckingAccountRepository checkingAccountRepository,
+	                              LoanInstalmentWriter loanInstalmentWriter,
+	                              TransactionBatchWriter transactionBatchWriter, UserService userService,
+	                              ApplicationEventPublisher eventPublisher,
+	                              BusinessDateJobRunner businessDateJobRunner) {
+		this.loanRepository = loanRepository;
+		this.checkingAccountRepository = checkingAccountRepository;
+		this.loanInstalmentWriter = loanInstalmentWriter;
+		this.transactionBatchWriter = transactionBatchWriter;
+		this.userService = userService;
+		this.eventPublisher = eventPublisher;
+		this.businessDateJobRunner = businessDateJobRunner;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param businessDate the last date to charge the instalments of.
+	 * @return the number of instalments charged by the run.
+	 */
+	@Override
+	public long chargeInstalments(LocalDate businessDate) {
+		return businessDateJobRunner.runThrough(instalmentJob, businessDate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The instalments are caught up through the given date first. When they couldn't all be charged, no loan is
+	 * closed and the closing is retried on the next run.
+	 *
+	 * @param businessDate the last date to close the loans of.
+	 * @return the number of loans closed by the run.
+	 */
+	@Override
+	public long closeFinishedLoans(LocalDate businessDate) {
+		chargeInstalments(businessDate);
+		if (businessDateJobRunner.getPendingRange(instalmentJob.getName(), businessDate).isPresent()) {
+			log.warn("The loan instalments through {} aren't charged yet, no loan is closed", businessDate);
+			return 0;
+		}
+		return businessDateJobRunner.runThrough(closingJob, businessDate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param businessDate the last date the jobs would process.
+	 * @return the reports of the instalment and the closing job.
+	 */
+	@Override
+	public List<CatchUpReportResponse> previewCatchUp(LocalDate businessDate) {
+		return List.of(businessDateJobRunner.preview(instalmentJob, businessDate),
+				businessDateJobRunner.preview(closingJob, businessDate));
+	}
+
+	/**
+	 * The base of both jobs, which go over all the loans.
+	 */
+	private abstract class LoanJob implements BusinessDateJob {
+		@Override
+		public Long findMinId() {
+			return loanRepository.findMinId();
+		}
+
+		@Override
+		public Long findMaxId() {
+			return loanRepository.findMaxId();
+		}
+	}
+
+	private final class InstalmentJob extends LoanJob {
+		@Override
+		public String getName() {
+			return "loan-instalments";
+		}
+
+		@Override
+		public long countItems(BusinessDateRange range) {
+			return loanRepository.countByMaturityDateBetween(range.getFrom(), range.getTo());
+		}
+
+		@Override
+		public int processChunk(String runKey, long fromId, long toId) {
+			BusinessDateRange range = BusinessDateRange.parse(runKey);
+			List<TransactionEntity> transactions = new ArrayList<>();
+			LocalDateTime createdOn = LocalDateTime.now();
+			// A loan charged for a missed date can have its next instalment due within the range as well.
+			List<LoanInstalment> instalments = findInstalments(range, fromId, toId);
+			while (!instalments.isEmpty()) {
+				loanInstalmentWriter.chargeAll(instalments);
+				for (LoanInstalment instalment : instalments) {
+					TransactionEntity transaction = new TransactionEntity(UUID.randomUUID(), instalment.getPayment(),
+							"-", TransactionType.LOAN_PAYMENT,
+							checkingAccountRepository.getReferenceById(instalment.getAccountId()));
+					transaction.setCreatedOn(createdOn);
+					transactions.add(transaction);
+				}
+				instalments = findInstalments(range, fromId, toId);
+			}
+			if (transactions.isEmpty()) {
+				return 0;
+			}
+			transactionBatchWriter.insertAll(transactions);
+
+			eventPublisher.publishEvent(new MoneyMovementEvent(transactions.stream()
+					.map(transaction -> MoneyMovement.debit(transaction, BigDecimal.ZERO))
+					.collect(Collectors.toList())));
+			return transactions.size();
+		}
+
+		private List<LoanInstalment> findInstalments(BusinessDateRange range, long fromId, long toId) {
+			return loanRepository.findInstalmentsByMaturityDateBetweenAndIdBetween(range.getFrom(), range.getTo(),
+					fromId, toId);
+		}
+	}
+
+	private final class ClosingJob extends LoanJob {
+		@Override
+		public String getName() {
+			return "loan-closing";
+		}
+
+		@Override
+		public long countItems(BusinessDateRange range) {
+			return loanRepository.countByDueDateBetween(range.getFrom(), range.getTo());
+		}
+
+		@Override
+		public int processChunk(String runKey, long fromId, long toId) {
+			BusinessDateRange range = BusinessDateRange.parse(runKey);
+			List<LoanEntity> loans = loanRepository.findAllByDueDateBetweenAndIdBetween(range.getFrom(),
+					range.getTo(), fromId, toId);
+			for (LoanEntity loan : loans) {
+				UserEntity user = loan.getAccount().getUser();
+				user.setHasLoan(false);
+				userService.saveUser(user);
+				loanRepository.delete(loan);
+			}
+			return loans.size();
+		}
+	}
+}
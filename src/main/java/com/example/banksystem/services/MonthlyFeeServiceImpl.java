@@ -0,0 +1,116 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.TransactionBatchWriter;
+import com.example.banksystem.services.batch.BatchJobRunner;
+import com.example.banksystem.services.batch.ChunkedJob;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.MonthlyFeeService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link MonthlyFeeService} interface.
+ * <p>The collection is a {@link ChunkedJob} over the ids of the checking accounts, with one run per month.
+ */
+@Service
+public class MonthlyFeeServiceImpl implements MonthlyFeeService, ChunkedJob {
+	private final CheckingAccountRepository checkingAccountRepository;
+	private final AccountTypeRepository accountTypeRepository;
+	private final TransactionBatchWriter transactionBatchWriter;
+	private final ApplicationEventPublisher eventPublisher;
+	private final BatchJobRunner batchJobRunner;
+
+	public MonthlyFeeServiceImpl(CheckingAccountRepository checkingAccountRepository,
+	                             AccountTypeRepository accountTypeRepository,
+	                             TransactionBatchWriter transactionBatchWriter,
+	                             ApplicationEventPublisher eventPublisher, BatchJobRunner batchJobRunner) {
+		this.checkingAccountRepository = checkingAccountRepository;
+		this.accountTypeRepository = accountTypeRepository;
+		this.transactionBatchWriter = transactionBatchWriter;
+		this.eventPublisher = eventPublisher;
+		this.batchJobRunner = batchJobRunner;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The fees are collected once per month, calling it again in the same month only finishes the chunks that
+	 * weren't committed yet. The accounts opened after the collection of the month started are not charged.
+	 *
+	 * @return the number of accounts charged by the collection of this month.
+	 */
+	@Override
+	public long collectMonthlyFees() {
+		return batchJobRunner.run(this, YearMonth.now().toString()).getProcessedItems();
+	}
+
+	@Override
+	public String getName() {
+		return "monthly-fee";
+	}
+
+	@Override
+	public Long findMinId() {
+		return checkingAccountRepository.findMinId();
+	}
+
+	@Override
+	public Long findMaxId() {
+		return checkingAccountRepository.findMaxId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The chunk is charged with one balance update per account type, and its fee transactions are written with
+	 * one JDBC batch, without loading the accounts.
+	 *
+	 * @param runKey the month the fees are collected for.
+	 * @param fromId the first id of the chunk.
+	 * @param toId   the last id of the chunk.
+	 * @return the number of charged accounts.
+	 */
+	@Override
+	public int processChunk(String runKey, long fromId, long toId) {
+		List<TransactionEntity> transactions = new ArrayList<>();
+		LocalDateTime createdOn = LocalDateTime.now();
+		for (AccountTypeEntity type : accountTypeRepository.findAll()) {
+			BigDecimal fee = type.getMonthlyFee();
+			if (fee == null || fee.signum() == 0) {
+				continue;
+			}
+			int updated = checkingAccountRepository.chargeByTypeIdAndIdBetween(type.getId(), fee, fromId, toId);
+			// The updated rows stay locked, so only an account opened in the range meanwhile can make these differ.
+			List<Long> accountIds = checkingAccountRepository.findIdsByTypeIdAndIdBetween(type.getId(), fromId, toId);
+			if (accountIds.size() != updated) {
+				throw new IllegalStateException("An account was opened while its chunk was being charged!");
+			}
+			for (Long accountId : accountIds) {
+				TransactionEntity transaction = new TransactionEntity(UUID.randomUUID(), fee, "-",
+						TransactionType.MONTHLY_FEE, checkingAccountRepository.getReferenceById(accountId));
+				transaction.setCreatedOn(createdOn);
+				transactions.add(transaction);
+			}
+		}
+		transactionBatchWriter.insertAll(transactions);
+
+		if (!transactions.isEmpty()) {
+			eventPublisher.publishEvent(new MoneyMovementEvent(transactions.stream()
+					.map(transaction -> MoneyMovement.debit(transaction, BigDecimal.ZERO))
+					.collect(Collectors.toList())));
+		}
+		return transactions.size();
+	}
+}
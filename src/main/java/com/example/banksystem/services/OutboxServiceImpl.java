@@ -0,0 +1,134 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.OutboxEventEntity;
+import com.example.banksystem.models.responses.OutboxMetricsResponse;
+import com.example.banksystem.repositories.OutboxEventRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.events.OutboxConsumer;
+import com.example.banksystem.services.interfaces.OutboxService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link OutboxService} interface.
+ * <p>The relay runs on one thread: it reads the oldest waiting events, hands them to every consumer and marks them
+ * as relayed in a transaction of its own. A failure anywhere before the mark leaves the events waiting, so they are
+ * relayed again on the next run.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+	private final OutboxEventRepository outboxEventRepository;
+	private final ObjectProvider<OutboxConsumer> consumers;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final long retentionHours;
+	private final LongAdder relayedEvents = new LongAdder();
+	private final LongAdder failedBatches = new LongAdder();
+
+	private final Logger logger = LogManager.getLogger(this.getClass());
+
+	public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+	                         ObjectProvider<OutboxConsumer> consumers,
+	                         PlatformTransactionManager transactionManager,
+	                         @Value("${bank.outbox.batch-size:500}") int batchSize,
+	                         @Value("${bank.outbox.retention-hours:24}") long retentionHours) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.consumers = consumers;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.retentionHours = retentionHours;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The events are inserted together with the other writes of the transaction, in JDBC batches.
+	 *
+	 * @param event a {@link MoneyMovementEvent} with the movements.
+	 */
+	@Override
+	@EventListener
+	@Transactional
+	public void append(MoneyMovementEvent event) {
+		outboxEventRepository.saveAll(event.getMovements().stream()
+				.map(OutboxServiceImpl::toOutboxEvent)
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	public int relayPending() {
+		int relayed = 0;
+		int batch;
+		do {
+			batch = relayBatch();
+			relayed += batch;
+		} while (batch == batchSize);
+		return relayed;
+	}
+
+	@Override
+	public int deleteRelayedEvents() {
+		return transactionTemplate.execute(status -> outboxEventRepository
+				.deleteAllRelayedBefore(LocalDateTime.now().minusHours(retentionHours)));
+	}
+
+	@Override
+	public OutboxMetricsResponse getMetrics() {
+		return new OutboxMetricsResponse()
+				.setPendingEvents(outboxEventRepository.countByRelayedOnIsNull())
+				.setRelayedEvents(relayedEvents.sum())
+				.setFailedBatches(failedBatches.sum());
+	}
+
+	private int relayBatch() {
+		List<OutboxEventEntity> events = outboxEventRepository.findPending(PageRequest.of(0, batchSize));
+		if (events.isEmpty()) {
+			return 0;
+		}
+
+		List<OutboxEventEntity> batch = List.copyOf(events);
+		for (OutboxConsumer consumer : consumers.orderedStream().collect(Collectors.toList())) {
+			try {
+				consumer.consume(batch);
+			} catch (RuntimeException e) {
+				failedBatches.increment();
+				logger.error("{} failed on the outbox events {} to {}, they will be relayed again.",
+						consumer.getClass().getSimpleName(), batch.get(0).getId(),
+						batch.get(batch.size() - 1).getId(), e);
+				return 0;
+			}
+		}
+
+		List<Long> ids = batch.stream().map(OutboxEventEntity::getId).collect(Collectors.toList());
+		transactionTemplate.executeWithoutResult(
+				status -> outboxEventRepository.markRelayed(ids, LocalDateTime.now()));
+		relayedEvents.add(batch.size());
+		return batch.size();
+	}
+
+	private static OutboxEventEntity toOutboxEvent(MoneyMovement movement) {
+		OutboxEventEntity event = new OutboxEventEntity()
+				.setTransactionId(movement.getTransactionId())
+				.setTransactionUuid(movement.getUuid())
+				.setAccountId(movement.getAccountId())
+				.setType(movement.getType())
+				.setAmount(movement.getAmount())
+				.setFee(movement.getFee())
+				.setCredit(movement.isCredit());
+		event.setCreatedOn(movement.getCreatedOn());
+		return event;
+	}
+}
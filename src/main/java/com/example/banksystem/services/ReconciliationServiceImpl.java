@@ -0,0 +1,239 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.EntityNotFoundException;
+import com.example.banksystem.exceptions.ServiceOverloadedException;
+import com.example.banksystem.models.entities.ReconciliationChunkEntity;
+import com.example.banksystem.models.entities.ReconciliationDiscrepancyEntity;
+import com.example.banksystem.models.entities.ReconciliationRunEntity;
+import com.example.banksystem.models.responses.ReconciliationDiscrepancyResponse;
+import com.example.banksystem.models.responses.ReconciliationRunResponse;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.interfaces.ReconciliationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link ReconciliationService} interface.
+ * <p>The ids of the checking accounts are split into chunks of {@code bank.reconciliation.chunk-size}, and the
+ * chunks are split in halves on a fork-join pool of {@code bank.reconciliation.threads} threads until every task
+ * checks one chunk. At most {@code bank.reconciliation.max-connections} chunks read the database at once, whatever
+ * the size of the pool, so the reconciliation never takes more connections than it's given.
+ * <p>Every chunk is read from one snapshot, so a movement committed while the chunk is read can't show up as a
+ * discrepancy, and its discrepancies are saved together with its checkpoint. A run that is interrupted is resumed
+ * by the next reconciliation, which only checks the chunks without a checkpoint.
+ */
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+	private static final int MAX_REPORTED_DISCREPANCIES = 100;
+
+	private final ReconciliationReader reconciliationReader;
+	private final ReconciliationRunRepository reconciliationRunRepository;
+	private final ReconciliationChunkRepository reconciliationChunkRepository;
+	private final ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+	private final CheckingAccountRepository checkingAccountRepository;
+	private final TransactionTemplate chunkTemplate;
+	private final int threads;
+	private final Semaphore connections;
+	private final int chunkSize;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	public ReconciliationServiceImpl(ReconciliationReader reconciliationReader,
+	                                 ReconciliationRunRepository reconciliationRunRepository,
+	                                 ReconciliationChunkRepository reconciliationChunkRepository,
+	                                 ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository,
+	                                 CheckingAccountRepository checkingAccountRepository,
+	                                 PlatformTransactionManager transactionManager,
+	                                 @Value("${bank.reconciliation.threads:4}") int threads,
+	                                 @Value("${bank.reconciliation.max-connections:2}") int maxConnections,
+	                                 @Value("${bank.reconciliation.chunk-size:1000}") int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The reconciliation chunk size must be positive!");
+		}
+		this.reconciliationReader = reconciliationReader;
+		this.reconciliationRunRepository = reconciliationRunRepository;
+		this.reconciliationChunkRepository = reconciliationChunkRepository;
+		this.reconciliationDiscrepancyRepository = reconciliationDiscrepancyRepository;
+		this.checkingAccountRepository = checkingAccountRepository;
+		this.chunkTemplate = new TransactionTemplate(transactionManager);
+		this.chunkTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		this.threads = threads;
+		this.connections = new Semaphore(maxConnections);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>A new run checks the accounts up to the highest id when it starts, the accounts opened later are checked
+	 * by the next run.
+	 *
+	 * @return a {@link ReconciliationRunResponse} with the report of the finished run.
+	 */
+	@Override
+	public ReconciliationRunResponse reconcile() {
+		if (!running.compareAndSet(false, true)) {
+			throw new ServiceOverloadedException("A reconciliation is already running, try again later.");
+		}
+		try {
+			long started = System.nanoTime();
+			ReconciliationRunEntity run = reconciliationRunRepository.findFirstByFinishedOnIsNullOrderByIdDesc()
+					.orElseGet(this::startRun);
+			Set<Long> checkedChunks = new HashSet<>(reconciliationChunkRepository.findChunksByRunId(run.getId()));
+			long totalChunks = totalChunks(run);
+
+			if (checkedChunks.size() < totalChunks) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				try {
+					pool.invoke(new ChunkRangeTask(run, checkedChunks, 0, totalChunks));
+				} finally {
+					awaitShutdown(pool);
+				}
+			}
+
+			reconciliationRunRepository.save(run
+					.setCheckedAccounts(reconciliationChunkRepository.sumCheckedAccountsByRunId(run.getId()))
+					.setDiscrepancies(reconciliationChunkRepository.sumDiscrepanciesByRunId(run.getId()))
+					.setFinishedOn(LocalDateTime.now()));
+			return toResponse(run, checkedChunks.size())
+					.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		} finally {
+			running.set(false);
+		}
+	}
+
+	@Override
+	public ReconciliationRunResponse getRun(Long runId) {
+		ReconciliationRunEntity run = reconciliationRunRepository.findById(runId)
+				.orElseThrow(() -> new EntityNotFoundException("ReconciliationRun"));
+		if (run.getFinishedOn() == null) {
+			run.setCheckedAccounts(reconciliationChunkRepository.sumCheckedAccountsByRunId(runId))
+					.setDiscrepancies(reconciliationChunkRepository.sumDiscrepanciesByRunId(runId));
+		}
+		return toResponse(run, reconciliationChunkRepository.countByRunId(runId));
+	}
+
+	private ReconciliationRunEntity startRun() {
+		Long maxId = checkingAccountRepository.findMaxId();
+		return reconciliationRunRepository.save(new ReconciliationRunEntity()
+				.setChunkSize(chunkSize)
+				.setMaxAccountId(maxId == null ? 0 : maxId));
+	}
+
+	/**
+	 * Checks the accounts of one chunk and saves its discrepancies and its checkpoint in one transaction.
+	 */
+	void checkChunk(ReconciliationRunEntity run, long chunk) {
+		long fromId = chunk * run.getChunkSize();
+		long toId = fromId + run.getChunkSize() - 1;
+
+		connections.acquireUninterruptibly();
+		try {
+			chunkTemplate.executeWithoutResult(status -> {
+				List<AccountReconciliation> accounts = reconciliationReader.readRange(fromId, toId);
+				List<ReconciliationDiscrepancyEntity> discrepancies = accounts.stream()
+						.filter(AccountReconciliation::isDiscrepancy)
+						.map(account -> new ReconciliationDiscrepancyEntity()
+								.setRunId(run.getId())
+								.setAccountId(account.getAccountId())
+								.setBalance(account.getBalance())
+								.setExpectedBalance(account.getExpectedBalance())
+								.setOpeningBalance(account.getOpeningBalance())
+								.setTransactionTotal(account.getTransactionTotal())
+								.setFeeTotal(account.getFeeTotal()))
+						.collect(Collectors.toList());
+
+				reconciliationDiscrepancyRepository.saveAll(discrepancies);
+				reconciliationChunkRepository.save(new ReconciliationChunkEntity()
+						.setRunId(run.getId())
+						.setChunk(chunk)
+						.setCheckedAccounts(accounts.size())
+						.setDiscrepancies(discrepancies.size()));
+			});
+		} finally {
+			connections.release();
+		}
+	}
+
+	private ReconciliationRunResponse toResponse(ReconciliationRunEntity run, long skippedChunks) {
+		List<ReconciliationDiscrepancyResponse> discrepancies = reconciliationDiscrepancyRepository
+				.findAllByRunIdOrderByAccountId(run.getId(), PageRequest.of(0, MAX_REPORTED_DISCREPANCIES)).stream()
+				.map(discrepancy -> new ReconciliationDiscrepancyResponse()
+						.setAccountId(discrepancy.getAccountId())
+						.setBalance(discrepancy.getBalance())
+						.setExpectedBalance(discrepancy.getExpectedBalance())
+						.setOpeningBalance(discrepancy.getOpeningBalance())
+						.setTransactionTotal(discrepancy.getTransactionTotal())
+						.setFeeTotal(discrepancy.getFeeTotal()))
+				.collect(Collectors.toList());
+
+		return new ReconciliationRunResponse()
+				.setRunId(run.getId())
+				.setStartedOn(run.getCreatedOn())
+				.setFinishedOn(run.getFinishedOn())
+				.setTotalChunks(totalChunks(run))
+				.setSkippedChunks(skippedChunks)
+				.setCheckedAccounts(run.getCheckedAccounts())
+				.setDiscrepancyCount(run.getDiscrepancies())
+				.setDiscrepancies(discrepancies);
+	}
+
+	private static long totalChunks(ReconciliationRunEntity run) {
+		return run.getMaxAccountId() / run.getChunkSize() + 1;
+	}
+
+	/**
+	 * Stops the chunks still running after another one failed, before the run can be resumed.
+	 */
+	private static void awaitShutdown(ForkJoinPool pool) {
+		pool.shutdownNow();
+		try {
+			pool.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Checks the chunks from {@code fromChunk} up to {@code toChunk}, excluded, by splitting them in halves.
+	 */
+	private final class ChunkRangeTask extends RecursiveAction {
+		private final ReconciliationRunEntity run;
+		private final Set<Long> checkedChunks;
+		private final long fromChunk;
+		private final long toChunk;
+
+		private ChunkRangeTask(ReconciliationRunEntity run, Set<Long> checkedChunks, long fromChunk, long toChunk) {
+			this.run = run;
+			this.checkedChunks = checkedChunks;
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (toChunk - fromChunk == 1) {
+				if (!checkedChunks.contains(fromChunk)) {
+					checkChunk(run, fromChunk);
+				}
+				return;
+			}
+			long middle = (fromChunk + toChunk) >>> 1;
+			invokeAll(new ChunkRangeTask(run, checkedChunks, fromChunk, middle),
+					new ChunkRangeTask(run, checkedChunks, middle, toChunk));
+		}
+	}
+}
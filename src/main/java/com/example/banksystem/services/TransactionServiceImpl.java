@@ -3,45 +3,83 @@ package com.example.banksystem.services;
 import com.example.banksystem.exceptions.*;
 import com.example.banksystem.models.entities.CheckingAccountEntity;
 import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
 import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.requsts.TransactionExportFormat;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
 import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransactionPageResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
 import com.example.banksystem.models.responses.TransferResponse;
+import com.example.banksystem.repositories.TransactionCursor;
+import com.example.banksystem.repositories.TransactionExportRow;
+import com.example.banksystem.repositories.TransactionExporter;
 import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.TransactionSearchCriteria;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
 import com.example.banksystem.services.interfaces.CheckingAccountService;
 import com.example.banksystem.services.interfaces.TransactionService;
 import com.example.banksystem.services.interfaces.UserService;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * An implementation of {@link TransactionService} interface.
  */
 @Service
 public class TransactionServiceImpl implements TransactionService {
+	public static final int DEFAULT_PAGE_SIZE = 50;
+	public static final int MAX_PAGE_SIZE = 500;
+	private static final String CSV_HEADER = "id,uuid,iban,created_on,amount,type,reason,user_name";
+	// Every object ends its own line, so no separator is written between them.
+	private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+			.enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+			.rootValueSeparator((String) null)
+			.build();
 
 	private final TransactionRepository transactionRepository;
 	private final CheckingAccountService checkingAccountService;
 	private final UserService userService;
 	private final ModelMapper modelMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionExporter transactionExporter;
+	private final VelocityLimiter velocityLimiter;
 
 	public TransactionServiceImpl(TransactionRepository transactionRepository,
 								  CheckingAccountService checkingAccountService,
-								  UserService userService, ModelMapper modelMapper) {
+								  UserService userService, ModelMapper modelMapper,
+								  ApplicationEventPublisher eventPublisher, TransactionExporter transactionExporter,
+								  VelocityLimiter velocityLimiter) {
 		this.transactionRepository = transactionRepository;
 		this.checkingAccountService = checkingAccountService;
 		this.userService = userService;
 		this.modelMapper = modelMapper;
+		this.eventPublisher = eventPublisher;
+		this.transactionExporter = transactionExporter;
+		this.velocityLimiter = velocityLimiter;
 	}
 
 	/**
@@ -53,14 +91,17 @@ public class TransactionServiceImpl implements TransactionService {
 	 * @throws EntityNotFoundException when the given id or Iban do not match with any account.
 	 */
 	@Override
+	@Transactional
 	public TransactionResponse deposit(Long userId, TransactionCreationRequest body) {
 		CheckingAccountEntity account = checkingAccountService.getAccountByUserIdAndIban(userId, body.getIban());
 
 		this.checkingAccountService.deposit(account, body.getAmount());
 
-		TransactionEntity transaction = makeTransactionEntity(body.getAmount(), account, "deposit");
+		TransactionEntity transaction = transactionRepository.save(
+						makeTransactionEntity(body.getAmount(), account, TransactionType.DEPOSIT));
+		eventPublisher.publishEvent(new MoneyMovementEvent(MoneyMovement.credit(transaction)));
 
-		return modelMapper.map(transactionRepository.save(transaction), TransactionResponse.class)
+		return modelMapper.map(transaction, TransactionResponse.class)
 						.setUserName(account.getUser().getFullName())
 						.setCreatedOn(LocalDateTime.now()).setIban(body.getIban());
 	}
@@ -74,15 +115,19 @@ public class TransactionServiceImpl implements TransactionService {
 	 * @throws EntityNotFoundException    when the given id or Iban do not match with any account.
 	 * @throws InsufficientFundsException when the balance in the retrieved account is less than the given
 	 *                                    amount to withdraw.
+	 * @throws VelocityLimitExceededException when the account is over the velocity limits of its account type.
 	 */
 	@Override
+	@Transactional
 	public TransactionResponse withdraw(Long userId, TransactionCreationRequest body) {
 		CheckingAccountEntity account = checkingAccountService.getAccountByUserIdAndIban(userId, body.getIban());
-		this.checkingAccountService.withdraw(account, body.getAmount());
+		BigDecimal fee = this.checkingAccountService.withdraw(account, body.getAmount());
 
-		TransactionEntity transaction = makeTransactionEntity(body.getAmount(), account, "withdraw");
+		TransactionEntity transaction = transactionRepository.save(
+						makeTransactionEntity(body.getAmount(), account, TransactionType.WITHDRAW));
+		eventPublisher.publishEvent(new MoneyMovementEvent(MoneyMovement.debit(transaction, fee)));
 
-		return modelMapper.map(transactionRepository.save(transaction), TransactionResponse.class)
+		return modelMapper.map(transaction, TransactionResponse.class)
 						.setUserName(account.getUser().getFullName())
 						.setCreatedOn(LocalDateTime.now()).setIban(body.getIban());
 	}
@@ -96,8 +141,9 @@ public class TransactionServiceImpl implements TransactionService {
 	 * @param type    is the type of the transaction
 	 */
 	@Override
-	public void savePaymentInTransaction(BigDecimal tax, CheckingAccountEntity account, String type) {
-		transactionRepository.save(makeTransactionEntity(tax, account, type));
+	public void savePaymentInTransaction(BigDecimal tax, CheckingAccountEntity account, TransactionType type) {
+		TransactionEntity transaction = transactionRepository.save(makeTransactionEntity(tax, account, type));
+		eventPublisher.publishEvent(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ZERO)));
 	}
 
     /**
@@ -116,7 +162,8 @@ public class TransactionServiceImpl implements TransactionService {
 		this.deposit(userId, transactionRequest);
 	}
 
-	protected TransactionEntity makeTransactionEntity(BigDecimal tax, CheckingAccountEntity account, String type) {
+	protected TransactionEntity makeTransactionEntity(BigDecimal tax, CheckingAccountEntity account,
+	                                                  TransactionType type) {
 		return new TransactionEntity()
 						.setUUid(UUID.randomUUID())
 						.setAmount(tax)
@@ -125,26 +172,40 @@ public class TransactionServiceImpl implements TransactionService {
 						.setAccountEntity(account);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userId the id of the user, issuing the transfer.
+	 * @param body   a {@link TransferCreationRequest} entity, containing all the parameters for the transfer.
+	 * @return a {@link TransferResponse} containing the information of the created transfer.
+	 * @throws AccountNotBelongToUserException when the sending account doesn't belong to the user.
+	 * @throws EntityNotFoundException         when the receiving account doesn't exist.
+	 * @throws InsufficientFundsException      when the sending account can't cover the amount and the fee.
+	 * @throws VelocityLimitExceededException  when the sending account is over its velocity limits, checked right
+	 *                                         after the sending account is found and before anything else.
+	 */
 	@Override
+	@Transactional
 	public TransferResponse transfer(Long userId, TransferCreationRequest body) {
 		CheckingAccountEntity accountFrom =
 								this.checkingAccountService.getAccountByUserIdAndIban(userId, body.getAccountFrom());
+		this.velocityLimiter.acquire(accountFrom, body.getAmount());
 		CheckingAccountEntity accountTo = this.checkingAccountService.getAccountByIban(body.getAccountTo());
 
 		UUID transactionUUID = UUID.randomUUID();
 		LocalDateTime createdTime = LocalDateTime.now();
 
-		TransactionEntity transactionFrom = getTransactionEntity(body, accountFrom, "send",
-						transactionUUID, createdTime);
-
-		this.checkingAccountService.withdraw(accountFrom, body.getAmount());
-		this.transactionRepository.save(transactionFrom);
+		BigDecimal fee = this.checkingAccountService.transfer(accountFrom, accountTo, body.getAmount());
 
-		TransactionEntity transactionTo = getTransactionEntity(body, accountTo, "received",
+		TransactionEntity transactionFrom = getTransactionEntity(body, accountFrom, TransactionType.SEND,
+						transactionUUID, createdTime);
+		TransactionEntity transactionTo = getTransactionEntity(body, accountTo, TransactionType.RECEIVED,
 						transactionUUID, createdTime);
 
-		this.checkingAccountService.deposit(accountTo, body.getAmount());
-		TransactionEntity entity = this.transactionRepository.save(transactionTo);
+		List<TransactionEntity> saved = this.transactionRepository.saveAll(List.of(transactionFrom, transactionTo));
+		eventPublisher.publishEvent(new MoneyMovementEvent(
+						MoneyMovement.debit(saved.get(0), fee), MoneyMovement.credit(saved.get(1))));
+		TransactionEntity entity = saved.get(1);
 
 		return modelMapper.map(entity, TransferResponse.class)
 						.setId(entity.getId())
@@ -157,49 +218,9 @@ public class TransactionServiceImpl implements TransactionService {
 	}
 
 	@Override
-	public List<TransactionResponse> getAllTransactionsByGivenCriteria(String type, String dateOnString,
-																	   String dateBeforeString,
-																	   String dateAfterString) {
-		LocalDate dateOn = dateParser(dateOnString);
-		LocalDate dateBefore = dateParser(dateBeforeString);
-		LocalDate dateAfter = dateParser(dateAfterString);
-
-		if (dateOn != null && (dateBefore != null || dateAfter != null)) {
-			throw new IncorrectDateFilteringException();
-		}
-		List<TransactionEntity> transactions;
-		if (dateBefore != null && dateAfter != null && type != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndCreatedOnAfterAndType(dateBefore.atTime(LocalTime.MIN),
-							dateAfter.atTime(LocalTime.MAX), type);
-		} else if (dateBefore != null && dateAfter != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndCreatedOnAfter(dateBefore.atTime(LocalTime.MIN),
-							dateAfter.atTime(LocalTime.MAX));
-		} else if (dateBefore != null && type != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndType(dateBefore.atTime(LocalTime.MIN), type);
-		} else if (dateAfter != null && type != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnAfterAndType(dateAfter.atTime(LocalTime.MAX), type);
-		} else if (dateOn != null && type != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnBetweenAndType(dateOn.atTime(LocalTime.MIN), dateOn.atTime(LocalTime.MAX), type);
-		} else if (dateBefore != null) {
-			transactions = transactionRepository.findAllByCreatedOnBefore(dateBefore.atTime(LocalTime.MIN));
-		} else if (dateAfter != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnAfter(dateAfter.atTime(LocalTime.MAX));
-		} else if (dateOn != null) {
-			transactions = transactionRepository
-					.findAllByCreatedOnBetween(dateOn.atTime(LocalTime.MIN), dateOn.atTime(LocalTime.MAX));
-		} else if (type != null) {
-			transactions = transactionRepository
-					.findAllByType(type);
-		} else {
-			transactions = transactionRepository.findAll();
-		}
-		return transactionsListMapperFromEntityToResponse(transactions);
+	@Transactional(readOnly = true)
+	public TransactionPageResponse getAllTransactionsByGivenCriteria(TransactionSearchRequest request) {
+		return search(searchCriteria(request), request);
 	}
 
 	protected LocalDate dateParser(String dateString) {
@@ -216,59 +237,153 @@ public class TransactionServiceImpl implements TransactionService {
 	}
 
 	@Override
-	public List<TransactionResponse> getAllTransactionsForUserByGivenCriteria(Long userId, Long accountId,
-																			  String type, String dateOnString,
-																			  String dateBeforeString,
-																			  String dateAfterString) {
+	@Transactional(readOnly = true)
+	public TransactionPageResponse getAllTransactionsForUserByGivenCriteria(Long userId, Long accountId,
+																			TransactionSearchRequest request) {
 		if(!accountBelongsToTheUser(userId, accountId)) {
 			throw new AccountNotBelongToUserException();
 		}
+		return search(searchCriteria(request).setAccountId(accountId), request);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The rows come from a forward-only cursor, so the whole export runs in one read-only transaction and only
+	 * the current fetch of rows and the buffer of the writer are kept in memory.
+	 *
+	 * @param request a {@link TransactionSearchRequest} containing the criteria.
+	 * @param format  the {@link TransactionExportFormat} of the export.
+	 * @param out     the stream to write the export to.
+	 * @return the number of exported transactions.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public long exportTransactions(TransactionSearchRequest request, TransactionExportFormat format,
+								   OutputStream out) {
+		TransactionSearchCriteria criteria = searchCriteria(request);
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			long rows;
+			if (format == TransactionExportFormat.CSV) {
+				writer.write(CSV_HEADER);
+				writer.write('\n');
+				rows = transactionExporter.forEach(criteria, row -> writeCsv(writer, row));
+			} else {
+				JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+				rows = transactionExporter.forEach(criteria, row -> writeJson(generator, row));
+				generator.flush();
+			}
+			writer.flush();
+			return rows;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeJson(JsonGenerator generator, TransactionExportRow row) {
+		try {
+			generator.writeStartObject();
+			generator.writeNumberField("id", row.getId());
+			generator.writeStringField("uuid", row.getUuid());
+			generator.writeStringField("iban", row.getIban());
+			generator.writeStringField("createdOn", row.getCreatedOn().toString());
+			generator.writeNumberField("amount", row.getAmount());
+			generator.writeStringField("type", row.getType());
+			generator.writeStringField("reason", row.getReason());
+			generator.writeStringField("userName", row.getUserName());
+			generator.writeEndObject();
+			generator.writeRaw('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeCsv(Writer writer, TransactionExportRow row) {
+		try {
+			writer.write(Long.toString(row.getId()));
+			writer.write(',');
+			writer.write(csvField(row.getUuid()));
+			writer.write(',');
+			writer.write(csvField(row.getIban()));
+			writer.write(',');
+			writer.write(row.getCreatedOn().toString());
+			writer.write(',');
+			writer.write(row.getAmount().toPlainString());
+			writer.write(',');
+			writer.write(csvField(row.getType()));
+			writer.write(',');
+			writer.write(csvField(row.getReason()));
+			writer.write(',');
+			writer.write(csvField(row.getUserName()));
+			writer.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String csvField(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
 
-		LocalDate dateOn = dateParser(dateOnString);
-		LocalDate dateBefore = dateParser(dateBeforeString);
-		LocalDate dateAfter = dateParser(dateAfterString);
+	protected TransactionSearchCriteria searchCriteria(TransactionSearchRequest request) {
+		LocalDate dateOn = dateParser(request.getDateOn());
+		LocalDate dateBefore = dateParser(request.getDateBefore());
+		LocalDate dateAfter = dateParser(request.getDateAfter());
 
-		if(dateOn != null && (dateBefore != null || dateAfter != null)) {
+		if (dateOn != null && (dateBefore != null || dateAfter != null)) {
 			throw new IncorrectDateFilteringException();
 		}
-		List<TransactionEntity> transactions;
-		if(dateBefore != null && dateAfter != null && type != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndCreatedOnAfterAndTypeAndAccountEntity_id
-							(dateBefore.atTime(LocalTime.MIN), dateAfter.atTime(LocalTime.MAX), type, accountId);
-		} else if(dateBefore != null && dateAfter != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndCreatedOnAfterAndAccountEntity_id(dateBefore.atTime(LocalTime.MIN),
-							dateAfter.atTime(LocalTime.MAX), accountId);
-		} else if(dateBefore != null && type != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndTypeAndAccountEntity_id
-																(dateBefore.atTime(LocalTime.MIN), type, accountId);
-		} else if(dateAfter != null && type != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnAfterAndTypeAndAccountEntity_id(dateAfter.atTime(LocalTime.MAX),
-							type, accountId);
-		} else if(dateOn != null && type != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnBetweenAndTypeAndAccountEntity_id(dateOn.atTime(LocalTime.MIN),
-							dateOn.atTime(LocalTime.MAX), type, accountId);
-		} else if(dateBefore != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnBeforeAndAccountEntity_id(dateBefore.atTime(LocalTime.MIN), accountId);
-		} else if(dateAfter != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnAfterAndAccountEntity_id(dateAfter.atTime(LocalTime.MAX), accountId);
-		} else if(dateOn != null){
-			transactions = transactionRepository
-					.findAllByCreatedOnBetweenAndAccountEntity_id(dateOn.atTime(LocalTime.MIN),
-							dateOn.atTime(LocalTime.MAX), accountId);
-		} else if(type != null){
-			transactions = transactionRepository
-					.findAllByTypeAndAccountEntity_id(type, accountId);
-		} else {
-			transactions = transactionRepository.findAllByAccountEntity_id(accountId);
+		if (request.getMinAmount() != null && request.getMaxAmount() != null
+				&& request.getMinAmount().compareTo(request.getMaxAmount()) > 0) {
+			throw new IllegalArgumentException("The minimum amount can't be greater than the maximum amount!");
+		}
+
+		TransactionSearchCriteria criteria = new TransactionSearchCriteria()
+				.setType(request.getType() == null || request.getType().isBlank() ? null
+						: TransactionType.fromLabel(request.getType()))
+				.setMinAmount(request.getMinAmount())
+				.setMaxAmount(request.getMaxAmount());
+		if (dateOn != null) {
+			criteria.setCreatedFrom(dateOn.atStartOfDay()).setCreatedBefore(dateOn.plusDays(1).atStartOfDay());
+		}
+		if (dateAfter != null) {
+			criteria.setCreatedFrom(dateAfter.plusDays(1).atStartOfDay());
+		}
+		if (dateBefore != null) {
+			criteria.setCreatedBefore(dateBefore.atStartOfDay());
 		}
-		return transactionsListMapperFromEntityToResponse(transactions);
+		return criteria;
+	}
+
+	private TransactionPageResponse search(TransactionSearchCriteria criteria, TransactionSearchRequest request) {
+		int pageSize = pageSize(request.getSize());
+		// One extra row tells whether there is a next page without counting all matches.
+		List<TransactionResponse> found = transactionRepository.search(criteria,
+				TransactionCursor.decode(request.getCursor()), pageSize + 1);
+		if (found.isEmpty()) {
+			throw new NoRecordsOfEntityInTheDatabase("Transaction");
+		}
+
+		List<TransactionResponse> page = found.size() > pageSize ? found.subList(0, pageSize) : found;
+		return new TransactionPageResponse()
+				.setTransactions(page)
+				.setNextCursor(found.size() > pageSize ? TransactionCursor.of(page.get(pageSize - 1)).encode() : null);
+	}
+
+	private int pageSize(Integer size) {
+		if (size == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		if (size < 1) {
+			throw new IllegalArgumentException("The page size must be at least 1!");
+		}
+		return Math.min(size, MAX_PAGE_SIZE);
 	}
 
 	private boolean accountBelongsToTheUser(Long userId, Long accountId) {
@@ -277,7 +392,7 @@ public class TransactionServiceImpl implements TransactionService {
 	}
 
 	private TransactionEntity getTransactionEntity(TransferCreationRequest body, CheckingAccountEntity account,
-	                                               String transactionType,
+	                                               TransactionType transactionType,
 	                                               UUID transactionUUID,
 	                                               LocalDateTime createdTime) {
 		TransactionEntity transactionFrom = new TransactionEntity()
@@ -290,22 +405,4 @@ public class TransactionServiceImpl implements TransactionService {
 
 		return transactionFrom;
 	}
-
-	private List<TransactionResponse> transactionsListMapperFromEntityToResponse(List<TransactionEntity> list) {
-		List<TransactionResponse> mappedList = list
-						.stream()
-						.map(transaction -> {
-							CheckingAccountEntity account = transaction.getAccountEntity();
-							return modelMapper.map(transaction, TransactionResponse.class)
-											.setIban(account.getIban())
-											.setUserName(account.getUser().getUsername());
-						})
-						.collect(Collectors.toList());
-
-		if (mappedList.isEmpty()) {
-			throw new NoRecordsOfEntityInTheDatabase("Transaction");
-		} else {
-			return mappedList;
-		}
-	}
 }
@@ -0,0 +1,257 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.exceptions.EntityNotFoundException;
+import com.example.banksystem.exceptions.InsufficientFundsException;
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
+import com.example.banksystem.models.entities.AccountEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransferBatchItemResponse;
+import com.example.banksystem.models.responses.TransferBatchResponse;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.TransactionBatchWriter;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.TransferBatchService;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link TransferBatchService} interface.
+ */
+@Service
+public class TransferBatchServiceImpl implements TransferBatchService {
+	private final Logger log = LogManager.getLogger(this.getClass());
+
+	private final CheckingAccountRepository checkingAccountRepository;
+	private final TransactionBatchWriter transactionBatchWriter;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Validator validator;
+	private final VelocityLimiter velocityLimiter;
+	private final int maxSize;
+	private final int chunkSize;
+
+	public TransferBatchServiceImpl(CheckingAccountRepository checkingAccountRepository,
+	                                TransactionBatchWriter transactionBatchWriter,
+	                                PlatformTransactionManager transactionManager,
+	                                ApplicationEventPublisher eventPublisher, Validator validator,
+	                                VelocityLimiter velocityLimiter,
+	                                @Value("${bank.transfers.batch.max-size:10000}") int maxSize,
+	                                @Value("${bank.transfers.batch.chunk-size:500}") int chunkSize) {
+		this.checkingAccountRepository = checkingAccountRepository;
+		this.transactionBatchWriter = transactionBatchWriter;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.validator = validator;
+		this.velocityLimiter = velocityLimiter;
+		this.maxSize = maxSize;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The accounts of a chunk are locked in ascending order of their IDs, and every account gets one balance update
+	 * with the sum of its transfers in the chunk. The transactions of the chunk are written with one JDBC batch. When
+	 * a chunk fails, only its transfers are rejected, the committed chunks stay.
+	 *
+	 * @param userId    the id of the user, issuing the transfers.
+	 * @param transfers the {@link TransferCreationRequest}s of the batch.
+	 * @return a {@link TransferBatchResponse} with the result of every transfer, in the order of the batch.
+	 */
+	@Override
+	public TransferBatchResponse transfer(Long userId, List<TransferCreationRequest> transfers) {
+		if (transfers == null || transfers.isEmpty()) {
+			throw new IllegalArgumentException("The batch must contain at least one transfer!");
+		}
+		if (transfers.size() > maxSize) {
+			throw new IllegalArgumentException("The batch can't contain more than " + maxSize + " transfers!");
+		}
+
+		TransferBatchItemResponse[] results = new TransferBatchItemResponse[transfers.size()];
+		List<PendingTransfer> pending = validate(userId, transfers, results);
+
+		for (int from = 0; from < pending.size(); from += chunkSize) {
+			List<PendingTransfer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+			try {
+				transactionTemplate.execute(status -> applyChunk(chunk))
+						.forEach(result -> results[result.getIndex()] = result);
+			} catch (RuntimeException e) {
+				log.error("Failed to apply a chunk of {} transfers", chunk.size(), e);
+				chunk.forEach(transfer -> results[transfer.index] = rejected(transfer.index,
+						"The transfer couldn't be completed, please try again!"));
+			}
+		}
+
+		List<TransferBatchItemResponse> all = Arrays.asList(results);
+		int accepted = (int) all.stream().filter(result -> TransferBatchItemResponse.ACCEPTED.equals(result.getStatus()))
+				.count();
+		return new TransferBatchResponse()
+				.setAccepted(accepted)
+				.setRejected(all.size() - accepted)
+				.setResults(all);
+	}
+
+	/**
+	 * Validates every transfer and looks up the accounts of the whole batch with one query. The results of the
+	 * invalid transfers are set in the given array. Every valid transfer takes from the velocity limits of its sending
+	 * account here, before any account is locked, the same as a single transfer does.
+	 */
+	private List<PendingTransfer> validate(Long userId, List<TransferCreationRequest> transfers,
+	                                       TransferBatchItemResponse[] results) {
+		Set<String> ibans = new HashSet<>();
+		for (int i = 0; i < transfers.size(); i++) {
+			TransferCreationRequest transfer = transfers.get(i);
+			if (transfer == null) {
+				results[i] = rejected(i, "The transfer can not be empty!");
+				continue;
+			}
+			Set<ConstraintViolation<TransferCreationRequest>> violations = validator.validate(transfer);
+			if (!violations.isEmpty()) {
+				results[i] = rejected(i, violations.stream().map(ConstraintViolation::getMessage).sorted()
+						.collect(Collectors.joining(" ")));
+				continue;
+			}
+			ibans.add(transfer.getAccountFrom());
+			ibans.add(transfer.getAccountTo());
+		}
+
+		Map<String, CheckingAccountEntity> accounts = ibans.isEmpty() ? Map.of()
+				: checkingAccountRepository.findAllByIbanIn(ibans).stream()
+				.collect(Collectors.toMap(AccountEntity::getIban, Function.identity()));
+
+		List<PendingTransfer> pending = new ArrayList<>();
+		for (int i = 0; i < transfers.size(); i++) {
+			if (results[i] != null) {
+				continue;
+			}
+			TransferCreationRequest transfer = transfers.get(i);
+			CheckingAccountEntity accountFrom = accounts.get(transfer.getAccountFrom());
+			CheckingAccountEntity accountTo = accounts.get(transfer.getAccountTo());
+			if (accountFrom == null || !accountFrom.getUser().getId().equals(userId)) {
+				results[i] = rejected(i, new AccountNotBelongToUserException().getMessage());
+			} else if (accountTo == null) {
+				results[i] = rejected(i, new EntityNotFoundException("CheckingAccount").getMessage());
+			} else {
+				try {
+					velocityLimiter.acquire(accountFrom, transfer.getAmount());
+					pending.add(new PendingTransfer(i, transfer, accountFrom, accountTo));
+				} catch (VelocityLimitExceededException e) {
+					results[i] = rejected(i, e.getMessage());
+				}
+			}
+		}
+		return pending;
+	}
+
+	private List<TransferBatchItemResponse> applyChunk(List<PendingTransfer> chunk) {
+		Set<Long> accountIds = new TreeSet<>();
+		chunk.forEach(transfer -> {
+			accountIds.add(transfer.accountFrom.getId());
+			accountIds.add(transfer.accountTo.getId());
+		});
+		Map<Long, BigDecimal> balances = checkingAccountRepository.findAllWithLockByIdIn(accountIds).stream()
+				.collect(Collectors.toMap(AccountEntity::getId, AccountEntity::getBalance));
+
+		Map<Long, BigDecimal> changes = new TreeMap<>();
+		List<TransferBatchItemResponse> results = new ArrayList<>(chunk.size());
+		List<TransactionEntity> transactions = new ArrayList<>();
+		LocalDateTime createdOn = LocalDateTime.now();
+
+		for (PendingTransfer transfer : chunk) {
+			Long fromId = transfer.accountFrom.getId();
+			Long toId = transfer.accountTo.getId();
+			BigDecimal amount = transfer.request.getAmount();
+			BigDecimal totalWithdraw = amount.add(transfer.getFee());
+			if (totalWithdraw.compareTo(balances.get(fromId)) > 0) {
+				results.add(rejected(transfer.index, new InsufficientFundsException(
+						"The selected account has Insufficient funds for this transaction!").getMessage()));
+				continue;
+			}
+			balances.merge(fromId, totalWithdraw.negate(), BigDecimal::add);
+			balances.merge(toId, amount, BigDecimal::add);
+			changes.merge(fromId, totalWithdraw.negate(), BigDecimal::add);
+			changes.merge(toId, amount, BigDecimal::add);
+
+			UUID uuid = UUID.randomUUID();
+			transactions.add(transaction(uuid, transfer, transfer.accountFrom, TransactionType.SEND, createdOn));
+			transactions.add(transaction(uuid, transfer, transfer.accountTo, TransactionType.RECEIVED, createdOn));
+			results.add(new TransferBatchItemResponse()
+					.setIndex(transfer.index)
+					.setStatus(TransferBatchItemResponse.ACCEPTED)
+					.setUuid(uuid));
+		}
+
+		changes.forEach((accountId, change) -> {
+			if (change.signum() != 0) {
+				checkingAccountRepository.credit(accountId, change);
+			}
+		});
+		transactionBatchWriter.insertAll(transactions);
+
+		if (!transactions.isEmpty()) {
+			List<MoneyMovement> movements = new ArrayList<>(transactions.size());
+			for (int i = 0; i < transactions.size(); i += 2) {
+				TransactionEntity sent = transactions.get(i);
+				movements.add(MoneyMovement.debit(sent, sent.getAccountEntity().getType().getTransactionFee()));
+				movements.add(MoneyMovement.credit(transactions.get(i + 1)));
+			}
+			eventPublisher.publishEvent(new MoneyMovementEvent(movements));
+		}
+		return results;
+	}
+
+	private static TransactionEntity transaction(UUID uuid, PendingTransfer transfer, CheckingAccountEntity account,
+	                                             TransactionType type, LocalDateTime createdOn) {
+		TransactionEntity transaction = new TransactionEntity(uuid, transfer.request.getAmount(),
+				transfer.request.getReason(), type, account);
+		transaction.setCreatedOn(createdOn);
+		return transaction;
+	}
+
+	private static TransferBatchItemResponse rejected(int index, String message) {
+		return new TransferBatchItemResponse()
+				.setIndex(index)
+				.setStatus(TransferBatchItemResponse.REJECTED)
+				.setMessage(message);
+	}
+
+	/**
+	 * A valid transfer of the batch, together with its looked up accounts.
+	 */
+	private static final class PendingTransfer {
+		private final int index;
+		private final TransferCreationRequest request;
+		private final CheckingAccountEntity accountFrom;
+		private final CheckingAccountEntity accountTo;
+
+		private PendingTransfer(int index, TransferCreationRequest request, CheckingAccountEntity accountFrom,
+		                        CheckingAccountEntity accountTo) {
+			this.index = index;
+			this.request = request;
+			this.accountFrom = accountFrom;
+			this.accountTo = accountTo;
+		}
+
+		private BigDecimal getFee() {
+			return accountFrom.getType().getTransactionFee();
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package com.example.banksystem.services.aggregates;
+
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.responses.AccountActivityResponse;
+import com.example.banksystem.repositories.TransactionActivityReader;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Rolling-window counters of the money taken out of every checking account by withdrawals and by sent transfers, for
+ * the risk and limit checks of the withdraw and transfer paths.
+ * <p>Every account keeps, per type and per {@link RollingWindow}, a ring of hourly or daily buckets together with the
+ * running count and sum of the ring. A recorded transaction adds to one bucket and to the running totals, a read
+ * returns the running totals after dropping the buckets that left the window, so both take constant time however
+ * many transactions the account made.
+ * <p>The counters are filled from the {@link MoneyMovementEvent}s once their transaction commits, and rebuilt from
+ * the {@code transactions} table when the application starts, before it takes any request. Transactions made by
+ * other nodes afterwards are not counted, so the totals of a node are a lower bound of the totals of the bank.
+ */
+@Component
+public class AccountActivityAggregates implements SmartInitializingSingleton {
+    private static final Set<TransactionType> TRACKED_TYPES = EnumSet.of(TransactionType.WITHDRAW, TransactionType.SEND);
+    private static final RollingWindow[] WINDOWS = RollingWindow.values();
+
+    private final TransactionActivityReader transactionActivityReader;
+    private final ConcurrentMap<Long, AccountActivity> accounts = new ConcurrentHashMap<>();
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public AccountActivityAggregates(TransactionActivityReader transactionActivityReader) {
+        this.transactionActivityReader = transactionActivityReader;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Drops all counters and rebuilds them from the transactions of the longest window.
+     * @return the number of hourly totals read from the database.
+     */
+    public long rebuild() {
+        accounts.clear();
+        long hour = currentHour();
+        long firstHour = Arrays.stream(WINDOWS).mapToLong(window -> window.getFirstHour(hour)).min().orElse(hour);
+        LocalDateTime from = LocalDateTime.ofEpochSecond(firstHour * 3600, 0, ZoneOffset.UTC);
+
+        long rows = transactionActivityReader.forEachHour(from, TRACKED_TYPES, activity ->
+                add(activity.getAccountId(), activity.getType(), activity.getHour(), activity.getCount(),
+                        toCents(activity.getAmount())));
+        logger.info("Rebuilt the activity of {} accounts from {} hourly totals.", accounts.size(), rows);
+        return rows;
+    }
+
+    /**
+     * Counts the withdrawals and the sent transfers of the given event once its transaction commits, or at once when
+     * it's published outside of a transaction. Nothing is counted when the transaction rolls back.
+     * @param event the {@link MoneyMovementEvent} of the recorded transactions.
+     */
+    @EventListener
+    public void onMoneyMovement(MoneyMovementEvent event) {
+        List<MoneyMovement> tracked = new ArrayList<>();
+        for (MoneyMovement movement : event.getMovements()) {
+            if (TRACKED_TYPES.contains(movement.getType())) {
+                tracked.add(movement);
+            }
+        }
+        if (tracked.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(tracked);
+                }
+            });
+        } else {
+            record(tracked);
+        }
+    }
+
+    /**
+     * Gets the transactions of the given type an account made in the given window.
+     * @param accountId the id of the checking account.
+     * @param type the type of the transactions, {@link TransactionType#WITHDRAW} or {@link TransactionType#SEND}.
+     * @param window the {@link RollingWindow}.
+     * @return the {@link ActivityTotals} of the account, {@link ActivityTotals#EMPTY} when it made none.
+     */
+    public ActivityTotals getTotals(Long accountId, TransactionType type, RollingWindow window) {
+        if (!TRACKED_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Only withdrawals and sent transfers are counted!");
+        }
+
+        AccountActivity activity = accounts.get(accountId);
+        return activity == null ? ActivityTotals.EMPTY : activity.totals(type, window, currentHour());
+    }
+
+    /**
+     * Gets the totals of an account for every counted type and window.
+     * @param accountId the id of the checking account.
+     * @return a {@link List} of {@link AccountActivityResponse}s, one for every type and window.
+     */
+    public List<AccountActivityResponse> getActivity(Long accountId) {
+        List<AccountActivityResponse> activity = new ArrayList<>();
+        for (TransactionType type : TRACKED_TYPES) {
+            for (RollingWindow window : WINDOWS) {
+                ActivityTotals totals = getTotals(accountId, type, window);
+                activity.add(new AccountActivityResponse().setType(type.getLabel()).setWindow(window.name())
+                        .setCount(totals.getCount()).setAmount(totals.getAmount()));
+            }
+        }
+        return activity;
+    }
+
+    /**
+     * Drops the counters of the accounts that made no counted transaction in any window.
+     * @return the number of dropped accounts.
+     */
+    public int evictIdle() {
+        long hour = currentHour();
+        int evicted = 0;
+        for (Long accountId : accounts.keySet()) {
+            boolean[] idle = {false};
+            accounts.computeIfPresent(accountId, (id, activity) -> {
+                idle[0] = activity.isIdle(hour);
+                return idle[0] ? null : activity;
+            });
+            if (idle[0]) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Gets the number of accounts with counters on this node.
+     * @return the number of tracked accounts.
+     */
+    public int getTrackedAccounts() {
+        return accounts.size();
+    }
+
+    private void record(List<MoneyMovement> movements) {
+        for (MoneyMovement movement : movements) {
+            long hour = movement.getCreatedOn().toEpochSecond(ZoneOffset.UTC) / 3600;
+            add(movement.getAccountId(), movement.getType(), hour, 1, toCents(movement.getAmount()));
+        }
+    }
+
+    private void add(Long accountId, TransactionType type, long hour, long count, long cents) {
+        // compute() keeps evictIdle() from dropping the account between finding it and adding to it.
+        accounts.compute(accountId, (id, activity) -> {
+            AccountActivity target = activity == null ? new AccountActivity() : activity;
+            target.add(type, hour, count, cents);
+            return target;
+        });
+    }
+
+    private static long currentHour() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The windows of one account, for the types it made transactions of.
+     */
+    private static final class AccountActivity {
+        private final Map<TransactionType, Window[]> windows = new EnumMap<>(TransactionType.class);
+
+        synchronized void add(TransactionType type, long hour, long count, long cents) {
+            Window[] typeWindows = windows.computeIfAbsent(type, t -> {
+                Window[] created = new Window[WINDOWS.length];
+                for (int i = 0; i < WINDOWS.length; i++) {
+                    created[i] = new Window(WINDOWS[i]);
+                }
+                return created;
+            });
+            for (Window window : typeWindows) {
+                window.add(hour, count, cents);
+            }
+        }
+
+        synchronized ActivityTotals totals(TransactionType type, RollingWindow window, long hour) {
+            Window[] typeWindows = windows.get(type);
+            if (typeWindows == null) {
+                return ActivityTotals.EMPTY;
+            }
+            Window current = typeWindows[window.ordinal()];
+            current.advance(hour / window.getBucketHours());
+            return new ActivityTotals(current.count, BigDecimal.valueOf(current.cents, 2));
+        }
+
+        synchronized boolean isIdle(long hour) {
+            for (Window[] typeWindows : windows.values()) {
+                for (Window window : typeWindows) {
+                    window.advance(hour / window.bucketHours);
+                    if (window.count > 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A ring of buckets with the running count and sum of the buckets in it.
+     */
+    private static final class Window {
+        private final int bucketHours;
+        private final long[] bucketCounts;
+        private final long[] bucketCents;
+        private long newestBucket = -1;
+        private long count;
+        private long cents;
+
+        Window(RollingWindow window) {
+            this.bucketHours = window.getBucketHours();
+            this.bucketCounts = new long[window.getBuckets()];
+            this.bucketCents = new long[window.getBuckets()];
+        }
+
+        void add(long hour, long addedCount, long addedCents) {
+            long bucket = hour / bucketHours;
+            advance(bucket);
+            if (bucket <= newestBucket - bucketCounts.length) {
+                return;
+            }
+            int slot = (int) (bucket % bucketCounts.length);
+            bucketCounts[slot] += addedCount;
+            bucketCents[slot] += addedCents;
+            count += addedCount;
+            cents += addedCents;
+        }
+
+        /**
+         * Moves the ring forward to the given bucket, emptying the buckets that left the window. Every bucket is
+         * emptied at most once per pass of the ring, so this takes constant time on average.
+         */
+        void advance(long bucket) {
+            if (bucket <= newestBucket) {
+                return;
+            }
+            long emptied = Math.min(bucket - newestBucket, bucketCounts.length);
+            for (long b = bucket - emptied + 1; b <= bucket; b++) {
+                int slot = (int) (b % bucketCounts.length);
+                count -= bucketCounts[slot];
+                cents -= bucketCents[slot];
+                bucketCounts[slot] = 0;
+                bucketCents[slot] = 0;
+            }
+            newestBucket = bucket;
+        }
+    }
+}
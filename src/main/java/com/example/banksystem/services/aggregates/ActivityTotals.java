@@ -0,0 +1,30 @@
+package com.example.banksystem.services.aggregates;
+
+import java.math.BigDecimal;
+
+/**
+ * The number and the total amount of the transactions an account made in a {@link RollingWindow}.
+ */
+public final class ActivityTotals {
+    public static final ActivityTotals EMPTY = new ActivityTotals(0, BigDecimal.ZERO.setScale(2));
+
+    private final long count;
+    private final BigDecimal amount;
+
+    public ActivityTotals(long count, BigDecimal amount) {
+        this.count = count;
+        this.amount = amount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the total amount of the transactions.
+     * @return the sum of the amounts, without the transaction fees.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.banksystem.services.aggregates;
+
+/**
+ * The rolling windows of {@link AccountActivityAggregates}. A window is made of buckets of whole hours, it covers
+ * the current, partial bucket and the buckets of the whole window before it, so a total can include up to one bucket
+ * more than the window, but never less.
+ */
+public enum RollingWindow {
+    LAST_24_HOURS(24, 1),
+    LAST_30_DAYS(30 * 24, 24);
+
+    private final int hours;
+    private final int bucketHours;
+
+    RollingWindow(int hours, int bucketHours) {
+        this.hours = hours;
+        this.bucketHours = bucketHours;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    public int getBucketHours() {
+        return bucketHours;
+    }
+
+    /**
+     * Gets the number of buckets kept for the window.
+     * @return the buckets of the whole window, and one for the current bucket.
+     */
+    public int getBuckets() {
+        return hours / bucketHours + 1;
+    }
+
+    /**
+     * Gets the first hour counted by the window at the given hour.
+     * @param hour the current hour, in whole hours since 1970-01-01T00:00.
+     * @return the first hour of the oldest bucket of the window.
+     */
+    public long getFirstHour(long hour) {
+        return (hour / bucketHours - getBuckets() + 1) * bucketHours;
+    }
+}
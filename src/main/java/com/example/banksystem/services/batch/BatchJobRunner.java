@@ -0,0 +1,277 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.models.entities.BatchJobChunkEntity;
+import com.example.banksystem.models.entities.BatchJobRunEntity;
+import com.example.banksystem.repositories.BatchJobChunkRepository;
+import com.example.banksystem.repositories.BatchJobRunRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Runs {@link ChunkedJob}s in chunks of consecutive ids, with a checkpoint for every committed chunk.
+ * <p>The ids of the items are split into chunks of {@code bank.batch.chunk-size} when a run starts, and the chunks
+ * are processed by {@code bank.batch.threads} workers, each taking the next chunk that isn't taken yet. Every chunk
+ * runs in its own database transaction, which also inserts its row into {@code batch_job_chunks}, so a chunk is
+ * committed exactly once: a chunk committed by another worker or node fails on the unique key of the row before any
+ * of its work is done.
+ * <p>A failing chunk is retried up to {@code bank.batch.max-attempts} times, waiting
+ * {@code bank.batch.retry-backoff-millis} longer after every attempt. A chunk that still fails leaves its run
+ * unfinished, and the next run of the same job resumes it first, with only the chunks it didn't commit.
+ * <p>A job runs on one node of the cluster at a time, the one holding its lease from {@link JobLeaseManager}. With
+ * {@code bank.batch.partitions} above 1, which has to be the same on every node, the chunks are split into that many
+ * partitions by their number instead, each with its own lease, so the nodes triggering the job together process one
+ * partition each and take the next free one until all of them are done. The last node to commit a chunk of a run
+ * finishes it.
+ */
+@Component
+public class BatchJobRunner {
+    private final BatchJobRunRepository batchJobRunRepository;
+    private final BatchJobChunkRepository batchJobChunkRepository;
+    private final JobLeaseManager jobLeaseManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int threads;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int partitions;
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    public BatchJobRunner(BatchJobRunRepository batchJobRunRepository,
+                          BatchJobChunkRepository batchJobChunkRepository,
+                          JobLeaseManager jobLeaseManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${bank.batch.threads:4}") int threads,
+                          @Value("${bank.batch.chunk-size:1000}") int chunkSize,
+                          @Value("${bank.batch.max-attempts:3}") int maxAttempts,
+                          @Value("${bank.batch.retry-backoff-millis:1000}") long retryBackoffMillis,
+                          @Value("${bank.batch.partitions:1}") int partitions) {
+        this.batchJobRunRepository = batchJobRunRepository;
+        this.batchJobChunkRepository = batchJobChunkRepository;
+        this.jobLeaseManager = jobLeaseManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger workerIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "batch-job-" + workerIndex.getAndIncrement()));
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.partitions = Math.max(partitions, 1);
+    }
+
+    /**
+     * Interrupts the workers. The chunks they were processing are rolled back and processed again by the resumed
+     * run.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs a job for the given key, after resuming the unfinished runs of the job with other keys. A run that
+     * already finished isn't run again, and the partitions of the job held by other nodes are left to them.
+     * @param job the {@link ChunkedJob} to run.
+     * @param runKey the key of the run, like the month or the business date it processes.
+     * @return the {@link BatchJobRunEntity} of the given key, unfinished when one of its chunks kept failing or other
+     * nodes are still processing it.
+     */
+    public BatchJobRunEntity run(ChunkedJob job, String runKey) {
+        List<BatchJobRunEntity> runs = new ArrayList<>();
+        for (BatchJobRunEntity unfinished :
+                batchJobRunRepository.findAllByJobNameAndFinishedOnIsNullOrderById(job.getName())) {
+            if (!unfinished.getRunKey().equals(runKey)) {
+                log.info("Resuming the unfinished run {} of job {}", unfinished.getRunKey(), job.getName());
+                runs.add(unfinished);
+            }
+        }
+
+        BatchJobRunEntity run = findOrStart(job, runKey);
+        if (run.getFinishedOn() != null) {
+            log.info("The run {} of job {} already finished on {}", runKey, job.getName(), run.getFinishedOn());
+        } else {
+            runs.add(run);
+        }
+        if (runs.isEmpty()) {
+            return run;
+        }
+
+        // Nodes starting at different partitions don't all compete for the same lease first.
+        int first = ThreadLocalRandom.current().nextInt(partitions);
+        boolean leased = false;
+        for (int i = 0; i < partitions; i++) {
+            int partition = (first + i) % partitions;
+            Optional<JobLeaseManager.Lease> lease = jobLeaseManager.tryAcquire(leaseName(job, partition));
+            if (lease.isPresent()) {
+                leased = true;
+                try (JobLeaseManager.Lease held = lease.get()) {
+                    for (BatchJobRunEntity pending : runs) {
+                        execute(job, pending, partition, held);
+                    }
+                }
+            }
+        }
+        if (!leased) {
+            log.info("Job {} is running on another node", job.getName());
+        }
+
+        for (BatchJobRunEntity pending : runs) {
+            finish(job, pending);
+        }
+        return batchJobRunRepository.findById(run.getId()).orElse(run);
+    }
+
+    private String leaseName(ChunkedJob job, int partition) {
+        return partitions == 1 ? job.getName() : job.getName() + "#" + partition;
+    }
+
+    private BatchJobRunEntity findOrStart(ChunkedJob job, String runKey) {
+        return batchJobRunRepository.findByJobNameAndRunKey(job.getName(), runKey).orElseGet(() -> {
+            Long minId = job.findMinId();
+            Long maxId = job.findMaxId();
+            try {
+                return batchJobRunRepository.save(new BatchJobRunEntity()
+                        .setJobName(job.getName())
+                        .setRunKey(runKey)
+                        .setChunkSize(chunkSize)
+                        .setFirstId(minId == null ? 1 : minId)
+                        .setLastId(maxId == null ? 0 : maxId));
+            } catch (DataIntegrityViolationException e) {
+                // Started by another node meanwhile.
+                return batchJobRunRepository.findByJobNameAndRunKey(job.getName(), runKey).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    /**
+     * Processes the chunks of a partition of a run that aren't committed yet, while this node holds the lease of the
+     * partition.
+     */
+    private void execute(ChunkedJob job, BatchJobRunEntity run, int partition, JobLeaseManager.Lease lease) {
+        Set<Long> committed = new HashSet<>(batchJobChunkRepository.findChunksByRunId(run.getId()));
+        List<Long> pending = LongStream.range(0, run.getChunks())
+                .filter(chunk -> chunk % partitions == partition && !committed.contains(chunk))
+                .boxed()
+                .collect(Collectors.toList());
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < Math.min(threads, pending.size()); i++) {
+            tasks.add(workers.submit(() -> {
+                for (int index = next.getAndIncrement(); index < pending.size() && lease.isHeld();
+                     index = next.getAndIncrement()) {
+                    if (!processChunk(job, run, pending.get(index))) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(task -> task.cancel(true));
+            failed.incrementAndGet();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker of job " + job.getName() + " failed!", e.getCause());
+        }
+
+        if (failed.get() > 0) {
+            log.warn("The run {} of job {} stopped with {} failed chunks, it will be resumed by the next run",
+                    run.getRunKey(), job.getName(), failed.get());
+        } else if (!lease.isHeld()) {
+            log.warn("Job {} lost lease {} during run {}, the node taking it over continues it", job.getName(),
+                    lease.getName(), run.getRunKey());
+        }
+    }
+
+    /**
+     * Saves the progress of a run, and finishes it when all of its chunks are committed, by this or other nodes.
+     */
+    private void finish(ChunkedJob job, BatchJobRunEntity run) {
+        long committed = batchJobChunkRepository.countByRunId(run.getId());
+        run.setProcessedItems(batchJobChunkRepository.sumItemsByRunId(run.getId()));
+        LocalDateTime finishedOn = committed == run.getChunks() ? LocalDateTime.now() : null;
+        Integer updated = transactionTemplate.execute(status ->
+                batchJobRunRepository.updateProgress(run.getId(), run.getProcessedItems(), finishedOn));
+        if (finishedOn != null && updated != null && updated == 1) {
+            run.setFinishedOn(finishedOn);
+            log.info("The run {} of job {} finished, {} items in {} chunks", run.getRunKey(), job.getName(),
+                    run.getProcessedItems(), run.getChunks());
+        } else if (finishedOn == null) {
+            log.info("The run {} of job {} has committed {} of {} chunks so far", run.getRunKey(), job.getName(),
+                    committed, run.getChunks());
+        }
+    }
+
+    /**
+     * Processes a chunk, retrying it when it fails.
+     * @return whether the chunk is committed, by this or another worker.
+     */
+    boolean processChunk(ChunkedJob job, BatchJobRunEntity run, long chunk) {
+        long fromId = run.getFirstId() + chunk * run.getChunkSize();
+        long toId = Math.min(fromId + run.getChunkSize() - 1, run.getLastId());
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            int attempts = attempt;
+            try {
+                Integer items = transactionTemplate.execute(status -> {
+                    BatchJobChunkEntity checkpoint = batchJobChunkRepository.saveAndFlush(new BatchJobChunkEntity()
+                            .setRunId(run.getId())
+                            .setChunk(chunk)
+                            .setAttempts(attempts));
+                    int processed = job.processChunk(run.getRunKey(), fromId, toId);
+                    // The bulk updates of a job can clear the persistence context, so the checkpoint is merged back.
+                    batchJobChunkRepository.save(checkpoint.setItems(processed));
+                    return processed;
+                });
+                log.info("Job {} committed chunk {}/{} of run {} with {} items", job.getName(), chunk + 1,
+                        run.getChunks(), run.getRunKey(), items);
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                if (batchJobChunkRepository.existsByRunIdAndChunk(run.getId(), chunk)) {
+                    log.info("Chunk {} of run {} of job {} was already committed", chunk + 1, run.getRunKey(),
+                            job.getName());
+                    return true;
+                }
+                log.warn("Attempt {} of chunk {} of run {} of job {} failed", attempt, chunk + 1, run.getRunKey(),
+                        job.getName(), e);
+            } catch (RuntimeException e) {
+                log.warn("Attempt {} of chunk {} of run {} of job {} failed", attempt, chunk + 1, run.getRunKey(),
+                        job.getName(), e);
+            }
+            if (attempt < maxAttempts) {
+                try {
+                    Thread.sleep(retryBackoffMillis * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        log.error("Chunk {} of run {} of job {} failed {} times, the ids {} to {} are left unprocessed", chunk + 1,
+                run.getRunKey(), job.getName(), maxAttempts, fromId, toId);
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.banksystem.services.batch;
+
+/**
+ * A {@link ChunkedJob} processing the items due on a range of business dates, run by the
+ * {@link BusinessDateJobRunner}. The key of every run is a {@link BusinessDateRange}.
+ * <p>An item processed for a date must not match the range anymore - like a loan whose instalment moved a month
+ * later, or a deleted CD account - so a run over a range that overlaps an earlier one doesn't process it twice.
+ */
+public interface BusinessDateJob extends ChunkedJob {
+    /**
+     * Counts the items due on the dates of the given range, without processing them.
+     * @param range the {@link BusinessDateRange} of the dates.
+     * @return the number of items a run over the range would process.
+     */
+    long countItems(BusinessDateRange range);
+}
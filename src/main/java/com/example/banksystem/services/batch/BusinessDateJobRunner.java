@@ -0,0 +1,140 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.models.entities.BatchJobRunEntity;
+import com.example.banksystem.models.entities.SchedulerCheckpointEntity;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import com.example.banksystem.repositories.BatchJobRunRepository;
+import com.example.banksystem.repositories.SchedulerCheckpointRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link BusinessDateJob}s through a business date, catching up on the dates missed since the last one they
+ * processed, such as the days the application was down over.
+ * <p>The last processed date of every job is kept in {@code scheduler_checkpoints}. A run covers all dates after it up
+ * to the given one as a single {@link BusinessDateRange}, which the job reads with range queries, and the checkpoint
+ * moves to the end of the range once the run finished. A job without a checkpoint starts with the given date.
+ * <p>A gap longer than {@code bank.scheduling.max-catch-up-days} is split into consecutive runs of at most that many
+ * dates, oldest first, and the checkpoint moves after every finished one. No date is ever skipped: when a run doesn't
+ * finish, the later ones wait and the same run is resumed next time.
+ */
+@Component
+public class BusinessDateJobRunner {
+    private final BatchJobRunner batchJobRunner;
+    private final BatchJobRunRepository batchJobRunRepository;
+    private final SchedulerCheckpointRepository schedulerCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxCatchUpDays;
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    public BusinessDateJobRunner(BatchJobRunner batchJobRunner, BatchJobRunRepository batchJobRunRepository,
+                                 SchedulerCheckpointRepository schedulerCheckpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${bank.scheduling.max-catch-up-days:31}") int maxCatchUpDays) {
+        this.batchJobRunner = batchJobRunner;
+        this.batchJobRunRepository = batchJobRunRepository;
+        this.schedulerCheckpointRepository = schedulerCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxCatchUpDays = Math.max(maxCatchUpDays, 1);
+    }
+
+    /**
+     * Runs a job for every date it didn't process yet, up to the given one.
+     * @param job the {@link BusinessDateJob} to run.
+     * @param businessDate the last date to process, usually today.
+     * @return the number of items processed by the runs, 0 when the job already processed the date.
+     */
+    public long runThrough(BusinessDateJob job, LocalDate businessDate) {
+        Optional<BusinessDateRange> pending = getPendingRange(job.getName(), businessDate);
+        if (pending.isEmpty()) {
+            log.info("Job {} already processed the business dates through {}", job.getName(), businessDate);
+            return 0;
+        }
+
+        BusinessDateRange range = pending.get();
+        if (range.getDays() > 1) {
+            log.info("Job {} is catching up on {} business dates from {} to {}", job.getName(), range.getDays(),
+                    range.getFrom(), range.getTo());
+        }
+        long processed = 0;
+        LocalDate from = range.getFrom();
+        while (!from.isAfter(range.getTo())) {
+            LocalDate to = from.plusDays(maxCatchUpDays - 1L);
+            BusinessDateRange part = new BusinessDateRange(from, to.isBefore(range.getTo()) ? to : range.getTo());
+            BatchJobRunEntity run = batchJobRunner.run(job, part.getRunKey());
+            processed += run.getProcessedItems();
+            if (run.getFinishedOn() == null) {
+                log.warn("Job {} didn't finish the business dates from {} to {}, the later dates wait for it",
+                        job.getName(), part.getFrom(), part.getTo());
+                break;
+            }
+            markProcessed(job.getName(), part.getTo());
+            from = part.getTo().plusDays(1);
+        }
+        return processed;
+    }
+
+    /**
+     * Tells what {@link #runThrough} would process for the given date, without processing anything.
+     * @param job the {@link BusinessDateJob} to report on.
+     * @param businessDate the last date to process, usually today.
+     * @return a {@link CatchUpReportResponse} with the range of dates and the number of items due on them.
+     */
+    public CatchUpReportResponse preview(BusinessDateJob job, LocalDate businessDate) {
+        Optional<BusinessDateRange> pending = getPendingRange(job.getName(), businessDate);
+        return new CatchUpReportResponse()
+                .setJobName(job.getName())
+                .setBusinessDate(businessDate)
+                .setLastProcessedDate(schedulerCheckpointRepository.findByJobName(job.getName())
+                        .map(SchedulerCheckpointEntity::getLastBusinessDate).orElse(null))
+                .setFromDate(pending.map(BusinessDateRange::getFrom).orElse(null))
+                .setToDate(pending.map(BusinessDateRange::getTo).orElse(null))
+                .setPendingItems(pending.map(job::countItems).orElse(0L))
+                .setUnfinishedRuns(batchJobRunRepository.findAllByJobNameAndFinishedOnIsNullOrderById(job.getName())
+                        .stream()
+                        .map(BatchJobRunEntity::getRunKey)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets the dates a job still has to process up to the given one.
+     * @param jobName the name of the job.
+     * @param businessDate the last date to process.
+     * @return an {@link Optional} with the {@link BusinessDateRange}, empty when the job already processed the date.
+     */
+    public Optional<BusinessDateRange> getPendingRange(String jobName, LocalDate businessDate) {
+        LocalDate from = schedulerCheckpointRepository.findByJobName(jobName)
+                .map(checkpoint -> checkpoint.getLastBusinessDate().plusDays(1))
+                .orElse(businessDate);
+        if (from.isAfter(businessDate)) {
+            return Optional.empty();
+        }
+        return Optional.of(new BusinessDateRange(from, businessDate));
+    }
+
+    private void markProcessed(String jobName, LocalDate businessDate) {
+        Integer advanced = transactionTemplate.execute(status ->
+                schedulerCheckpointRepository.advance(jobName, businessDate));
+        if (advanced != null && advanced == 1
+                || schedulerCheckpointRepository.findByJobName(jobName).isPresent()) {
+            return;
+        }
+        try {
+            schedulerCheckpointRepository.save(new SchedulerCheckpointEntity()
+                    .setJobName(jobName)
+                    .setLastBusinessDate(businessDate));
+        } catch (DataIntegrityViolationException e) {
+            // Created by another node meanwhile.
+            transactionTemplate.execute(status -> schedulerCheckpointRepository.advance(jobName, businessDate));
+        }
+    }
+}
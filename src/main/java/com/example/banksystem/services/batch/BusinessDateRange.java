@@ -0,0 +1,86 @@
+package com.example.banksystem.services.batch;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * A range of business dates, both ends included, that one run of a {@link BusinessDateJob} processes.
+ * <p>The key of the run is the date itself for a single date, and {@code from..to} for a range, so a run of a date
+ * that didn't need to catch up keeps the key it always had.
+ */
+public final class BusinessDateRange {
+    private static final String SEPARATOR = "..";
+
+    private final LocalDate from;
+    private final LocalDate to;
+
+    public BusinessDateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The range " + from + SEPARATOR + to + " ends before it starts!");
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Reads a range from the key of a run.
+     * @param runKey the key of the run, a single date or {@code from..to}.
+     * @return the {@link BusinessDateRange} of the run.
+     */
+    public static BusinessDateRange parse(String runKey) {
+        int separator = runKey.indexOf(SEPARATOR);
+        if (separator < 0) {
+            LocalDate date = LocalDate.parse(runKey);
+            return new BusinessDateRange(date, date);
+        }
+        return new BusinessDateRange(LocalDate.parse(runKey.substring(0, separator)),
+                LocalDate.parse(runKey.substring(separator + SEPARATOR.length())));
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the number of dates in the range.
+     * @return the number of days from the first to the last date, both included.
+     */
+    public long getDays() {
+        return ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    /**
+     * Gets the key of the run processing the range.
+     * @return the date for a single date, {@code from..to} otherwise.
+     */
+    public String getRunKey() {
+        return from.equals(to) ? from.toString() : from + SEPARATOR + to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BusinessDateRange)) {
+            return false;
+        }
+        BusinessDateRange that = (BusinessDateRange) o;
+        return from.equals(that.from) && to.equals(that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return getRunKey();
+    }
+}
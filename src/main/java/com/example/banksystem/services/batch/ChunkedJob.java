@@ -0,0 +1,36 @@
+package com.example.banksystem.services.batch;
+
+/**
+ * A scheduled job whose items can be processed in independent chunks of consecutive ids, run by the
+ * {@link BatchJobRunner}.
+ * <p>A chunk is processed inside the transaction that also commits its checkpoint, so the job must do all of its
+ * work for the chunk in the calling thread and must not commit on its own.
+ */
+public interface ChunkedJob {
+    /**
+     * Gets the name of the job, unique among the jobs.
+     * @return the name the runs of the job are recorded with.
+     */
+    String getName();
+
+    /**
+     * Gets the lowest id of the items the job processes.
+     * @return the lowest id, or null when there are no items.
+     */
+    Long findMinId();
+
+    /**
+     * Gets the highest id of the items the job processes.
+     * @return the highest id, or null when there are no items.
+     */
+    Long findMaxId();
+
+    /**
+     * Processes the items of a run with an id in the given range, both ends included.
+     * @param runKey the key of the run, like the month or the business date it processes.
+     * @param fromId the first id of the chunk.
+     * @param toId the last id of the chunk.
+     * @return the number of processed items.
+     */
+    int processChunk(String runKey, long fromId, long toId);
+}
@@ -0,0 +1,219 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.models.entities.SchedulerLeaseEntity;
+import com.example.banksystem.repositories.SchedulerLeaseRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets every scheduled job run on only one node of the cluster at a time, through the leases in
+ * {@code scheduler_leases}.
+ * <p>A lease is taken for {@code bank.scheduling.lease-seconds} and renewed every third of that time while its job
+ * runs, so the lease of a node that crashed expires after at most that long and another node takes the job over.
+ * When the job is done, the lease is still held for {@code bank.scheduling.min-hold-seconds} after it was taken, so
+ * the nodes whose trigger fires a bit later than on the first one skip it instead of running the job again.
+ * <p>The nodes compare the ends of the leases with their own clocks, which should be synchronized much closer than
+ * the minimum hold.
+ */
+@Component
+public class JobLeaseManager {
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService heartbeat;
+    private final String nodeId;
+    private final Duration leaseTime;
+    private final Duration minHoldTime;
+    private final Clock clock;
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    public JobLeaseManager(SchedulerLeaseRepository schedulerLeaseRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bank.scheduling.node-id:}") String nodeId,
+                           @Value("${bank.scheduling.lease-seconds:300}") long leaseSeconds,
+                           @Value("${bank.scheduling.min-hold-seconds:60}") long minHoldSeconds) {
+        this(schedulerLeaseRepository, transactionManager, nodeId, leaseSeconds, minHoldSeconds,
+                Clock.systemDefaultZone());
+    }
+
+    JobLeaseManager(SchedulerLeaseRepository schedulerLeaseRepository, PlatformTransactionManager transactionManager,
+                    String nodeId, long leaseSeconds, long minHoldSeconds, Clock clock) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseTime = Duration.ofSeconds(leaseSeconds);
+        this.minHoldTime = Duration.ofSeconds(minHoldSeconds);
+        this.clock = clock;
+    }
+
+    /**
+     * Stops renewing the leases. The leases still held expire on their own, like those of a crashed node.
+     */
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     * Gets the id of this node, the owners of its leases start with it.
+     * @return the id of the node, {@code bank.scheduling.node-id} or the host name.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Takes the lease with the given name when no other node holds it. The lease is renewed until it is closed.
+     * @param name the name of the lease, like the name of the job.
+     * @return the taken {@link Lease}, or an empty {@link Optional} when another node holds it.
+     */
+    public Optional<Lease> tryAcquire(String name) {
+        String owner = nodeId + "/" + UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime lockedUntil = now.plus(leaseTime);
+        boolean acquired;
+        try {
+            acquired = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    schedulerLeaseRepository.acquire(name, owner, now, lockedUntil) == 1));
+            if (!acquired && !schedulerLeaseRepository.existsByName(name)) {
+                // The first node to take a lease creates it, the unique name rejects the others.
+                acquired = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                        schedulerLeaseRepository.saveAndFlush(new SchedulerLeaseEntity()
+                                .setName(name)
+                                .setOwner(owner)
+                                .setLockedUntil(lockedUntil)) != null));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Lease {} was taken by another node meanwhile", name, e);
+            acquired = false;
+        }
+        if (!acquired) {
+            return Optional.empty();
+        }
+
+        Lease lease = new Lease(name, owner, now);
+        long renewalMillis = Math.max(leaseTime.toMillis() / 3, 1);
+        lease.renewal = heartbeat.scheduleAtFixedRate(lease::renew, renewalMillis, renewalMillis,
+                TimeUnit.MILLISECONDS);
+        log.debug("Node {} took lease {} until {}", nodeId, name, lockedUntil);
+        return Optional.of(lease);
+    }
+
+    /**
+     * Runs a task when no other node holds its lease, holding the lease while the task runs.
+     * @param name the name of the lease, like the name of the job.
+     * @param task the task to run.
+     * @return whether the task ran on this node.
+     */
+    public boolean runExclusively(String name, Runnable task) {
+        Optional<Lease> lease = tryAcquire(name);
+        if (lease.isEmpty()) {
+            log.info("Skipped {}, another node holds its lease", name);
+            return false;
+        }
+        try (Lease held = lease.get()) {
+            task.run();
+        }
+        return true;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        // Keeps two processes on the same host apart.
+        String node = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return node.length() <= 60 ? node : node.substring(node.length() - 60);
+    }
+
+    /**
+     * A lease held by this node. Closing it stops renewing it and lets it expire after the minimum hold.
+     */
+    public final class Lease implements AutoCloseable {
+        private final String name;
+        private final String owner;
+        private final LocalDateTime acquiredOn;
+        private volatile boolean held = true;
+        private volatile ScheduledFuture<?> renewal;
+
+        private Lease(String name, String owner, LocalDateTime acquiredOn) {
+            this.name = name;
+            this.owner = owner;
+            this.acquiredOn = acquiredOn;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Tells whether the lease is still held, it is lost when it couldn't be renewed in time and another node
+         * took it over.
+         * @return whether this node still holds the lease.
+         */
+        public boolean isHeld() {
+            return held;
+        }
+
+        private void renew() {
+            try {
+                int renewed = transactionTemplate.execute(status ->
+                        schedulerLeaseRepository.extend(name, owner, LocalDateTime.now(clock).plus(leaseTime)));
+                if (renewed == 0) {
+                    held = false;
+                    renewal.cancel(false);
+                    log.warn("Node {} lost lease {} to another node", nodeId, name);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Node {} couldn't renew lease {}", nodeId, name, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            if (!held) {
+                return;
+            }
+            held = false;
+            LocalDateTime now = LocalDateTime.now(clock);
+            LocalDateTime minHold = acquiredOn.plus(minHoldTime);
+            try {
+                transactionTemplate.execute(status ->
+                        schedulerLeaseRepository.extend(name, owner, minHold.isAfter(now) ? minHold : now));
+            } catch (RuntimeException e) {
+                log.warn("Node {} couldn't release lease {}, it expires on its own", nodeId, name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.banksystem.services.cache;
+
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.responses.AccountCacheMetricsResponse;
+import com.example.banksystem.repositories.AccountBalance;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded in-memory cache of checking accounts and their balances, for the account reads of this node.
+ * <p>Balances are written through by the code that changes them: every {@link MoneyMovementEvent} reads the new
+ * balances of the cached accounts while the transaction still holds their row locks, and puts them into the cache
+ * once the transaction commits, so a client reads its own writes on this node. A read that loads an account from
+ * the database only caches it when no write of the same segment started or finished meanwhile, so a value read
+ * before a commit can't overwrite the value written through by that commit.
+ * <p>Writes made by other nodes are not seen, entries expire after {@code bank.account-cache.ttl-seconds} to bound
+ * how stale a balance can get. About one in {@code bank.account-cache.verify-every} hits is compared to the database
+ * to measure it. The guarded balance updates never read the cache.
+ */
+@Component
+public class AccountCache {
+    private static final int SEGMENTS = 64;
+
+    private final CheckingAccountRepository checkingAccountRepository;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Map<Long, UserAccounts> userAccounts;
+    private final int capacity;
+    private final long ttlNanos;
+    private final int verifyEvery;
+    private final AtomicLong versions = new AtomicLong();
+    private long userGeneration;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writeThroughs = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder verifiedReads = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+    private final LongAdder hitAgeNanos = new LongAdder();
+
+    public AccountCache(CheckingAccountRepository checkingAccountRepository,
+                        @Value("${bank.account-cache.size:10000}") int maxEntries,
+                        @Value("${bank.account-cache.ttl-seconds:30}") long ttlSeconds,
+                        @Value("${bank.account-cache.verify-every:100}") int verifyEvery) {
+        this.checkingAccountRepository = checkingAccountRepository;
+        int segmentCapacity = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.capacity = segmentCapacity * SEGMENTS;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.verifyEvery = verifyEvery;
+        this.userAccounts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserAccounts> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets an account from the cache, or loads it with the given loader and caches it.
+     * @param accountId the id of the account.
+     * @param loader loads the account from the database.
+     * @return an {@link Optional} with the {@link CachedAccount}, empty when the account doesn't exist.
+     */
+    public Optional<CachedAccount> get(Long accountId, Function<Long, Optional<CheckingAccountEntity>> loader) {
+        Segment segment = segmentOf(accountId);
+        CachedAccount cached = segment.get(accountId);
+        if (cached != null) {
+            return Optional.of(hit(cached));
+        }
+
+        misses.increment();
+        long version = versions.get();
+        long generation = segment.generation();
+        return loader.apply(accountId).map(account -> segment.completeLoad(account, generation, version));
+    }
+
+    /**
+     * Gets all accounts of a user from the cache, or loads them with the given loader and caches them. The accounts
+     * are only read from the cache when all of them are cached.
+     * @param userId the id of the user.
+     * @param loader loads the accounts of the user from the database.
+     * @return a {@link List} of {@link CachedAccount}s, in the order of the loader.
+     */
+    public List<CachedAccount> getAllOfUser(Long userId, Function<Long, List<CheckingAccountEntity>> loader) {
+        List<CachedAccount> cached = getCachedAccountsOfUser(userId);
+        if (cached != null) {
+            return cached.stream().map(this::hit).collect(Collectors.toList());
+        }
+
+        misses.increment();
+        long version = versions.get();
+        long userGenerationBefore = userGeneration();
+        long[] generations = new long[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            generations[i] = segments[i].generation();
+        }
+
+        List<CachedAccount> loaded = loader.apply(userId).stream()
+                .map(account -> segmentOf(account.getId())
+                        .completeLoad(account, generations[indexOf(account.getId())], version))
+                .collect(Collectors.toList());
+        synchronized (userAccounts) {
+            if (userGeneration == userGenerationBefore) {
+                userAccounts.put(userId, new UserAccounts(
+                        loaded.stream().map(CachedAccount::getId).collect(Collectors.toList()), System.nanoTime()));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes an account and the account list of its user from the cache. Called whenever an account is saved as a
+     * whole, like a new account or a balance set by a scheduler.
+     * @param account the saved {@link CheckingAccountEntity}.
+     */
+    public void evict(CheckingAccountEntity account) {
+        if (account.getId() != null) {
+            segmentOf(account.getId()).evict(account.getId());
+        }
+        if (account.getUser() != null) {
+            evictUser(account.getUser().getId());
+        }
+    }
+
+    /**
+     * Removes the account list of a user from the cache, so the next read sees added or removed accounts.
+     * @param userId the id of the user.
+     */
+    public void evictUser(Long userId) {
+        synchronized (userAccounts) {
+            userGeneration++;
+            userAccounts.remove(userId);
+        }
+    }
+
+    /**
+     * Writes the new balances of the moved accounts through to the cache once the transaction of the movement
+     * commits. Runs in the transaction, before the commit, while the rows of the accounts are still locked.
+     * @param event a {@link MoneyMovementEvent} with the movements.
+     */
+    @EventListener
+    public void onMoneyMovement(MoneyMovementEvent event) {
+        PendingWrite write = new PendingWrite(event.getMovements().stream()
+                .map(MoneyMovement::getAccountId)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(write);
+            write.readBalances();
+        } else {
+            // Published outside of a transaction, after the balances have already been saved.
+            try {
+                write.readBalances();
+            } finally {
+                write.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        }
+    }
+
+    public AccountCacheMetricsResponse getMetrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        int size = Arrays.stream(segments).mapToInt(Segment::size).sum();
+        return new AccountCacheMetricsResponse()
+                .setSize(size)
+                .setCapacity(capacity)
+                .setHits(hitCount)
+                .setMisses(missCount)
+                .setHitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount))
+                .setWriteThroughs(writeThroughs.sum())
+                .setEvictions(evictions.sum())
+                .setExpirations(expirations.sum())
+                .setVerifiedReads(verifiedReads.sum())
+                .setStaleReads(staleReads.sum())
+                .setAverageHitAgeMillis(hitCount == 0 ? 0
+                        : TimeUnit.NANOSECONDS.toMillis(hitAgeNanos.sum() / hitCount));
+    }
+
+    private List<CachedAccount> getCachedAccountsOfUser(Long userId) {
+        UserAccounts ids;
+        synchronized (userAccounts) {
+            ids = userAccounts.get(userId);
+            if (ids != null && isExpired(ids.cachedAtNanos)) {
+                userAccounts.remove(userId);
+                ids = null;
+            }
+        }
+        if (ids == null) {
+            return null;
+        }
+        List<CachedAccount> accounts = new ArrayList<>(ids.accountIds.size());
+        for (Long accountId : ids.accountIds) {
+            CachedAccount account = segmentOf(accountId).get(accountId);
+            if (account == null) {
+                return null;
+            }
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    private CachedAccount hit(CachedAccount cached) {
+        hits.increment();
+        hitAgeNanos.add(System.nanoTime() - cached.getCachedAtNanos());
+        if (verifyEvery <= 0 || ThreadLocalRandom.current().nextInt(verifyEvery) != 0) {
+            return cached;
+        }
+
+        verifiedReads.increment();
+        BigDecimal balance = checkingAccountRepository.findBalancesByIdIn(List.of(cached.getId())).stream()
+                .findFirst()
+                .map(AccountBalance::getBalance)
+                .orElse(null);
+        if (balance == null || balance.compareTo(cached.getBalance()) != 0) {
+            staleReads.increment();
+            segmentOf(cached.getId()).evict(cached.getId());
+            return balance == null ? cached : cached.withBalance(balance, cached.getVersion());
+        }
+        return cached;
+    }
+
+    private long userGeneration() {
+        synchronized (userAccounts) {
+            return userGeneration;
+        }
+    }
+
+    private boolean isExpired(long cachedAtNanos) {
+        return System.nanoTime() - cachedAtNanos > ttlNanos;
+    }
+
+    private Segment segmentOf(Long accountId) {
+        return segments[indexOf(accountId)];
+    }
+
+    private static int indexOf(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), SEGMENTS);
+    }
+
+    /**
+     * The write of one {@link MoneyMovementEvent}, registered with the transaction that made it.
+     */
+    private final class PendingWrite implements TransactionSynchronization {
+        private final Set<Long> accountIds;
+        private List<AccountBalance> balances = List.of();
+        private long version;
+
+        private PendingWrite(Set<Long> accountIds) {
+            this.accountIds = accountIds;
+            accountIds.forEach(accountId -> segmentOf(accountId).startWrite(accountId));
+        }
+
+        private void readBalances() {
+            List<Long> cachedIds = accountIds.stream()
+                    .filter(accountId -> segmentOf(accountId).contains(accountId))
+                    .collect(Collectors.toList());
+            if (!cachedIds.isEmpty()) {
+                balances = checkingAccountRepository.findBalancesByIdIn(cachedIds);
+            }
+            // Taken while the rows are locked, so the versions of one account grow in the order of the commits.
+            version = versions.incrementAndGet();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            Map<Long, BigDecimal> committed = status == STATUS_COMMITTED
+                    ? balances.stream().collect(Collectors.toMap(AccountBalance::getAccountId, AccountBalance::getBalance))
+                    : Map.of();
+            for (Long accountId : accountIds) {
+                segmentOf(accountId).finishWrite(accountId, committed.get(accountId), version,
+                        status == STATUS_UNKNOWN);
+            }
+        }
+    }
+
+    private final class Segment {
+        private final Map<Long, CachedAccount> entries;
+        private final Map<Long, Integer> writesInFlight = new HashMap<>();
+        // Changes whenever a write starts or finishes, a load only caches what it read if it didn't change.
+        private long generation;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedAccount> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized CachedAccount get(Long accountId) {
+            CachedAccount cached = entries.get(accountId);
+            if (cached != null && isExpired(cached.getCachedAtNanos())) {
+                expirations.increment();
+                entries.remove(accountId);
+                return null;
+            }
+            return cached;
+        }
+
+        private synchronized boolean contains(Long accountId) {
+            return entries.containsKey(accountId);
+        }
+
+        private synchronized long generation() {
+            return generation;
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized CachedAccount completeLoad(CheckingAccountEntity account, long loadGeneration,
+                                                        long version) {
+            CachedAccount loaded = CachedAccount.of(account, version);
+            if (loadGeneration == generation && !writesInFlight.containsKey(account.getId())) {
+                entries.put(account.getId(), loaded);
+            }
+            return loaded;
+        }
+
+        private synchronized void startWrite(Long accountId) {
+            generation++;
+            writesInFlight.merge(accountId, 1, Integer::sum);
+        }
+
+        private synchronized void finishWrite(Long accountId, BigDecimal balance, long version, boolean unknown) {
+            generation++;
+            writesInFlight.computeIfPresent(accountId, (id, writes) -> writes == 1 ? null : writes - 1);
+            if (unknown) {
+                entries.remove(accountId);
+                return;
+            }
+            CachedAccount cached = entries.get(accountId);
+            if (balance != null && cached != null && cached.getVersion() < version) {
+                entries.put(accountId, cached.withBalance(balance, version));
+                writeThroughs.increment();
+            }
+        }
+
+        private synchronized void evict(Long accountId) {
+            generation++;
+            entries.remove(accountId);
+        }
+    }
+
+    private static final class UserAccounts {
+        private final List<Long> accountIds;
+        private final long cachedAtNanos;
+
+        private UserAccounts(List<Long> accountIds, long cachedAtNanos) {
+            this.accountIds = accountIds;
+            this.cachedAtNanos = cachedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.banksystem.services.cache;
+
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.responses.CheckingAccountResponse;
+
+import java.math.BigDecimal;
+
+/**
+ * An immutable copy of the fields of a {@link CheckingAccountEntity} that the account reads return, as held by the
+ * {@link AccountCache}.
+ */
+public final class CachedAccount {
+    private final Long id;
+    private final String iban;
+    private final Long userId;
+    private final String userFullName;
+    private final String type;
+    private final BigDecimal balance;
+    private final long version;
+    private final long cachedAtNanos;
+
+    private CachedAccount(Long id, String iban, Long userId, String userFullName, String type, BigDecimal balance,
+                          long version, long cachedAtNanos) {
+        this.id = id;
+        this.iban = iban;
+        this.userId = userId;
+        this.userFullName = userFullName;
+        this.type = type;
+        this.balance = balance;
+        this.version = version;
+        this.cachedAtNanos = cachedAtNanos;
+    }
+
+    static CachedAccount of(CheckingAccountEntity account, long version) {
+        return new CachedAccount(account.getId(), account.getIban(), account.getUser().getId(),
+                account.getUser().getFullName(), account.getType().getType(), account.getBalance(), version,
+                System.nanoTime());
+    }
+
+    CachedAccount withBalance(BigDecimal balance, long version) {
+        return new CachedAccount(id, iban, userId, userFullName, type, balance, version, System.nanoTime());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIban() {
+        return iban;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserFullName() {
+        return userFullName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    long getCachedAtNanos() {
+        return cachedAtNanos;
+    }
+
+    /**
+     * Maps the cached account to a new {@link CheckingAccountResponse}, so callers can change the response freely.
+     * @return a {@link CheckingAccountResponse} with the cached fields.
+     */
+    public CheckingAccountResponse toResponse() {
+        return new CheckingAccountResponse()
+                .setId(id)
+                .setIban(iban)
+                .setBalance(balance)
+                .setUserFullName(userFullName)
+                .setType(type);
+    }
+}
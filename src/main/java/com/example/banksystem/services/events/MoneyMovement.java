@@ -0,0 +1,93 @@
+package com.example.banksystem.services.events;
+
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A single change of the balance of a checking account, together with the {@link TransactionEntity} recording it.
+ * <p>The transaction only holds the amount, the balance of a debited account also goes down by the transaction fee.
+ */
+public final class MoneyMovement {
+    private final Long transactionId;
+    private final UUID uuid;
+    private final Long accountId;
+    private final TransactionType type;
+    private final BigDecimal amount;
+    private final BigDecimal fee;
+    private final boolean credit;
+    private final LocalDateTime createdOn;
+
+    private MoneyMovement(TransactionEntity transaction, BigDecimal fee, boolean credit) {
+        this.transactionId = transaction.getId();
+        this.uuid = transaction.getUUid();
+        this.accountId = transaction.getAccountEntity().getId();
+        this.type = transaction.getType();
+        this.amount = transaction.getAmount();
+        this.fee = fee;
+        this.credit = credit;
+        this.createdOn = transaction.getCreatedOn();
+    }
+
+    /**
+     * Describes money added to the account of the given transaction.
+     * @param transaction the saved {@link TransactionEntity}.
+     * @return a {@link MoneyMovement} increasing the balance by the amount of the transaction.
+     */
+    public static MoneyMovement credit(TransactionEntity transaction) {
+        return new MoneyMovement(transaction, BigDecimal.ZERO, true);
+    }
+
+    /**
+     * Describes money taken from the account of the given transaction.
+     * @param transaction the saved {@link TransactionEntity}.
+     * @param fee the transaction fee, taken together with the amount.
+     * @return a {@link MoneyMovement} decreasing the balance by the amount of the transaction and the fee.
+     */
+    public static MoneyMovement debit(TransactionEntity transaction, BigDecimal fee) {
+        return new MoneyMovement(transaction, fee, false);
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public BigDecimal getFee() {
+        return fee;
+    }
+
+    public boolean isCredit() {
+        return credit;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    /**
+     * Gets the signed change of the balance.
+     * @return the amount for a credit, or minus the amount and the fee for a debit.
+     */
+    public BigDecimal getBalanceChange() {
+        return credit ? amount : amount.add(fee).negate();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.banksystem.services.events;
+
+import java.util.List;
+
+/**
+ * Published after the balances of checking accounts have been changed and the {@link MoneyMovement}s have been
+ * recorded as transactions, but before the database transaction is committed. Listeners run synchronously in the
+ * same database transaction, so whatever they write is committed or rolled back together with the balances.
+ */
+public class MoneyMovementEvent {
+    private final List<MoneyMovement> movements;
+
+    public MoneyMovementEvent(List<MoneyMovement> movements) {
+        this.movements = List.copyOf(movements);
+    }
+
+    public MoneyMovementEvent(MoneyMovement... movements) {
+        this(List.of(movements));
+    }
+
+    public List<MoneyMovement> getMovements() {
+        return movements;
+    }
+}
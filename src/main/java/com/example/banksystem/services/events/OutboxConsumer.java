@@ -0,0 +1,19 @@
+package com.example.banksystem.services.events;
+
+import com.example.banksystem.models.entities.OutboxEventEntity;
+
+import java.util.List;
+
+/**
+ * Receives the committed money movements from the outbox. Every Spring bean implementing this interface is called by
+ * the relay, in the order of the beans.
+ * <p>Events are delivered at least once: when a consumer throws, the whole batch is relayed again to every consumer,
+ * so consumers skip events whose id they have already seen.
+ */
+public interface OutboxConsumer {
+    /**
+     * Handles a batch of events, in ascending order of their ids.
+     * @param events the {@link OutboxEventEntity}s of the batch.
+     */
+    void consume(List<OutboxEventEntity> events);
+}
@@ -0,0 +1,54 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.exceptions.EntityNotFoundException;
+import com.example.banksystem.exceptions.ResourceNotBelongingToUser;
+import com.example.banksystem.exceptions.ServiceOverloadedException;
+import com.example.banksystem.models.entities.TransferRequestEntity;
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransferStatusResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * A Service interface for transfers executed in the background.
+ * <p>A submitted transfer is validated and saved as a pending {@link TransferRequestEntity}, and the request returns
+ * at once. A bounded pool of workers then makes the transfer through {@link TransactionService#transfer} and records
+ * its outcome, which the client polls by the UUID of the transfer.
+ */
+@Service
+public interface AsyncTransferService {
+    /**
+     * Validates a transfer, saves it as pending and queues it for execution.
+     * @param userId the id of the user, issuing the transfer.
+     * @param body   a {@link TransferCreationRequest} entity, containing all the parameters for the transfer.
+     * @return a {@link TransferStatusResponse} of the pending transfer.
+     * @throws AccountNotBelongToUserException when the sending account doesn't belong to the user.
+     * @throws EntityNotFoundException         when the receiving account doesn't exist.
+     * @throws ServiceOverloadedException      when the queue of the workers is full.
+     */
+    TransferStatusResponse submit(Long userId, TransferCreationRequest body);
+
+    /**
+     * Gets the state of a submitted transfer.
+     * @param userId the id of the user, asking for the transfer.
+     * @param uuid   the UUID returned when the transfer was submitted.
+     * @return a {@link TransferStatusResponse} with the state and the outcome of the transfer.
+     * @throws EntityNotFoundException    when there is no transfer with the given UUID.
+     * @throws ResourceNotBelongingToUser when the transfer was submitted by another user.
+     */
+    TransferStatusResponse getStatus(Long userId, UUID uuid);
+
+    /**
+     * Queues the transfers that are pending for too long again, such as the ones left behind by a restart.
+     * @return the number of queued transfers.
+     */
+    int resubmitStalePending();
+
+    /**
+     * Deletes the completed and failed transfers that finished before the retention period.
+     * @return the number of deleted transfers.
+     */
+    int deleteFinishedRequests();
+}
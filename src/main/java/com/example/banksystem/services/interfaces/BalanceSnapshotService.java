@@ -0,0 +1,38 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.models.entities.DailyBalanceEntity;
+import com.example.banksystem.models.responses.StatementResponse;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * A Service interface for {@link DailyBalanceEntity}.
+ * <p>Keeps a snapshot of the balance of every checking account for every day on which it changed, so statements
+ * don't have to replay the transactions of the account.
+ */
+@Service
+public interface BalanceSnapshotService {
+    /**
+     * Adds the given money movements to the snapshots of the days they were made on, in the same database
+     * transaction that changed the balances.
+     * @param event a {@link MoneyMovementEvent} with the movements.
+     */
+    void recordMovements(MoneyMovementEvent event);
+
+    /**
+     * Builds the statement of an account of the given user from the daily snapshots, reading the transactions of
+     * today only.
+     * @param userId the id of the user.
+     * @param accountId the id of the user's account.
+     * @param from the first day of the statement.
+     * @param to the last day of the statement.
+     * @return a {@link StatementResponse} with the opening and the closing balance, the totals per transaction type
+     * and the days on which the balance changed.
+     * @throws AccountNotBelongToUserException when the account doesn't belong to the user.
+     * @throws IllegalArgumentException when the first day is after the last one.
+     */
+    StatementResponse getStatement(Long userId, Long accountId, LocalDate from, LocalDate to);
+}
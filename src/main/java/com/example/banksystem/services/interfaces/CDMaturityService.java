@@ -0,0 +1,35 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.models.entities.CDAccountEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * A Service interface for the scheduled conversion of the expired {@link CDAccountEntity}s.
+ */
+@Service
+public interface CDMaturityService {
+    /**
+     * Transforms every {@link CDAccountEntity} expiring on a date after the last processed one up to the given date
+     * into a {@link CheckingAccountEntity} with the same IBAN and the outcome amount of the CD account as its balance.
+     * <p>The last processed date is remembered, so the dates missed while the application was down are caught up by
+     * the next run. The accounts are converted in chunks of consecutive ids, each chunk in its own database
+     * transaction together with its checkpoint, so an interrupted run resumes with the chunks it didn't convert yet.
+     * Every opened account gets a {@link com.example.banksystem.models.entities.TransactionType#CD_PAYOUT}
+     * transaction of its balance.
+     * @param businessDate the last expiration date to convert the accounts of, usually today.
+     * @return the number of converted accounts.
+     */
+    long convertExpiredAccounts(LocalDate businessDate);
+
+    /**
+     * Tells which dates {@link #convertExpiredAccounts} would process for the given date and how many accounts expire
+     * on them, without converting anything.
+     * @param businessDate the last date the job would process, usually today.
+     * @return a {@link CatchUpReportResponse} of the job.
+     */
+    CatchUpReportResponse previewCatchUp(LocalDate businessDate);
+}
@@ -65,10 +65,13 @@ public interface CheckingAccountService {
 	 * <p>For more information on withdrawal, check {@link TransactionService}.
 	 * @param account the account on which the transaction will be executed.
 	 * @param amount the amount to be withdrawn from the account.
+	 * @return the transaction fee, taken from the account together with the amount.
 	 * @throws com.example.banksystem.exceptions.InsufficientFundsException when the
 	 * given amount to withdraw is greater than the balance in the account.
+	 * @throws com.example.banksystem.exceptions.VelocityLimitExceededException when the account is over the
+	 * velocity limits of its account type.
 	 */
-	void withdraw(CheckingAccountEntity account, BigDecimal amount);
+	BigDecimal withdraw(CheckingAccountEntity account, BigDecimal amount);
 
 	/**
 	 * Executes a deposit transaction to the given account.
@@ -78,6 +81,18 @@ public interface CheckingAccountService {
 	 */
 	void deposit(CheckingAccountEntity account, BigDecimal amount);
 
+	/**
+	 * Moves the given amount from one account to another as a single unit of work.
+	 * <p>For more information on transfers, check {@link TransactionService}.
+	 * @param accountFrom the account from which the amount will be withdrawn.
+	 * @param accountTo the account to which the amount will be deposited.
+	 * @param amount the amount to be transferred.
+	 * @return the transaction fee, taken from the sending account together with the amount.
+	 * @throws com.example.banksystem.exceptions.InsufficientFundsException when the
+	 * given amount is greater than the balance in the sending account.
+	 */
+	BigDecimal transfer(CheckingAccountEntity accountFrom, CheckingAccountEntity accountTo, BigDecimal amount);
+
 	/**
 	 * Gets all {@link CheckingAccountEntity}s from the database.
 	 *  @return a {@link List} of {@link CheckingAccountEntity}.
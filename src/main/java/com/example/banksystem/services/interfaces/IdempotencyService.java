@@ -0,0 +1,54 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.exceptions.IdempotencyKeyConflictException;
+import com.example.banksystem.models.entities.IdempotencyKeyEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * A Service interface for {@link IdempotencyKeyEntity}.
+ * <p>Makes sure a request, retried with the same Idempotency-Key, is executed only once.
+ */
+@Service
+public interface IdempotencyService {
+    /**
+     * Executes the given action once per user and key. When the key was already used, the stored response of the
+     * first request is returned instead, without executing the action again.
+     * @param userId the id of the user, issuing the request.
+     * @param idempotencyKey the key from the Idempotency-Key header, or null when the header is missing.
+     * @param operation the name of the operation - deposit, withdraw or transfer.
+     * @param request the body of the request.
+     * @param responseType the type of the response.
+     * @param action the action that executes the request.
+     * @return the response of the action, or the stored response when the key was already used.
+     * @throws IdempotencyKeyConflictException when the key was already used for a different request.
+     * @throws IllegalArgumentException when the key is blank or too long.
+     */
+    <T> T execute(Long userId, String idempotencyKey, String operation, Object request, Class<T> responseType,
+                  Supplier<T> action);
+
+    /**
+     * Executes the given action once per user and key, like {@link #execute}, for an action that commits its own
+     * transaction on another thread, such as a movement applied by the account shards. The key is claimed in a
+     * transaction of its own before the action runs, and the response is stored once the action returned.
+     * @param userId the id of the user, issuing the request.
+     * @param idempotencyKey the key from the Idempotency-Key header, or null when the header is missing.
+     * @param operation the name of the operation - deposit or withdraw.
+     * @param request the body of the request.
+     * @param responseType the type of the response.
+     * @param action the action that executes the request.
+     * @return the response of the action, or the stored response when the key was already used.
+     * @throws IdempotencyKeyConflictException when the key was already used for a different request, or the
+     * request using it is still being processed.
+     * @throws IllegalArgumentException when the key is blank or too long.
+     */
+    <T> T executeOutsideTransaction(Long userId, String idempotencyKey, String operation, Object request,
+                                    Class<T> responseType, Supplier<T> action);
+
+    /**
+     * Deletes all {@link IdempotencyKeyEntity}s that are older than the retention period.
+     * @return the number of deleted keys.
+     */
+    int deleteExpiredKeys();
+}
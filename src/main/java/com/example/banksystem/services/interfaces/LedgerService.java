@@ -0,0 +1,46 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.models.entities.LedgerPostingEntity;
+import com.example.banksystem.models.responses.LedgerVerificationResponse;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * A Service interface for the append-only double-entry ledger of {@link LedgerPostingEntity}s.
+ * <p>Every money movement is recorded as an entry of postings that add up to zero: the checking account on one
+ * side, and the other checking account of a transfer or the cash, fee revenue and loan accounts of the bank on the
+ * other. Balances derived from the postings are used to verify the balances of the checking accounts, and the
+ * running totals of the accounts are the balances the statements are read with.
+ */
+@Service
+public interface LedgerService {
+    /**
+     * Records the postings of the given money movements in the transaction that made them.
+     * @param event a {@link MoneyMovementEvent} with the movements.
+     */
+    void recordMovements(MoneyMovementEvent event);
+
+    /**
+     * Records money that entered a checking account without a transaction, like the balance of a converted
+     * CD account.
+     * @param accountId the id of the checking account.
+     * @param amount the amount added to the account.
+     */
+    void recordOpeningBalance(Long accountId, BigDecimal amount);
+
+    /**
+     * Gets the ledger balance of a checking account from the running total of its postings.
+     * @param accountId the id of the checking account.
+     * @return the ledger balance, zero when the account has no postings.
+     */
+    BigDecimal getBalance(Long accountId);
+
+    /**
+     * Recomputes the balance of every checking account from its postings and compares it to the balance of the
+     * account and to its running total. Also checks that every entry adds up to zero.
+     * @return a {@link LedgerVerificationResponse} with every drift found.
+     */
+    LedgerVerificationResponse verify();
+}
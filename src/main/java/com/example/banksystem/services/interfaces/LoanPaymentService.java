@@ -0,0 +1,47 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.models.entities.LoanEntity;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A Service interface for the scheduled processing of the {@link LoanEntity}s - the monthly instalments and the
+ * closing of the loans that ended.
+ * <p>Both jobs remember the last business date they processed, and a run processes every date after it up to the
+ * given one with range queries, so the dates missed while the application was down are caught up by its next run.
+ * <p>The loans are processed in chunks of consecutive ids, each chunk in its own database transaction together with
+ * its checkpoint, so an interrupted run resumes with the chunks it didn't process yet, and a date that was already
+ * processed isn't processed again.
+ */
+@Service
+public interface LoanPaymentService {
+    /**
+     * Takes the monthly payment and the monthly fee of its loan type out of the account of every loan with an
+     * instalment due on a date after the last processed one up to the given date, records it as a transaction of
+     * type "loan payment", and moves the next instalment a month later. A loan with several missed instalments is
+     * charged for each of them.
+     * @param businessDate the last date to charge the instalments of, usually today.
+     * @return the number of charged instalments.
+     */
+    long chargeInstalments(LocalDate businessDate);
+
+    /**
+     * Deletes every loan ending on a date after the last processed one up to the given date, and marks its user as
+     * not having a loan. The instalments due up to the given date are charged first, so the last instalment of a
+     * loan is charged before the loan is deleted.
+     * @param businessDate the last date to close the loans of, usually today.
+     * @return the number of closed loans.
+     */
+    long closeFinishedLoans(LocalDate businessDate);
+
+    /**
+     * Tells which dates {@link #chargeInstalments} and {@link #closeFinishedLoans} would process for the given date
+     * and how many loans are due on them, without processing anything.
+     * @param businessDate the last date the jobs would process, usually today.
+     * @return a {@link List} with a {@link CatchUpReportResponse} for each job.
+     */
+    List<CatchUpReportResponse> previewCatchUp(LocalDate businessDate);
+}
@@ -0,0 +1,18 @@
+package com.example.banksystem.services.interfaces;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * A Service interface for the monthly fees of the checking accounts.
+ */
+@Service
+public interface MonthlyFeeService {
+    /**
+     * Takes the monthly fee of its account type out of every checking account and records it as a transaction of
+     * type "monthly-fee". Account types without a monthly fee are skipped.
+     * <p>The accounts are charged in chunks of consecutive ids, each chunk in its own database transaction together
+     * with its checkpoint, so an interrupted collection resumes with the chunks it didn't charge yet.
+     * @return the number of charged accounts.
+     */
+    long collectMonthlyFees();
+}
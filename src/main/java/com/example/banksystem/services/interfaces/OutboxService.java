@@ -0,0 +1,39 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.models.entities.OutboxEventEntity;
+import com.example.banksystem.models.responses.OutboxMetricsResponse;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.events.OutboxConsumer;
+import org.springframework.stereotype.Service;
+
+/**
+ * A Service interface for the transactional outbox of money movements. Movements are appended as
+ * {@link OutboxEventEntity}s in the database transaction that made them, and relayed in batches to every
+ * {@link OutboxConsumer}, so consumers don't have to poll the transactions.
+ */
+@Service
+public interface OutboxService {
+    /**
+     * Appends the given money movements to the outbox in the transaction that made them.
+     * @param event a {@link MoneyMovementEvent} with the movements.
+     */
+    void append(MoneyMovementEvent event);
+
+    /**
+     * Relays the waiting events to the consumers in batches, until the outbox is empty or a consumer fails.
+     * @return the number of relayed events.
+     */
+    int relayPending();
+
+    /**
+     * Deletes the events that were relayed before the retention period.
+     * @return the number of deleted events.
+     */
+    int deleteRelayedEvents();
+
+    /**
+     * Gets the number of waiting events and the counters of the relay.
+     * @return an {@link OutboxMetricsResponse}.
+     */
+    OutboxMetricsResponse getMetrics();
+}
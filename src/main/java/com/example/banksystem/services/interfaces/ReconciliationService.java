@@ -0,0 +1,29 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.exceptions.EntityNotFoundException;
+import com.example.banksystem.exceptions.ServiceOverloadedException;
+import com.example.banksystem.models.responses.ReconciliationRunResponse;
+import org.springframework.stereotype.Service;
+
+/**
+ * A Service interface for the reconciliation of the balances of the checking accounts against their transactions.
+ * <p>The balance of every account is compared to its opening value plus the signed sum of its transactions, less
+ * the fees charged on top of them, and every account that doesn't match is written to the report of the run.
+ */
+@Service
+public interface ReconciliationService {
+    /**
+     * Reconciles all checking accounts, resuming the last run when it didn't finish.
+     * @return a {@link ReconciliationRunResponse} with the report of the finished run.
+     * @throws ServiceOverloadedException when a reconciliation is already running on this node.
+     */
+    ReconciliationRunResponse reconcile();
+
+    /**
+     * Gets the report of a reconciliation run.
+     * @param runId the id of the run.
+     * @return a {@link ReconciliationRunResponse} with the progress and the discrepancies of the run.
+     * @throws EntityNotFoundException when there is no run with the given id.
+     */
+    ReconciliationRunResponse getRun(Long runId);
+}
@@ -1,17 +1,26 @@
 package com.example.banksystem.services.interfaces;
 
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
 import com.example.banksystem.exceptions.EntityNotFoundException;
+import com.example.banksystem.exceptions.IncorrectDateFilteringException;
 import com.example.banksystem.exceptions.InsufficientFundsException;
+import com.example.banksystem.exceptions.NoRecordsOfEntityInTheDatabase;
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
 import com.example.banksystem.models.entities.AccountEntity;
 import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionType;
 import com.example.banksystem.models.entities.TransactionEntity;
 import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.requsts.TransactionExportFormat;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
 import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransactionPageResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
 import com.example.banksystem.models.responses.TransferResponse;
 
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -46,16 +55,66 @@ public interface TransactionService {
 	 * @throws EntityNotFoundException    when the given id or Iban do not match with any account.
 	 * @throws InsufficientFundsException when the balance in the retrieved account is less than the given
 	 *                                    amount to withdraw.
+	 * @throws VelocityLimitExceededException when the account is over the velocity limits of its account type.
 	 */
 	TransactionResponse withdraw(Long userId, TransactionCreationRequest body);
 
+	/**
+	 * Creates a transfer between two accounts.
+	 * <p>The sending {@link AccountEntity} must belong to the user. Both balances are updated and both
+	 * transactions - of type send and received, sharing one random {@link UUID} - are saved atomically,
+	 * so a failure at any step leaves neither account changed.
+	 *
+	 * @param userId the id of the user, issuing the transfer.
+	 * @param body   a {@link TransferCreationRequest} entity, containing all the parameters for the transfer.
+	 * @return a {@link TransferResponse} containing the information of the created transfer.
+	 * @throws EntityNotFoundException    when the receiving Iban does not match with any account.
+	 * @throws InsufficientFundsException when the sending account can't cover the amount and the fee.
+	 * @throws VelocityLimitExceededException when the sending account made too many withdrawals and transfers, or
+	 *                                        moved too much money, in the velocity window of its account type.
+	 */
 	TransferResponse transfer(Long userId, TransferCreationRequest body);
 
-	List<TransactionResponse> getAllTransactionsByGivenCriteria(String type, String dateOn, String dateBefore,
-																String dateAfter);
-	List<TransactionResponse> getAllTransactionsForUserByGivenCriteria(Long userId, Long accountId,
-																	   String type, String dateOn,
-																	   String dateBefore, String dateAfter);
+	/**
+	 * Searches all transactions by the given criteria, from the newest to the oldest, one page at a time.
+	 * <p>Every criterion that is not given is not applied. Pages are cut by a cursor on the creation date and id of
+	 * the last transaction, and their size is capped.
+	 *
+	 * @param request a {@link TransactionSearchRequest} containing the criteria, the cursor and the page size.
+	 * @return a {@link TransactionPageResponse} with the matching transactions and the cursor of the next page.
+	 * @throws IncorrectDateFilteringException when a date on is combined with a date before or after.
+	 * @throws IllegalArgumentException        when a date, the cursor, the amount range or the page size is invalid.
+	 * @throws NoRecordsOfEntityInTheDatabase  when no transaction matches the criteria.
+	 */
+	TransactionPageResponse getAllTransactionsByGivenCriteria(TransactionSearchRequest request);
+
+	/**
+	 * Searches the transactions of an account of the given user, the same way as
+	 * {@link #getAllTransactionsByGivenCriteria(TransactionSearchRequest)}.
+	 *
+	 * @param userId    the id of the user.
+	 * @param accountId the id of the user's account.
+	 * @param request   a {@link TransactionSearchRequest} containing the criteria, the cursor and the page size.
+	 * @return a {@link TransactionPageResponse} with the matching transactions and the cursor of the next page.
+	 * @throws AccountNotBelongToUserException when the account doesn't belong to the user.
+	 */
+	TransactionPageResponse getAllTransactionsForUserByGivenCriteria(Long userId, Long accountId,
+																	 TransactionSearchRequest request);
+
+	/**
+	 * Writes all transactions matching the criteria of the request to the given stream, from the oldest to the
+	 * newest, without loading them into memory.
+	 * <p>The same filters as in {@link #getAllTransactionsByGivenCriteria(TransactionSearchRequest)} are applied,
+	 * the cursor and the page size are ignored.
+	 *
+	 * @param request a {@link TransactionSearchRequest} containing the criteria.
+	 * @param format  the {@link TransactionExportFormat} of the export.
+	 * @param out     the stream to write the export to.
+	 * @return the number of exported transactions.
+	 * @throws IncorrectDateFilteringException when dateOn is combined with dateBefore or dateAfter.
+	 * @throws UncheckedIOException            when the stream can't be written to.
+	 */
+	long exportTransactions(TransactionSearchRequest request, TransactionExportFormat format, OutputStream out);
 
 	/**
 	 * Saves a payment in the form of {@link TransactionEntity} by given parameters to the TransactionRepository.
@@ -66,7 +125,7 @@ public interface TransactionService {
 	 * @param account is the account with which the money is associated.
 	 * @param type is the type of the transaction
 	 */
-    void savePaymentInTransaction(BigDecimal tax, CheckingAccountEntity account, String type);
+    void savePaymentInTransaction(BigDecimal tax, CheckingAccountEntity account, TransactionType type);
 
 	/**
 	 * Make a transfer of loan amount to checking account
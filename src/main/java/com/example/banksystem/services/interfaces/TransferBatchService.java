@@ -0,0 +1,27 @@
+package com.example.banksystem.services.interfaces;
+
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransferBatchResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * A Service interface for transfers submitted in bulk.
+ * <p>For more information on a single transfer, check {@link TransactionService#transfer}.
+ */
+@Service
+public interface TransferBatchService {
+	/**
+	 * Executes a batch of transfers from the accounts of the given user.
+	 * <p>Every transfer is validated on its own, and the accounts of the whole batch are looked up with one query.
+	 * The valid transfers are applied in chunks, each chunk in its own database transaction. A transfer that can't be
+	 * made is rejected without affecting the rest of the batch.
+	 *
+	 * @param userId    the id of the user, issuing the transfers.
+	 * @param transfers the {@link TransferCreationRequest}s of the batch.
+	 * @return a {@link TransferBatchResponse} with the result of every transfer, in the order of the batch.
+	 * @throws IllegalArgumentException when the batch is empty or bigger than the allowed size.
+	 */
+	TransferBatchResponse transfer(Long userId, List<TransferCreationRequest> transfers);
+}
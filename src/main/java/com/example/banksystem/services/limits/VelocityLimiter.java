@@ -0,0 +1,208 @@
+package com.example.banksystem.services.limits;
+
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.responses.VelocityLimitMetricsResponse;
+import com.example.banksystem.services.aggregates.AccountActivityAggregates;
+import com.example.banksystem.services.aggregates.RollingWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-account velocity limits of the withdrawals and transfers, enforced by in-memory token buckets before any
+ * database work is done for the operation.
+ * <p>Every account has one bucket of operations and one of money, holding up to the limits of its account type and
+ * refilled continuously over the velocity window of the type. Both are kept in one immutable state, which an
+ * operation replaces with a compare-and-set, so concurrent operations on the same account never block each other
+ * and either take from both buckets or from none.
+ * <p>An operation takes its tokens when it's attempted, they are not given back when it later fails, so a burst of
+ * calls is throttled whether it succeeds or not. The buckets are kept per node.
+ * <p>Before the buckets, the money the account took out in the last 24 hours and 30 days, read from the
+ * {@link AccountActivityAggregates}, is checked against {@code bank.velocity.daily-max-amount} and
+ * {@code bank.velocity.monthly-max-amount}. The aggregates count an operation once its transaction commits, so
+ * operations running at the same time on the same account don't see each other there - the token buckets bound
+ * those.
+ */
+@Component
+public class VelocityLimiter {
+    private final boolean enabled;
+    private final AccountActivityAggregates activityAggregates;
+    private final BigDecimal dailyMaxAmount;
+    private final BigDecimal monthlyMaxAmount;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByCount = new LongAdder();
+    private final LongAdder rejectedByAmount = new LongAdder();
+
+    @Autowired
+    public VelocityLimiter(@Value("${bank.velocity.enabled:true}") boolean enabled,
+                           AccountActivityAggregates activityAggregates,
+                           @Value("${bank.velocity.daily-max-amount:}") BigDecimal dailyMaxAmount,
+                           @Value("${bank.velocity.monthly-max-amount:}") BigDecimal monthlyMaxAmount) {
+        this(enabled, activityAggregates, dailyMaxAmount, monthlyMaxAmount, System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter enforcing the velocity limits of the account types only, without the daily and monthly
+     * amounts.
+     * @param enabled whether the limits are enforced.
+     */
+    public VelocityLimiter(boolean enabled) {
+        this(enabled, null, null, null, System::nanoTime);
+    }
+
+    VelocityLimiter(boolean enabled, AccountActivityAggregates activityAggregates, BigDecimal dailyMaxAmount,
+                    BigDecimal monthlyMaxAmount, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.activityAggregates = activityAggregates;
+        this.dailyMaxAmount = dailyMaxAmount;
+        this.monthlyMaxAmount = monthlyMaxAmount;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one operation and the given amount from the buckets of the account.
+     * @param account the {@link CheckingAccountEntity} money is taken from, with its account type.
+     * @param amount the amount of the operation, without the fee.
+     * @throws VelocityLimitExceededException when the amount would take the account over its daily or monthly
+     * amount, or the account has no operation or not enough money left in the current velocity window.
+     */
+    public void acquire(CheckingAccountEntity account, BigDecimal amount) {
+        if (!enabled) {
+            return;
+        }
+        checkTakenAmount(account.getId(), amount, RollingWindow.LAST_24_HOURS, dailyMaxAmount, "daily");
+        checkTakenAmount(account.getId(), amount, RollingWindow.LAST_30_DAYS, monthlyMaxAmount, "monthly");
+
+        AccountTypeEntity type = account.getType();
+        if (type == null || type.getVelocityWindowMinutes() == null
+                || (type.getVelocityMaxCount() == null && type.getVelocityMaxAmount() == null)) {
+            return;
+        }
+
+        long windowNanos = TimeUnit.MINUTES.toNanos(type.getVelocityWindowMinutes());
+        double maxCount = type.getVelocityMaxCount() == null
+                ? Double.POSITIVE_INFINITY : type.getVelocityMaxCount();
+        double maxCents = type.getVelocityMaxAmount() == null
+                ? Double.POSITIVE_INFINITY : toCents(type.getVelocityMaxAmount());
+        long cents = toCents(amount);
+
+        Bucket bucket = buckets.computeIfAbsent(account.getId(), id -> new Bucket(nanoClock.getAsLong(), windowNanos));
+        bucket.windowNanos = windowNanos;
+        while (true) {
+            State current = bucket.state.get();
+            long now = Math.max(nanoClock.getAsLong(), current.nanos);
+            double refill = (now - current.nanos) / (double) windowNanos;
+            double count = refill(current.count, maxCount, refill);
+            double centsLeft = refill(current.cents, maxCents, refill);
+
+            if (count < 1) {
+                rejectedByCount.increment();
+                throw new VelocityLimitExceededException(
+                        "Too many withdrawals and transfers from this account, try again later!");
+            }
+            if (centsLeft < cents) {
+                rejectedByAmount.increment();
+                throw new VelocityLimitExceededException(
+                        "The amount exceeds the withdrawal and transfer limit of this account, try again later!");
+            }
+            if (bucket.state.compareAndSet(current, new State(count - 1, centsLeft - cents, now))) {
+                allowed.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that weren't used for a whole velocity window, which are full again anyway. An operation
+     * racing with the eviction of its bucket can take from the dropped bucket, which lets at most one extra
+     * operation through.
+     * @return the number of dropped buckets.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (var entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (now - bucket.state.get().nanos >= bucket.windowNanos && buckets.remove(entry.getKey(), bucket)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Gets the number of tracked accounts and the counters of allowed and rejected operations.
+     * @return a {@link VelocityLimitMetricsResponse}.
+     */
+    public VelocityLimitMetricsResponse getMetrics() {
+        return new VelocityLimitMetricsResponse()
+                .setTrackedAccounts(buckets.size())
+                .setAllowedOperations(allowed.sum())
+                .setRejectedByCount(rejectedByCount.sum())
+                .setRejectedByAmount(rejectedByAmount.sum());
+    }
+
+    private void checkTakenAmount(Long accountId, BigDecimal amount, RollingWindow window, BigDecimal maxAmount,
+                                  String limit) {
+        if (activityAggregates == null || maxAmount == null) {
+            return;
+        }
+
+        BigDecimal taken = activityAggregates.getTotals(accountId, TransactionType.WITHDRAW, window).getAmount()
+                .add(activityAggregates.getTotals(accountId, TransactionType.SEND, window).getAmount());
+        if (taken.add(amount).compareTo(maxAmount) > 0) {
+            rejectedByAmount.increment();
+            throw new VelocityLimitExceededException(
+                    "The amount exceeds the " + limit + " withdrawal and transfer limit of this account!");
+        }
+    }
+
+    private static double refill(double tokens, double max, double refill) {
+        return Double.isInfinite(max) ? max : Math.min(max, tokens + refill * max);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The tokens left in both buckets of an account at the given time. A new bucket starts full.
+     */
+    private static final class State {
+        private final double count;
+        private final double cents;
+        private final long nanos;
+
+        State(double count, double cents, long nanos) {
+            this.count = count;
+            this.cents = cents;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state;
+        private volatile long windowNanos;
+
+        Bucket(long nanos, long windowNanos) {
+            this.windowNanos = windowNanos;
+            this.state = new AtomicReference<>(
+                    new State(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, nanos));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.services.aggregates.AccountActivityAggregates;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccountActivityScheduler {
+    private final AccountActivityAggregates accountActivityAggregates;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public AccountActivityScheduler(AccountActivityAggregates accountActivityAggregates) {
+        this.accountActivityAggregates = accountActivityAggregates;
+    }
+
+    /**
+     * Drops the activity counters of the accounts without withdrawals or sent transfers in the last 30 days
+     * automatically every hour.
+     */
+    @Scheduled(cron = "@hourly")
+    public void evictIdleAccountActivity() {
+        int evicted = accountActivityAggregates.evictIdle();
+        logger.info("Deleted the activity counters of {} idle accounts.", evicted);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.interfaces.AsyncTransferService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AsyncTransferScheduler {
+    private final AsyncTransferService asyncTransferService;
+    private final JobLeaseManager jobLeaseManager;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public AsyncTransferScheduler(AsyncTransferService asyncTransferService, JobLeaseManager jobLeaseManager) {
+        this.asyncTransferService = asyncTransferService;
+        this.jobLeaseManager = jobLeaseManager;
+    }
+
+    /**
+     * Queues the transfers that are pending for too long again, such as the ones left behind by a restart. Runs
+     * on every node, each queueing its own workers.
+     */
+    @Scheduled(fixedDelayString = "${bank.transfers.async.recovery-delay-millis:30000}")
+    public void resubmitStaleTransfers() {
+        int resubmitted = asyncTransferService.resubmitStalePending();
+        if (resubmitted > 0) {
+            logger.info("Resubmitted {} stale pending transfers.", resubmitted);
+        }
+    }
+
+    /**
+     * Deletes the finished transfers older than the retention period automatically every hour, on the node
+     * holding its lease only.
+     */
+    @Scheduled(cron = "@hourly")
+    public void deleteFinishedTransfers() {
+        jobLeaseManager.runExclusively("finished-transfer-cleanup", () -> {
+            int deleted = asyncTransferService.deleteFinishedRequests();
+            logger.info("Deleted {} finished transfers.", deleted);
+        });
+    }
+}
@@ -1,9 +1,8 @@
 package com.example.banksystem.services.schedulers;
 
-import com.example.banksystem.exceptions.NoRecordsOfEntityInTheDatabase;
 import com.example.banksystem.models.entities.CDAccountEntity;
 import com.example.banksystem.models.entities.CheckingAccountEntity;
-import com.example.banksystem.services.interfaces.CDAccountService;
+import com.example.banksystem.services.interfaces.CDMaturityService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,12 +12,12 @@ import java.time.LocalDate;
 
 @Component
 public class CDAccountScheduler {
-    private final CDAccountService cdAccountService;
+    private final CDMaturityService cdMaturityService;
 
     private final Logger logger = LogManager.getLogger(this.getClass());
 
-    public CDAccountScheduler(CDAccountService cdAccountService) {
-        this.cdAccountService = cdAccountService;
+    public CDAccountScheduler(CDMaturityService cdMaturityService) {
+        this.cdMaturityService = cdMaturityService;
     }
 
 
@@ -33,16 +32,8 @@ public class CDAccountScheduler {
     @Scheduled(cron = "@daily")
     public void checkExpPeriodAndTransformToChecking () {
         logger.info("The scheduler for checking expiration dates on CD Accounts got activated.");
-        try {
-            cdAccountService.getAllCDAccountsByDate(LocalDate.now())
-                    .forEach(account -> {
-                        cdAccountService.transformCDAccountToCheckingAccount(account, account.getOutcomeAmount());
-                        logger.info("Certification of deposit account with IBAN: {} expired and transformed to " +
-                                "Checking account with the same IBAN", account.getIban());
-                    });
-        } catch (NoRecordsOfEntityInTheDatabase e) {
-            logger.info(e.getMessage());
-        }
-        logger.info("The scheduler for checking expiration dates on CD Accounts got deactivated.");
+        long converted = cdMaturityService.convertExpiredAccounts(LocalDate.now());
+        logger.info("The scheduler for checking expiration dates on CD Accounts got deactivated after transforming " +
+                "{} accounts.", converted);
     }
 }
@@ -0,0 +1,34 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.models.entities.IdempotencyKeyEntity;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.interfaces.IdempotencyService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyKeyScheduler {
+    private final IdempotencyService idempotencyService;
+    private final JobLeaseManager jobLeaseManager;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public IdempotencyKeyScheduler(IdempotencyService idempotencyService, JobLeaseManager jobLeaseManager) {
+        this.idempotencyService = idempotencyService;
+        this.jobLeaseManager = jobLeaseManager;
+    }
+
+    /**
+     * Deletes every {@link IdempotencyKeyEntity} that is older than the retention period automatically every hour,
+     * so the table only keeps the keys clients may still retry with.
+     */
+    @Scheduled(cron = "@hourly")
+    public void deleteExpiredIdempotencyKeys() {
+        jobLeaseManager.runExclusively("idempotency-key-cleanup", () -> {
+            int deleted = idempotencyService.deleteExpiredKeys();
+            logger.info("Deleted {} expired idempotency keys.", deleted);
+        });
+    }
+}
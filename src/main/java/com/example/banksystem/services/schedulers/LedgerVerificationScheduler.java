@@ -0,0 +1,46 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.models.responses.LedgerDriftResponse;
+import com.example.banksystem.models.responses.LedgerVerificationResponse;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.interfaces.LedgerService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LedgerVerificationScheduler {
+    private final LedgerService ledgerService;
+    private final JobLeaseManager jobLeaseManager;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public LedgerVerificationScheduler(LedgerService ledgerService, JobLeaseManager jobLeaseManager) {
+        this.ledgerService = ledgerService;
+        this.jobLeaseManager = jobLeaseManager;
+    }
+
+    /**
+     * Recomputes the balances of the checking accounts from the ledger automatically every day and logs every
+     * account whose balance drifted from its postings. Runs on the node holding its lease only.
+     */
+    @Scheduled(cron = "@daily")
+    public void verifyLedger() {
+        jobLeaseManager.runExclusively("ledger-verification", this::verify);
+    }
+
+    private void verify() {
+        LedgerVerificationResponse result = ledgerService.verify();
+        for (LedgerDriftResponse drift : result.getDrifts()) {
+            logger.warn("Checking account {} has balance {}, its postings add up to {} and its running total is {}.",
+                    drift.getAccountId(), drift.getAccountBalance(), drift.getLedgerBalance(),
+                    drift.getCachedBalance());
+        }
+        if (!result.getUnbalancedEntries().isEmpty()) {
+            logger.warn("Ledger entries that don't add up to zero: {}", result.getUnbalancedEntries());
+        }
+        logger.info("Verified the ledger of {} checking accounts in {} ms, {} drifted.",
+                result.getCheckedAccounts(), result.getElapsedMillis(), result.getDrifts().size());
+    }
+}
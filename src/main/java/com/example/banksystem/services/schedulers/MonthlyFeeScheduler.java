@@ -1,52 +1,34 @@
 package com.example.banksystem.services.schedulers;
 
 import com.example.banksystem.models.entities.TransactionEntity;
-import com.example.banksystem.services.CheckingAccountServiceImpl;
-import com.example.banksystem.services.TransactionServiceImpl;
+import com.example.banksystem.services.interfaces.MonthlyFeeService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 @Component
 public class MonthlyFeeScheduler {
 
-    private final CheckingAccountServiceImpl accountService;
-    private final TransactionServiceImpl transactionService;
+    private final MonthlyFeeService monthlyFeeService;
     private final Logger log = LogManager.getLogger(this.getClass());
 
-    public MonthlyFeeScheduler(CheckingAccountServiceImpl accountService, TransactionServiceImpl transactionService) {
-        this.accountService = accountService;
-        this.transactionService = transactionService;
+    public MonthlyFeeScheduler(MonthlyFeeService monthlyFeeService) {
+        this.monthlyFeeService = monthlyFeeService;
     }
 
 
     /**
      * Takes the monthly fee out of every account automatically every month.
-     * <p>The account is taken from the service,the monthly fee corresponding to the account type is subtracted and
-     * account balance is updated. A {@link TransactionEntity} of type "monthly-fee" is created in the process and
-     * saved to the database.
+     * <p>The monthly fee corresponding to the account type is subtracted from the balance of every account, and a
+     * {@link TransactionEntity} of type "monthly fee" is created in the process and saved to the database. See
+     * {@link MonthlyFeeService#collectMonthlyFees()} for how the accounts are charged.
      */
     //@Scheduled(cron = "* */4 * * * *")
     @Scheduled(cron = "@monthly")
     public void collectMonthlyFee() {
         log.info("The scheduler for monthlyFee got activated.");
-        try {
-            this.accountService.getAllAccounts()
-                    .forEach(account -> {
-                        BigDecimal tax = account.getType().getMonthlyFee();
-
-                        account.setBalance(account.getBalance().subtract(tax));
-                        log.info("The scheduler took {} from {}", tax, account.getIban());
-
-                        accountService.saveAccount(account);
-                        transactionService.savePaymentInTransaction(tax, account, "monthly fee");
-                    });
-        }catch (Exception e){
-            throw new IllegalArgumentException("No account are present in the database!");
-        }
-        log.info("The scheduler for monthlyFee got deactivated.");
+        long charged = monthlyFeeService.collectMonthlyFees();
+        log.info("The scheduler for monthlyFee got deactivated after charging {} accounts.", charged);
     }
 }
@@ -0,0 +1,69 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.interfaces.OutboxService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+
+@Component
+public class OutboxRelayScheduler {
+    private final OutboxService outboxService;
+    private final JobLeaseManager jobLeaseManager;
+    private volatile JobLeaseManager.Lease relayLease;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public OutboxRelayScheduler(OutboxService outboxService, JobLeaseManager jobLeaseManager) {
+        this.outboxService = outboxService;
+        this.jobLeaseManager = jobLeaseManager;
+    }
+
+    /**
+     * Relays the waiting outbox events to the consumers, on the node holding the {@code outbox-relay} lease only.
+     * The lease is kept from one run to the next, so the events are relayed in order by a single node, and taken
+     * over by another node when the holder stops renewing it. The next run starts a fixed delay after the previous
+     * one ended, so the events are never relayed by two runs of the same node at the same time.
+     */
+    @Scheduled(fixedDelayString = "${bank.outbox.relay-delay-millis:500}")
+    public void relayOutboxEvents() {
+        if (relayLease == null || !relayLease.isHeld()) {
+            Optional<JobLeaseManager.Lease> lease = jobLeaseManager.tryAcquire("outbox-relay");
+            if (lease.isEmpty()) {
+                return;
+            }
+            relayLease = lease.get();
+            logger.info("Node {} relays the outbox events.", jobLeaseManager.getNodeId());
+        }
+        int relayed = outboxService.relayPending();
+        if (relayed > 0) {
+            logger.debug("Relayed {} outbox events.", relayed);
+        }
+    }
+
+    /**
+     * Releases the relay lease when the node shuts down, so another node takes the relay over.
+     */
+    @PreDestroy
+    public void releaseRelayLease() {
+        if (relayLease != null) {
+            relayLease.close();
+        }
+    }
+
+    /**
+     * Deletes the outbox events that were relayed before the retention period automatically every hour, on the
+     * node holding its lease only.
+     */
+    @Scheduled(cron = "@hourly")
+    public void deleteRelayedOutboxEvents() {
+        jobLeaseManager.runExclusively("outbox-event-cleanup", () -> {
+            int deleted = outboxService.deleteRelayedEvents();
+            logger.info("Deleted {} relayed outbox events.", deleted);
+        });
+    }
+}
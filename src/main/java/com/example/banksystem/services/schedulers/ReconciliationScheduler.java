@@ -0,0 +1,43 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.models.responses.ReconciliationDiscrepancyResponse;
+import com.example.banksystem.models.responses.ReconciliationRunResponse;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.interfaces.ReconciliationService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReconciliationScheduler {
+    private final ReconciliationService reconciliationService;
+    private final JobLeaseManager jobLeaseManager;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public ReconciliationScheduler(ReconciliationService reconciliationService, JobLeaseManager jobLeaseManager) {
+        this.reconciliationService = reconciliationService;
+        this.jobLeaseManager = jobLeaseManager;
+    }
+
+    /**
+     * Reconciles the balances of the checking accounts against their transactions automatically every night and
+     * logs the accounts that don't match. Runs on the node holding its lease only.
+     */
+    @Scheduled(cron = "${bank.reconciliation.cron:0 0 3 * * *}")
+    public void reconcileBalances() {
+        jobLeaseManager.runExclusively("reconciliation", this::reconcile);
+    }
+
+    private void reconcile() {
+        ReconciliationRunResponse result = reconciliationService.reconcile();
+        for (ReconciliationDiscrepancyResponse discrepancy : result.getDiscrepancies()) {
+            logger.warn("Checking account {} has balance {}, its opening value, transactions and fees add up to {}.",
+                    discrepancy.getAccountId(), discrepancy.getBalance(), discrepancy.getExpectedBalance());
+        }
+        logger.info("Reconciled {} checking accounts in run {} in {} ms, {} didn't match.",
+                result.getCheckedAccounts(), result.getRunId(), result.getElapsedMillis(),
+                result.getDiscrepancyCount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.repositories.TransactionPartitionManager;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class TransactionPartitionScheduler {
+    private final TransactionPartitionManager transactionPartitionManager;
+    private final JobLeaseManager jobLeaseManager;
+    private final int monthsAhead;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public TransactionPartitionScheduler(TransactionPartitionManager transactionPartitionManager,
+                                         JobLeaseManager jobLeaseManager,
+                                         @Value("${bank.transactions.partitions-ahead:3}") int monthsAhead) {
+        this.transactionPartitionManager = transactionPartitionManager;
+        this.jobLeaseManager = jobLeaseManager;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the monthly partitions of the transactions table for the current month and the next few months on
+     * startup and automatically every day, so a new month never starts without its partition. Only the node
+     * holding its lease creates them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "@daily")
+    public void createTransactionPartitions() {
+        jobLeaseManager.runExclusively("transaction-partitions", () -> {
+            int ready = transactionPartitionManager.createPartitions(LocalDate.now(), monthsAhead);
+            if (ready > 0) {
+                logger.info("Transactions partitions are ready for {} months ahead.", ready - 1);
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.banksystem.services.schedulers;
+
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class VelocityLimitScheduler {
+    private final VelocityLimiter velocityLimiter;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public VelocityLimitScheduler(VelocityLimiter velocityLimiter) {
+        this.velocityLimiter = velocityLimiter;
+    }
+
+    /**
+     * Drops the token buckets of the accounts that made no withdrawal or transfer for a whole velocity window
+     * automatically every hour.
+     */
+    @Scheduled(cron = "@hourly")
+    public void evictIdleVelocityBuckets() {
+        int evicted = velocityLimiter.evictIdle();
+        logger.info("Deleted {} idle velocity limit buckets.", evicted);
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.banksystem.services.sharding;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.exceptions.InsufficientFundsException;
+import com.example.banksystem.exceptions.ServiceOverloadedException;
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.responses.ShardMetricsResponse;
+import com.example.banksystem.models.responses.TransactionResponse;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.TransactionBatchWriter;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The execution mode of the deposits and withdrawals made through the API, which group-commits them.
+ * <p>Every money movement is routed by the hash of its IBAN to one of a fixed set of shards. Each shard has a
+ * single writer thread, so all movements of one account are applied by the same thread. The writer drains
+ * whatever is queued - waiting up to {@code bank.sharding.max-delay-millis} for more work to group into the same
+ * commit - coalesces the movements of each account into one balance update and inserts all
+ * {@link TransactionEntity}s of the batch as one JDBC batch, all in a single transaction.
+ * <p>Enabled by default. With {@code bank.sharding.enabled=false} every deposit and withdrawal is committed on its
+ * own by {@code TransactionServiceImpl}, without group commit.
+ */
+@Component
+public class AccountShardExecutor {
+    private final CheckingAccountRepository checkingAccountRepository;
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VelocityLimiter velocityLimiter;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final List<Shard> shards;
+    private volatile boolean stopped;
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    public AccountShardExecutor(CheckingAccountRepository checkingAccountRepository,
+                                TransactionBatchWriter transactionBatchWriter,
+                                PlatformTransactionManager transactionManager, ModelMapper modelMapper,
+                                ApplicationEventPublisher eventPublisher, VelocityLimiter velocityLimiter,
+                                @Value("${bank.sharding.enabled:true}") boolean enabled,
+                                @Value("${bank.sharding.shards:8}") int shardCount,
+                                @Value("${bank.sharding.max-batch-size:500}") int maxBatchSize,
+                                @Value("${bank.sharding.max-delay-millis:2}") long maxDelayMillis,
+                                @Value("${bank.sharding.queue-capacity:10000}") int queueCapacity) {
+        this.checkingAccountRepository = checkingAccountRepository;
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.modelMapper = modelMapper;
+        this.eventPublisher = eventPublisher;
+        this.velocityLimiter = velocityLimiter;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard(i, queueCapacity));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        shards.forEach(shard -> {
+            shard.worker = new Thread(() -> runShard(shard), "account-shard-" + shard.index);
+            shard.worker.setDaemon(true);
+            shard.worker.start();
+        });
+        log.info("Started {} account shards with a batch size of {}", shards.size(), maxBatchSize);
+    }
+
+    /**
+     * Stops the writers. Commands still waiting in the queues are failed, and new ones are refused, so no request
+     * thread is left waiting for a batch that will never be committed.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        shards.stream().filter(shard -> shard.worker != null).forEach(shard -> shard.worker.interrupt());
+        shards.forEach(shard -> failAll(drain(shard.queue)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a deposit to the shard of the given IBAN and waits until its batch is committed.
+     *
+     * @param userId the id of the user, issuing the transaction.
+     * @param body   a {@link TransactionCreationRequest} entity, containing all the parameters for the deposit.
+     * @return a {@link TransactionResponse} containing the information of the created deposition transaction.
+     * @throws AccountNotBelongToUserException when the given Iban doesn't match any account of the user.
+     * @throws ServiceOverloadedException      when the queue of the shard is full or the executor is stopped.
+     */
+    public TransactionResponse deposit(Long userId, TransactionCreationRequest body) {
+        return await(submit(new ShardCommand(ShardCommand.Kind.DEPOSIT, userId, body.getIban(), body.getAmount())));
+    }
+
+    /**
+     * Queues a withdrawal to the shard of the given IBAN and waits until its batch is committed. The velocity limits
+     * of the account are checked before the withdrawal is queued, so a call over them never reaches the shard.
+     *
+     * @param userId the id of the user, issuing the transaction.
+     * @param body   a {@link TransactionCreationRequest} entity, containing all the parameters for the withdrawal.
+     * @return a {@link TransactionResponse} containing the information of the created withdrawal transaction.
+     * @throws AccountNotBelongToUserException when the given Iban doesn't match any account of the user.
+     * @throws InsufficientFundsException      when the balance doesn't cover the amount and the fee.
+     * @throws VelocityLimitExceededException  when the account is over the velocity limits of its account type.
+     * @throws ServiceOverloadedException      when the queue of the shard is full or the executor is stopped.
+     */
+    public TransactionResponse withdraw(Long userId, TransactionCreationRequest body) {
+        CheckingAccountEntity account = checkingAccountRepository.findByIban(body.getIban())
+                .filter(found -> found.getUser().getId().equals(userId))
+                .orElseThrow(AccountNotBelongToUserException::new);
+        velocityLimiter.acquire(account, body.getAmount());
+        return await(submit(new ShardCommand(ShardCommand.Kind.WITHDRAW, userId, body.getIban(), body.getAmount())));
+    }
+
+    /**
+     * Gets the queue depth and the commit statistics of every shard.
+     *
+     * @return a {@link List} of {@link ShardMetricsResponse}s, one per shard.
+     */
+    public List<ShardMetricsResponse> getMetrics() {
+        return shards.stream().map(shard -> {
+            long batches = shard.committedBatches.get();
+            return new ShardMetricsResponse()
+                    .setShard(shard.index)
+                    .setQueueDepth(shard.queue.size())
+                    .setCommittedBatches(batches)
+                    .setProcessedOperations(shard.processedOperations.get())
+                    .setLastCommitLatencyMillis(TimeUnit.NANOSECONDS.toMillis(shard.lastCommitNanos.get()))
+                    .setMaxCommitLatencyMillis(TimeUnit.NANOSECONDS.toMillis(shard.maxCommitNanos.get()))
+                    .setAverageCommitLatencyMillis(batches == 0 ? 0 :
+                            shard.totalCommitNanos.get() / (double) batches / TimeUnit.MILLISECONDS.toNanos(1));
+        }).collect(Collectors.toList());
+    }
+
+    CompletableFuture<TransactionResponse> submit(ShardCommand command) {
+        if (stopped) {
+            throw shuttingDown();
+        }
+        Shard shard = shardOf(command.getIban());
+        if (!shard.queue.offer(command)) {
+            throw new ServiceOverloadedException("Too many pending transactions for this account, try again later.");
+        }
+        // The queue may have been drained by stop() between the check above and the offer.
+        if (stopped && shard.queue.remove(command)) {
+            throw shuttingDown();
+        }
+        return command.getResult();
+    }
+
+    private void runShard(Shard shard) {
+        List<ShardCommand> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fillBatch(shard.queue, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            processBatch(batch);
+            batch.clear();
+        }
+        failAll(batch);
+        failAll(drain(shard.queue));
+    }
+
+    private static List<ShardCommand> drain(BlockingQueue<ShardCommand> queue) {
+        List<ShardCommand> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        return pending;
+    }
+
+    private static void failAll(List<ShardCommand> commands) {
+        commands.forEach(command -> command.getResult().completeExceptionally(shuttingDown()));
+    }
+
+    private static ServiceOverloadedException shuttingDown() {
+        return new ServiceOverloadedException("The service is shutting down.");
+    }
+
+    /**
+     * Blocks for the first command, then keeps collecting commands until the batch is full or the group commit
+     * window has passed.
+     */
+    private void fillBatch(BlockingQueue<ShardCommand> queue, List<ShardCommand> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            ShardCommand next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Applies a batch of queued commands in one transaction and completes their results once it is committed.
+     * Commands rejected for insufficient funds or a wrong owner don't affect the rest of the batch.
+     * <p>The rows of all accounts of the batch are locked up front in ascending order of their ids, and updated in
+     * the same order, like the transfers, the batch transfers and the loan instalments lock them, so a batch can't
+     * deadlock with them.
+     */
+    void processBatch(List<ShardCommand> batch) {
+        Map<ShardCommand, RuntimeException> rejected = new HashMap<>();
+        Map<ShardCommand, TransactionEntity> accepted;
+        long started = System.nanoTime();
+        try {
+            accepted = transactionTemplate.execute(status -> applyBatch(batch, rejected));
+            shardOf(batch.get(0).getIban()).recordCommit(batch.size(), System.nanoTime() - started);
+        } catch (RuntimeException e) {
+            log.error("Account shard failed to commit a batch of {} transactions", batch.size(), e);
+            batch.forEach(command -> command.getResult().completeExceptionally(e));
+            return;
+        }
+
+        batch.forEach(command -> {
+            TransactionEntity transaction = accepted.get(command);
+            if (transaction != null) {
+                command.getResult().complete(modelMapper.map(transaction, TransactionResponse.class)
+                        .setUserName(transaction.getAccountEntity().getUser().getFullName())
+                        .setCreatedOn(transaction.getCreatedOn()).setIban(command.getIban()));
+            } else {
+                command.getResult().completeExceptionally(rejected.get(command));
+            }
+        });
+    }
+
+    private Map<ShardCommand, TransactionEntity> applyBatch(List<ShardCommand> batch,
+                                                            Map<ShardCommand, RuntimeException> rejected) {
+        rejected.clear();
+        Map<ShardCommand, TransactionEntity> accepted = new LinkedHashMap<>();
+        Map<String, List<ShardCommand>> byIban = batch.stream()
+                .collect(Collectors.groupingBy(ShardCommand::getIban, LinkedHashMap::new, Collectors.toList()));
+        List<Long> accountIds = checkingAccountRepository.findIdsByIbanIn(byIban.keySet());
+        List<CheckingAccountEntity> accounts = accountIds.isEmpty() ? List.of()
+                : checkingAccountRepository.findAllWithLockByIdIn(accountIds);
+
+        for (CheckingAccountEntity account : accounts) {
+            List<ShardCommand> commands = byIban.remove(account.getIban());
+            BigDecimal fee = account.getType().getTransactionFee();
+            BigDecimal balance = account.getBalance();
+            BigDecimal delta = BigDecimal.ZERO;
+
+            for (ShardCommand command : commands) {
+                if (!account.getUser().getId().equals(command.getUserId())) {
+                    rejected.put(command, new AccountNotBelongToUserException());
+                    continue;
+                }
+                if (command.getKind() == ShardCommand.Kind.DEPOSIT) {
+                    balance = balance.add(command.getAmount());
+                    delta = delta.add(command.getAmount());
+                } else {
+                    BigDecimal totalWithdraw = command.getAmount().add(fee);
+                    if (totalWithdraw.compareTo(balance) > 0) {
+                        rejected.put(command, new InsufficientFundsException(
+                                "The selected account has Insufficient funds for this transaction!"));
+                        continue;
+                    }
+                    balance = balance.subtract(totalWithdraw);
+                    delta = delta.subtract(totalWithdraw);
+                }
+                accepted.put(command, new TransactionEntity(UUID.randomUUID(), command.getAmount(), "-",
+                        command.getKind().getTransactionType(), account));
+            }
+
+            // The row is locked above, so adding a negative delta can't overdraw the account.
+            if (delta.signum() != 0) {
+                checkingAccountRepository.credit(account.getId(), delta);
+            }
+        }
+        // The IBANs left didn't match any account.
+        byIban.values().forEach(commands ->
+                commands.forEach(command -> rejected.put(command, new AccountNotBelongToUserException())));
+
+        transactionBatchWriter.insertAll(accepted.values());
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(new MoneyMovementEvent(accepted.entrySet().stream()
+                    .map(entry -> entry.getKey().getKind() == ShardCommand.Kind.DEPOSIT
+                            ? MoneyMovement.credit(entry.getValue())
+                            : MoneyMovement.debit(entry.getValue(),
+                            entry.getValue().getAccountEntity().getType().getTransactionFee()))
+                    .collect(Collectors.toList())));
+        }
+        return accepted;
+    }
+
+    private Shard shardOf(String iban) {
+        return shards.get(Math.floorMod(iban.hashCode(), shards.size()));
+    }
+
+    private TransactionResponse await(CompletableFuture<TransactionResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Shard {
+        private final int index;
+        private final BlockingQueue<ShardCommand> queue;
+        private final AtomicLong committedBatches = new AtomicLong();
+        private final AtomicLong processedOperations = new AtomicLong();
+        private final AtomicLong totalCommitNanos = new AtomicLong();
+        private final AtomicLong lastCommitNanos = new AtomicLong();
+        private final AtomicLong maxCommitNanos = new AtomicLong();
+        private Thread worker;
+
+        private Shard(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void recordCommit(int operations, long nanos) {
+            committedBatches.incrementAndGet();
+            processedOperations.addAndGet(operations);
+            totalCommitNanos.addAndGet(nanos);
+            lastCommitNanos.set(nanos);
+            maxCommitNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
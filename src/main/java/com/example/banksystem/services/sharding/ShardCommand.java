@@ -0,0 +1,60 @@
+package com.example.banksystem.services.sharding;
+
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.responses.TransactionResponse;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single deposit or withdrawal waiting in the queue of an account shard.
+ */
+final class ShardCommand {
+
+    enum Kind {
+        DEPOSIT(TransactionType.DEPOSIT), WITHDRAW(TransactionType.WITHDRAW);
+
+        private final TransactionType transactionType;
+
+        Kind(TransactionType transactionType) {
+            this.transactionType = transactionType;
+        }
+
+        TransactionType getTransactionType() {
+            return transactionType;
+        }
+    }
+
+    private final Kind kind;
+    private final Long userId;
+    private final String iban;
+    private final BigDecimal amount;
+    private final CompletableFuture<TransactionResponse> result = new CompletableFuture<>();
+
+    ShardCommand(Kind kind, Long userId, String iban, BigDecimal amount) {
+        this.kind = kind;
+        this.userId = userId;
+        this.iban = iban;
+        this.amount = amount;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    String getIban() {
+        return iban;
+    }
+
+    BigDecimal getAmount() {
+        return amount;
+    }
+
+    CompletableFuture<TransactionResponse> getResult() {
+        return result;
+    }
+}
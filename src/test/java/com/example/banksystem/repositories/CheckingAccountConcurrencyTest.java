@@ -0,0 +1,186 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.exceptions.InsufficientFundsException;
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.services.AccountTypeServiceImpl;
+import com.example.banksystem.services.CheckingAccountServiceImpl;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stress tests for the guarded balance updates of {@link CheckingAccountServiceImpl}. Every withdrawal and deposit
+ * runs in its own transaction on a shared pool, the same way concurrent requests against one IBAN would.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckingAccountConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int OPERATIONS = 400;
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    CheckingAccountServiceImpl checkingAccountService;
+    TransactionTemplate transactionTemplate;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        checkingAccountService = new CheckingAccountServiceImpl(checkingAccountRepository, null,
+                new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()), new ModelMapper(),
+                new AccountCache(checkingAccountRepository, 100, 30, 0), new VelocityLimiter(true));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("stress").setPassword("-")
+                .setEmail("stress@bank.com").setFullName("Stress Test"));
+
+        account = new CheckingAccountEntity();
+        account.setIban("BG79BNPA94409332615387");
+        account.setBalance(BigDecimal.valueOf(10_000));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void withdraw_parallelWithdrawalsOnOneAccount_noLostUpdates() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Integer> results = runInParallel(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    checkingAccountService.withdraw(account, BigDecimal.valueOf(24));
+                    transactionRepository.save(withdrawal(BigDecimal.valueOf(24)));
+                });
+                return 1;
+            } catch (InsufficientFundsException e) {
+                rejected.incrementAndGet();
+                return 0;
+            }
+        });
+
+        int succeeded = results.stream().mapToInt(Integer::intValue).sum();
+        BigDecimal balance = checkingAccountRepository.findById(account.getId()).orElseThrow().getBalance();
+
+        // 10 000 covers exactly 400 withdrawals of 24 + 1 fee, so every single one must get through.
+        assertEquals(OPERATIONS, succeeded);
+        assertEquals(0, rejected.get());
+        assertEquals(0, balance.compareTo(BigDecimal.ZERO));
+        assertEquals(OPERATIONS, transactionRepository.count());
+    }
+
+    @Test
+    void withdraw_parallelOverdraftAttempts_balanceNeverNegative() throws Exception {
+        List<Integer> results = runInParallel(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    checkingAccountService.withdraw(account, BigDecimal.valueOf(99));
+                    transactionRepository.save(withdrawal(BigDecimal.valueOf(99)));
+                });
+                return 1;
+            } catch (InsufficientFundsException e) {
+                return 0;
+            }
+        });
+
+        int succeeded = results.stream().mapToInt(Integer::intValue).sum();
+        BigDecimal balance = checkingAccountRepository.findById(account.getId()).orElseThrow().getBalance();
+
+        assertEquals(100, succeeded);
+        assertEquals(0, balance.compareTo(BigDecimal.ZERO));
+        assertEquals(succeeded, transactionRepository.count());
+    }
+
+    @Test
+    void depositAndWithdraw_interleaved_balanceMatchesTransactions() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        runInParallel(() -> {
+            boolean deposit = counter.getAndIncrement() % 2 == 0;
+            transactionTemplate.executeWithoutResult(status -> {
+                if (deposit) {
+                    checkingAccountService.deposit(account, BigDecimal.valueOf(15));
+                } else {
+                    checkingAccountService.withdraw(account, BigDecimal.valueOf(10));
+                }
+            });
+            return 1;
+        });
+
+        BigDecimal balance = checkingAccountRepository.findById(account.getId()).orElseThrow().getBalance();
+
+        // 200 deposits of 15 and 200 withdrawals of 10 + 1 fee.
+        assertEquals(0, balance.compareTo(BigDecimal.valueOf(10_000 + 200 * 15 - 200 * 11)));
+    }
+
+    private TransactionEntity withdrawal(BigDecimal amount) {
+        return new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.WITHDRAW, account);
+    }
+
+    private List<Integer> runInParallel(Callable<Integer> operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < OPERATIONS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return operation.call();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
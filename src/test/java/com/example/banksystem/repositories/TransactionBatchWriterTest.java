@@ -0,0 +1,176 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link TransactionBatchWriter}, including a benchmark of batched inserts against saving every
+ * {@link TransactionEntity} on its own, the way a single deposit or withdrawal does.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionBatchWriterTest {
+
+    private static final int ROWS = 5_000;
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    TransactionBatchWriter transactionBatchWriter;
+    TransactionTemplate transactionTemplate;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        transactionBatchWriter = new TransactionBatchWriter(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("batch").setPassword("-")
+                .setEmail("batch@bank.com").setFullName("Batch Test"));
+
+        account = new CheckingAccountEntity();
+        account.setIban("BG79BNPA94409332615387");
+        account.setBalance(BigDecimal.valueOf(10_000));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void insertAll_mixedWithRepositorySaves_idsNeverClash() {
+        List<TransactionEntity> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            saved.add(transactionRepository.save(transaction()));
+            saved.addAll(transactionTemplate.execute(status -> transactionBatchWriter.insertAll(transactions(70))));
+        }
+
+        Set<Long> ids = saved.stream().map(TransactionEntity::getId).collect(Collectors.toSet());
+        assertEquals(3 * 71, ids.size());
+        assertEquals(3 * 71, transactionRepository.count());
+        assertEquals(ids, transactionRepository.findAll().stream()
+                .map(TransactionEntity::getId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void insertAll_rolledBackWithCaller_nothingInserted() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                transactionBatchWriter.insertAll(transactions(10));
+                status.setRollbackOnly();
+            });
+        } finally {
+            assertEquals(0, transactionRepository.count());
+        }
+    }
+
+    @Test
+    void insertAll_typeAndUuid_storedAsCodeAndNativeUuid() {
+        TransactionEntity batched = transaction().setType(TransactionType.MONTHLY_FEE);
+        transactionTemplate.executeWithoutResult(status -> transactionBatchWriter.insertAll(List.of(batched)));
+        TransactionEntity saved = transactionRepository.save(transaction().setType(TransactionType.RECEIVED));
+
+        assertEquals(Map.of("UUID", "UUID", "TYPE", "SMALLINT"), jdbcTemplate.queryForList(
+                "SELECT column_name, data_type FROM information_schema.columns " +
+                        "WHERE table_name = 'TRANSACTIONS' AND column_name IN ('UUID', 'TYPE')").stream()
+                .collect(Collectors.toMap(column -> (String) column.get("COLUMN_NAME"),
+                        column -> (String) column.get("DATA_TYPE"))));
+        assertEquals(TransactionType.MONTHLY_FEE.getCode(), jdbcTemplate.queryForObject(
+                "SELECT type FROM transactions WHERE id = ?", Short.class, batched.getId()));
+        assertEquals(TransactionType.RECEIVED.getCode(), jdbcTemplate.queryForObject(
+                "SELECT type FROM transactions WHERE id = ?", Short.class, saved.getId()));
+
+        TransactionEntity found = transactionRepository.findById(batched.getId()).orElseThrow();
+        assertEquals(TransactionType.MONTHLY_FEE, found.getType());
+        assertEquals(batched.getUUid(), found.getUUid());
+        assertEquals(saved.getUUid(), transactionRepository.findById(saved.getId()).orElseThrow().getUUid());
+    }
+
+    @Test
+    void insertAll_benchmarkAgainstSingleSaves() {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            transactionTemplate.executeWithoutResult(status -> transactionRepository.save(transaction()));
+        }
+        long singleMillis = elapsedMillis(startedAt);
+
+        startedAt = System.nanoTime();
+        for (int i = 0; i < ROWS; i += BATCH_SIZE) {
+            transactionTemplate.executeWithoutResult(status ->
+                    transactionBatchWriter.insertAll(transactions(BATCH_SIZE)));
+        }
+        long batchedMillis = elapsedMillis(startedAt);
+
+        log.info("{} inserts: one per transaction {} ms ({} inserts/s), batches of {} {} ms ({} inserts/s)",
+                ROWS, singleMillis, ROWS * 1000L / singleMillis, BATCH_SIZE, batchedMillis,
+                ROWS * 1000L / batchedMillis);
+
+        assertEquals(ROWS * 2L, transactionRepository.count());
+    }
+
+    private List<TransactionEntity> transactions(int count) {
+        List<TransactionEntity> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(transaction());
+        }
+        return transactions;
+    }
+
+    private TransactionEntity transaction() {
+        return new TransactionEntity(UUID.randomUUID(), BigDecimal.TEN, "-", TransactionType.DEPOSIT, account);
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+}
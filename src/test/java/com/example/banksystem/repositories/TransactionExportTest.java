@@ -0,0 +1,217 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.requsts.TransactionExportFormat;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
+import com.example.banksystem.services.TransactionServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming export of {@link TransactionServiceImpl}, together with a benchmark. The benchmark writes
+ * {@code bench.export.rows} transactions (20 000 by default) and checks that the heap retained while exporting
+ * doesn't grow with them. Run it with {@code -Dbench.export.rows=50000000} and a PostgreSQL
+ * {@code spring.datasource.url} for the full-size benchmark.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionExportTest {
+
+    private static final int BENCHMARK_ROWS = Integer.getInteger("bench.export.rows", 20_000);
+    private static final int INSERT_CHUNK = 10_000;
+    private static final long MAX_RETAINED_HEAP_GROWTH = 64L * 1024 * 1024;
+    private static final LocalDateTime START = LocalDateTime.of(2022, 9, 1, 0, 0);
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    TransactionServiceImpl transactionService;
+    TransactionBatchWriter transactionBatchWriter;
+    TransactionTemplate transactionTemplate;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionServiceImpl(null, null, null, new ModelMapper(), null,
+                new TransactionExporter(jdbcTemplate, 1000), null);
+        transactionBatchWriter = new TransactionBatchWriter(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("auditor").setPassword("-")
+                .setEmail("auditor@bank.com").setFullName("Export Test"));
+
+        account = new CheckingAccountEntity();
+        account.setIban("BG79BNPA94409332615387");
+        account.setBalance(BigDecimal.valueOf(10_000));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void exportTransactions_ndjson_oneObjectPerLineFromOldest() throws Exception {
+        insert(List.of(transaction(0, TransactionType.DEPOSIT, "salary", 1500),
+                transaction(2, TransactionType.WITHDRAW, "rent, \"May\"", 700),
+                transaction(1, TransactionType.DEPOSIT, "-", 20)));
+
+        String export = export(new TransactionSearchRequest(), TransactionExportFormat.NDJSON);
+
+        String[] lines = export.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(export.endsWith("\n"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertEquals("salary", first.get("reason").asText());
+        assertTrue(lines[0].contains("\"amount\":1500.00,"));
+        assertEquals("auditor", first.get("userName").asText());
+        assertEquals("BG79BNPA94409332615387", first.get("iban").asText());
+        assertEquals("rent, \"May\"", last.get("reason").asText());
+    }
+
+    @Test
+    void exportTransactions_csv_headerAndQuotedFields() {
+        insert(List.of(transaction(0, TransactionType.WITHDRAW, "rent, \"May\"", 700)));
+
+        String[] lines = export(new TransactionSearchRequest(), TransactionExportFormat.CSV).split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("id,uuid,iban,created_on,amount,type,reason,user_name", lines[0]);
+        assertTrue(lines[1].endsWith(",2022-09-01T00:00,700.00,withdraw,\"rent, \"\"May\"\"\",auditor"));
+    }
+
+    @Test
+    void exportTransactions_filters_onlyMatchingRows() {
+        insert(List.of(transaction(0, TransactionType.DEPOSIT, "-", 10),
+                transaction(1, TransactionType.WITHDRAW, "-", 20), transaction(2, TransactionType.DEPOSIT, "-", 30)));
+
+        String export = export(new TransactionSearchRequest().setType("deposit")
+                .setMinAmount(BigDecimal.valueOf(15)), TransactionExportFormat.CSV);
+
+        assertEquals(2, export.split("\n").length);
+        assertTrue(export.contains(",30.00,deposit,"));
+    }
+
+    @Test
+    void exportTransactions_benchmark_retainedHeapDoesNotGrowWithRows() {
+        for (int from = 0; from < BENCHMARK_ROWS; from += INSERT_CHUNK) {
+            List<TransactionEntity> chunk = new ArrayList<>(INSERT_CHUNK);
+            for (int i = from; i < Math.min(from + INSERT_CHUNK, BENCHMARK_ROWS); i++) {
+                chunk.add(transaction(i, i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAW, "-",
+                        i % 1000 + 1));
+            }
+            insert(chunk);
+        }
+
+        long baseline = retainedHeap();
+        long[] maxRetained = {baseline};
+        long[] bytes = {0};
+        long sampleEvery = Math.max(1, BENCHMARK_ROWS / 4);
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                count(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                count(len);
+            }
+
+            private void count(int written) {
+                long before = bytes[0];
+                bytes[0] += written;
+                // Roughly 100 bytes per row, sample the retained heap a few times during the export.
+                if (before / (sampleEvery * 100) != bytes[0] / (sampleEvery * 100)) {
+                    maxRetained[0] = Math.max(maxRetained[0], retainedHeap());
+                }
+            }
+        };
+
+        long started = System.nanoTime();
+        Long rows = transactionTemplate.execute(status -> transactionService.exportTransactions(
+                new TransactionSearchRequest(), TransactionExportFormat.NDJSON, sink));
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        log.info("Exported {} transactions ({} MB) in {} ms ({} rows/s), retained heap grew by {} KB",
+                rows, bytes[0] / (1024 * 1024), elapsedMillis, rows * 1000 / elapsedMillis,
+                (maxRetained[0] - baseline) / 1024);
+
+        assertEquals(BENCHMARK_ROWS, rows);
+        assertTrue(maxRetained[0] - baseline < MAX_RETAINED_HEAP_GROWTH);
+    }
+
+    private String export(TransactionSearchRequest request, TransactionExportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionTemplate.executeWithoutResult(status -> transactionService.exportTransactions(request, format, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private TransactionEntity transaction(int secondsAfterStart, TransactionType type, String reason, long amount) {
+        TransactionEntity transaction = new TransactionEntity(UUID.randomUUID(), BigDecimal.valueOf(amount), reason,
+                type, account);
+        transaction.setCreatedOn(START.plusSeconds(secondsAfterStart));
+        return transaction;
+    }
+
+    private void insert(List<TransactionEntity> transactions) {
+        transactionTemplate.executeWithoutResult(status -> transactionBatchWriter.insertAll(transactions));
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
+import com.example.banksystem.models.responses.TransactionPageResponse;
+import com.example.banksystem.services.TransactionServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements of a 10 000 transaction listing spread over a hundred accounts of different users. Every
+ * page must take exactly one statement, no matter how many accounts and users its transactions belong to.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionListingStatementCountTest {
+
+    private static final int ACCOUNTS = 100;
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        List<CheckingAccountEntity> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UserEntity user = userRepository.save(new UserEntity().setUsername("listing" + i).setPassword("-")
+                    .setEmail("listing" + i + "@bank.com").setFullName("Listing Test " + i));
+            CheckingAccountEntity account = new CheckingAccountEntity();
+            account.setIban(String.format("BG79BNPA944093326%05d", i));
+            account.setBalance(BigDecimal.ZERO);
+            account.setType(type);
+            account.setUser(user);
+            accounts.add(checkingAccountRepository.save(account));
+        }
+
+        List<TransactionEntity> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(new TransactionEntity(UUID.randomUUID(), BigDecimal.TEN, "-", TransactionType.DEPOSIT,
+                    accounts.get(i % ACCOUNTS)));
+        }
+        new TransactionBatchWriter(jdbcTemplate).insertAll(transactions);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void search_wholeListingAtOnce_singleStatement() {
+        assertEquals(ROWS, transactionRepository.search(new TransactionSearchCriteria(), null, ROWS + 1).size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getAllTransactionsByGivenCriteria_pagingThroughListing_oneStatementPerPage() {
+        TransactionServiceImpl transactionService =
+                new TransactionServiceImpl(transactionRepository, null, null, new ModelMapper(), null, null, null);
+        TransactionSearchRequest request = new TransactionSearchRequest().setSize(TransactionServiceImpl.MAX_PAGE_SIZE);
+
+        int pages = 0;
+        int rows = 0;
+        TransactionPageResponse page;
+        do {
+            page = transactionService.getAllTransactionsByGivenCriteria(request);
+            request.setCursor(page.getNextCursor());
+            rows += page.getTransactions().size();
+            pages++;
+        } while (page.getNextCursor() != null);
+
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS / TransactionServiceImpl.MAX_PAGE_SIZE, pages);
+        assertEquals(pages, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
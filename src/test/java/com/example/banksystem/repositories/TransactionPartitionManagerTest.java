@@ -0,0 +1,84 @@
+package com.example.banksystem.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionManagerTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    TransactionPartitionManager transactionPartitionManager;
+
+    @Test
+    void createPartitionSql_december_rangeEndsInNextYear() {
+        assertEquals("CREATE TABLE IF NOT EXISTS transactions_p2022_12 PARTITION OF transactions " +
+                        "FOR VALUES FROM ('2022-12-01') TO ('2023-01-01')",
+                TransactionPartitionManager.createPartitionSql(YearMonth.of(2022, 12)));
+    }
+
+    @Test
+    void createPartitions_partitionedPostgres_createsCurrentAndNextMonths() {
+        stubDatabase("PostgreSQL", 1);
+
+        int ready = transactionPartitionManager.createPartitions(LocalDate.of(2022, 11, 30), 2);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(TransactionPartitionManager.createPartitionSql(YearMonth.of(2022, 11)));
+        inOrder.verify(jdbcTemplate).execute(TransactionPartitionManager.createPartitionSql(YearMonth.of(2022, 12)));
+        inOrder.verify(jdbcTemplate).execute(TransactionPartitionManager.createPartitionSql(YearMonth.of(2023, 1)));
+        assertEquals(3, ready);
+    }
+
+    @Test
+    void createPartitions_oneMonthFails_keepsCreatingTheOthers() {
+        stubDatabase("PostgreSQL", 1);
+        doThrow(new DataIntegrityViolationException("rows in the default partition")).when(jdbcTemplate)
+                .execute(TransactionPartitionManager.createPartitionSql(YearMonth.of(2022, 11)));
+
+        int ready = transactionPartitionManager.createPartitions(LocalDate.of(2022, 11, 1), 1);
+
+        verify(jdbcTemplate).execute(TransactionPartitionManager.createPartitionSql(YearMonth.of(2022, 12)));
+        assertEquals(1, ready);
+    }
+
+    @Test
+    void createPartitions_tableNotPartitioned_doesNothing() {
+        stubDatabase("PostgreSQL", 0);
+
+        assertEquals(0, transactionPartitionManager.createPartitions(LocalDate.of(2022, 11, 1), 3));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void createPartitions_otherDatabase_doesNothing() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        assertEquals(0, transactionPartitionManager.createPartitions(LocalDate.of(2022, 11, 1), 3));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    private void stubDatabase(String productName, int partitionedTables) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(productName);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(partitionedTables);
+    }
+}
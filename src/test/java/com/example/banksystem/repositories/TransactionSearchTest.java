@@ -0,0 +1,152 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.responses.TransactionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TransactionRepositoryImpl#search}, paging through a history where many transactions share the
+ * same creation time.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionSearchTest {
+
+    private static final int ROWS = 1_000;
+    private static final LocalDateTime START = LocalDateTime.of(2022, 9, 1, 0, 0);
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    CheckingAccountEntity account;
+    CheckingAccountEntity otherAccount;
+
+    @BeforeEach
+    void setUp() {
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("search").setPassword("-")
+                .setEmail("search@bank.com").setFullName("Search Test"));
+        account = checkingAccountRepository.save(account("BG79BNPA94409332615387", type, user));
+        otherAccount = checkingAccountRepository.save(account("BG79BNPA94409332615388", type, user));
+
+        // Ten transactions share every hour, so pages regularly end in the middle of equal creation times.
+        List<TransactionEntity> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            TransactionEntity transaction = new TransactionEntity(UUID.randomUUID(), BigDecimal.valueOf(i % 100),
+                    "-", i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAW,
+                    i % 4 == 3 ? otherAccount : account);
+            transaction.setCreatedOn(START.plusHours(i / 10));
+            transactions.add(transaction);
+        }
+        new TransactionBatchWriter(jdbcTemplate).insertAll(transactions);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void search_pagingThroughAll_everyTransactionOnceInOrder() {
+        List<TransactionResponse> all = readAllPages(new TransactionSearchCriteria(), 33);
+
+        assertEquals(ROWS, all.size());
+        assertEquals(ROWS, all.stream().map(TransactionResponse::getId).distinct().count());
+        Comparator<TransactionResponse> newestFirst = Comparator.comparing(TransactionResponse::getCreatedOn)
+                .thenComparing(TransactionResponse::getId).reversed();
+        assertEquals(ids(all.stream().sorted(newestFirst).collect(Collectors.toList())), ids(all));
+    }
+
+    @Test
+    void search_allCriteria_onlyMatchingTransactions() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria()
+                .setAccountId(account.getId())
+                .setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(START.plusHours(10))
+                .setCreatedBefore(START.plusHours(60))
+                .setMinAmount(BigDecimal.valueOf(20))
+                .setMaxAmount(BigDecimal.valueOf(40));
+
+        List<TransactionResponse> found = readAllPages(criteria, 7);
+
+        assertTrue(found.size() > 0);
+        found.forEach(transaction -> {
+            assertEquals(account.getIban(), transaction.getIban());
+            assertEquals("search", transaction.getUserName());
+            assertEquals("deposit", transaction.getType());
+            assertFalse(transaction.getCreatedOn().isBefore(START.plusHours(10)));
+            assertTrue(transaction.getCreatedOn().isBefore(START.plusHours(60)));
+        });
+        assertEquals(transactionRepository.findAll().stream()
+                .filter(t -> t.getAccountEntity().getId().equals(account.getId()))
+                .filter(t -> t.getType() == TransactionType.DEPOSIT)
+                .filter(t -> !t.getCreatedOn().isBefore(START.plusHours(10)))
+                .filter(t -> t.getCreatedOn().isBefore(START.plusHours(60)))
+                .filter(t -> t.getAmount().compareTo(BigDecimal.valueOf(20)) >= 0)
+                .filter(t -> t.getAmount().compareTo(BigDecimal.valueOf(40)) <= 0)
+                .count(), found.size());
+    }
+
+    private List<TransactionResponse> readAllPages(TransactionSearchCriteria criteria, int pageSize) {
+        List<TransactionResponse> all = new ArrayList<>();
+        TransactionCursor cursor = null;
+        List<TransactionResponse> page;
+        do {
+            page = transactionRepository.search(criteria, cursor, pageSize);
+            all.addAll(page);
+            cursor = page.isEmpty() ? null : TransactionCursor.decode(
+                    TransactionCursor.of(page.get(page.size() - 1)).encode());
+        } while (page.size() == pageSize);
+        return all;
+    }
+
+    private static List<Long> ids(List<TransactionResponse> transactions) {
+        return transactions.stream().map(TransactionResponse::getId).collect(Collectors.toList());
+    }
+
+    private static CheckingAccountEntity account(String iban, AccountTypeEntity type, UserEntity user) {
+        CheckingAccountEntity account = new CheckingAccountEntity();
+        account.setIban(iban);
+        account.setBalance(BigDecimal.ZERO);
+        account.setType(type);
+        account.setUser(user);
+        return account;
+    }
+}
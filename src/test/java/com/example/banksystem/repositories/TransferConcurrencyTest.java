@@ -0,0 +1,154 @@
+package com.example.banksystem.repositories;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.services.AccountTypeServiceImpl;
+import com.example.banksystem.services.CheckingAccountServiceImpl;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Multi-threaded benchmark for {@link CheckingAccountServiceImpl#transfer}. A handful of hot accounts send money
+ * to each other in both directions at the same time, which deadlocks as soon as two transfers take the row
+ * locks of the same pair of accounts in opposite order.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferConcurrencyTest {
+
+    private static final int HOT_ACCOUNTS = 4;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 2_000;
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(1_000_000);
+    private static final BigDecimal FEE = BigDecimal.ONE;
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    CheckingAccountServiceImpl checkingAccountService;
+    TransactionTemplate transactionTemplate;
+    List<CheckingAccountEntity> accounts;
+
+    @BeforeEach
+    void setUp() {
+        checkingAccountService = new CheckingAccountServiceImpl(checkingAccountRepository, null,
+                new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()), new ModelMapper(),
+                new AccountCache(checkingAccountRepository, 100, 30, 0), new VelocityLimiter(true));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(FEE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("corporate").setPassword("-")
+                .setEmail("corporate@bank.com").setFullName("Corporate Client"));
+
+        accounts = new ArrayList<>();
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            CheckingAccountEntity account = new CheckingAccountEntity();
+            account.setIban("BG79BNPA9440933261538" + i);
+            account.setBalance(OPENING_BALANCE);
+            account.setType(type);
+            account.setUser(user);
+            accounts.add(checkingAccountRepository.save(account));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void transfer_crossingTransfersBetweenHotAccounts_noDeadlocksAndMoneyConserved() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            CheckingAccountEntity from = accounts.get(i % HOT_ACCOUNTS);
+            CheckingAccountEntity to = accounts.get((i + 1 + (i / HOT_ACCOUNTS) % (HOT_ACCOUNTS - 1)) % HOT_ACCOUNTS);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> transfer(from, to, BigDecimal.TEN));
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    log.error("Transfer failed", e);
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        pool.shutdownNow();
+
+        log.info("{} crossing transfers between {} hot accounts on {} threads took {} ms ({} transfers/s)",
+                TRANSFERS, HOT_ACCOUNTS, THREADS, elapsedMillis, TRANSFERS * 1000L / elapsedMillis);
+
+        BigDecimal total = checkingAccountRepository.findAll().stream()
+                .map(CheckingAccountEntity::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(0, failures.get());
+        assertEquals(0, total.compareTo(OPENING_BALANCE.multiply(BigDecimal.valueOf(HOT_ACCOUNTS))
+                .subtract(FEE.multiply(BigDecimal.valueOf(TRANSFERS)))));
+        assertEquals(TRANSFERS * 2L, transactionRepository.count());
+    }
+
+    private void transfer(CheckingAccountEntity from, CheckingAccountEntity to, BigDecimal amount) {
+        UUID uuid = UUID.randomUUID();
+        LocalDateTime createdOn = LocalDateTime.now();
+        checkingAccountService.transfer(from, to, amount);
+
+        TransactionEntity sent = new TransactionEntity(uuid, amount, "benchmark", TransactionType.SEND, from);
+        sent.setCreatedOn(createdOn);
+        TransactionEntity received = new TransactionEntity(uuid, amount, "benchmark", TransactionType.RECEIVED, to);
+        received.setCreatedOn(createdOn);
+        transactionRepository.saveAll(List.of(sent, received));
+    }
+}
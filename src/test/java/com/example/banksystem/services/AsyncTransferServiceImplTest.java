@@ -0,0 +1,236 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.ResourceNotBelongingToUser;
+import com.example.banksystem.exceptions.ServiceOverloadedException;
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransferRequestEntity;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransferStatusResponse;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.interfaces.CheckingAccountService;
+import com.example.banksystem.services.interfaces.TransactionService;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AsyncTransferServiceImplTest {
+
+    private static final String SENDER_IBAN = "BG79BNPA94409332615390";
+    private static final String RECEIVER_IBAN = "BG79BNPA94409332615391";
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    TransferRequestRepository transferRequestRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    CheckingAccountService checkingAccountService;
+    TransactionService transactionService;
+    AsyncTransferServiceImpl asyncTransferService;
+    UserEntity user;
+    UserEntity other;
+
+    @BeforeEach
+    void setUp() {
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("async").setPassword("-")
+                .setEmail("async@bank.com").setFullName("Async Sender"));
+        other = userRepository.save(new UserEntity().setUsername("payee").setPassword("-")
+                .setEmail("payee@bank.com").setFullName("Payee"));
+        account(SENDER_IBAN, BigDecimal.valueOf(100), type, user);
+        account(RECEIVER_IBAN, BigDecimal.ZERO, type, other);
+
+        checkingAccountService = new CheckingAccountServiceImpl(checkingAccountRepository, null,
+                new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()), new ModelMapper(),
+                new AccountCache(checkingAccountRepository, 100, 30, 0), new VelocityLimiter(true));
+        transactionService = new TransactionServiceImpl(transactionRepository, checkingAccountService, null,
+                new ModelMapper(), eventPublisher, null, new VelocityLimiter(true));
+        asyncTransferService = service(transactionService, 2, 10, 60);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncTransferService.stop();
+        jdbcTemplate.update("DELETE FROM transactions");
+        transferRequestRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void submit_validTransfer_completedInTheBackground() throws InterruptedException {
+        TransferStatusResponse submitted = asyncTransferService.submit(user.getId(), request(30));
+        assertEquals("PENDING", submitted.getStatus());
+
+        TransferStatusResponse finished = awaitFinished(submitted.getUuid());
+
+        assertEquals("COMPLETED", finished.getStatus());
+        assertNotNull(finished.getTransactionId());
+        assertNotNull(finished.getFinishedOn());
+        assertBalance(SENDER_IBAN, 69);
+        assertBalance(RECEIVER_IBAN, 30);
+    }
+
+    @Test
+    void submit_insufficientFunds_failedWithTheReason() throws InterruptedException {
+        TransferStatusResponse finished = awaitFinished(
+                asyncTransferService.submit(user.getId(), request(100)).getUuid());
+
+        assertEquals("FAILED", finished.getStatus());
+        assertNotNull(finished.getFailureReason());
+        assertNull(finished.getTransactionId());
+        assertBalance(SENDER_IBAN, 100);
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void submit_accountOfAnotherUser_rejectedWithoutSaving() {
+        assertThrows(RuntimeException.class, () -> asyncTransferService.submit(other.getId(), request(10)));
+
+        assertEquals(0, transferRequestRepository.count());
+    }
+
+    @Test
+    void submit_workersAndQueueFull_rejectedWithoutSaving() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionService blocked = mock(TransactionService.class);
+        when(blocked.transfer(anyLong(), any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            throw new IllegalStateException("Stopped");
+        });
+        asyncTransferService.stop();
+        asyncTransferService = service(blocked, 1, 1, 60);
+
+        asyncTransferService.submit(user.getId(), request(10));
+        asyncTransferService.submit(user.getId(), request(10));
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> asyncTransferService.submit(user.getId(), request(10)));
+        assertEquals(2, transferRequestRepository.count());
+        release.countDown();
+    }
+
+    @Test
+    void getStatus_transferOfAnotherUser_throwsResourceNotBelongingToUser() {
+        TransferStatusResponse submitted = asyncTransferService.submit(user.getId(), request(10));
+
+        assertThrows(ResourceNotBelongingToUser.class,
+                () -> asyncTransferService.getStatus(other.getId(), submitted.getUuid()));
+    }
+
+    @Test
+    void resubmitStalePending_transferLeftByARestart_completed() throws InterruptedException {
+        TransferRequestEntity stale = new TransferRequestEntity(UUID.randomUUID(), user.getId(), SENDER_IBAN,
+                RECEIVER_IBAN, BigDecimal.valueOf(20), "rent");
+        stale.setCreatedOn(LocalDateTime.now().minusMinutes(5));
+        transferRequestRepository.save(stale);
+        TransferRequestEntity fresh = new TransferRequestEntity(UUID.randomUUID(), user.getId(), SENDER_IBAN,
+                RECEIVER_IBAN, BigDecimal.valueOf(20), "rent");
+        transferRequestRepository.save(fresh);
+
+        assertEquals(1, asyncTransferService.resubmitStalePending());
+
+        assertEquals("COMPLETED", awaitFinished(stale.getUuid()).getStatus());
+        assertEquals("PENDING", asyncTransferService.getStatus(user.getId(), fresh.getUuid()).getStatus());
+    }
+
+    @Test
+    void execute_sameTransferTwice_madeOnce() {
+        TransferRequestEntity request = transferRequestRepository.save(new TransferRequestEntity(UUID.randomUUID(),
+                user.getId(), SENDER_IBAN, RECEIVER_IBAN, BigDecimal.valueOf(20), "rent"));
+
+        asyncTransferService.execute(request.getId());
+        asyncTransferService.execute(request.getId());
+
+        assertBalance(SENDER_IBAN, 79);
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    void deleteFinishedRequests_finishedBeforeTheRetention_deleted() throws InterruptedException {
+        TransferStatusResponse submitted = asyncTransferService.submit(user.getId(), request(10));
+        awaitFinished(submitted.getUuid());
+        TransferRequestEntity request = transferRequestRepository.findByUuid(submitted.getUuid()).orElseThrow();
+        transferRequestRepository.save(request.setFinishedOn(LocalDateTime.now().minusDays(2)));
+        transferRequestRepository.save(new TransferRequestEntity(UUID.randomUUID(), user.getId(), SENDER_IBAN,
+                RECEIVER_IBAN, BigDecimal.TEN, "rent"));
+
+        assertEquals(1, asyncTransferService.deleteFinishedRequests());
+        assertEquals(1, transferRequestRepository.count());
+    }
+
+    private AsyncTransferServiceImpl service(TransactionService transactionService, int threads, int queueCapacity,
+                                             long staleSeconds) {
+        return new AsyncTransferServiceImpl(transferRequestRepository, checkingAccountService, transactionService,
+                transactionManager, threads, queueCapacity, staleSeconds, 24);
+    }
+
+    private TransferStatusResponse awaitFinished(UUID uuid) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        TransferStatusResponse status = asyncTransferService.getStatus(user.getId(), uuid);
+        while ("PENDING".equals(status.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            status = asyncTransferService.getStatus(user.getId(), uuid);
+        }
+        return status;
+    }
+
+    private void account(String iban, BigDecimal balance, AccountTypeEntity type, UserEntity owner) {
+        CheckingAccountEntity account = new CheckingAccountEntity();
+        account.setIban(iban);
+        account.setBalance(balance);
+        account.setType(type);
+        account.setUser(owner);
+        checkingAccountRepository.save(account);
+    }
+
+    private void assertBalance(String iban, long expected) {
+        assertEquals(0, BigDecimal.valueOf(expected)
+                .compareTo(checkingAccountRepository.findByIban(iban).orElseThrow().getBalance()));
+    }
+
+    private static TransferCreationRequest request(long amount) {
+        return new TransferCreationRequest().setAccountFrom(SENDER_IBAN).setAccountTo(RECEIVER_IBAN)
+                .setAmount(BigDecimal.valueOf(amount)).setReason("rent");
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.DailyBalanceEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.responses.StatementResponse;
+import com.example.banksystem.models.responses.StatementTotalResponse;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.DailyBalanceRepository;
+import com.example.banksystem.repositories.DailyBalanceTotalRepository;
+import com.example.banksystem.repositories.LedgerBalanceRepository;
+import com.example.banksystem.repositories.LedgerPostingRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.UserRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.interfaces.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceSnapshotServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    DailyBalanceRepository dailyBalanceRepository;
+    @Autowired
+    DailyBalanceTotalRepository dailyBalanceTotalRepository;
+    @Autowired
+    LedgerPostingRepository ledgerPostingRepository;
+    @Autowired
+    LedgerBalanceRepository ledgerBalanceRepository;
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    UserService userService;
+    LedgerServiceImpl ledgerService;
+    BalanceSnapshotServiceImpl balanceSnapshotService;
+    TransactionTemplate transactionTemplate;
+    UserEntity user;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        ledgerService = new LedgerServiceImpl(ledgerPostingRepository, ledgerBalanceRepository,
+                checkingAccountRepository, transactionManager, 1, 50);
+        balanceSnapshotService = new BalanceSnapshotServiceImpl(dailyBalanceRepository, dailyBalanceTotalRepository,
+                transactionRepository, ledgerService, userService);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("statement").setPassword("-")
+                .setEmail("statement@bank.com").setFullName("Statement Test"));
+
+        account = new CheckingAccountEntity();
+        account.setIban("BG79BNPA94409332615387");
+        account.setBalance(BigDecimal.valueOf(100));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+        transactionTemplate.executeWithoutResult(
+                status -> ledgerService.recordOpeningBalance(account.getId(), account.getBalance()));
+
+        when(userService.getUserByAccountId(account.getId())).thenReturn(user);
+        when(userService.getUserEntityById(user.getId())).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailyBalanceTotalRepository.deleteAll();
+        dailyBalanceRepository.deleteAll();
+        ledgerBalanceRepository.deleteAll();
+        ledgerPostingRepository.deleteAll();
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void recordMovements_movementsOfToday_snapshotMatchesBalance() {
+        deposit(BigDecimal.valueOf(50));
+        withdraw(BigDecimal.valueOf(20));
+        withdraw(BigDecimal.valueOf(5));
+
+        StatementResponse statement = balanceSnapshotService.getStatement(user.getId(), account.getId(), TODAY, TODAY);
+
+        assertEquals(0, statement.getOpeningBalance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, statement.getClosingBalance().compareTo(BigDecimal.valueOf(123)));
+        assertEquals(0, statement.getClosingBalance().compareTo(currentBalance()));
+        assertEquals(0, statement.getCreditTotal().compareTo(BigDecimal.valueOf(50)));
+        assertEquals(0, statement.getDebitTotal().compareTo(BigDecimal.valueOf(25)));
+        assertEquals(0, statement.getFeeTotal().compareTo(BigDecimal.valueOf(2)));
+        assertEquals(1, statement.getDays().size());
+        assertEquals(1, dailyBalanceRepository.count());
+
+        List<StatementTotalResponse> totals = statement.getTotals();
+        assertEquals(List.of("deposit", "withdraw"), totals.stream().map(StatementTotalResponse::getType).collect(Collectors.toList()));
+        assertEquals(1, totals.get(0).getTransactionCount());
+        assertEquals(2, totals.get(1).getTransactionCount());
+        assertEquals(0, totals.get(1).getDebitTotal().compareTo(BigDecimal.valueOf(25)));
+    }
+
+    @Test
+    void recordMovements_transferBetweenAccountsInOneEvent_bothSnapshotsUpdated() {
+        CheckingAccountEntity receiver = new CheckingAccountEntity();
+        receiver.setIban("BG18RZBB91550123456789");
+        receiver.setBalance(BigDecimal.ZERO);
+        receiver.setType(account.getType());
+        receiver.setUser(user);
+        CheckingAccountEntity savedReceiver = checkingAccountRepository.save(receiver);
+        when(userService.getUserByAccountId(savedReceiver.getId())).thenReturn(user);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.credit(account.getId(), BigDecimal.valueOf(-31));
+            checkingAccountRepository.credit(savedReceiver.getId(), BigDecimal.valueOf(30));
+            UUID uuid = UUID.randomUUID();
+            List<TransactionEntity> saved = transactionRepository.saveAll(List.of(
+                    new TransactionEntity(uuid, BigDecimal.valueOf(30), "rent", TransactionType.SEND, account),
+                    new TransactionEntity(uuid, BigDecimal.valueOf(30), "rent", TransactionType.RECEIVED,
+                            savedReceiver)));
+            record(new MoneyMovementEvent(
+                    MoneyMovement.debit(saved.get(0), BigDecimal.ONE), MoneyMovement.credit(saved.get(1))));
+        });
+
+        StatementResponse sender = balanceSnapshotService.getStatement(user.getId(), account.getId(), TODAY, TODAY);
+        StatementResponse received =
+                balanceSnapshotService.getStatement(user.getId(), savedReceiver.getId(), TODAY, TODAY);
+
+        assertEquals(0, sender.getClosingBalance().compareTo(BigDecimal.valueOf(69)));
+        assertEquals(0, received.getOpeningBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, received.getClosingBalance().compareTo(BigDecimal.valueOf(30)));
+    }
+
+    @Test
+    void getStatement_daysWithoutMovements_carryTheLastClosingBalance() {
+        dailyBalanceRepository.save(snapshot(TODAY.minusDays(10), 70, 100));
+        deposit(BigDecimal.TEN);
+
+        StatementResponse quiet = balanceSnapshotService.getStatement(user.getId(), account.getId(),
+                TODAY.minusDays(9), TODAY.minusDays(1));
+        StatementResponse all = balanceSnapshotService.getStatement(user.getId(), account.getId(),
+                TODAY.minusDays(30), TODAY);
+
+        assertEquals(0, quiet.getOpeningBalance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, quiet.getClosingBalance().compareTo(BigDecimal.valueOf(100)));
+        assertTrue(quiet.getDays().isEmpty());
+        assertEquals(0, all.getOpeningBalance().compareTo(BigDecimal.valueOf(70)));
+        assertEquals(0, all.getClosingBalance().compareTo(BigDecimal.valueOf(110)));
+        assertEquals(2, all.getDays().size());
+    }
+
+    @Test
+    void recordMovements_movementOfAnEarlierDay_addedToThatDayAndLaterDaysMoved() {
+        deposit(BigDecimal.TEN);
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(account.getId(), BigDecimal.valueOf(20));
+            TransactionEntity charge = new TransactionEntity(UUID.randomUUID(), BigDecimal.valueOf(20), "-",
+                    TransactionType.LOAN_PAYMENT, account);
+            charge.setCreatedOn(TODAY.minusDays(2).atTime(8, 0));
+            TransactionEntity saved = transactionRepository.save(charge);
+            record(new MoneyMovementEvent(MoneyMovement.debit(saved, BigDecimal.ZERO)));
+        });
+
+        StatementResponse past = balanceSnapshotService.getStatement(user.getId(), account.getId(),
+                TODAY.minusDays(3), TODAY.minusDays(1));
+        DailyBalanceEntity today = dailyBalanceRepository
+                .findFirstByAccountIdAndSnapshotDateAfterOrderBySnapshotDateAsc(account.getId(), TODAY.minusDays(1))
+                .orElseThrow();
+
+        assertEquals(1, past.getDays().size());
+        assertEquals(TODAY.minusDays(2), past.getDays().get(0).getDate());
+        assertEquals(0, past.getOpeningBalance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, past.getClosingBalance().compareTo(BigDecimal.valueOf(80)));
+        assertEquals(0, today.getOpeningBalance().compareTo(BigDecimal.valueOf(80)));
+        assertEquals(0, today.getClosingBalance().compareTo(BigDecimal.valueOf(90)));
+        assertEquals(0, today.getClosingBalance().compareTo(currentBalance()));
+    }
+
+    @Test
+    void recordMovements_eventSpanningTwoDays_eachDayGetsItsOwnMovements() {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.credit(account.getId(), BigDecimal.valueOf(30));
+            TransactionEntity yesterday = new TransactionEntity(UUID.randomUUID(), BigDecimal.TEN, "-",
+                    TransactionType.DEPOSIT, account);
+            yesterday.setCreatedOn(TODAY.minusDays(1).atTime(23, 59));
+            List<TransactionEntity> saved = transactionRepository.saveAll(List.of(yesterday,
+                    new TransactionEntity(UUID.randomUUID(), BigDecimal.valueOf(20), "-", TransactionType.DEPOSIT,
+                            account)));
+            record(new MoneyMovementEvent(
+                    MoneyMovement.credit(saved.get(0)), MoneyMovement.credit(saved.get(1))));
+        });
+
+        StatementResponse statement = balanceSnapshotService.getStatement(user.getId(), account.getId(),
+                TODAY.minusDays(1), TODAY);
+
+        assertEquals(2, dailyBalanceRepository.count());
+        assertEquals(2, statement.getDays().size());
+        assertEquals(0, statement.getDays().get(0).getOpeningBalance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, statement.getDays().get(0).getClosingBalance().compareTo(BigDecimal.valueOf(110)));
+        assertEquals(0, statement.getDays().get(1).getOpeningBalance().compareTo(BigDecimal.valueOf(110)));
+        assertEquals(0, statement.getClosingBalance().compareTo(BigDecimal.valueOf(130)));
+        assertEquals(2, statement.getTotals().get(0).getTransactionCount());
+    }
+
+    @Test
+    void getStatement_today_readFromItsTransactions() {
+        dailyBalanceRepository.save(snapshot(TODAY.minusDays(1), 70, 100));
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(account.getId(), BigDecimal.valueOf(16));
+            TransactionEntity withdrawal = transactionRepository.save(new TransactionEntity(UUID.randomUUID(),
+                    BigDecimal.valueOf(15), "-", TransactionType.WITHDRAW, account));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.debit(withdrawal, BigDecimal.ONE)));
+        });
+
+        StatementResponse statement = balanceSnapshotService.getStatement(user.getId(), account.getId(),
+                TODAY.minusDays(1), TODAY);
+
+        assertEquals(1, dailyBalanceRepository.count());
+        assertEquals(2, statement.getDays().size());
+        assertEquals(0, statement.getOpeningBalance().compareTo(BigDecimal.valueOf(70)));
+        assertEquals(0, statement.getClosingBalance().compareTo(BigDecimal.valueOf(84)));
+        assertEquals(0, statement.getDebitTotal().compareTo(BigDecimal.valueOf(15)));
+        assertEquals(0, statement.getCreditTotal().compareTo(BigDecimal.valueOf(30)));
+        assertEquals(0, statement.getFeeTotal().compareTo(BigDecimal.ONE));
+        assertEquals(List.of("withdraw"), statement.getTotals().stream().map(StatementTotalResponse::getType)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void getStatement_noSnapshotsAtAll_currentBalance() {
+        StatementResponse statement = balanceSnapshotService.getStatement(user.getId(), account.getId(),
+                TODAY.minusDays(7), TODAY);
+
+        assertEquals(0, statement.getOpeningBalance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, statement.getClosingBalance().compareTo(BigDecimal.valueOf(100)));
+        assertTrue(statement.getTotals().isEmpty());
+    }
+
+    @Test
+    void getStatement_startAfterEnd_throw() {
+        assertThrows(IllegalArgumentException.class, () -> balanceSnapshotService.getStatement(user.getId(),
+                account.getId(), TODAY, TODAY.minusDays(1)));
+    }
+
+    @Test
+    void getStatement_accountOfAnotherUser_throw() {
+        UserEntity other = userRepository.save(new UserEntity().setUsername("other").setPassword("-")
+                .setEmail("other@bank.com").setFullName("Other User"));
+        when(userService.getUserEntityById(other.getId())).thenReturn(other);
+
+        assertThrows(AccountNotBelongToUserException.class, () -> balanceSnapshotService.getStatement(other.getId(),
+                account.getId(), TODAY, TODAY));
+    }
+
+    private void deposit(BigDecimal amount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.credit(account.getId(), amount);
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.DEPOSIT, account));
+            record(new MoneyMovementEvent(MoneyMovement.credit(transaction)));
+        });
+    }
+
+    private void withdraw(BigDecimal amount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(account.getId(), amount.add(BigDecimal.ONE));
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.WITHDRAW, account));
+            record(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ONE)));
+        });
+    }
+
+    private void record(MoneyMovementEvent event) {
+        ledgerService.recordMovements(event);
+        balanceSnapshotService.recordMovements(event);
+    }
+
+    private DailyBalanceEntity snapshot(LocalDate date, long opening, long closing) {
+        return new DailyBalanceEntity().setAccountId(account.getId()).setSnapshotDate(date)
+                .setOpeningBalance(BigDecimal.valueOf(opening)).setClosingBalance(BigDecimal.valueOf(closing))
+                .setDebitTotal(BigDecimal.ZERO).setCreditTotal(BigDecimal.valueOf(closing - opening))
+                .setFeeTotal(BigDecimal.ZERO);
+    }
+
+    private BigDecimal currentBalance() {
+        return checkingAccountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+}
@@ -8,6 +8,8 @@ import com.example.banksystem.models.requsts.TransactionCreationRequest;
 import com.example.banksystem.models.responses.CDAccountResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
 import com.example.banksystem.repositories.CDAccountRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.services.events.MoneyMovementEvent;
 import com.example.banksystem.services.interfaces.AccountTypeService;
 import com.example.banksystem.services.interfaces.TransactionService;
 import com.example.banksystem.services.interfaces.UserService;
@@ -18,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -27,6 +30,7 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +57,12 @@ class CDAccountServiceImplTest {
     @Mock
     TransactionService transactionService;
 
+    @Mock
+    TransactionRepository transactionRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     CDAccountServiceImpl cdAccountService;
 
@@ -185,11 +195,13 @@ class CDAccountServiceImplTest {
         checkingAccount.setUser(user);
 
         when(cdAccountRepository.findByIban(any())).thenReturn(Optional.of(cdAccount));
+        when(transactionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         when(transactionService.withdraw(Long.parseLong("1"),transactionCreationRequest))
                 .thenReturn(transactionResponse);
 
         assertEquals(cdAccountService.withdraw(Long.parseLong("1"),transactionCreationRequest),
                                                                             transactionResponse.setType("withdraw"));
+        verify(eventPublisher).publishEvent(any(MoneyMovementEvent.class));
     }
 
     @Test
@@ -0,0 +1,245 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.*;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.batch.BatchJobRunner;
+import com.example.banksystem.services.batch.BusinessDateJobRunner;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CDMaturityServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+    private static final int BENCHMARK_ACCOUNTS = 2_000;
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CDAccountRepository cdAccountRepository;
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    LedgerPostingRepository ledgerPostingRepository;
+    @Autowired
+    LedgerBalanceRepository ledgerBalanceRepository;
+    @Autowired
+    BatchJobRunRepository batchJobRunRepository;
+    @Autowired
+    BatchJobChunkRepository batchJobChunkRepository;
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+    @Autowired
+    SchedulerCheckpointRepository schedulerCheckpointRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    LedgerServiceImpl ledgerService;
+    JobLeaseManager leaseManager;
+    BatchJobRunner runner;
+    CDMaturityServiceImpl cdMaturityService;
+    AccountTypeEntity checkingType;
+    AccountTypeEntity cdType;
+    UserEntity user;
+    int accounts;
+
+    @BeforeEach
+    void setUp() {
+        checkingType = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        cdType = accountTypeRepository.save(new AccountTypeEntity().setType("CD")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.ZERO));
+        user = userRepository.save(new UserEntity().setUsername("depositor").setPassword("-")
+                .setEmail("depositor@bank.com").setFullName("Depositor"));
+
+        ledgerService = new LedgerServiceImpl(ledgerPostingRepository, ledgerBalanceRepository,
+                checkingAccountRepository, transactionManager, 1, 1000);
+        leaseManager = new JobLeaseManager(schedulerLeaseRepository, transactionManager, "node-1", 300, 0);
+        runner = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository, leaseManager, transactionManager,
+                2, 10, 1, 1, 1);
+        cdMaturityService = service(runner);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        runner.stop();
+        leaseManager.stop();
+        schedulerLeaseRepository.deleteAll();
+        schedulerCheckpointRepository.deleteAll();
+        batchJobChunkRepository.deleteAll();
+        batchJobRunRepository.deleteAll();
+        ledgerBalanceRepository.deleteAll();
+        ledgerPostingRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transactions");
+        cdAccountRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void convertExpiredAccounts_accountsExpiringToday_convertedWithTheirPayouts() {
+        CDAccountEntity first = cdAccount(TODAY, BigDecimal.valueOf(110));
+        CDAccountEntity second = cdAccount(TODAY, BigDecimal.valueOf(220));
+        CDAccountEntity notExpired = cdAccount(TODAY.plusDays(1), BigDecimal.valueOf(330));
+
+        assertEquals(2, cdMaturityService.convertExpiredAccounts(TODAY));
+
+        assertEquals(List.of(notExpired.getId()), cdAccountRepository.findAll().stream().map(CDAccountEntity::getId)
+                .collect(Collectors.toList()));
+        for (CDAccountEntity converted : List.of(first, second)) {
+            CheckingAccountEntity account = checkingAccountRepository.findByIban(converted.getIban()).orElseThrow();
+            assertEquals(0, converted.getOutcomeAmount().compareTo(account.getBalance()));
+            assertEquals(checkingType.getId(), account.getType().getId());
+            assertEquals(user.getId(), account.getUser().getId());
+            assertEquals(0, converted.getOutcomeAmount().compareTo(ledgerService.getBalance(account.getId())));
+        }
+        List<TransactionEntity> payouts = transactionRepository.findAll();
+        assertEquals(2, payouts.size());
+        assertTrue(payouts.stream().allMatch(payout -> payout.getType() == TransactionType.CD_PAYOUT));
+        assertEquals(0, BigDecimal.valueOf(-330).compareTo(ledgerPostingRepository.findAll().stream()
+                .filter(posting -> posting.getLedgerAccount() == LedgerAccount.OPENING_BALANCES)
+                .map(LedgerPostingEntity::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    void convertExpiredAccounts_datesMissed_accountsOfTheWholeRangeConverted() {
+        cdMaturityService.convertExpiredAccounts(TODAY.minusDays(3));
+        CDAccountEntity missed = cdAccount(TODAY.minusDays(2), BigDecimal.valueOf(110));
+        CDAccountEntity expiring = cdAccount(TODAY, BigDecimal.valueOf(220));
+
+        assertEquals(2, cdMaturityService.convertExpiredAccounts(TODAY));
+
+        assertTrue(checkingAccountRepository.findByIban(missed.getIban()).isPresent());
+        assertTrue(checkingAccountRepository.findByIban(expiring.getIban()).isPresent());
+        assertEquals(0, cdAccountRepository.count());
+    }
+
+    @Test
+    void convertExpiredAccounts_emptyAccount_convertedWithoutPayout() {
+        CDAccountEntity empty = cdAccount(TODAY, BigDecimal.ZERO);
+
+        assertEquals(1, cdMaturityService.convertExpiredAccounts(TODAY));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(checkingAccountRepository.findByIban(empty.getIban()).orElseThrow()
+                .getBalance()));
+        assertEquals(0, transactionRepository.count());
+        assertEquals(0, ledgerPostingRepository.count());
+    }
+
+    @Test
+    void convertExpiredAccounts_chunkFailing_noAccountOfTheChunkConverted() {
+        CDAccountEntity convertible = cdAccount(TODAY, BigDecimal.valueOf(110));
+        CDAccountEntity clashing = cdAccount(TODAY, BigDecimal.valueOf(220));
+        CheckingAccountEntity existing = new CheckingAccountEntity();
+        existing.setIban(clashing.getIban());
+        existing.setBalance(BigDecimal.TEN);
+        existing.setType(checkingType);
+        existing.setUser(user);
+        checkingAccountRepository.save(existing);
+
+        assertEquals(0, cdMaturityService.convertExpiredAccounts(TODAY));
+
+        assertEquals(2, cdAccountRepository.count());
+        assertTrue(checkingAccountRepository.findByIban(convertible.getIban()).isEmpty());
+        assertEquals(1, checkingAccountRepository.count());
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void convertExpiredAccounts_benchmark_setBasedAgainstOneByOne() throws InterruptedException {
+        for (int i = 0; i < BENCHMARK_ACCOUNTS; i++) {
+            cdAccount(TODAY, BigDecimal.valueOf(110));
+            cdAccount(TODAY.plusDays(1), BigDecimal.valueOf(110));
+        }
+        BatchJobRunner benchmarkRunner = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository,
+                leaseManager, transactionManager, 2, 1000, 3, 1, 1);
+        CDMaturityServiceImpl setBased = service(benchmarkRunner);
+
+        TransactionTemplate ledgerTransaction = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        for (CDAccountEntity cdAccount : cdAccountRepository.findAllByExpirationDate(TODAY)) {
+            CheckingAccountEntity account = new CheckingAccountEntity();
+            account.setIban(cdAccount.getIban());
+            account.setUser(cdAccount.getUser());
+            account.setBalance(cdAccount.getOutcomeAmount());
+            account.setType(accountTypeRepository.findByType("Checking").orElseThrow());
+            checkingAccountRepository.save(account);
+            // The ledger service opens its own transaction, the same way its proxy does.
+            ledgerTransaction.executeWithoutResult(status ->
+                    ledgerService.recordOpeningBalance(account.getId(), account.getBalance()));
+            cdAccountRepository.delete(cdAccount);
+        }
+        long singleMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        started = System.nanoTime();
+        long converted = setBased.convertExpiredAccounts(TODAY.plusDays(1));
+        long setBasedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        benchmarkRunner.stop();
+
+        log.info("Converting {} CD accounts one by one took {} ms ({} accounts/s), set-based {} ms ({} accounts/s)",
+                BENCHMARK_ACCOUNTS, singleMillis, BENCHMARK_ACCOUNTS * 1000L / singleMillis, setBasedMillis,
+                BENCHMARK_ACCOUNTS * 1000L / setBasedMillis);
+
+        assertEquals(BENCHMARK_ACCOUNTS, converted);
+        assertEquals(0, cdAccountRepository.count());
+        assertEquals(BENCHMARK_ACCOUNTS * 2L, checkingAccountRepository.count());
+        assertEquals(BENCHMARK_ACCOUNTS, transactionRepository.count());
+        assertEquals(0, BigDecimal.valueOf(110L * 2 * BENCHMARK_ACCOUNTS).compareTo(jdbcTemplate
+                .queryForObject("SELECT SUM(balance) FROM ledger_balances", BigDecimal.class)));
+    }
+
+    private CDMaturityServiceImpl service(BatchJobRunner batchJobRunner) {
+        return new CDMaturityServiceImpl(cdAccountRepository, new CDAccountConversionWriter(jdbcTemplate),
+                checkingAccountRepository, new TransactionBatchWriter(jdbcTemplate),
+                new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()),
+                new AccountCache(checkingAccountRepository, 100, 30, 0),
+                event -> ledgerService.recordMovements((MoneyMovementEvent) event),
+                new BusinessDateJobRunner(batchJobRunner, batchJobRunRepository, schedulerCheckpointRepository,
+                        transactionManager, 31));
+    }
+
+    private CDAccountEntity cdAccount(LocalDate expirationDate, BigDecimal outcomeAmount) {
+        CDAccountEntity account = new CDAccountEntity().setPeriod(1).setInterest(BigDecimal.TEN)
+                .setExpirationDate(expirationDate).setOutcomeAmount(outcomeAmount);
+        account.setIban(String.format("BG79BNPA9440%010d", accounts++));
+        account.setBalance(BigDecimal.valueOf(100));
+        account.setType(cdType);
+        account.setUser(user);
+        return cdAccountRepository.save(account);
+    }
+}
@@ -7,16 +7,20 @@ import com.example.banksystem.models.entities.RoleEntity;
 import com.example.banksystem.models.entities.UserEntity;
 import com.example.banksystem.models.responses.CheckingAccountResponse;
 import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.services.cache.AccountCache;
 import com.example.banksystem.services.interfaces.AccountTypeService;
 import com.example.banksystem.services.interfaces.UserService;
+import com.example.banksystem.services.limits.VelocityLimiter;
 import org.iban4j.Iban;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
@@ -29,6 +33,8 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +48,10 @@ class CheckingAccountServiceImplTest {
     AccountTypeService accountTypeService;
     @Mock
     ModelMapper modelMapper;
+    @Spy
+    AccountCache accountCache = new AccountCache(null, 100, 30, 0);
+    @Spy
+    VelocityLimiter velocityLimiter = new VelocityLimiter(true);
     @InjectMocks
     CheckingAccountServiceImpl checkingAccountService;
 
@@ -129,6 +139,7 @@ class CheckingAccountServiceImplTest {
     @Test
     void withdraw_NotEnoughMoney_throw() {
         when(accountTypeService.findAccountTypeByType(anyString())).thenReturn(accountType);
+        when(checkingAccountRepository.debitIfCovered(1L, BigDecimal.valueOf(21))).thenReturn(0);
         assertThrows(InsufficientFundsException.class,
                 () -> checkingAccountService.withdraw(checkingAccountEntity, BigDecimal.valueOf(20)));
     }
@@ -137,16 +148,83 @@ class CheckingAccountServiceImplTest {
     void withdraw_EnoughMoney_okay() {
         checkingAccountEntity.setBalance(BigDecimal.TEN);
         when(accountTypeService.findAccountTypeByType(anyString())).thenReturn(accountType);
+        when(checkingAccountRepository.debitIfCovered(1L, BigDecimal.valueOf(3))).thenReturn(1);
         checkingAccountService.withdraw(checkingAccountEntity, BigDecimal.valueOf(2));
-        assertEquals(checkingAccountEntity.getBalance(), BigDecimal.valueOf(7));
+        verify(checkingAccountRepository).debitIfCovered(1L, BigDecimal.valueOf(3));
+    }
+
+    @Test
+    void withdraw_overVelocityLimit_throwsBeforeAnyDatabaseWork() {
+        accountType.setVelocityMaxCount(2).setVelocityWindowMinutes(60);
+        when(accountTypeService.findAccountTypeByType(anyString())).thenReturn(accountType);
+        when(checkingAccountRepository.debitIfCovered(1L, BigDecimal.valueOf(3))).thenReturn(1);
+        checkingAccountService.withdraw(checkingAccountEntity, BigDecimal.valueOf(2));
+        checkingAccountService.withdraw(checkingAccountEntity, BigDecimal.valueOf(2));
+
+        assertThrows(VelocityLimitExceededException.class,
+                () -> checkingAccountService.withdraw(checkingAccountEntity, BigDecimal.valueOf(2)));
+        verify(checkingAccountRepository, Mockito.times(2)).debitIfCovered(1L, BigDecimal.valueOf(3));
+        verify(accountTypeService, Mockito.times(2)).findAccountTypeByType(anyString());
     }
 
     @Test
     void deposit_EnoughMoney_okay() {
         checkingAccountEntity.setBalance(BigDecimal.TEN);
+        when(checkingAccountRepository.credit(1L, BigDecimal.valueOf(2))).thenReturn(1);
 
         checkingAccountService.deposit(checkingAccountEntity, BigDecimal.valueOf(2));
-        assertEquals(checkingAccountEntity.getBalance(), BigDecimal.valueOf(12));
+        verify(checkingAccountRepository).credit(1L, BigDecimal.valueOf(2));
+    }
+
+    @Test
+    void deposit_AccountMissing_throw() {
+        when(checkingAccountRepository.credit(1L, BigDecimal.valueOf(2))).thenReturn(0);
+        assertThrows(EntityNotFoundException.class,
+                () -> checkingAccountService.deposit(checkingAccountEntity, BigDecimal.valueOf(2)));
+    }
+
+    @Test
+    void transfer_lowerIdFirst_debitsThenCredits() {
+        CheckingAccountEntity receiver = new CheckingAccountEntity();
+        receiver.setId(2L);
+        receiver.setType(accountType);
+        when(accountTypeService.findAccountTypeByType(anyString())).thenReturn(accountType);
+        when(checkingAccountRepository.debitIfCovered(1L, BigDecimal.valueOf(11))).thenReturn(1);
+        when(checkingAccountRepository.credit(2L, BigDecimal.TEN)).thenReturn(1);
+
+        checkingAccountService.transfer(checkingAccountEntity, receiver, BigDecimal.TEN);
+
+        InOrder inOrder = inOrder(checkingAccountRepository);
+        inOrder.verify(checkingAccountRepository).debitIfCovered(1L, BigDecimal.valueOf(11));
+        inOrder.verify(checkingAccountRepository).credit(2L, BigDecimal.TEN);
+    }
+
+    @Test
+    void transfer_higherIdFirst_creditsThenDebits() {
+        CheckingAccountEntity receiver = new CheckingAccountEntity();
+        receiver.setId(2L);
+        receiver.setType(accountType);
+        checkingAccountEntity.setId(3L);
+        when(accountTypeService.findAccountTypeByType(anyString())).thenReturn(accountType);
+        when(checkingAccountRepository.credit(2L, BigDecimal.TEN)).thenReturn(1);
+        when(checkingAccountRepository.debitIfCovered(3L, BigDecimal.valueOf(11))).thenReturn(1);
+
+        checkingAccountService.transfer(checkingAccountEntity, receiver, BigDecimal.TEN);
+
+        InOrder inOrder = inOrder(checkingAccountRepository);
+        inOrder.verify(checkingAccountRepository).credit(2L, BigDecimal.TEN);
+        inOrder.verify(checkingAccountRepository).debitIfCovered(3L, BigDecimal.valueOf(11));
+    }
+
+    @Test
+    void transfer_NotEnoughMoney_throw() {
+        CheckingAccountEntity receiver = new CheckingAccountEntity();
+        receiver.setId(2L);
+        when(accountTypeService.findAccountTypeByType(anyString())).thenReturn(accountType);
+        when(checkingAccountRepository.debitIfCovered(1L, BigDecimal.valueOf(11))).thenReturn(0);
+
+        assertThrows(InsufficientFundsException.class,
+                () -> checkingAccountService.transfer(checkingAccountEntity, receiver, BigDecimal.TEN));
     }
 
     @Test
@@ -191,8 +269,32 @@ class CheckingAccountServiceImplTest {
     void getCheckingAccountById_okay() {
         when(checkingAccountRepository.findById(1L)).thenReturn(Optional.of(checkingAccountEntity));
         when(userService.getUserEntityById(1L)).thenReturn(user);
-        when(modelMapper.map(checkingAccountEntity, CheckingAccountResponse.class)).thenReturn(checkingAccountResponse);
-        assertEquals(checkingAccountService.getCheckingAccountById(1L, 1L), checkingAccountResponse);
+        CheckingAccountResponse response = checkingAccountService.getCheckingAccountById(1L, 1L);
+        assertEquals(1L, response.getId());
+        assertEquals("DE89370400440532013000", response.getIban());
+        assertEquals("TestFullName", response.getUserFullName());
+        assertEquals("TestType", response.getType());
+    }
+
+    @Test
+    void getCheckingAccountById_readTwice_loadedOnce() {
+        when(checkingAccountRepository.findById(1L)).thenReturn(Optional.of(checkingAccountEntity));
+        when(userService.getUserEntityById(1L)).thenReturn(user);
+        checkingAccountService.getCheckingAccountById(1L, 1L);
+        checkingAccountService.getCheckingAccountById(1L, 1L);
+        verify(checkingAccountRepository, Mockito.times(1)).findById(1L);
+        assertEquals(1, accountCache.getMetrics().getHits());
+    }
+
+    @Test
+    void saveAccount_cachedAccount_evicted() {
+        when(checkingAccountRepository.findById(1L)).thenReturn(Optional.of(checkingAccountEntity));
+        when(checkingAccountRepository.save(checkingAccountEntity)).thenReturn(checkingAccountEntity);
+        checkingAccountService.getAccountById(1L);
+        checkingAccountEntity.setBalance(BigDecimal.TEN);
+        checkingAccountService.saveAccount(checkingAccountEntity);
+        assertEquals("10.00", checkingAccountService.getAccountById(1L).getBalance());
+        verify(checkingAccountRepository, Mockito.times(2)).findById(1L);
     }
 
 
@@ -225,15 +327,16 @@ class CheckingAccountServiceImplTest {
     void getAccountById_noSuchAccount_throws() {
         when(checkingAccountRepository.findById(anyLong())).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class,
-                () -> checkingAccountService.getAccountById(anyLong()));
+                () -> checkingAccountService.getAccountById(1L));
     }
 
     @Test
     void getAccountById_okay() {
         when(checkingAccountRepository.findById(anyLong())).thenReturn(Optional.of(checkingAccountEntity));
-        when(modelMapper.map(checkingAccountEntity, CheckingAccountResponse.class))
-                .thenReturn(checkingAccountResponse);
-        assertEquals(checkingAccountService.getAccountById(anyLong()),checkingAccountResponse);
+        CheckingAccountResponse response = checkingAccountService.getAccountById(1L);
+        assertEquals(1L, response.getId());
+        assertEquals("DE89370400440532013000", response.getIban());
+        assertEquals("TestFullName", response.getUserFullName());
     }
 
     @Test
@@ -0,0 +1,185 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.exceptions.IdempotencyKeyConflictException;
+import com.example.banksystem.exceptions.InsufficientFundsException;
+import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.responses.TransactionResponse;
+import com.example.banksystem.repositories.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceImplTest {
+
+    private static final String KEY = "5f0c8e0a-retry";
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    IdempotencyServiceImpl idempotencyService;
+    TransactionCreationRequest request;
+    AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, transactionManager, 100, 24);
+        request = new TransactionCreationRequest().setIban("BG79BNPA94409332615387")
+                .setAmount(BigDecimal.valueOf(1234.5));
+        executions = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void execute_sameKeyTwice_actionExecutedOnceAndResponseReplayed() {
+        TransactionResponse first = idempotencyService.execute(1L, KEY, "deposit", request,
+                TransactionResponse.class, deposit());
+        TransactionResponse replayed = idempotencyService.execute(1L, KEY, "deposit", request,
+                TransactionResponse.class, deposit());
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getId(), replayed.getId());
+        assertEquals(first.getUuid(), replayed.getUuid());
+        assertEquals(first.getAmount(), replayed.getAmount());
+        assertEquals(first.getCreatedOn(), replayed.getCreatedOn());
+    }
+
+    @Test
+    void execute_keyStoredByAnotherNode_replayedFromTable() {
+        TransactionResponse first = idempotencyService.execute(1L, KEY, "deposit", request,
+                TransactionResponse.class, deposit());
+        IdempotencyServiceImpl coldService =
+                new IdempotencyServiceImpl(idempotencyKeyRepository, transactionManager, 100, 24);
+
+        TransactionResponse replayed = coldService.execute(1L, KEY, "deposit", request,
+                TransactionResponse.class, deposit());
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getUuid(), replayed.getUuid());
+    }
+
+    @Test
+    void execute_sameKeyDifferentRequest_throw() {
+        idempotencyService.execute(1L, KEY, "deposit", request, TransactionResponse.class, deposit());
+
+        TransactionCreationRequest other = new TransactionCreationRequest().setIban(request.getIban())
+                .setAmount(BigDecimal.TEN);
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.execute(1L, KEY, "deposit",
+                other, TransactionResponse.class, deposit()));
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.execute(1L, KEY, "withdraw",
+                request, TransactionResponse.class, deposit()));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_sameKeyOtherUser_executedAgain() {
+        idempotencyService.execute(1L, KEY, "deposit", request, TransactionResponse.class, deposit());
+        idempotencyService.execute(2L, KEY, "deposit", request, TransactionResponse.class, deposit());
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_actionFailed_keyReleased() {
+        assertThrows(InsufficientFundsException.class, () -> idempotencyService.execute(1L, KEY, "withdraw",
+                request, TransactionResponse.class, () -> {
+                    throw new InsufficientFundsException("The selected account has Insufficient funds!");
+                }));
+
+        assertEquals(0, idempotencyKeyRepository.count());
+        assertNotNull(idempotencyService.execute(1L, KEY, "withdraw", request, TransactionResponse.class,
+                deposit()));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_noKey_actionExecutedEveryTime() {
+        idempotencyService.execute(1L, null, "deposit", request, TransactionResponse.class, deposit());
+        idempotencyService.execute(1L, null, "deposit", request, TransactionResponse.class, deposit());
+
+        assertEquals(2, executions.get());
+        assertEquals(0, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void execute_keyTooLong_throw() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute(1L, "k".repeat(256),
+                "deposit", request, TransactionResponse.class, deposit()));
+    }
+
+    @Test
+    void executeOutsideTransaction_sameKeyTwice_actionExecutedOnceAndResponseReplayed() {
+        TransactionResponse first = idempotencyService.executeOutsideTransaction(1L, KEY, "deposit", request,
+                TransactionResponse.class, deposit());
+        TransactionResponse replayed = idempotencyService.executeOutsideTransaction(1L, KEY, "deposit", request,
+                TransactionResponse.class, deposit());
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getUuid(), replayed.getUuid());
+        assertNotNull(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, KEY).orElseThrow().getResponse());
+    }
+
+    @Test
+    void executeOutsideTransaction_keyClaimedByARunningRequest_committedBeforeTheActionAndRetryRefused() {
+        idempotencyService.executeOutsideTransaction(1L, KEY, "deposit", request, TransactionResponse.class, () -> {
+            // Read on this thread outside of any transaction, so the claim is already committed.
+            assertEquals(1, idempotencyKeyRepository.count());
+            assertThrows(IdempotencyKeyConflictException.class, () -> new IdempotencyServiceImpl(
+                    idempotencyKeyRepository, transactionManager, 100, 24).executeOutsideTransaction(1L, KEY,
+                    "deposit", request, TransactionResponse.class, deposit()));
+            return deposit().get();
+        });
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void executeOutsideTransaction_actionFailed_keyReleased() {
+        assertThrows(InsufficientFundsException.class, () -> idempotencyService.executeOutsideTransaction(1L, KEY,
+                "withdraw", request, TransactionResponse.class, () -> {
+                    throw new InsufficientFundsException("The selected account has Insufficient funds!");
+                }));
+
+        assertEquals(0, idempotencyKeyRepository.count());
+        assertNotNull(idempotencyService.executeOutsideTransaction(1L, KEY, "withdraw", request,
+                TransactionResponse.class, deposit()));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void deleteExpiredKeys_noRetention_keysDeleted() {
+        idempotencyService.execute(1L, KEY, "deposit", request, TransactionResponse.class, deposit());
+        IdempotencyServiceImpl noRetention =
+                new IdempotencyServiceImpl(idempotencyKeyRepository, transactionManager, 100, 0);
+
+        assertEquals(1, noRetention.deleteExpiredKeys());
+        assertEquals(0, idempotencyKeyRepository.count());
+    }
+
+    private Supplier<TransactionResponse> deposit() {
+        return () -> new TransactionResponse(UUID.randomUUID(), request.getIban(), LocalDateTime.now(),
+                request.getAmount(), "deposit", "Retry Test").setId((long) executions.incrementAndGet());
+    }
+}
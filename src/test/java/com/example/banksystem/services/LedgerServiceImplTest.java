@@ -0,0 +1,258 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.LedgerAccount;
+import com.example.banksystem.models.entities.LedgerPostingEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.responses.LedgerDriftResponse;
+import com.example.banksystem.models.responses.LedgerVerificationResponse;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.LedgerBalanceRepository;
+import com.example.banksystem.repositories.LedgerPostingRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.UserRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerServiceImplTest {
+
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(100);
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    LedgerPostingRepository ledgerPostingRepository;
+    @Autowired
+    LedgerBalanceRepository ledgerBalanceRepository;
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    LedgerServiceImpl ledgerService;
+    TransactionTemplate transactionTemplate;
+    AccountTypeEntity type;
+    UserEntity user;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerServiceImpl(ledgerPostingRepository, ledgerBalanceRepository,
+                checkingAccountRepository, transactionManager, 4, 50);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("ledger").setPassword("-")
+                .setEmail("ledger@bank.com").setFullName("Ledger Test"));
+        account = openAccount("BG79BNPA94409332615387");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerBalanceRepository.deleteAll();
+        ledgerPostingRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void recordMovements_deposit_creditsAccountAndDebitsCash() {
+        TransactionEntity transaction = deposit(account, BigDecimal.valueOf(50));
+
+        Map<LedgerAccount, BigDecimal> postings = postingsOf(transaction.getUUid());
+
+        assertEquals(2, postings.size());
+        assertEquals(0, postings.get(LedgerAccount.CHECKING).compareTo(BigDecimal.valueOf(50)));
+        assertEquals(0, postings.get(LedgerAccount.CASH).compareTo(BigDecimal.valueOf(-50)));
+        assertEquals(0, ledgerService.getBalance(account.getId()).compareTo(BigDecimal.valueOf(150)));
+    }
+
+    @Test
+    void recordMovements_withdrawWithFee_feeCreditedToRevenue() {
+        TransactionEntity transaction = withdraw(account, BigDecimal.valueOf(20));
+
+        Map<LedgerAccount, BigDecimal> postings = postingsOf(transaction.getUUid());
+
+        assertEquals(3, postings.size());
+        assertEquals(0, postings.get(LedgerAccount.CHECKING).compareTo(BigDecimal.valueOf(-21)));
+        assertEquals(0, postings.get(LedgerAccount.CASH).compareTo(BigDecimal.valueOf(20)));
+        assertEquals(0, postings.get(LedgerAccount.FEE_REVENUE).compareTo(BigDecimal.ONE));
+        assertEquals(0, ledgerService.getBalance(account.getId()).compareTo(BigDecimal.valueOf(79)));
+    }
+
+    @Test
+    void recordMovements_transfer_bothLegsInOneBalancedEntry() {
+        CheckingAccountEntity receiver = openAccount("BG18RZBB91550123456789");
+        UUID uuid = UUID.randomUUID();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(account.getId(), BigDecimal.valueOf(31));
+            checkingAccountRepository.credit(receiver.getId(), BigDecimal.valueOf(30));
+            List<TransactionEntity> saved = transactionRepository.saveAll(List.of(
+                    new TransactionEntity(uuid, BigDecimal.valueOf(30), "rent", TransactionType.SEND, account),
+                    new TransactionEntity(uuid, BigDecimal.valueOf(30), "rent", TransactionType.RECEIVED, receiver)));
+            ledgerService.recordMovements(new MoneyMovementEvent(
+                    MoneyMovement.debit(saved.get(0), BigDecimal.ONE), MoneyMovement.credit(saved.get(1))));
+        });
+
+        List<LedgerPostingEntity> postings = ledgerPostingRepository.findAllByEntryUuid(uuid);
+
+        assertEquals(3, postings.size());
+        assertEquals(0, postings.stream().map(LedgerPostingEntity::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add).signum());
+        assertEquals(0, ledgerService.getBalance(account.getId()).compareTo(BigDecimal.valueOf(69)));
+        assertEquals(0, ledgerService.getBalance(receiver.getId()).compareTo(BigDecimal.valueOf(130)));
+        assertTrue(ledgerService.verify().isConsistent());
+    }
+
+    @Test
+    void verify_movementsRecorded_consistentAndBankBalancesDerived() {
+        deposit(account, BigDecimal.valueOf(50));
+        withdraw(account, BigDecimal.valueOf(20));
+        monthlyFee(account, BigDecimal.valueOf(4));
+
+        LedgerVerificationResponse result = ledgerService.verify();
+
+        assertTrue(result.isConsistent());
+        assertEquals(1, result.getCheckedAccounts());
+        assertEquals(0, result.getBankBalances().get("CASH").compareTo(BigDecimal.valueOf(-30)));
+        assertEquals(0, result.getBankBalances().get("FEE_REVENUE").compareTo(BigDecimal.valueOf(5)));
+        assertEquals(0, result.getBankBalances().get("OPENING_BALANCES").compareTo(OPENING_BALANCE.negate()));
+    }
+
+    @Test
+    void verify_balanceChangedOutsideTheLedger_driftReported() {
+        deposit(account, BigDecimal.valueOf(50));
+        jdbcTemplate.update("UPDATE checking_accounts SET balance = balance + 7 WHERE id = ?", account.getId());
+
+        LedgerVerificationResponse result = ledgerService.verify();
+
+        assertFalse(result.isConsistent());
+        assertEquals(1, result.getDrifts().size());
+        LedgerDriftResponse drift = result.getDrifts().get(0);
+        assertEquals(account.getId(), drift.getAccountId());
+        assertEquals(0, drift.getAccountBalance().compareTo(BigDecimal.valueOf(157)));
+        assertEquals(0, drift.getLedgerBalance().compareTo(BigDecimal.valueOf(150)));
+        assertEquals(0, drift.getCachedBalance().compareTo(BigDecimal.valueOf(150)));
+    }
+
+    @Test
+    void verify_unbalancedEntry_reported() {
+        UUID uuid = UUID.randomUUID();
+        ledgerPostingRepository.save(new LedgerPostingEntity().setEntryUuid(uuid)
+                .setLedgerAccount(LedgerAccount.CASH).setAmount(BigDecimal.TEN));
+
+        LedgerVerificationResponse result = ledgerService.verify();
+
+        assertFalse(result.isConsistent());
+        assertEquals(List.of(uuid), result.getUnbalancedEntries());
+    }
+
+    @Test
+    void verify_manyAccountsInParallelChunks_allChecked() {
+        List<CheckingAccountEntity> accounts = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            accounts.add(openAccount(String.format("BG80BNBG9661102034%04d", i)));
+        }
+        for (int i = 0; i < accounts.size(); i += 3) {
+            deposit(accounts.get(i), BigDecimal.valueOf(i + 1));
+        }
+        jdbcTemplate.update("UPDATE checking_accounts SET balance = balance - 1 WHERE id = ?",
+                accounts.get(250).getId());
+
+        long started = System.nanoTime();
+        LedgerVerificationResponse result = ledgerService.verify();
+        log.info("Verified {} accounts in {} ms", result.getCheckedAccounts(),
+                (System.nanoTime() - started) / 1_000_000);
+
+        assertEquals(accounts.size() + 1, result.getCheckedAccounts());
+        assertEquals(List.of(accounts.get(250).getId()), result.getDrifts().stream()
+                .map(LedgerDriftResponse::getAccountId).collect(Collectors.toList()));
+    }
+
+    private CheckingAccountEntity openAccount(String iban) {
+        CheckingAccountEntity opened = new CheckingAccountEntity();
+        opened.setIban(iban);
+        opened.setBalance(OPENING_BALANCE);
+        opened.setType(type);
+        opened.setUser(user);
+        CheckingAccountEntity saved = checkingAccountRepository.save(opened);
+        transactionTemplate.executeWithoutResult(
+                status -> ledgerService.recordOpeningBalance(saved.getId(), OPENING_BALANCE));
+        return saved;
+    }
+
+    private TransactionEntity deposit(CheckingAccountEntity target, BigDecimal amount) {
+        return transactionTemplate.execute(status -> {
+            checkingAccountRepository.credit(target.getId(), amount);
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.DEPOSIT, target));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.credit(transaction)));
+            return transaction;
+        });
+    }
+
+    private TransactionEntity withdraw(CheckingAccountEntity target, BigDecimal amount) {
+        return transactionTemplate.execute(status -> {
+            checkingAccountRepository.debitIfCovered(target.getId(), amount.add(BigDecimal.ONE));
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.WITHDRAW, target));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ONE)));
+            return transaction;
+        });
+    }
+
+    private void monthlyFee(CheckingAccountEntity target, BigDecimal amount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(target.getId(), amount);
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.MONTHLY_FEE, target));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ZERO)));
+        });
+    }
+
+    private Map<LedgerAccount, BigDecimal> postingsOf(UUID entry) {
+        return ledgerPostingRepository.findAllByEntryUuid(entry).stream()
+                .collect(Collectors.toMap(LedgerPostingEntity::getLedgerAccount, LedgerPostingEntity::getAmount));
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.*;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.batch.BatchJobRunner;
+import com.example.banksystem.services.batch.BusinessDateJobRunner;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoanPaymentServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+    private static final int BENCHMARK_LOANS = 2_000;
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    LoanRepository loanRepository;
+    @Autowired
+    LoanTypeRepository loanTypeRepository;
+    @Autowired
+    BatchJobRunRepository batchJobRunRepository;
+    @Autowired
+    BatchJobChunkRepository batchJobChunkRepository;
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+    @Autowired
+    SchedulerCheckpointRepository schedulerCheckpointRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    List<MoneyMovementEvent> events;
+    JobLeaseManager leaseManager;
+    BatchJobRunner runner;
+    LoanPaymentServiceImpl loanPaymentService;
+    AccountTypeEntity accountType;
+    LoanTypeEntity loanType;
+    int users;
+
+    @BeforeEach
+    void setUp() {
+        accountType = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        loanType = loanTypeRepository.save(new LoanTypeEntity().setName("Consumer").setMonthlyFee(BigDecimal.ONE)
+                .setConsiderationFee(BigDecimal.TEN).setInterestRate(BigDecimal.valueOf(5)));
+
+        events = Collections.synchronizedList(new ArrayList<>());
+        leaseManager = new JobLeaseManager(schedulerLeaseRepository, transactionManager, "node-1", 300, 0);
+        runner = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository, leaseManager, transactionManager,
+                2, 2, 3, 1, 1);
+        loanPaymentService = service(runner, event -> events.add((MoneyMovementEvent) event));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        runner.stop();
+        leaseManager.stop();
+        schedulerLeaseRepository.deleteAll();
+        schedulerCheckpointRepository.deleteAll();
+        batchJobChunkRepository.deleteAll();
+        batchJobRunRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transactions");
+        loanRepository.deleteAll();
+        loanTypeRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void chargeInstalments_loansDueToday_chargedOnceAndMovedAMonthLater() {
+        LoanEntity due = loan(TODAY, TODAY.plusYears(1));
+        LoanEntity dueToo = loan(TODAY, TODAY.plusYears(1));
+        LoanEntity notDue = loan(TODAY.plusDays(1), TODAY.plusYears(1));
+
+        assertEquals(2, loanPaymentService.chargeInstalments(TODAY));
+        assertEquals(0, loanPaymentService.chargeInstalments(TODAY));
+
+        for (LoanEntity loan : new LoanEntity[]{due, dueToo}) {
+            LoanEntity charged = loanRepository.findById(loan.getId()).orElseThrow();
+            assertEquals(TODAY.plusMonths(1), charged.getMaturityDate());
+            assertEquals(0, BigDecimal.valueOf(1000 - 101).compareTo(charged.getRemainingLoanAmount()));
+            assertEquals(0, BigDecimal.valueOf(500 - 101).compareTo(checkingAccountRepository
+                    .findById(charged.getAccount().getId()).orElseThrow().getBalance()));
+        }
+        assertEquals(TODAY.plusDays(1), loanRepository.findById(notDue.getId()).orElseThrow().getMaturityDate());
+        assertEquals(2, transactionRepository.count());
+        assertTrue(transactionRepository.findAll().stream().allMatch(transaction ->
+                transaction.getType() == TransactionType.LOAN_PAYMENT
+                        && transaction.getAmount().compareTo(BigDecimal.valueOf(101)) == 0));
+    }
+
+    @Test
+    void chargeInstalments_accountWithTwoLoansDue_chargedForBothInOneEventPerChunk() {
+        LoanEntity first = loan(TODAY, TODAY.plusYears(1));
+        LoanEntity second = loanRepository.save(new LoanEntity().setAccount(first.getAccount()).setLoanType(loanType)
+                .setBeginningLoanAmount(BigDecimal.valueOf(300)).setRemainingLoanAmount(BigDecimal.valueOf(300))
+                .setMonthlyPayment(BigDecimal.valueOf(50)).setTotalAmountSum(BigDecimal.valueOf(360))
+                .setMaturityDate(TODAY).setDueDate(TODAY.plusYears(1)).setPeriodInMonths(6).setApproved(true));
+
+        assertEquals(2, loanPaymentService.chargeInstalments(TODAY));
+
+        assertEquals(0, BigDecimal.valueOf(500 - 101 - 51).compareTo(checkingAccountRepository
+                .findById(first.getAccount().getId()).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(300 - 51).compareTo(loanRepository.findById(second.getId()).orElseThrow()
+                .getRemainingLoanAmount()));
+        // Both loans are in the first chunk of two ids.
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getMovements().size());
+    }
+
+    @Test
+    void chargeInstalments_benchmark_batchedAgainstOneByOne() throws InterruptedException {
+        for (int i = 0; i < BENCHMARK_LOANS; i++) {
+            loan(TODAY, TODAY.plusYears(1));
+        }
+        BatchJobRunner benchmarkRunner = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository,
+                leaseManager, transactionManager, 2, 1000, 3, 1, 1);
+        LoanPaymentServiceImpl batched = service(benchmarkRunner, event -> { });
+
+        TransactionServiceImpl transactionService = new TransactionServiceImpl(transactionRepository,
+                new CheckingAccountServiceImpl(checkingAccountRepository, null,
+                        new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()), new ModelMapper(),
+                        new AccountCache(checkingAccountRepository, 100, 30, 0), new VelocityLimiter(true)),
+                null, new ModelMapper(), event -> { }, null, new VelocityLimiter(true));
+        long started = System.nanoTime();
+        for (LoanEntity loan : loanRepository.findAllByMaturityDate(TODAY)) {
+            BigDecimal payment = loan.getMonthlyPayment().add(loan.getLoanType().getMonthlyFee());
+            CheckingAccountEntity account = loan.getAccount();
+            account.setBalance(account.getBalance().subtract(payment));
+            checkingAccountRepository.save(account);
+            transactionService.savePaymentInTransaction(payment, account, TransactionType.LOAN_PAYMENT);
+            loan.setMaturityDate(loan.getMaturityDate().plusMonths(1));
+            loan.setRemainingLoanAmount(loan.getRemainingLoanAmount().subtract(payment));
+            loanRepository.save(loan);
+        }
+        long singleMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        started = System.nanoTime();
+        long charged = batched.chargeInstalments(TODAY.plusMonths(1));
+        long batchedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        benchmarkRunner.stop();
+
+        log.info("Charging {} loan instalments one by one took {} ms ({} loans/s), batched {} ms ({} loans/s)",
+                BENCHMARK_LOANS, singleMillis, BENCHMARK_LOANS * 1000L / singleMillis, batchedMillis,
+                BENCHMARK_LOANS * 1000L / batchedMillis);
+
+        assertEquals(BENCHMARK_LOANS, charged);
+        assertEquals(BENCHMARK_LOANS * 2L, transactionRepository.count());
+        assertEquals(0, BigDecimal.valueOf((500 - 2 * 101) * BENCHMARK_LOANS).compareTo(jdbcTemplate
+                .queryForObject("SELECT SUM(balance) FROM checking_accounts", BigDecimal.class)));
+        assertEquals(BENCHMARK_LOANS, loanRepository.findAllByMaturityDate(TODAY.plusMonths(2)).size());
+    }
+
+    @Test
+    void chargeInstalments_daysMissedSinceTheLastRun_everyMissedDateChargedInOneRun() {
+        assertEquals(0, loanPaymentService.chargeInstalments(TODAY.minusDays(4)));
+        LoanEntity missed = loan(TODAY.minusDays(2), TODAY.plusYears(1));
+        LoanEntity missedToo = loan(TODAY.minusDays(1), TODAY.plusYears(1));
+        LoanEntity due = loan(TODAY, TODAY.plusYears(1));
+        LoanEntity notDue = loan(TODAY.plusDays(1), TODAY.plusYears(1));
+
+        assertEquals(3, loanPaymentService.chargeInstalments(TODAY));
+
+        assertEquals(TODAY.minusDays(2).plusMonths(1), loanRepository.findById(missed.getId()).orElseThrow()
+                .getMaturityDate());
+        assertEquals(TODAY.minusDays(1).plusMonths(1), loanRepository.findById(missedToo.getId()).orElseThrow()
+                .getMaturityDate());
+        assertEquals(TODAY.plusMonths(1), loanRepository.findById(due.getId()).orElseThrow().getMaturityDate());
+        assertEquals(TODAY.plusDays(1), loanRepository.findById(notDue.getId()).orElseThrow().getMaturityDate());
+        assertTrue(batchJobRunRepository.findByJobNameAndRunKey("loan-instalments",
+                TODAY.minusDays(3) + ".." + TODAY).isPresent());
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("loan-instalments").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void chargeInstalments_gapLongerThanAMonth_everyMissedInstalmentCharged() {
+        loanPaymentService.chargeInstalments(TODAY.minusDays(31));
+        LoanEntity loan = loan(TODAY.minusMonths(1), TODAY.plusYears(1));
+
+        assertEquals(2, loanPaymentService.chargeInstalments(TODAY));
+
+        LoanEntity charged = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(TODAY.plusMonths(1), charged.getMaturityDate());
+        assertEquals(0, BigDecimal.valueOf(1000 - 2 * 101).compareTo(charged.getRemainingLoanAmount()));
+        assertEquals(0, BigDecimal.valueOf(500 - 2 * 101).compareTo(checkingAccountRepository
+                .findById(charged.getAccount().getId()).orElseThrow().getBalance()));
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    void previewCatchUp_daysMissed_reportsTheRangeAndTheDueLoansWithoutProcessingThem() {
+        loanPaymentService.chargeInstalments(TODAY.minusDays(3));
+        loanPaymentService.closeFinishedLoans(TODAY.minusDays(3));
+        LoanEntity missed = loan(TODAY.minusDays(1), TODAY);
+        loan(TODAY, TODAY.plusYears(1));
+
+        List<CatchUpReportResponse> reports = loanPaymentService.previewCatchUp(TODAY);
+
+        CatchUpReportResponse instalments = reports.get(0);
+        assertEquals("loan-instalments", instalments.getJobName());
+        assertEquals(TODAY.minusDays(3), instalments.getLastProcessedDate());
+        assertEquals(TODAY.minusDays(2), instalments.getFromDate());
+        assertEquals(TODAY, instalments.getToDate());
+        assertEquals(2, instalments.getPendingItems());
+        assertTrue(instalments.getUnfinishedRuns().isEmpty());
+        CatchUpReportResponse closing = reports.get(1);
+        assertEquals("loan-closing", closing.getJobName());
+        assertEquals(TODAY.minusDays(2), closing.getFromDate());
+        assertEquals(1, closing.getPendingItems());
+        assertEquals(TODAY.minusDays(1), loanRepository.findById(missed.getId()).orElseThrow().getMaturityDate());
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void closeFinishedLoans_loansEndingToday_deletedAndUsersWithoutLoan() {
+        LoanEntity finished = loan(TODAY.plusDays(3), TODAY);
+        LoanEntity running = loan(TODAY.plusDays(3), TODAY.plusYears(1));
+
+        assertEquals(1, loanPaymentService.closeFinishedLoans(TODAY));
+
+        assertFalse(loanRepository.existsById(finished.getId()));
+        assertTrue(loanRepository.existsById(running.getId()));
+        assertFalse(userRepository.findById(finished.getAccount().getUser().getId()).orElseThrow().hasLoan());
+        assertTrue(userRepository.findById(running.getAccount().getUser().getId()).orElseThrow().hasLoan());
+    }
+
+    @Test
+    void closeFinishedLoans_lastInstalmentNotChargedYet_chargedBeforeTheLoanIsDeleted() {
+        loanPaymentService.closeFinishedLoans(TODAY.minusDays(2));
+        LoanEntity ending = loan(TODAY.minusDays(1), TODAY.minusDays(1));
+
+        assertEquals(1, loanPaymentService.closeFinishedLoans(TODAY));
+
+        assertFalse(loanRepository.existsById(ending.getId()));
+        assertEquals(0, BigDecimal.valueOf(500 - 101).compareTo(checkingAccountRepository
+                .findById(ending.getAccount().getId()).orElseThrow().getBalance()));
+        assertEquals(1, transactionRepository.count());
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("loan-instalments").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void closeFinishedLoans_gapSpanningTheDueDate_chargedOnlyUpToTheDueDateAndDeleted() {
+        loanPaymentService.closeFinishedLoans(TODAY.minusMonths(3));
+        LoanEntity ending = loan(TODAY.minusMonths(3).plusDays(5), TODAY.minusMonths(2).plusDays(5));
+        LoanEntity running = loan(TODAY.minusMonths(3).plusDays(5), TODAY.plusYears(1));
+
+        assertEquals(1, loanPaymentService.closeFinishedLoans(TODAY));
+
+        assertFalse(loanRepository.existsById(ending.getId()));
+        assertEquals(0, BigDecimal.valueOf(500 - 2 * 101).compareTo(checkingAccountRepository
+                .findById(ending.getAccount().getId()).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(500 - 3 * 101).compareTo(checkingAccountRepository
+                .findById(running.getAccount().getId()).orElseThrow().getBalance()));
+        assertEquals(5, transactionRepository.count());
+    }
+
+    private LoanPaymentServiceImpl service(BatchJobRunner batchJobRunner, ApplicationEventPublisher publisher) {
+        return new LoanPaymentServiceImpl(loanRepository, checkingAccountRepository,
+                new LoanInstalmentWriter(jdbcTemplate), new TransactionBatchWriter(jdbcTemplate),
+                new UserServiceImpl(new ModelMapper(), userRepository, null), publisher,
+                new BusinessDateJobRunner(batchJobRunner, batchJobRunRepository, schedulerCheckpointRepository,
+                        transactionManager, 31));
+    }
+
+    private LoanEntity loan(LocalDate maturityDate, LocalDate dueDate) {
+        int index = users++;
+        UserEntity user = userRepository.save(new UserEntity().setUsername("borrower" + index).setPassword("-")
+                .setEmail("borrower" + index + "@bank.com").setFullName("Borrower").setHasLoan(true));
+        CheckingAccountEntity account = new CheckingAccountEntity();
+        account.setIban(String.format("BG79BNPA9440%010d", index));
+        account.setBalance(BigDecimal.valueOf(500));
+        account.setType(accountType);
+        account.setUser(user);
+        checkingAccountRepository.save(account);
+
+        return loanRepository.save(new LoanEntity().setAccount(account).setLoanType(loanType)
+                .setBeginningLoanAmount(BigDecimal.valueOf(1000)).setRemainingLoanAmount(BigDecimal.valueOf(1000))
+                .setMonthlyPayment(BigDecimal.valueOf(100)).setTotalAmountSum(BigDecimal.valueOf(1200))
+                .setMaturityDate(maturityDate).setDueDate(dueDate).setPeriodInMonths(12).setApproved(true));
+    }
+}
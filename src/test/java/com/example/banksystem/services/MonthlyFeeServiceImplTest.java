@@ -0,0 +1,230 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.batch.BatchJobRunner;
+import com.example.banksystem.services.batch.JobLeaseManager;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MonthlyFeeServiceImpl}, together with a benchmark comparing it with charging the accounts one by
+ * one through {@link TransactionServiceImpl#savePaymentInTransaction}.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MonthlyFeeServiceImplTest {
+
+    private static final int BENCHMARK_ACCOUNTS = 2_000;
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    BatchJobRunRepository batchJobRunRepository;
+    @Autowired
+    BatchJobChunkRepository batchJobChunkRepository;
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+
+    List<MoneyMovementEvent> events;
+    JobLeaseManager leaseManager;
+    List<BatchJobRunner> runners;
+    AccountTypeEntity standard;
+    AccountTypeEntity premium;
+    AccountTypeEntity free;
+    UserEntity user;
+    int accounts;
+
+    @BeforeEach
+    void setUp() {
+        events = Collections.synchronizedList(new ArrayList<>());
+        runners = new ArrayList<>();
+        leaseManager = new JobLeaseManager(schedulerLeaseRepository, transactionManager, "node-1", 300, 0);
+        standard = accountTypeRepository.save(new AccountTypeEntity().setType("Standard")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        premium = accountTypeRepository.save(new AccountTypeEntity().setType("Premium")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(10)));
+        free = accountTypeRepository.save(new AccountTypeEntity().setType("Free")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.ZERO));
+        user = userRepository.save(new UserEntity().setUsername("fees").setPassword("-")
+                .setEmail("fees@bank.com").setFullName("Fee Payer"));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (BatchJobRunner runner : runners) {
+            runner.stop();
+        }
+        leaseManager.stop();
+        schedulerLeaseRepository.deleteAll();
+        batchJobChunkRepository.deleteAll();
+        batchJobRunRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void collectMonthlyFees_accountsOfSeveralTypes_everyAccountChargedTheFeeOfItsType() {
+        List<CheckingAccountEntity> charged = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            charged.add(account(BigDecimal.valueOf(100), i % 2 == 0 ? standard : premium));
+        }
+        CheckingAccountEntity notCharged = account(BigDecimal.valueOf(100), free);
+        CheckingAccountEntity overdrawn = account(BigDecimal.ONE, standard);
+
+        assertEquals(6, service(2).collectMonthlyFees());
+
+        for (int i = 0; i < charged.size(); i++) {
+            assertBalance(charged.get(i), i % 2 == 0 ? 96 : 90);
+        }
+        assertBalance(notCharged, 100);
+        assertBalance(overdrawn, -3);
+
+        List<TransactionEntity> transactions = transactionRepository.findAll();
+        assertEquals(6, transactions.size());
+        assertTrue(transactions.stream().allMatch(transaction -> transaction.getType() == TransactionType.MONTHLY_FEE));
+        assertEquals(0, BigDecimal.valueOf(4 * 4 + 10 * 2).compareTo(transactions.stream()
+                .map(TransactionEntity::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    void collectMonthlyFees_chargedAccounts_oneEventPerChunkWithEveryMovement() {
+        for (int i = 0; i < 5; i++) {
+            account(BigDecimal.valueOf(100), standard);
+        }
+
+        service(2).collectMonthlyFees();
+
+        List<MoneyMovement> movements = events.stream().flatMap(event -> event.getMovements().stream())
+                .collect(Collectors.toList());
+        assertTrue(events.size() >= 3);
+        assertEquals(5, movements.size());
+        assertTrue(movements.stream().allMatch(movement -> movement.getTransactionId() != null
+                && !movement.isCredit() && movement.getBalanceChange().compareTo(BigDecimal.valueOf(-4)) == 0));
+    }
+
+    @Test
+    void collectMonthlyFees_secondTimeInTheSameMonth_notChargedAgain() {
+        CheckingAccountEntity account = account(BigDecimal.valueOf(100), standard);
+        MonthlyFeeServiceImpl service = service(2);
+
+        assertEquals(1, service.collectMonthlyFees());
+        assertEquals(1, service.collectMonthlyFees());
+
+        assertBalance(account, 96);
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void collectMonthlyFees_noAccounts_nothingCharged() {
+        assertEquals(0, service(2).collectMonthlyFees());
+
+        assertEquals(0, transactionRepository.count());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void collectMonthlyFees_benchmark_setBasedAgainstOneByOne() {
+        for (int i = 0; i < BENCHMARK_ACCOUNTS; i++) {
+            account(BigDecimal.valueOf(100), i % 2 == 0 ? standard : premium);
+        }
+
+        TransactionServiceImpl transactionService = new TransactionServiceImpl(transactionRepository,
+                new CheckingAccountServiceImpl(checkingAccountRepository, null,
+                        new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()), new ModelMapper(),
+                        new AccountCache(checkingAccountRepository, 100, 30, 0), new VelocityLimiter(true)),
+                null, new ModelMapper(), publisher(), null, new VelocityLimiter(true));
+        long started = System.nanoTime();
+        for (CheckingAccountEntity account : checkingAccountRepository.findAll()) {
+            BigDecimal tax = account.getType().getMonthlyFee();
+            account.setBalance(account.getBalance().subtract(tax));
+            checkingAccountRepository.save(account);
+            transactionService.savePaymentInTransaction(tax, account, TransactionType.MONTHLY_FEE);
+        }
+        long singleMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        started = System.nanoTime();
+        long charged = service(1000).collectMonthlyFees();
+        long setBasedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        log.info("Charging {} accounts one by one took {} ms ({} accounts/s), set-based {} ms ({} accounts/s)",
+                BENCHMARK_ACCOUNTS, singleMillis, BENCHMARK_ACCOUNTS * 1000L / singleMillis, setBasedMillis,
+                BENCHMARK_ACCOUNTS * 1000L / setBasedMillis);
+
+        assertEquals(BENCHMARK_ACCOUNTS, charged);
+        assertEquals(BENCHMARK_ACCOUNTS * 2L, transactionRepository.count());
+        assertEquals(0, BigDecimal.valueOf((100 - 8) * (BENCHMARK_ACCOUNTS / 2) + (100 - 20) * (BENCHMARK_ACCOUNTS / 2))
+                .compareTo(jdbcTemplate.queryForObject("SELECT SUM(balance) FROM checking_accounts",
+                        BigDecimal.class)));
+    }
+
+    private MonthlyFeeServiceImpl service(int chunkSize) {
+        BatchJobRunner runner = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository, leaseManager,
+                transactionManager, 2, chunkSize, 3, 10, 1);
+        runners.add(runner);
+        return new MonthlyFeeServiceImpl(checkingAccountRepository, accountTypeRepository,
+                new TransactionBatchWriter(jdbcTemplate), publisher(), runner);
+    }
+
+    private ApplicationEventPublisher publisher() {
+        return event -> events.add((MoneyMovementEvent) event);
+    }
+
+    private CheckingAccountEntity account(BigDecimal balance, AccountTypeEntity type) {
+        CheckingAccountEntity account = new CheckingAccountEntity();
+        account.setIban(String.format("BG79BNPA9440%010d", accounts++));
+        account.setBalance(balance);
+        account.setType(type);
+        account.setUser(user);
+        return checkingAccountRepository.save(account);
+    }
+
+    private void assertBalance(CheckingAccountEntity account, long expected) {
+        assertEquals(0, BigDecimal.valueOf(expected)
+                .compareTo(checkingAccountRepository.findById(account.getId()).orElseThrow().getBalance()));
+    }
+}
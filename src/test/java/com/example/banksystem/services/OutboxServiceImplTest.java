@@ -0,0 +1,195 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.OutboxEventEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.OutboxEventRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.UserRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import com.example.banksystem.services.events.OutboxConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxServiceImplTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    DefaultListableBeanFactory consumers;
+    OutboxServiceImpl outboxService;
+    TransactionTemplate transactionTemplate;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        consumers = new DefaultListableBeanFactory();
+        outboxService = new OutboxServiceImpl(outboxEventRepository, consumers.getBeanProvider(OutboxConsumer.class),
+                transactionManager, BATCH_SIZE, 24);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("outbox").setPassword("-")
+                .setEmail("outbox@bank.com").setFullName("Outbox Test"));
+        account = new CheckingAccountEntity();
+        account.setIban("BG79BNPA94409332615387");
+        account.setBalance(BigDecimal.valueOf(1000));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void append_committedMovement_eventWaitsInOutbox() {
+        TransactionEntity transaction = withdraw(BigDecimal.valueOf(20), false);
+
+        List<OutboxEventEntity> pending = outboxEventRepository.findAll();
+
+        assertEquals(1, pending.size());
+        OutboxEventEntity event = pending.get(0);
+        assertEquals(transaction.getId(), event.getTransactionId());
+        assertEquals(transaction.getUUid(), event.getTransactionUuid());
+        assertEquals(account.getId(), event.getAccountId());
+        assertEquals(TransactionType.WITHDRAW, event.getType());
+        assertEquals(0, event.getAmount().compareTo(BigDecimal.valueOf(20)));
+        assertEquals(0, event.getFee().compareTo(BigDecimal.ONE));
+        assertFalse(event.isCredit());
+        assertNull(event.getRelayedOn());
+    }
+
+    @Test
+    void append_rolledBackMovement_noEvent() {
+        withdraw(BigDecimal.valueOf(20), true);
+
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void relayPending_severalBatches_everyConsumerGetsEveryEventInOrder() {
+        List<Long> first = new ArrayList<>();
+        List<Long> second = new ArrayList<>();
+        consumers.registerSingleton("first", (OutboxConsumer) events -> events.forEach(e -> first.add(e.getId())));
+        consumers.registerSingleton("second", (OutboxConsumer) events -> events.forEach(e -> second.add(e.getId())));
+        for (int i = 0; i < 25; i++) {
+            withdraw(BigDecimal.ONE, false);
+        }
+
+        int relayed = outboxService.relayPending();
+
+        List<Long> ids = outboxEventRepository.findAll().stream().map(OutboxEventEntity::getId).sorted()
+                .collect(Collectors.toList());
+        assertEquals(25, relayed);
+        assertEquals(ids, first);
+        assertEquals(ids, second);
+        assertEquals(0, outboxEventRepository.countByRelayedOnIsNull());
+        assertEquals(0, outboxService.relayPending());
+        assertEquals(25, outboxService.getMetrics().getRelayedEvents());
+    }
+
+    @Test
+    void relayPending_consumerFails_batchRelayedAgainOnNextRun() {
+        List<Long> received = new ArrayList<>();
+        boolean[] failing = {true};
+        consumers.registerSingleton("flaky", (OutboxConsumer) events -> {
+            if (failing[0]) {
+                throw new IllegalStateException("Downstream is unavailable");
+            }
+            events.forEach(e -> received.add(e.getId()));
+        });
+        withdraw(BigDecimal.ONE, false);
+        withdraw(BigDecimal.ONE, false);
+
+        assertEquals(0, outboxService.relayPending());
+        assertEquals(2, outboxEventRepository.countByRelayedOnIsNull());
+        assertEquals(1, outboxService.getMetrics().getFailedBatches());
+
+        failing[0] = false;
+
+        assertEquals(2, outboxService.relayPending());
+        assertEquals(2, received.size());
+        assertEquals(0, outboxService.getMetrics().getPendingEvents());
+    }
+
+    @Test
+    void deleteRelayedEvents_onlyEventsRelayedBeforeRetention() {
+        withdraw(BigDecimal.ONE, false);
+        withdraw(BigDecimal.ONE, false);
+        withdraw(BigDecimal.ONE, false);
+        List<Long> ids = outboxEventRepository.findAll().stream().map(OutboxEventEntity::getId).sorted()
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.markRelayed(List.of(ids.get(0)), LocalDateTime.now().minusHours(25));
+            outboxEventRepository.markRelayed(List.of(ids.get(1)), LocalDateTime.now());
+        });
+
+        assertEquals(1, outboxService.deleteRelayedEvents());
+        assertEquals(List.of(ids.get(1), ids.get(2)), outboxEventRepository.findAll().stream()
+                .map(OutboxEventEntity::getId).sorted().collect(Collectors.toList()));
+    }
+
+    private TransactionEntity withdraw(BigDecimal amount, boolean rollback) {
+        return transactionTemplate.execute(status -> {
+            checkingAccountRepository.debitIfCovered(account.getId(), amount.add(BigDecimal.ONE));
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.WITHDRAW, account));
+            outboxService.append(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ONE)));
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+            return transaction;
+        });
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.responses.ReconciliationDiscrepancyResponse;
+import com.example.banksystem.models.responses.ReconciliationRunResponse;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReconciliationServiceImplTest {
+
+    private static final int CHUNK_SIZE = 5;
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(100);
+
+    @Autowired
+    ReconciliationRunRepository reconciliationRunRepository;
+    @Autowired
+    ReconciliationChunkRepository reconciliationChunkRepository;
+    @Autowired
+    ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+    @Autowired
+    LedgerPostingRepository ledgerPostingRepository;
+    @Autowired
+    LedgerBalanceRepository ledgerBalanceRepository;
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    ReconciliationReader reconciliationReader;
+    LedgerServiceImpl ledgerService;
+    TransactionTemplate transactionTemplate;
+    AccountTypeEntity type;
+    UserEntity user;
+    List<CheckingAccountEntity> accounts;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationReader = spy(new ReconciliationReader(jdbcTemplate));
+        ledgerService = new LedgerServiceImpl(ledgerPostingRepository, ledgerBalanceRepository,
+                checkingAccountRepository, transactionManager, 4, 50);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("reconciliation").setPassword("-")
+                .setEmail("reconciliation@bank.com").setFullName("Reconciliation Test"));
+        accounts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            accounts.add(openAccount(String.format("BG80BNBG9661102035%04d", i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationDiscrepancyRepository.deleteAll();
+        reconciliationChunkRepository.deleteAll();
+        reconciliationRunRepository.deleteAll();
+        ledgerBalanceRepository.deleteAll();
+        ledgerPostingRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void reconcile_movementsRecorded_noDiscrepancies() {
+        deposit(accounts.get(0), BigDecimal.valueOf(50));
+        withdraw(accounts.get(0), BigDecimal.valueOf(20));
+        monthlyFee(accounts.get(1), BigDecimal.valueOf(4));
+        transfer(accounts.get(2), accounts.get(7), BigDecimal.valueOf(30));
+
+        ReconciliationRunResponse result = service(4, 2).reconcile();
+
+        assertEquals(0, result.getDiscrepancyCount());
+        assertTrue(result.getDiscrepancies().isEmpty());
+        assertEquals(accounts.size(), result.getCheckedAccounts());
+        assertEquals(0, result.getSkippedChunks());
+        assertNotNull(result.getFinishedOn());
+        assertEquals(result.getTotalChunks(), reconciliationChunkRepository.countByRunId(result.getRunId()));
+    }
+
+    @Test
+    void reconcile_transactionsFromBeforeTheLedger_notCountedTwice() {
+        transactionRepository.save(new TransactionEntity(UUID.randomUUID(), BigDecimal.valueOf(60), "-",
+                TransactionType.DEPOSIT, accounts.get(3)));
+
+        assertEquals(0, service(4, 2).reconcile().getDiscrepancyCount());
+    }
+
+    @Test
+    void reconcile_balanceAndTransactionsChanged_discrepanciesReported() {
+        deposit(accounts.get(4), BigDecimal.valueOf(50));
+        TransactionEntity withdrawal = withdraw(accounts.get(9), BigDecimal.valueOf(20));
+        jdbcTemplate.update("UPDATE checking_accounts SET balance = balance + 7 WHERE id = ?",
+                accounts.get(4).getId());
+        jdbcTemplate.update("UPDATE transactions SET amount = 25 WHERE id = ?", withdrawal.getId());
+
+        ReconciliationRunResponse result = service(4, 2).reconcile();
+
+        assertEquals(2, result.getDiscrepancyCount());
+        ReconciliationDiscrepancyResponse changedBalance = result.getDiscrepancies().get(0);
+        assertEquals(accounts.get(4).getId(), changedBalance.getAccountId());
+        assertEquals(0, changedBalance.getBalance().compareTo(BigDecimal.valueOf(157)));
+        assertEquals(0, changedBalance.getExpectedBalance().compareTo(BigDecimal.valueOf(150)));
+        ReconciliationDiscrepancyResponse changedTransaction = result.getDiscrepancies().get(1);
+        assertEquals(accounts.get(9).getId(), changedTransaction.getAccountId());
+        assertEquals(0, changedTransaction.getBalance().compareTo(BigDecimal.valueOf(79)));
+        assertEquals(0, changedTransaction.getExpectedBalance().compareTo(BigDecimal.valueOf(74)));
+        assertEquals(0, changedTransaction.getFeeTotal().compareTo(BigDecimal.ONE));
+    }
+
+    @Test
+    void reconcile_interruptedRun_resumedFromTheCheckpoints() {
+        jdbcTemplate.update("UPDATE checking_accounts SET balance = 0 WHERE id = ?", accounts.get(0).getId());
+        long failingFrom = accounts.get(6).getId() / CHUNK_SIZE * CHUNK_SIZE;
+        doThrow(new IllegalStateException("Connection lost")).doCallRealMethod()
+                .when(reconciliationReader).readRange(failingFrom, failingFrom + CHUNK_SIZE - 1);
+        ReconciliationServiceImpl reconciliationService = service(4, 2);
+
+        assertThrows(IllegalStateException.class, reconciliationService::reconcile);
+        Long runId = reconciliationRunRepository.findFirstByFinishedOnIsNullOrderByIdDesc().orElseThrow().getId();
+        long checkedBefore = reconciliationChunkRepository.countByRunId(runId);
+        clearInvocations(reconciliationReader);
+
+        ReconciliationRunResponse result = reconciliationService.reconcile();
+
+        assertEquals(runId, result.getRunId());
+        assertEquals(checkedBefore, result.getSkippedChunks());
+        assertEquals(result.getTotalChunks() - checkedBefore,
+                mockingDetails(reconciliationReader).getInvocations().size());
+        verify(reconciliationReader).readRange(failingFrom, failingFrom + CHUNK_SIZE - 1);
+        assertEquals(accounts.size(), result.getCheckedAccounts());
+        assertEquals(List.of(accounts.get(0).getId()), result.getDiscrepancies().stream()
+                .map(ReconciliationDiscrepancyResponse::getAccountId).collect(Collectors.toList()));
+        assertNotEquals(runId, service(4, 2).reconcile().getRunId());
+    }
+
+    @Test
+    void reconcile_moreThreadsThanConnections_readsBounded() {
+        AtomicInteger reading = new AtomicInteger();
+        AtomicInteger maxReading = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                return invocation.callRealMethod();
+            } finally {
+                reading.decrementAndGet();
+            }
+        }).when(reconciliationReader).readRange(anyLong(), anyLong());
+
+        ReconciliationRunResponse result = service(8, 2).reconcile();
+
+        assertEquals(accounts.size(), result.getCheckedAccounts());
+        assertTrue(maxReading.get() <= 2);
+    }
+
+    private ReconciliationServiceImpl service(int threads, int maxConnections) {
+        return new ReconciliationServiceImpl(reconciliationReader, reconciliationRunRepository,
+                reconciliationChunkRepository, reconciliationDiscrepancyRepository, checkingAccountRepository,
+                transactionManager, threads, maxConnections, CHUNK_SIZE);
+    }
+
+    private CheckingAccountEntity openAccount(String iban) {
+        CheckingAccountEntity opened = new CheckingAccountEntity();
+        opened.setIban(iban);
+        opened.setBalance(OPENING_BALANCE);
+        opened.setType(type);
+        opened.setUser(user);
+        CheckingAccountEntity saved = checkingAccountRepository.save(opened);
+        transactionTemplate.executeWithoutResult(
+                status -> ledgerService.recordOpeningBalance(saved.getId(), OPENING_BALANCE));
+        return saved;
+    }
+
+    private void deposit(CheckingAccountEntity target, BigDecimal amount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.credit(target.getId(), amount);
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.DEPOSIT, target));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.credit(transaction)));
+        });
+    }
+
+    private TransactionEntity withdraw(CheckingAccountEntity target, BigDecimal amount) {
+        return transactionTemplate.execute(status -> {
+            checkingAccountRepository.debitIfCovered(target.getId(), amount.add(BigDecimal.ONE));
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.WITHDRAW, target));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ONE)));
+            return transaction;
+        });
+    }
+
+    private void monthlyFee(CheckingAccountEntity target, BigDecimal amount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(target.getId(), amount);
+            TransactionEntity transaction = transactionRepository.save(
+                    new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.MONTHLY_FEE, target));
+            ledgerService.recordMovements(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ZERO)));
+        });
+    }
+
+    private void transfer(CheckingAccountEntity from, CheckingAccountEntity to, BigDecimal amount) {
+        UUID uuid = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.debitIfCovered(from.getId(), amount.add(BigDecimal.ONE));
+            checkingAccountRepository.credit(to.getId(), amount);
+            List<TransactionEntity> saved = transactionRepository.saveAll(List.of(
+                    new TransactionEntity(uuid, amount, "rent", TransactionType.SEND, from),
+                    new TransactionEntity(uuid, amount, "rent", TransactionType.RECEIVED, to)));
+            ledgerService.recordMovements(new MoneyMovementEvent(
+                    MoneyMovement.debit(saved.get(0), BigDecimal.ONE), MoneyMovement.credit(saved.get(1))));
+        });
+    }
+}
@@ -3,25 +3,39 @@ package com.example.banksystem.services;
 import com.example.banksystem.exceptions.AccountNotBelongToUserException;
 import com.example.banksystem.exceptions.IncorrectDateFilteringException;
 import com.example.banksystem.exceptions.NoRecordsOfEntityInTheDatabase;
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
 import com.example.banksystem.models.entities.AccountTypeEntity;
 import com.example.banksystem.models.entities.CheckingAccountEntity;
 import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
 import com.example.banksystem.models.entities.UserEntity;
 import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.requsts.TransactionSearchRequest;
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransactionPageResponse;
 import com.example.banksystem.models.responses.TransactionResponse;
+import com.example.banksystem.models.responses.TransferResponse;
 import com.example.banksystem.models.responses.UserResponse;
+import com.example.banksystem.repositories.TransactionCursor;
 import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.TransactionSearchCriteria;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
 import com.example.banksystem.services.interfaces.CheckingAccountService;
 import com.example.banksystem.services.interfaces.UserService;
+import com.example.banksystem.services.limits.VelocityLimiter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -33,6 +47,8 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -76,6 +92,12 @@ class TransactionServiceImplTest {
     @Mock
     ModelMapper modelMapper;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    VelocityLimiter velocityLimiter = new VelocityLimiter(true);
+
     @InjectMocks
     TransactionServiceImpl transactionService;
 
@@ -139,7 +161,8 @@ class TransactionServiceImplTest {
 
             mockedUUID.when(UUID::randomUUID).thenReturn(uuid);
 
-            when(transactionRepository.save(transactionEntity)).thenReturn(transactionEntity.setType("withdraw"));
+            when(transactionRepository.save(transactionEntity))
+                    .thenReturn(transactionEntity.setType(TransactionType.WITHDRAW));
             when(modelMapper.map(transactionEntity, TransactionResponse.class))
                     .thenReturn(transactionResponse.setType("withdraw"));
 
@@ -157,7 +180,8 @@ class TransactionServiceImplTest {
 
             mockedUUID.when(UUID::randomUUID).thenReturn(uuid);
 
-            when(transactionRepository.save(transactionEntity)).thenReturn(transactionEntity.setType("deposit"));
+            when(transactionRepository.save(transactionEntity))
+                    .thenReturn(transactionEntity.setType(TransactionType.DEPOSIT));
             when(modelMapper.map(transactionEntity, TransactionResponse.class))
                     .thenReturn(transactionResponse.setType("deposit"));
 
@@ -166,13 +190,78 @@ class TransactionServiceImplTest {
         }
     }
 
+    @Test
+    void transfer_RightParams_okay() {
+        CheckingAccountEntity receiver = new CheckingAccountEntity();
+        receiver.setId(2L);
+        receiver.setIban("BG79BNPA94409332615387");
+        TransferCreationRequest request = new TransferCreationRequest().setAccountFrom(accountEntity.getIban())
+                .setAccountTo(receiver.getIban()).setAmount(BigDecimal.TEN).setReason("rent");
+        when(checkingAccountService.getAccountByUserIdAndIban(1L, accountEntity.getIban())).thenReturn(accountEntity);
+        when(checkingAccountService.getAccountByIban(receiver.getIban())).thenReturn(receiver);
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(modelMapper.map(any(TransactionEntity.class), eq(TransferResponse.class)))
+                .thenReturn(new TransferResponse());
+
+        TransferResponse response = transactionService.transfer(1L, request);
+
+        verify(checkingAccountService).transfer(accountEntity, receiver, BigDecimal.TEN);
+        assertEquals(accountEntity.getIban(), response.getSenderIBAN());
+        assertEquals(receiver.getIban(), response.getReceiverIBAN());
+        assertEquals("TestUser", response.getUserName());
+    }
+
+    @Test
+    void transfer_RightParams_publishesMovementsOfBothAccounts() {
+        CheckingAccountEntity receiver = new CheckingAccountEntity();
+        receiver.setId(2L);
+        receiver.setIban("BG79BNPA94409332615387");
+        TransferCreationRequest request = new TransferCreationRequest().setAccountFrom(accountEntity.getIban())
+                .setAccountTo(receiver.getIban()).setAmount(BigDecimal.TEN).setReason("rent");
+        when(checkingAccountService.getAccountByUserIdAndIban(1L, accountEntity.getIban())).thenReturn(accountEntity);
+        when(checkingAccountService.getAccountByIban(receiver.getIban())).thenReturn(receiver);
+        when(checkingAccountService.transfer(accountEntity, receiver, BigDecimal.TEN)).thenReturn(BigDecimal.ONE);
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(modelMapper.map(any(TransactionEntity.class), eq(TransferResponse.class)))
+                .thenReturn(new TransferResponse());
+
+        transactionService.transfer(1L, request);
+
+        ArgumentCaptor<MoneyMovementEvent> event = ArgumentCaptor.forClass(MoneyMovementEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        List<MoneyMovement> movements = event.getValue().getMovements();
+        assertEquals(1L, movements.get(0).getAccountId());
+        assertEquals(0, movements.get(0).getBalanceChange().compareTo(BigDecimal.valueOf(-11)));
+        assertEquals(2L, movements.get(1).getAccountId());
+        assertEquals(0, movements.get(1).getBalanceChange().compareTo(BigDecimal.TEN));
+    }
+
+    @Test
+    void transfer_overVelocityAmountLimit_rejectedBeforeTheReceiverIsLookedUp() {
+        accountEntity.getType().setVelocityMaxAmount(BigDecimal.valueOf(15)).setVelocityWindowMinutes(60);
+        TransferCreationRequest request = new TransferCreationRequest().setAccountFrom(accountEntity.getIban())
+                .setAccountTo("BG79BNPA94409332615387").setAmount(BigDecimal.TEN).setReason("rent");
+        when(checkingAccountService.getAccountByUserIdAndIban(1L, accountEntity.getIban())).thenReturn(accountEntity);
+        when(checkingAccountService.getAccountByIban("BG79BNPA94409332615387")).thenReturn(new CheckingAccountEntity());
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(modelMapper.map(any(TransactionEntity.class), eq(TransferResponse.class)))
+                .thenReturn(new TransferResponse());
+        transactionService.transfer(1L, request);
+
+        assertThrows(VelocityLimitExceededException.class, () -> transactionService.transfer(1L, request));
+
+        verify(checkingAccountService).getAccountByIban("BG79BNPA94409332615387");
+        verify(checkingAccountService).transfer(eq(accountEntity), any(), eq(BigDecimal.TEN));
+        assertEquals(1, velocityLimiter.getMetrics().getRejectedByAmount());
+    }
+
     @Test
     void makeTransactionEntity_okay(){
         try (MockedStatic<UUID> mockedUUID = Mockito.mockStatic(UUID.class)) {
             mockedUUID.when(UUID::randomUUID).thenReturn(uuid);
-            assertEquals(transactionService.makeTransactionEntity(BigDecimal.ONE, accountEntity, "monthly fee")
-                            .setUUid(uuid),
-                    transactionEntity.setUUid(uuid).setType("monthly fee"));
+            assertEquals(transactionService.makeTransactionEntity(BigDecimal.ONE, accountEntity,
+                            TransactionType.MONTHLY_FEE).setUUid(uuid),
+                    transactionEntity.setUUid(uuid).setType(TransactionType.MONTHLY_FEE));
         }
     }
 
@@ -185,18 +274,14 @@ class TransactionServiceImplTest {
         when(userService.getUserByAccountId(1L)).thenReturn(otherUser);
         assertThrows(AccountNotBelongToUserException.class,
                 () -> transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,
-                       "tip", null,
-                        null,
-                       null));
+                        searchRequest("tip", null, null, null)));
     }
 
     @Test
     void getAllTransactionsByGivenCriteria_noRecordsFound_throws() {
         assertThrows(NoRecordsOfEntityInTheDatabase.class,
                 () -> transactionService.getAllTransactionsByGivenCriteria(
-                        "deposit", null,
-                        null,
-                        null));
+                        searchRequest("deposit", null, null, null)));
     }
     @Test
     void getAllTransactionsByGivenCriteria_accountNotBelongingToUser_throws(){
@@ -206,209 +291,230 @@ class TransactionServiceImplTest {
         when(userService.getUserByAccountId(1L)).thenReturn(otherUser);
         assertThrows(AccountNotBelongToUserException.class,
                 () -> transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,
-                        "tip", null,
-                        null,
-                        null));
+                        searchRequest("tip", null, null, null)));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateBetweenAndTypeFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnBeforeAndCreatedOnAfterAndType(dateBefore.atTime(LocalTime.MIN),
-                dateAfter.atTime(LocalTime.MAX),"deposit")).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria("deposit", null,
-                dateBeforeString, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()).setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest("deposit", null,
+                dateBeforeString, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateBetweenFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnBeforeAndCreatedOnAfter(dateBefore.atTime(LocalTime.MIN),
-                dateAfter.atTime(LocalTime.MAX))).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria(null, null,
-                dateBeforeString, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria()
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()).setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, null,
+                dateBeforeString, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateBeforeAndTypeFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnBeforeAndType(dateBefore.atTime(LocalTime.MIN), "deposit"))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria("deposit", null,
-                dateBeforeString, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setType(TransactionType.DEPOSIT)
+                .setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest("deposit", null,
+                dateBeforeString, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateAfterAndTypeFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnAfterAndType(dateAfter.atTime(LocalTime.MAX), "deposit"))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria("deposit", null,
-                null, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest("deposit", null,
+                null, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateOnAndTypeFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnBetweenAndType(dateBefore.atTime(LocalTime.MIN),
-                dateBefore.atTime(LocalTime.MAX), "deposit"))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria("deposit", dateBeforeString,
-                null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(dateBefore.atStartOfDay()).setCreatedBefore(dateBefore.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest("deposit", dateBeforeString,
+                null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateBeforeFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnBefore(dateBefore.atTime(LocalTime.MIN)))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria(null, null,
-                dateBeforeString, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, null,
+                dateBeforeString, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateAfterFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnAfter(dateAfter.atTime(LocalTime.MAX)))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria(null, null,
-                null, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, null,
+                null, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_dateOnFiltering_okay() {
-        when(transactionRepository.findAllByCreatedOnBetween(dateBefore.atTime(LocalTime.MIN),
-                dateBefore.atTime(LocalTime.MAX)))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria(null, dateBeforeString,
-                null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria()
+                .setCreatedFrom(dateBefore.atStartOfDay()).setCreatedBefore(dateBefore.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, dateBeforeString,
+                null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_typeFiltering_okay() {
-        when(transactionRepository.findAllByType("deposit"))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria("deposit", null,
-                null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setType(TransactionType.DEPOSIT));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest("deposit", null,
+                null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsByGivenCriteria_allTransactions_okay() {
-        when(transactionRepository.findAll())
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsByGivenCriteria(null, null,
-                null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria());
+        TransactionPageResponse page = transactionService.getAllTransactionsByGivenCriteria(
+                searchRequest(null, null, null, null));
+        assertEquals(page.getTransactions(), List.of(transactionResponse));
+        assertNull(page.getNextCursor());
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_amountRangeFiltering_okay() {
+        stubSearch(new TransactionSearchCriteria().setMinAmount(BigDecimal.ONE).setMaxAmount(BigDecimal.TEN));
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, null, null, null)
+                .setMinAmount(BigDecimal.ONE).setMaxAmount(BigDecimal.TEN)).getTransactions(),
+                List.of(transactionResponse));
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_amountRangeReversed_throws() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getAllTransactionsByGivenCriteria(
+                searchRequest(null, null, null, null).setMinAmount(BigDecimal.TEN).setMaxAmount(BigDecimal.ONE)));
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_unknownType_throws() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getAllTransactionsByGivenCriteria(
+                searchRequest(null, null, null, null).setType("refund")));
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_morePages_nextCursorReturned() {
+        transactionResponse.setCreatedOn(START_TIME);
+        when(transactionRepository.search(new TransactionSearchCriteria(), null, 2))
+                .thenReturn(List.of(transactionResponse, transactionResponse2));
+
+        TransactionPageResponse page = transactionService.getAllTransactionsByGivenCriteria(
+                searchRequest(null, null, null, null).setSize(1));
+
+        assertEquals(page.getTransactions(), List.of(transactionResponse));
+        assertEquals(TransactionCursor.decode(page.getNextCursor()), new TransactionCursor(START_TIME, 1L));
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_withCursor_searchesAfterIt() {
+        TransactionCursor cursor = new TransactionCursor(END_TIME, 42L);
+        when(transactionRepository.search(new TransactionSearchCriteria(), cursor,
+                TransactionServiceImpl.DEFAULT_PAGE_SIZE + 1)).thenReturn(List.of(transactionResponse));
+
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, null, null, null)
+                .setCursor(cursor.encode())).getTransactions(), List.of(transactionResponse));
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_pageSizeOverLimit_capped() {
+        when(transactionRepository.search(new TransactionSearchCriteria(), null,
+                TransactionServiceImpl.MAX_PAGE_SIZE + 1)).thenReturn(List.of(transactionResponse));
+
+        assertEquals(transactionService.getAllTransactionsByGivenCriteria(searchRequest(null, null, null, null)
+                .setSize(100_000)).getTransactions(), List.of(transactionResponse));
+    }
+    @Test
+    void getAllTransactionsByGivenCriteria_invalidPaging_throws() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getAllTransactionsByGivenCriteria(
+                searchRequest(null, null, null, null).setSize(0)));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getAllTransactionsByGivenCriteria(
+                searchRequest(null, null, null, null).setCursor("not-a-cursor")));
     }
     @Test
     void getAllTransactionsByGivenCriteria_filterByDate_throws() {
         assertThrows(IllegalArgumentException.class, () -> transactionService
-                .getAllTransactionsByGivenCriteria(null, dateBeforeString,
-                                                    "27/01/1995", dateAfterString));
+                .getAllTransactionsByGivenCriteria(searchRequest(null, dateBeforeString,
+                                                    "27/01/1995", dateAfterString)));
     }
 
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateBetweenAndTypeFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnBeforeAndCreatedOnAfterAndTypeAndAccountEntity_id
-                (dateBefore.atTime(LocalTime.MIN), dateAfter.atTime(LocalTime.MAX),"deposit", 1L))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,"deposit",
-                null, dateBeforeString, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L).setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()).setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest("deposit",
+                null, dateBeforeString, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateBetweenFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnBeforeAndCreatedOnAfterAndAccountEntity_id
-                (dateBefore.atTime(LocalTime.MIN), dateAfter.atTime(LocalTime.MAX),
-                        1L)).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,null,
-                null, dateBeforeString, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L)
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()).setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest(null,
+                null, dateBeforeString, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateBeforeAndTypeFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnBeforeAndTypeAndAccountEntity_id( dateBefore.atTime(LocalTime.MIN),
-                "deposit", 1L)).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,"deposit",
-                null, dateBeforeString, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L).setType(TransactionType.DEPOSIT)
+                .setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest("deposit",
+                null, dateBeforeString, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateAfterAndTypeFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnAfterAndTypeAndAccountEntity_id(dateAfter.atTime(LocalTime.MAX),
-                "deposit", 1L)).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,"deposit",
-                null, null, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L).setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest("deposit",
+                null, null, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateOnAndTypeFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnBetweenAndTypeAndAccountEntity_id(dateBefore.atTime(LocalTime.MIN),
-                dateBefore.atTime(LocalTime.MAX), "deposit", 1L))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,"deposit",
-                dateBeforeString, null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L).setType(TransactionType.DEPOSIT)
+                .setCreatedFrom(dateBefore.atStartOfDay()).setCreatedBefore(dateBefore.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest("deposit",
+                dateBeforeString, null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateBeforeFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnBeforeAndAccountEntity_id(dateBefore.atTime(LocalTime.MIN),
-                1L)).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, null,
-                null, dateBeforeString, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L).setCreatedBefore(dateBefore.atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest(null,
+                null, dateBeforeString, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateAfterFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnAfterAndAccountEntity_id(dateAfter.atTime(LocalTime.MAX),
-                1L)).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, null,
-                null, null, dateAfterString), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L)
+                .setCreatedFrom(dateAfter.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest(null,
+                null, null, dateAfterString)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_dateOnFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByCreatedOnBetweenAndAccountEntity_id(dateBefore.atTime(LocalTime.MIN),
-                dateBefore.atTime(LocalTime.MAX), 1L)).thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,null,
-                dateBeforeString, null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L)
+                .setCreatedFrom(dateBefore.atStartOfDay()).setCreatedBefore(dateBefore.plusDays(1).atStartOfDay()));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest(null,
+                dateBeforeString, null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_typeFiltering_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByTypeAndAccountEntity_id("deposit", 1L))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,"deposit",
-                null, null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L).setType(TransactionType.DEPOSIT));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest("deposit",
+                null, null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_allTransactions_okay() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
-        when(transactionRepository.findAllByAccountEntity_id(1L))
-                .thenReturn(List.of(transactionEntity));
-        when(modelMapper.map(transactionEntity, TransactionResponse.class)).thenReturn(transactionResponse);
-        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L,null,
-                null, null, null), List.of(transactionResponse));
+        stubSearch(new TransactionSearchCriteria().setAccountId(1L));
+        assertEquals(transactionService.getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest(null,
+                null, null, null)).getTransactions(), List.of(transactionResponse));
     }
     @Test
     void getAllTransactionsForUserByGivenCriteria_filterByDate_throws() {
         when(userService.getUserEntityById(1L)).thenReturn(user);
         when(userService.getUserByAccountId(1L)).thenReturn(user);
         assertThrows(IncorrectDateFilteringException.class, () -> transactionService
-                .getAllTransactionsForUserByGivenCriteria(1L, 1L,null,
-                        dateBeforeString, "1995-01-27", dateAfterString));
+                .getAllTransactionsForUserByGivenCriteria(1L, 1L, searchRequest(null,
+                        dateBeforeString, "1995-01-27", dateAfterString)));
     }
 
     @Test
@@ -427,4 +533,13 @@ class TransactionServiceImplTest {
         assertEquals(transactionService.dateParser("1995-01-26"),dateBefore);
     }
 
+    private TransactionSearchRequest searchRequest(String type, String dateOn, String dateBefore, String dateAfter) {
+        return new TransactionSearchRequest().setType(type).setDateOn(dateOn)
+                .setDateBefore(dateBefore).setDateAfter(dateAfter);
+    }
+
+    private void stubSearch(TransactionSearchCriteria criteria) {
+        when(transactionRepository.search(criteria, null, TransactionServiceImpl.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(transactionResponse));
+    }
 }
@@ -0,0 +1,234 @@
+package com.example.banksystem.services;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.requsts.TransferCreationRequest;
+import com.example.banksystem.models.responses.TransferBatchItemResponse;
+import com.example.banksystem.models.responses.TransferBatchResponse;
+import com.example.banksystem.repositories.*;
+import com.example.banksystem.services.cache.AccountCache;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validation;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TransferBatchServiceImpl}, together with a benchmark comparing a batch with the same transfers
+ * made one by one through {@link TransactionServiceImpl#transfer}.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferBatchServiceImplTest {
+
+    private static final int BENCHMARK_TRANSFERS = 2_000;
+    private static final BigDecimal FEE = BigDecimal.ONE;
+    private static final String SENDER_IBAN = "BG79BNPA94409332615380";
+    private static final String RECEIVER_IBAN = "BG79BNPA94409332615381";
+    private static final String FOREIGN_IBAN = "BG79BNPA94409332615382";
+
+    private final Logger log = LogManager.getLogger(this.getClass());
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    TransactionTemplate transactionTemplate;
+    UserEntity user;
+    CheckingAccountEntity sender;
+    CheckingAccountEntity receiver;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(FEE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("corporate").setPassword("-")
+                .setEmail("corporate@bank.com").setFullName("Corporate Client"));
+        UserEntity other = userRepository.save(new UserEntity().setUsername("supplier").setPassword("-")
+                .setEmail("supplier@bank.com").setFullName("Supplier"));
+
+        sender = account(SENDER_IBAN, BigDecimal.valueOf(100), type, user);
+        receiver = account(RECEIVER_IBAN, BigDecimal.ZERO, type, other);
+        account(FOREIGN_IBAN, BigDecimal.valueOf(1000), type, other);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void transfer_mixedBatch_resultForEveryTransfer() {
+        TransferBatchResponse response = service(500).transfer(user.getId(), List.of(
+                request(SENDER_IBAN, RECEIVER_IBAN, 30),
+                request(SENDER_IBAN, RECEIVER_IBAN, 5),
+                request(FOREIGN_IBAN, RECEIVER_IBAN, 30),
+                request(SENDER_IBAN, "BG00UNKNOWN", 30),
+                request(SENDER_IBAN, RECEIVER_IBAN, 70),
+                request(SENDER_IBAN, RECEIVER_IBAN, 20)));
+
+        assertEquals(List.of("ACCEPTED", "REJECTED", "REJECTED", "REJECTED", "REJECTED", "ACCEPTED"),
+                response.getResults().stream().map(TransferBatchItemResponse::getStatus).collect(Collectors.toList()));
+        assertEquals(2, response.getAccepted());
+        assertEquals(4, response.getRejected());
+        assertEquals("Minimal transfer amount is 10!", response.getResults().get(1).getMessage());
+        assertEquals("The account doesn't belong to this user", response.getResults().get(2).getMessage());
+        assertEquals("This CheckingAccount doesn't exists!", response.getResults().get(3).getMessage());
+        assertEquals("The selected account has Insufficient funds for this transaction!",
+                response.getResults().get(4).getMessage());
+        assertNotNull(response.getResults().get(0).getUuid());
+
+        assertBalance(SENDER_IBAN, 48);
+        assertBalance(RECEIVER_IBAN, 50);
+        assertEquals(4, transactionRepository.count());
+    }
+
+    @Test
+    void transfer_smallChunks_balanceCarriedAcrossChunks() {
+        List<TransferCreationRequest> transfers = Collections.nCopies(7, request(SENDER_IBAN, RECEIVER_IBAN, 19));
+
+        TransferBatchResponse response = service(2).transfer(user.getId(), transfers);
+
+        assertEquals(5, response.getAccepted());
+        assertEquals("REJECTED", response.getResults().get(5).getStatus());
+        assertBalance(SENDER_IBAN, 0);
+        assertBalance(RECEIVER_IBAN, 95);
+        assertEquals(10, transactionRepository.count());
+    }
+
+    @Test
+    void transfer_overTheVelocityLimit_restOfTheTransfersRejected() {
+        AccountTypeEntity type = sender.getType();
+        type.setVelocityWindowMinutes(60).setVelocityMaxCount(2);
+        accountTypeRepository.save(type);
+
+        TransferBatchResponse response = service(500).transfer(user.getId(),
+                Collections.nCopies(3, request(SENDER_IBAN, RECEIVER_IBAN, 10)));
+
+        assertEquals(List.of("ACCEPTED", "ACCEPTED", "REJECTED"),
+                response.getResults().stream().map(TransferBatchItemResponse::getStatus).collect(Collectors.toList()));
+        assertEquals("Too many withdrawals and transfers from this account, try again later!",
+                response.getResults().get(2).getMessage());
+        assertBalance(SENDER_IBAN, 78);
+        assertEquals(4, transactionRepository.count());
+    }
+
+    @Test
+    void transfer_emptyBatch_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service(500).transfer(user.getId(), List.of()));
+    }
+
+    @Test
+    void transfer_tooBigBatch_throwsIllegalArgumentException() {
+        List<TransferCreationRequest> transfers = Collections.nCopies(3, request(SENDER_IBAN, RECEIVER_IBAN, 10));
+
+        assertThrows(IllegalArgumentException.class, () -> new TransferBatchServiceImpl(checkingAccountRepository,
+                new TransactionBatchWriter(jdbcTemplate), transactionManager, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator(), new VelocityLimiter(true), 2, 500).transfer(user.getId(), transfers));
+    }
+
+    @Test
+    void transfer_benchmark_batchAgainstSingleTransfers() {
+        setBalance(SENDER_IBAN, BigDecimal.valueOf(BENCHMARK_TRANSFERS * 2L * 11));
+        List<TransferCreationRequest> transfers = new ArrayList<>(
+                Collections.nCopies(BENCHMARK_TRANSFERS, request(SENDER_IBAN, RECEIVER_IBAN, 10)));
+
+        TransactionServiceImpl transactionService = new TransactionServiceImpl(transactionRepository,
+                new CheckingAccountServiceImpl(checkingAccountRepository, null,
+                        new AccountTypeServiceImpl(accountTypeRepository, new ModelMapper()), new ModelMapper(),
+                        new AccountCache(checkingAccountRepository, 100, 30, 0), new VelocityLimiter(true)),
+                null, new ModelMapper(), eventPublisher, null, new VelocityLimiter(true));
+        long started = System.nanoTime();
+        for (TransferCreationRequest transfer : transfers) {
+            transactionTemplate.executeWithoutResult(status -> transactionService.transfer(user.getId(), transfer));
+        }
+        long singleMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        started = System.nanoTime();
+        TransferBatchResponse response = service(500).transfer(user.getId(), transfers);
+        long batchMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        log.info("{} transfers one by one took {} ms ({} transfers/s), as a batch {} ms ({} transfers/s)",
+                BENCHMARK_TRANSFERS, singleMillis, BENCHMARK_TRANSFERS * 1000L / singleMillis, batchMillis,
+                BENCHMARK_TRANSFERS * 1000L / batchMillis);
+
+        assertEquals(BENCHMARK_TRANSFERS, response.getAccepted());
+        assertBalance(SENDER_IBAN, 0);
+        assertBalance(RECEIVER_IBAN, BENCHMARK_TRANSFERS * 2L * 10);
+        assertEquals(BENCHMARK_TRANSFERS * 4L, transactionRepository.count());
+    }
+
+    private TransferBatchServiceImpl service(int chunkSize) {
+        return service(chunkSize, new VelocityLimiter(true));
+    }
+
+    private TransferBatchServiceImpl service(int chunkSize, VelocityLimiter velocityLimiter) {
+        return new TransferBatchServiceImpl(checkingAccountRepository, new TransactionBatchWriter(jdbcTemplate),
+                transactionManager, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator(),
+                velocityLimiter, 10_000, chunkSize);
+    }
+
+    private CheckingAccountEntity account(String iban, BigDecimal balance, AccountTypeEntity type, UserEntity owner) {
+        CheckingAccountEntity account = new CheckingAccountEntity();
+        account.setIban(iban);
+        account.setBalance(balance);
+        account.setType(type);
+        account.setUser(owner);
+        return checkingAccountRepository.save(account);
+    }
+
+    private void setBalance(String iban, BigDecimal balance) {
+        CheckingAccountEntity account = checkingAccountRepository.findByIban(iban).orElseThrow();
+        account.setBalance(balance);
+        checkingAccountRepository.save(account);
+    }
+
+    private void assertBalance(String iban, long expected) {
+        assertEquals(0, BigDecimal.valueOf(expected)
+                .compareTo(checkingAccountRepository.findByIban(iban).orElseThrow().getBalance()));
+    }
+
+    private static TransferCreationRequest request(String from, String to, long amount) {
+        return new TransferCreationRequest().setAccountFrom(from).setAccountTo(to).setReason("invoice")
+                .setAmount(BigDecimal.valueOf(amount));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.banksystem.services.aggregates;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.TransactionActivityReader;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.UserRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountActivityAggregatesTest {
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    AccountActivityAggregates aggregates;
+    TransactionTemplate transactionTemplate;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new AccountActivityAggregates(new TransactionActivityReader(jdbcTemplate));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        UserEntity user = userRepository.save(new UserEntity().setUsername("activity").setPassword("-")
+                .setEmail("activity@bank.com").setFullName("Activity Test"));
+        account = new CheckingAccountEntity();
+        account.setIban("BG79BNPA94409332615387");
+        account.setBalance(BigDecimal.valueOf(1000));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void onMoneyMovement_committedWithdrawals_countedInBothWindows() {
+        record(TransactionType.WITHDRAW, "20.50", LocalDateTime.now(), false);
+        record(TransactionType.WITHDRAW, "9.50", LocalDateTime.now().minusHours(3), false);
+        record(TransactionType.SEND, "100", LocalDateTime.now(), false);
+
+        assertTotals(2, "30.00", TransactionType.WITHDRAW, RollingWindow.LAST_24_HOURS);
+        assertTotals(2, "30.00", TransactionType.WITHDRAW, RollingWindow.LAST_30_DAYS);
+        assertTotals(1, "100.00", TransactionType.SEND, RollingWindow.LAST_24_HOURS);
+    }
+
+    @Test
+    void onMoneyMovement_rolledBackWithdrawal_notCounted() {
+        record(TransactionType.WITHDRAW, "20", LocalDateTime.now(), true);
+
+        assertTotals(0, "0.00", TransactionType.WITHDRAW, RollingWindow.LAST_24_HOURS);
+        assertEquals(0, aggregates.getTrackedAccounts());
+    }
+
+    @Test
+    void onMoneyMovement_depositsAndReceivedTransfers_notCounted() {
+        record(TransactionType.DEPOSIT, "20", LocalDateTime.now(), false);
+        record(TransactionType.RECEIVED, "20", LocalDateTime.now(), false);
+
+        assertEquals(0, aggregates.getTrackedAccounts());
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregates.getTotals(account.getId(), TransactionType.DEPOSIT, RollingWindow.LAST_24_HOURS));
+    }
+
+    @Test
+    void getTotals_olderWithdrawals_leaveTheWindows() {
+        record(TransactionType.WITHDRAW, "1", LocalDateTime.now().minusHours(26), false);
+        record(TransactionType.WITHDRAW, "2", LocalDateTime.now().minusDays(20), false);
+        record(TransactionType.WITHDRAW, "4", LocalDateTime.now().minusDays(32), false);
+
+        assertTotals(0, "0.00", TransactionType.WITHDRAW, RollingWindow.LAST_24_HOURS);
+        assertTotals(2, "3.00", TransactionType.WITHDRAW, RollingWindow.LAST_30_DAYS);
+    }
+
+    @Test
+    void rebuild_transactionsTable_sameTotalsAsRecorded() {
+        record(TransactionType.WITHDRAW, "20.50", LocalDateTime.now(), false);
+        record(TransactionType.WITHDRAW, "9.50", LocalDateTime.now(), false);
+        record(TransactionType.WITHDRAW, "5", LocalDateTime.now().minusDays(3), false);
+        record(TransactionType.SEND, "100", LocalDateTime.now().minusHours(5), false);
+        record(TransactionType.SEND, "7", LocalDateTime.now().minusDays(40), false);
+        record(TransactionType.DEPOSIT, "300", LocalDateTime.now(), false);
+
+        aggregates = new AccountActivityAggregates(new TransactionActivityReader(jdbcTemplate));
+        aggregates.rebuild();
+
+        assertTotals(2, "30.00", TransactionType.WITHDRAW, RollingWindow.LAST_24_HOURS);
+        assertTotals(3, "35.00", TransactionType.WITHDRAW, RollingWindow.LAST_30_DAYS);
+        assertTotals(1, "100.00", TransactionType.SEND, RollingWindow.LAST_24_HOURS);
+        assertTotals(1, "100.00", TransactionType.SEND, RollingWindow.LAST_30_DAYS);
+    }
+
+    @Test
+    void evictIdle_accountWithoutRecentWithdrawals_dropped() {
+        record(TransactionType.WITHDRAW, "4", LocalDateTime.now().minusDays(32), false);
+
+        assertEquals(1, aggregates.getTrackedAccounts());
+        assertEquals(1, aggregates.evictIdle());
+        assertEquals(0, aggregates.getTrackedAccounts());
+
+        record(TransactionType.WITHDRAW, "4", LocalDateTime.now(), false);
+
+        assertEquals(0, aggregates.evictIdle());
+        assertTotals(1, "4.00", TransactionType.WITHDRAW, RollingWindow.LAST_24_HOURS);
+    }
+
+    private void assertTotals(long count, String amount, TransactionType type, RollingWindow window) {
+        ActivityTotals totals = aggregates.getTotals(account.getId(), type, window);
+        assertEquals(count, totals.getCount());
+        assertEquals(new BigDecimal(amount), totals.getAmount());
+    }
+
+    private void record(TransactionType type, String amount, LocalDateTime createdOn, boolean rollback) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TransactionEntity transaction = new TransactionEntity(UUID.randomUUID(), new BigDecimal(amount), "-",
+                    type, account);
+            transaction.setCreatedOn(createdOn);
+            transaction = transactionRepository.save(transaction);
+            MoneyMovement movement = type == TransactionType.DEPOSIT || type == TransactionType.RECEIVED
+                    ? MoneyMovement.credit(transaction) : MoneyMovement.debit(transaction, BigDecimal.ONE);
+            aggregates.onMoneyMovement(new MoneyMovementEvent(movement));
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+}
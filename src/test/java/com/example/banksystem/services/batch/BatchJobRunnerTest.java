@@ -0,0 +1,232 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.models.entities.BatchJobChunkEntity;
+import com.example.banksystem.models.entities.BatchJobRunEntity;
+import com.example.banksystem.repositories.BatchJobChunkRepository;
+import com.example.banksystem.repositories.BatchJobRunRepository;
+import com.example.banksystem.repositories.SchedulerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchJobRunnerTest {
+
+    @Autowired
+    BatchJobRunRepository batchJobRunRepository;
+    @Autowired
+    BatchJobChunkRepository batchJobChunkRepository;
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    List<JobLeaseManager> leaseManagers;
+    List<BatchJobRunner> runners;
+    BatchJobRunner runner;
+    TestJob job;
+
+    @BeforeEach
+    void setUp() {
+        leaseManagers = new ArrayList<>();
+        runners = new ArrayList<>();
+        runner = runner("node-1", 1);
+        job = new TestJob(1, 95);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (BatchJobRunner started : runners) {
+            started.stop();
+        }
+        leaseManagers.forEach(JobLeaseManager::stop);
+        schedulerLeaseRepository.deleteAll();
+        batchJobChunkRepository.deleteAll();
+        batchJobRunRepository.deleteAll();
+    }
+
+    @Test
+    void run_newKey_everyChunkProcessedOnceAcrossTheWorkers() {
+        BatchJobRunEntity run = runner.run(job, "2026-10");
+
+        assertNotNull(run.getFinishedOn());
+        assertEquals(10, run.getChunks());
+        assertEquals(95, run.getProcessedItems());
+        assertEquals(10, job.processed.size());
+        assertTrue(job.processed.values().stream().allMatch(count -> count == 1));
+        assertTrue(job.processed.containsKey(List.of(1L, 10L)));
+        assertTrue(job.processed.containsKey(List.of(91L, 95L)));
+        assertTrue(job.threads.size() > 1);
+    }
+
+    @Test
+    void run_finishedKeyAgain_nothingProcessed() {
+        runner.run(job, "2026-10");
+        job.processed.clear();
+
+        BatchJobRunEntity run = runner.run(job, "2026-10");
+
+        assertEquals(95, run.getProcessedItems());
+        assertTrue(job.processed.isEmpty());
+    }
+
+    @Test
+    void run_chunkFailingOnce_retriedAndCommitted() {
+        job.failures.put(31L, 1);
+
+        BatchJobRunEntity run = runner.run(job, "2026-10");
+
+        assertNotNull(run.getFinishedOn());
+        assertEquals(95, run.getProcessedItems());
+        assertEquals(List.of(2), batchJobChunkRepository.findAll().stream().filter(chunk -> chunk.getChunk() == 3)
+                .map(BatchJobChunkEntity::getAttempts).collect(Collectors.toList()));
+    }
+
+    @Test
+    void run_chunkFailingEveryAttempt_runResumedWithOnlyThatChunkByTheNextRun() {
+        job.failures.put(41L, Integer.MAX_VALUE);
+
+        BatchJobRunEntity interrupted = runner.run(job, "2026-10-17");
+
+        assertNull(interrupted.getFinishedOn());
+        assertEquals(85, interrupted.getProcessedItems());
+        assertEquals(9, batchJobChunkRepository.findChunksByRunId(interrupted.getId()).size());
+
+        job.failures.clear();
+        job.processed.clear();
+        BatchJobRunEntity next = runner.run(job, "2026-10-18");
+
+        BatchJobRunEntity resumed = batchJobRunRepository.findById(interrupted.getId()).orElseThrow();
+        assertNotNull(resumed.getFinishedOn());
+        assertEquals(95, resumed.getProcessedItems());
+        assertNotNull(next.getFinishedOn());
+        // The failed chunk of the resumed run, then all chunks of the new one.
+        assertEquals(11, job.processed.values().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(2, job.processed.get(List.of(41L, 50L)));
+    }
+
+    @Test
+    void run_noItems_finishedWithoutChunks() {
+        BatchJobRunEntity run = runner.run(new TestJob(null, null), "2026-10");
+
+        assertNotNull(run.getFinishedOn());
+        assertEquals(0, run.getChunks());
+        assertEquals(0, run.getProcessedItems());
+    }
+
+    @Test
+    void run_jobLeaseHeldByAnotherNode_skippedUntilReleased() {
+        JobLeaseManager otherNode = leaseManager("node-2");
+        JobLeaseManager.Lease lease = otherNode.tryAcquire("test-job").orElseThrow();
+
+        BatchJobRunEntity skipped = runner.run(job, "2026-10");
+
+        assertNull(skipped.getFinishedOn());
+        assertEquals(0, skipped.getProcessedItems());
+        assertTrue(job.processed.isEmpty());
+
+        lease.close();
+        BatchJobRunEntity run = runner.run(job, "2026-10");
+
+        assertNotNull(run.getFinishedOn());
+        assertEquals(95, run.getProcessedItems());
+    }
+
+    @Test
+    void run_partitionHeldByAnotherNode_freePartitionsProcessedAndTheOtherNodeFinishesTheRun() {
+        BatchJobRunner first = runner("node-1", 2);
+        BatchJobRunner second = runner("node-2", 2);
+        JobLeaseManager.Lease lease = leaseManager("node-3").tryAcquire("test-job#1").orElseThrow();
+
+        BatchJobRunEntity partial = first.run(job, "2026-10");
+
+        assertNull(partial.getFinishedOn());
+        assertEquals(Set.of(1L, 21L, 41L, 61L, 81L), job.processed.keySet().stream().map(range -> range.get(0))
+                .collect(Collectors.toSet()));
+
+        lease.close();
+        BatchJobRunEntity run = second.run(job, "2026-10");
+
+        assertNotNull(run.getFinishedOn());
+        assertEquals(95, run.getProcessedItems());
+        assertEquals(10, job.processed.size());
+        assertTrue(job.processed.values().stream().allMatch(count -> count == 1));
+    }
+
+    private JobLeaseManager leaseManager(String nodeId) {
+        JobLeaseManager leaseManager = new JobLeaseManager(schedulerLeaseRepository, transactionManager, nodeId, 300,
+                0);
+        leaseManagers.add(leaseManager);
+        return leaseManager;
+    }
+
+    private BatchJobRunner runner(String nodeId, int partitions) {
+        BatchJobRunner started = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository,
+                leaseManager(nodeId), transactionManager, 4, 10, 3, 1, partitions);
+        runners.add(started);
+        return started;
+    }
+
+    /**
+     * A job over the given range of ids, counting how often each chunk is processed and failing the chunks starting
+     * at the ids in {@code failures} the given number of times.
+     */
+    private static final class TestJob implements ChunkedJob {
+        private final Long minId;
+        private final Long maxId;
+        private final Map<List<Long>, Integer> processed = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        private TestJob(Integer minId, Integer maxId) {
+            this.minId = minId == null ? null : minId.longValue();
+            this.maxId = maxId == null ? null : maxId.longValue();
+        }
+
+        @Override
+        public String getName() {
+            return "test-job";
+        }
+
+        @Override
+        public Long findMinId() {
+            return minId;
+        }
+
+        @Override
+        public Long findMaxId() {
+            return maxId;
+        }
+
+        @Override
+        public int processChunk(String runKey, long fromId, long toId) {
+            threads.add(Thread.currentThread().getName());
+            if (failures.computeIfPresent(fromId, (id, left) -> left - 1) != null
+                    && failures.get(fromId) >= 0) {
+                throw new IllegalStateException("Chunk " + fromId + " failed");
+            }
+            try {
+                // Gives the other workers time to take chunks as well.
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.merge(List.of(fromId, toId), 1, Integer::sum);
+            return (int) (toId - fromId + 1);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.models.entities.SchedulerCheckpointEntity;
+import com.example.banksystem.models.responses.CatchUpReportResponse;
+import com.example.banksystem.repositories.BatchJobChunkRepository;
+import com.example.banksystem.repositories.BatchJobRunRepository;
+import com.example.banksystem.repositories.SchedulerCheckpointRepository;
+import com.example.banksystem.repositories.SchedulerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BusinessDateJobRunnerTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Autowired
+    BatchJobRunRepository batchJobRunRepository;
+    @Autowired
+    BatchJobChunkRepository batchJobChunkRepository;
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+    @Autowired
+    SchedulerCheckpointRepository schedulerCheckpointRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    JobLeaseManager leaseManager;
+    BatchJobRunner batchJobRunner;
+    BusinessDateJobRunner runner;
+    TestJob job;
+
+    @BeforeEach
+    void setUp() {
+        leaseManager = new JobLeaseManager(schedulerLeaseRepository, transactionManager, "node-1", 300, 0);
+        batchJobRunner = new BatchJobRunner(batchJobRunRepository, batchJobChunkRepository, leaseManager,
+                transactionManager, 2, 10, 1, 1, 1);
+        runner = new BusinessDateJobRunner(batchJobRunner, batchJobRunRepository, schedulerCheckpointRepository,
+                transactionManager, 7);
+        job = new TestJob();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batchJobRunner.stop();
+        leaseManager.stop();
+        schedulerLeaseRepository.deleteAll();
+        schedulerCheckpointRepository.deleteAll();
+        batchJobChunkRepository.deleteAll();
+        batchJobRunRepository.deleteAll();
+    }
+
+    @Test
+    void runThrough_noCheckpoint_onlyTheGivenDateProcessed() {
+        assertEquals(5, runner.runThrough(job, TODAY));
+
+        assertEquals(List.of(TODAY.toString()), job.runKeys);
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void runThrough_dateAlreadyProcessed_nothingRun() {
+        runner.runThrough(job, TODAY);
+        job.runKeys.clear();
+
+        assertEquals(0, runner.runThrough(job, TODAY));
+        assertEquals(0, runner.runThrough(job, TODAY.minusDays(1)));
+
+        assertTrue(job.runKeys.isEmpty());
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void runThrough_datesMissed_allOfThemProcessedByOneRun() {
+        checkpoint(TODAY.minusDays(3));
+
+        assertEquals(5, runner.runThrough(job, TODAY));
+
+        assertEquals(List.of(TODAY.minusDays(2) + ".." + TODAY), job.runKeys);
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void runThrough_gapLongerThanTheLimit_everyDateProcessedByConsecutiveRuns() {
+        checkpoint(TODAY.minusDays(30));
+
+        assertEquals(25, runner.runThrough(job, TODAY));
+
+        assertEquals(List.of(TODAY.minusDays(29) + ".." + TODAY.minusDays(23),
+                TODAY.minusDays(22) + ".." + TODAY.minusDays(16),
+                TODAY.minusDays(15) + ".." + TODAY.minusDays(9),
+                TODAY.minusDays(8) + ".." + TODAY.minusDays(2),
+                TODAY.minusDays(1) + ".." + TODAY), job.runKeys);
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void runThrough_gapLongerThanTheLimitAndARunNotFinished_laterDatesWaitForIt() {
+        checkpoint(TODAY.minusDays(20));
+        job.failingRunKey = TODAY.minusDays(12) + ".." + TODAY.minusDays(6);
+
+        assertEquals(5, runner.runThrough(job, TODAY));
+
+        assertEquals(List.of(TODAY.minusDays(19) + ".." + TODAY.minusDays(13), job.failingRunKey), job.runKeys);
+        assertEquals(TODAY.minusDays(13), schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+        assertEquals(TODAY.minusDays(12), runner.preview(job, TODAY).getFromDate());
+    }
+
+    @Test
+    void runThrough_runNotFinished_checkpointNotMovedAndTheRunResumedNextTime() {
+        checkpoint(TODAY.minusDays(1));
+        job.failing = true;
+
+        runner.runThrough(job, TODAY);
+
+        assertEquals(TODAY.minusDays(1), schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+
+        job.failing = false;
+        job.runKeys.clear();
+        runner.runThrough(job, TODAY);
+
+        assertEquals(List.of(TODAY.toString()), job.runKeys);
+        assertEquals(TODAY, schedulerCheckpointRepository.findByJobName("test-job").orElseThrow()
+                .getLastBusinessDate());
+    }
+
+    @Test
+    void preview_datesMissed_rangeAndItemsReportedWithoutRunning() {
+        checkpoint(TODAY.minusDays(2));
+
+        CatchUpReportResponse report = runner.preview(job, TODAY);
+
+        assertEquals("test-job", report.getJobName());
+        assertEquals(TODAY, report.getBusinessDate());
+        assertEquals(TODAY.minusDays(2), report.getLastProcessedDate());
+        assertEquals(TODAY.minusDays(1), report.getFromDate());
+        assertEquals(TODAY, report.getToDate());
+        assertEquals(2, report.getPendingItems());
+        assertTrue(report.getUnfinishedRuns().isEmpty());
+        assertTrue(job.runKeys.isEmpty());
+        assertEquals(0, batchJobRunRepository.count());
+    }
+
+    @Test
+    void preview_upToDate_nothingPending() {
+        checkpoint(TODAY);
+
+        CatchUpReportResponse report = runner.preview(job, TODAY);
+
+        assertNull(report.getFromDate());
+        assertNull(report.getToDate());
+        assertEquals(0, report.getPendingItems());
+    }
+
+    private void checkpoint(LocalDate lastBusinessDate) {
+        schedulerCheckpointRepository.save(new SchedulerCheckpointEntity().setJobName("test-job")
+                .setLastBusinessDate(lastBusinessDate));
+    }
+
+    /**
+     * A job over the ids 1 to 5 in a single chunk, recording the keys of the runs it processes and counting one
+     * item per day of a range.
+     */
+    private static final class TestJob implements BusinessDateJob {
+        private final List<String> runKeys = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile String failingRunKey;
+
+        @Override
+        public String getName() {
+            return "test-job";
+        }
+
+        @Override
+        public Long findMinId() {
+            return 1L;
+        }
+
+        @Override
+        public Long findMaxId() {
+            return 5L;
+        }
+
+        @Override
+        public long countItems(BusinessDateRange range) {
+            return range.getDays();
+        }
+
+        @Override
+        public int processChunk(String runKey, long fromId, long toId) {
+            runKeys.add(runKey);
+            if (failing || runKey.equals(failingRunKey)) {
+                throw new IllegalStateException("Run " + runKey + " failed");
+            }
+            return (int) (toId - fromId + 1);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.models.entities.BatchJobRunEntity;
+import com.example.banksystem.models.entities.SchedulerLeaseEntity;
+import com.example.banksystem.repositories.BatchJobChunkRepository;
+import com.example.banksystem.repositories.BatchJobRunRepository;
+import com.example.banksystem.repositories.SchedulerLeaseRepository;
+import com.example.banksystem.services.interfaces.OutboxService;
+import com.example.banksystem.services.schedulers.OutboxRelayScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Starts several application contexts against the same database, each standing for a node of the cluster whose
+ * scheduler triggers the same jobs.
+ */
+class ClusterSchedulingTest {
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        ConfigurableApplicationContext cleaner = nodes.get(nodes.size() - 1);
+        cleaner.getBean(SchedulerLeaseRepository.class).deleteAll();
+        cleaner.getBean(BatchJobChunkRepository.class).deleteAll();
+        cleaner.getBean(BatchJobRunRepository.class).deleteAll();
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void cronJob_triggeredOnEveryNode_runsOnExactlyOne() throws Exception {
+        List<ConfigurableApplicationContext> cluster = List.of(node("node-1", 300, 60, 1),
+                node("node-2", 300, 60, 1), node("node-3", 300, 60, 1));
+        AtomicInteger runs = new AtomicInteger();
+
+        List<Boolean> ran = trigger(cluster, context -> context.getBean(JobLeaseManager.class)
+                .runExclusively("ledger-verification", () -> {
+                    runs.incrementAndGet();
+                    sleep(200);
+                }));
+        // A node whose trigger fires a bit late, after the job already finished.
+        boolean late = cluster.get(0).getBean(JobLeaseManager.class)
+                .runExclusively("ledger-verification", runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        assertEquals(1, ran.stream().filter(Boolean::booleanValue).count());
+        assertFalse(late);
+    }
+
+    @Test
+    void cronJob_holderCrashed_anotherNodeTakesOverAfterTheLeaseExpires() throws Exception {
+        ConfigurableApplicationContext crashed = node("node-1", 1, 0, 1);
+        ConfigurableApplicationContext survivor = node("node-2", 1, 0, 1);
+        assertTrue(crashed.getBean(JobLeaseManager.class).tryAcquire("reconciliation").isPresent());
+        // The node goes away without releasing its lease.
+        crashed.close();
+
+        assertFalse(survivor.getBean(JobLeaseManager.class).runExclusively("reconciliation", () -> { }));
+        Thread.sleep(1100);
+        assertTrue(survivor.getBean(JobLeaseManager.class).runExclusively("reconciliation", () -> { }));
+        assertTrue(survivor.getBean(SchedulerLeaseRepository.class).findByName("reconciliation")
+                .map(SchedulerLeaseEntity::getOwner).orElseThrow().startsWith("node-2/"));
+    }
+
+    @Test
+    void outboxRelay_triggeredOnEveryNode_relayedByTheLeaseHolderUntilItStops() throws Exception {
+        List<ConfigurableApplicationContext> cluster = List.of(node("node-1", 300, 0, 1),
+                node("node-2", 300, 0, 1));
+        List<OutboxService> outboxServices = List.of(mock(OutboxService.class), mock(OutboxService.class));
+        List<OutboxRelayScheduler> relays = List.of(
+                new OutboxRelayScheduler(outboxServices.get(0), cluster.get(0).getBean(JobLeaseManager.class)),
+                new OutboxRelayScheduler(outboxServices.get(1), cluster.get(1).getBean(JobLeaseManager.class)));
+
+        for (int i = 0; i < 3; i++) {
+            relays.forEach(OutboxRelayScheduler::relayOutboxEvents);
+        }
+
+        verify(outboxServices.get(0), times(3)).relayPending();
+        verify(outboxServices.get(1), never()).relayPending();
+
+        relays.get(0).releaseRelayLease();
+        relays.get(1).relayOutboxEvents();
+
+        verify(outboxServices.get(1)).relayPending();
+    }
+
+    @Test
+    void batchJob_partitionedAcrossNodes_everyChunkCommittedOnceByOneOfThem() throws Exception {
+        List<ConfigurableApplicationContext> cluster = List.of(node("node-1", 300, 60, 3),
+                node("node-2", 300, 60, 3), node("node-3", 300, 60, 3));
+        Map<Long, String> processedBy = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch everyNodeStarted = new CountDownLatch(cluster.size());
+
+        List<BatchJobRunEntity> runs = trigger(cluster, context -> {
+            String nodeId = context.getBean(JobLeaseManager.class).getNodeId();
+            return context.getBean(BatchJobRunner.class).run(new ChunkedJob() {
+                private final AtomicInteger chunks = new AtomicInteger();
+
+                @Override
+                public String getName() {
+                    return "monthly-fee";
+                }
+
+                @Override
+                public Long findMinId() {
+                    return 1L;
+                }
+
+                @Override
+                public Long findMaxId() {
+                    return 300L;
+                }
+
+                @Override
+                public int processChunk(String runKey, long fromId, long toId) {
+                    if (chunks.getAndIncrement() == 0) {
+                        // Holds the first partition of the node until every node took one.
+                        everyNodeStarted.countDown();
+                        await(everyNodeStarted);
+                    }
+                    if (processedBy.putIfAbsent(fromId, nodeId) != null) {
+                        duplicates.incrementAndGet();
+                    }
+                    return (int) (toId - fromId + 1);
+                }
+            }, "2026-10");
+        });
+
+        BatchJobRunEntity run = cluster.get(0).getBean(BatchJobRunRepository.class)
+                .findByJobNameAndRunKey("monthly-fee", "2026-10").orElseThrow();
+        assertNotNull(run.getFinishedOn());
+        assertEquals(300, run.getProcessedItems());
+        assertEquals(30, processedBy.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(Set.of("node-1", "node-2", "node-3"), new HashSet<>(processedBy.values()));
+        assertTrue(runs.stream().anyMatch(finished -> finished.getFinishedOn() != null));
+    }
+
+    private ConfigurableApplicationContext node(String nodeId, long leaseSeconds, long minHoldSeconds,
+                                                int partitions) {
+        // Command line arguments, as they take precedence over the application.properties of the tests.
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.main.log-startup-info=false",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--bank.scheduling.node-id=" + nodeId,
+                        "--bank.scheduling.lease-seconds=" + leaseSeconds,
+                        "--bank.scheduling.min-hold-seconds=" + minHoldSeconds,
+                        "--bank.batch.threads=2",
+                        "--bank.batch.chunk-size=10",
+                        "--bank.batch.partitions=" + partitions);
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Fires the same trigger on every node at once, like their schedulers do.
+     */
+    private static <T> List<T> trigger(List<ConfigurableApplicationContext> cluster,
+                                       Function<ConfigurableApplicationContext, T> job) throws Exception {
+        ExecutorService schedulers = Executors.newFixedThreadPool(cluster.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> results = new ArrayList<>();
+            for (ConfigurableApplicationContext node : cluster) {
+                results.add(schedulers.submit(() -> {
+                    await(start);
+                    return job.apply(node);
+                }));
+            }
+            start.countDown();
+            List<T> values = new ArrayList<>();
+            for (Future<T> result : results) {
+                values.add(result.get(60, TimeUnit.SECONDS));
+            }
+            return values;
+        } finally {
+            schedulers.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = SchedulerLeaseEntity.class)
+    @EnableJpaRepositories(basePackageClasses = SchedulerLeaseRepository.class)
+    @Import({JobLeaseManager.class, BatchJobRunner.class})
+    static class Node {
+    }
+}
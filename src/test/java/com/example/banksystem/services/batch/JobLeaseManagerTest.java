@@ -0,0 +1,129 @@
+package com.example.banksystem.services.batch;
+
+import com.example.banksystem.repositories.SchedulerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLeaseManagerTest {
+
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    MutableClock clock;
+    JobLeaseManager firstNode;
+    JobLeaseManager secondNode;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-10-18T03:00:00Z"));
+        firstNode = new JobLeaseManager(schedulerLeaseRepository, transactionManager, "node-1", 300, 60, clock);
+        secondNode = new JobLeaseManager(schedulerLeaseRepository, transactionManager, "node-2", 300, 60, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firstNode.stop();
+        secondNode.stop();
+        schedulerLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void tryAcquire_heldByAnotherNode_empty() {
+        assertTrue(firstNode.tryAcquire("reconciliation").isPresent());
+
+        assertTrue(secondNode.tryAcquire("reconciliation").isEmpty());
+        assertTrue(firstNode.tryAcquire("reconciliation").isEmpty());
+        assertTrue(secondNode.tryAcquire("ledger-verification").isPresent());
+        assertTrue(schedulerLeaseRepository.findByName("reconciliation").orElseThrow().getOwner()
+                .startsWith("node-1/"));
+    }
+
+    @Test
+    void tryAcquire_leaseOfCrashedNodeExpired_takenOver() {
+        assertTrue(firstNode.tryAcquire("reconciliation").isPresent());
+        firstNode.stop();
+
+        clock.advance(Duration.ofSeconds(299));
+        assertTrue(secondNode.tryAcquire("reconciliation").isEmpty());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(secondNode.tryAcquire("reconciliation").isPresent());
+        assertTrue(schedulerLeaseRepository.findByName("reconciliation").orElseThrow().getOwner()
+                .startsWith("node-2/"));
+    }
+
+    @Test
+    void runExclusively_laterTriggerWithinMinimumHold_skipped() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(firstNode.runExclusively("reconciliation", runs::incrementAndGet));
+        clock.advance(Duration.ofSeconds(59));
+        assertFalse(secondNode.runExclusively("reconciliation", runs::incrementAndGet));
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(secondNode.runExclusively("reconciliation", runs::incrementAndGet));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void close_afterMinimumHold_freeRightAway() {
+        JobLeaseManager.Lease lease = firstNode.tryAcquire("reconciliation").orElseThrow();
+        clock.advance(Duration.ofSeconds(120));
+
+        lease.close();
+
+        assertFalse(lease.isHeld());
+        assertTrue(secondNode.tryAcquire("reconciliation").isPresent());
+    }
+
+    /**
+     * A clock the tests move forward, standing for the synchronized clocks of the nodes.
+     */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.banksystem.services.cache;
+
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.responses.AccountCacheMetricsResponse;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.UserRepository;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountCacheTest {
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    AccountCache accountCache;
+    TransactionTemplate transactionTemplate;
+    AccountTypeEntity type;
+    UserEntity user;
+    CheckingAccountEntity account;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(checkingAccountRepository, 1000, 30, 0);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        loads = new AtomicInteger();
+
+        type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("cache").setPassword("-")
+                .setEmail("cache@bank.com").setFullName("Cache Test"));
+        account = openAccount("BG79BNPA94409332615387");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void get_secondRead_servedFromCache() {
+        CachedAccount first = get(account.getId());
+        CachedAccount second = get(account.getId());
+
+        assertEquals(1, loads.get());
+        assertEquals(account.getIban(), second.getIban());
+        assertEquals("Cache Test", second.getUserFullName());
+        assertEquals("Checking", second.getType());
+        assertEquals(0, first.getBalance().compareTo(BigDecimal.valueOf(100)));
+        AccountCacheMetricsResponse metrics = accountCache.getMetrics();
+        assertEquals(1, metrics.getHits());
+        assertEquals(1, metrics.getMisses());
+        assertEquals(0.5, metrics.getHitRate());
+    }
+
+    @Test
+    void onMoneyMovement_committedDeposit_balanceWrittenThrough() {
+        get(account.getId());
+
+        deposit(account, BigDecimal.valueOf(50), false);
+
+        assertEquals(0, get(account.getId()).getBalance().compareTo(BigDecimal.valueOf(150)));
+        assertEquals(1, loads.get());
+        assertEquals(1, accountCache.getMetrics().getWriteThroughs());
+    }
+
+    @Test
+    void onMoneyMovement_rolledBackDeposit_cachedBalanceKept() {
+        get(account.getId());
+
+        deposit(account, BigDecimal.valueOf(50), true);
+
+        assertEquals(0, get(account.getId()).getBalance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, accountCache.getMetrics().getWriteThroughs());
+    }
+
+    @Test
+    void get_loadedWhileDepositInFlight_notCached() {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.credit(account.getId(), BigDecimal.valueOf(50));
+            publish(account, BigDecimal.valueOf(50));
+            // Another request reads the balance before the deposit commits.
+            CachedAccount concurrent = CompletableFuture.supplyAsync(() -> get(account.getId()))
+                    .orTimeout(10, TimeUnit.SECONDS).join();
+            assertEquals(0, concurrent.getBalance().compareTo(BigDecimal.valueOf(100)));
+        });
+
+        assertEquals(0, get(account.getId()).getBalance().compareTo(BigDecimal.valueOf(150)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_balanceChangedBehindTheCache_staleReadMeasured() {
+        accountCache = new AccountCache(checkingAccountRepository, 1000, 30, 1);
+        get(account.getId());
+        jdbcTemplate.update("UPDATE checking_accounts SET balance = 70 WHERE id = ?", account.getId());
+
+        CachedAccount read = get(account.getId());
+
+        assertEquals(0, read.getBalance().compareTo(BigDecimal.valueOf(70)));
+        assertEquals(1, accountCache.getMetrics().getVerifiedReads());
+        assertEquals(1, accountCache.getMetrics().getStaleReads());
+        assertEquals(0, get(account.getId()).getBalance().compareTo(BigDecimal.valueOf(70)));
+    }
+
+    @Test
+    void get_expiredEntry_loadedAgain() {
+        accountCache = new AccountCache(checkingAccountRepository, 1000, 0, 0);
+        get(account.getId());
+        get(account.getId());
+
+        assertEquals(2, loads.get());
+        assertEquals(1, accountCache.getMetrics().getExpirations());
+    }
+
+    @Test
+    void get_moreAccountsThanCapacity_sizeBounded() {
+        accountCache = new AccountCache(checkingAccountRepository, 64, 30, 0);
+        for (int i = 0; i < 200; i++) {
+            CheckingAccountEntity opened = openAccount(String.format("BG80BNBG9661102034%04d", i));
+            get(opened.getId());
+        }
+
+        AccountCacheMetricsResponse metrics = accountCache.getMetrics();
+        assertTrue(metrics.getSize() <= metrics.getCapacity());
+        assertEquals(200 - metrics.getSize(), metrics.getEvictions());
+    }
+
+    @Test
+    void getAllOfUser_accountAddedAndUserEvicted_newAccountListed() {
+        assertEquals(1, accountCache.getAllOfUser(user.getId(), this::loadAllOfUser).size());
+        assertEquals(1, accountCache.getAllOfUser(user.getId(), this::loadAllOfUser).size());
+        assertEquals(1, loads.get());
+
+        openAccount("BG18RZBB91550123456789");
+        accountCache.evictUser(user.getId());
+
+        assertEquals(2, accountCache.getAllOfUser(user.getId(), this::loadAllOfUser).size());
+        assertEquals(2, loads.get());
+    }
+
+    private CachedAccount get(Long accountId) {
+        return accountCache.get(accountId, id -> {
+            loads.incrementAndGet();
+            return checkingAccountRepository.findById(id);
+        }).orElseThrow();
+    }
+
+    private List<CheckingAccountEntity> loadAllOfUser(Long userId) {
+        loads.incrementAndGet();
+        return checkingAccountRepository.findByUserId(userId);
+    }
+
+    private void deposit(CheckingAccountEntity target, BigDecimal amount, boolean rollback) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkingAccountRepository.credit(target.getId(), amount);
+            publish(target, amount);
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private void publish(CheckingAccountEntity target, BigDecimal amount) {
+        TransactionEntity transaction = transactionRepository.save(
+                new TransactionEntity(UUID.randomUUID(), amount, "-", TransactionType.DEPOSIT, target));
+        accountCache.onMoneyMovement(new MoneyMovementEvent(MoneyMovement.credit(transaction)));
+    }
+
+    private CheckingAccountEntity openAccount(String iban) {
+        CheckingAccountEntity opened = new CheckingAccountEntity();
+        opened.setIban(iban);
+        opened.setBalance(BigDecimal.valueOf(100));
+        opened.setType(type);
+        opened.setUser(user);
+        return checkingAccountRepository.save(opened);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.banksystem.services.limits;
+
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.TransactionEntity;
+import com.example.banksystem.models.entities.TransactionType;
+import com.example.banksystem.models.responses.VelocityLimitMetricsResponse;
+import com.example.banksystem.services.aggregates.AccountActivityAggregates;
+import com.example.banksystem.services.events.MoneyMovement;
+import com.example.banksystem.services.events.MoneyMovementEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityLimiterTest {
+
+    AtomicLong nanos;
+    VelocityLimiter velocityLimiter;
+    AccountTypeEntity type;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        velocityLimiter = new VelocityLimiter(true, null, null, null, nanos::get);
+        type = new AccountTypeEntity().setType("Checking").setVelocityWindowMinutes(60);
+        account = new CheckingAccountEntity();
+        account.setId(1L);
+        account.setType(type);
+    }
+
+    @Test
+    void acquire_moreOperationsThanTheCountLimit_rejected() {
+        type.setVelocityMaxCount(3);
+
+        for (int i = 0; i < 3; i++) {
+            velocityLimiter.acquire(account, BigDecimal.ONE);
+        }
+
+        assertThrows(VelocityLimitExceededException.class, () -> velocityLimiter.acquire(account, BigDecimal.ONE));
+        VelocityLimitMetricsResponse metrics = velocityLimiter.getMetrics();
+        assertEquals(3, metrics.getAllowedOperations());
+        assertEquals(1, metrics.getRejectedByCount());
+        assertEquals(0, metrics.getRejectedByAmount());
+    }
+
+    @Test
+    void acquire_moreMoneyThanTheAmountLimit_rejectedAndNothingTaken() {
+        type.setVelocityMaxCount(10).setVelocityMaxAmount(BigDecimal.valueOf(100));
+        velocityLimiter.acquire(account, BigDecimal.valueOf(60));
+
+        assertThrows(VelocityLimitExceededException.class,
+                () -> velocityLimiter.acquire(account, BigDecimal.valueOf(40.01)));
+        velocityLimiter.acquire(account, BigDecimal.valueOf(40));
+
+        assertEquals(1, velocityLimiter.getMetrics().getRejectedByAmount());
+        assertEquals(2, velocityLimiter.getMetrics().getAllowedOperations());
+    }
+
+    @Test
+    void acquire_partOfTheWindowPassed_bucketsRefilledProportionally() {
+        type.setVelocityMaxCount(4).setVelocityMaxAmount(BigDecimal.valueOf(400));
+        for (int i = 0; i < 4; i++) {
+            velocityLimiter.acquire(account, BigDecimal.valueOf(100));
+        }
+        assertThrows(VelocityLimitExceededException.class, () -> velocityLimiter.acquire(account, BigDecimal.ONE));
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(30));
+
+        velocityLimiter.acquire(account, BigDecimal.valueOf(100));
+        velocityLimiter.acquire(account, BigDecimal.valueOf(100));
+        assertThrows(VelocityLimitExceededException.class, () -> velocityLimiter.acquire(account, BigDecimal.ONE));
+    }
+
+    @Test
+    void acquire_dailyAmountTakenOutAlready_rejectedWithoutTakingTokens() {
+        AccountActivityAggregates aggregates = new AccountActivityAggregates(null);
+        velocityLimiter = new VelocityLimiter(true, aggregates, BigDecimal.valueOf(1000), null, nanos::get);
+        type.setVelocityMaxCount(10);
+        record(aggregates, TransactionType.WITHDRAW, "800", LocalDateTime.now());
+        record(aggregates, TransactionType.SEND, "150", LocalDateTime.now());
+
+        assertThrows(VelocityLimitExceededException.class,
+                () -> velocityLimiter.acquire(account, BigDecimal.valueOf(50.01)));
+        velocityLimiter.acquire(account, BigDecimal.valueOf(50));
+
+        assertEquals(1, velocityLimiter.getMetrics().getRejectedByAmount());
+        assertEquals(1, velocityLimiter.getMetrics().getAllowedOperations());
+    }
+
+    @Test
+    void acquire_monthlyAmountTakenOutOverDays_rejected() {
+        AccountActivityAggregates aggregates = new AccountActivityAggregates(null);
+        velocityLimiter = new VelocityLimiter(true, aggregates, BigDecimal.valueOf(1000), BigDecimal.valueOf(2000),
+                nanos::get);
+        record(aggregates, TransactionType.WITHDRAW, "900", LocalDateTime.now().minusDays(3));
+        record(aggregates, TransactionType.SEND, "900", LocalDateTime.now().minusDays(10));
+
+        velocityLimiter.acquire(account, BigDecimal.valueOf(200));
+        assertThrows(VelocityLimitExceededException.class,
+                () -> velocityLimiter.acquire(account, BigDecimal.valueOf(201)));
+    }
+
+    @Test
+    void acquire_accountTypeWithoutLimits_neverRejected() {
+        for (int i = 0; i < 1000; i++) {
+            velocityLimiter.acquire(account, BigDecimal.valueOf(1_000_000));
+        }
+
+        assertEquals(0, velocityLimiter.getMetrics().getTrackedAccounts());
+    }
+
+    @Test
+    void acquire_concurrentBurst_exactlyTheLimitAllowed() throws Exception {
+        type.setVelocityMaxCount(50);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    velocityLimiter.acquire(account, BigDecimal.ONE);
+                    allowed.incrementAndGet();
+                } catch (VelocityLimitExceededException ignored) {
+                    // Over the limit.
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdownNow();
+
+        assertEquals(50, allowed.get());
+        assertEquals(350, velocityLimiter.getMetrics().getRejectedByCount());
+    }
+
+    @Test
+    void evictIdle_bucketUnusedForAWholeWindow_dropped() {
+        type.setVelocityMaxCount(1);
+        velocityLimiter.acquire(account, BigDecimal.ONE);
+
+        assertEquals(0, velocityLimiter.evictIdle());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(60));
+
+        assertEquals(1, velocityLimiter.evictIdle());
+        assertEquals(0, velocityLimiter.getMetrics().getTrackedAccounts());
+        velocityLimiter.acquire(account, BigDecimal.ONE);
+    }
+
+    private void record(AccountActivityAggregates aggregates, TransactionType type, String amount,
+                        LocalDateTime createdOn) {
+        TransactionEntity transaction = new TransactionEntity(UUID.randomUUID(), new BigDecimal(amount), "-", type,
+                account);
+        transaction.setCreatedOn(createdOn);
+        aggregates.onMoneyMovement(new MoneyMovementEvent(MoneyMovement.debit(transaction, BigDecimal.ONE)));
+    }
+}
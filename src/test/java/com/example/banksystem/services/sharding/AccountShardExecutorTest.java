@@ -0,0 +1,244 @@
+package com.example.banksystem.services.sharding;
+
+import com.example.banksystem.exceptions.AccountNotBelongToUserException;
+import com.example.banksystem.exceptions.InsufficientFundsException;
+import com.example.banksystem.exceptions.ServiceOverloadedException;
+import com.example.banksystem.exceptions.VelocityLimitExceededException;
+import com.example.banksystem.models.entities.AccountTypeEntity;
+import com.example.banksystem.models.entities.CheckingAccountEntity;
+import com.example.banksystem.models.entities.UserEntity;
+import com.example.banksystem.models.requsts.TransactionCreationRequest;
+import com.example.banksystem.models.responses.ShardMetricsResponse;
+import com.example.banksystem.repositories.AccountTypeRepository;
+import com.example.banksystem.repositories.CheckingAccountRepository;
+import com.example.banksystem.repositories.TransactionBatchWriter;
+import com.example.banksystem.repositories.TransactionRepository;
+import com.example.banksystem.repositories.UserRepository;
+import com.example.banksystem.services.limits.VelocityLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AccountShardExecutor}. Batches are applied against a real database, so the coalesced balance
+ * update and the saved transactions can be checked together.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountShardExecutorTest {
+
+    private static final String IBAN = "BG79BNPA94409332615387";
+
+    @Autowired
+    CheckingAccountRepository checkingAccountRepository;
+    @Autowired
+    AccountTypeRepository accountTypeRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    UserEntity user;
+    CheckingAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        AccountTypeEntity type = accountTypeRepository.save(new AccountTypeEntity().setType("Checking")
+                .setTransactionFee(BigDecimal.ONE).setMonthlyFee(BigDecimal.valueOf(4)));
+        user = userRepository.save(new UserEntity().setUsername("shard").setPassword("-")
+                .setEmail("shard@bank.com").setFullName("Shard Test"));
+
+        account = new CheckingAccountEntity();
+        account.setIban(IBAN);
+        account.setBalance(BigDecimal.valueOf(100));
+        account.setType(type);
+        account.setUser(user);
+        account = checkingAccountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        checkingAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        accountTypeRepository.deleteAll();
+    }
+
+    @Test
+    void processBatch_depositsAndWithdrawals_coalescedIntoOneBalance() {
+        AccountShardExecutor executor = executor(false);
+        List<ShardCommand> batch = List.of(
+                command(ShardCommand.Kind.DEPOSIT, user.getId(), 50),
+                command(ShardCommand.Kind.WITHDRAW, user.getId(), 120),
+                command(ShardCommand.Kind.DEPOSIT, user.getId(), 30));
+
+        executor.processBatch(batch);
+
+        batch.forEach(command -> assertTrue(command.getResult().isDone()));
+        assertEquals(IBAN, batch.get(1).getResult().join().getIban());
+        // 100 + 50 - (120 + 1) + 30
+        assertEquals(0, balance().compareTo(BigDecimal.valueOf(59)));
+        assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    void processBatch_withdrawalOverBalance_onlyThatCommandRejected() {
+        AccountShardExecutor executor = executor(false);
+        ShardCommand covered = command(ShardCommand.Kind.WITHDRAW, user.getId(), 60);
+        ShardCommand overdraft = command(ShardCommand.Kind.WITHDRAW, user.getId(), 60);
+        ShardCommand deposit = command(ShardCommand.Kind.DEPOSIT, user.getId(), 10);
+
+        executor.processBatch(List.of(covered, overdraft, deposit));
+
+        assertNotNull(covered.getResult().join());
+        assertNotNull(deposit.getResult().join());
+        CompletionException thrown = assertThrows(CompletionException.class, () -> overdraft.getResult().join());
+        assertTrue(thrown.getCause() instanceof InsufficientFundsException);
+        assertEquals(0, balance().compareTo(BigDecimal.valueOf(49)));
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    void processBatch_twoAccountsInDescendingIdOrder_bothAppliedInOneTransaction() {
+        CheckingAccountEntity second = new CheckingAccountEntity();
+        second.setIban("BG18RZBB91550123456789");
+        second.setBalance(BigDecimal.valueOf(20));
+        second.setType(account.getType());
+        second.setUser(user);
+        second = checkingAccountRepository.save(second);
+        AccountShardExecutor executor = executor(false);
+
+        executor.processBatch(List.of(
+                new ShardCommand(ShardCommand.Kind.WITHDRAW, user.getId(), second.getIban(), BigDecimal.TEN),
+                command(ShardCommand.Kind.WITHDRAW, user.getId(), 10),
+                new ShardCommand(ShardCommand.Kind.DEPOSIT, user.getId(), second.getIban(), BigDecimal.ONE)));
+
+        assertEquals(0, balance().compareTo(BigDecimal.valueOf(89)));
+        assertEquals(0, checkingAccountRepository.findById(second.getId()).orElseThrow().getBalance()
+                .compareTo(BigDecimal.valueOf(10)));
+        assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    void processBatch_otherUsersAccount_rejected() {
+        AccountShardExecutor executor = executor(false);
+        ShardCommand foreign = command(ShardCommand.Kind.DEPOSIT, user.getId() + 1, 10);
+        ShardCommand unknown = new ShardCommand(ShardCommand.Kind.DEPOSIT, user.getId(),
+                "BG18RZBB91550123456789", BigDecimal.TEN);
+
+        executor.processBatch(List.of(foreign, unknown));
+
+        CompletionException thrown = assertThrows(CompletionException.class, () -> foreign.getResult().join());
+        assertTrue(thrown.getCause() instanceof AccountNotBelongToUserException);
+        thrown = assertThrows(CompletionException.class, () -> unknown.getResult().join());
+        assertTrue(thrown.getCause() instanceof AccountNotBelongToUserException);
+        assertEquals(0, balance().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void withdraw_parallelRequestsThroughShards_noLostUpdates() throws Exception {
+        AccountShardExecutor executor = executor(true);
+        executor.start();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        executor.withdraw(user.getId(), new TransactionCreationRequest()
+                                .setIban(IBAN).setAmount(BigDecimal.ONE));
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+            executor.stop();
+        }
+
+        List<ShardMetricsResponse> metrics = executor.getMetrics();
+        // 100 covers exactly 50 withdrawals of 1 + 1 fee.
+        assertEquals(150, rejected.get());
+        assertEquals(0, balance().compareTo(BigDecimal.ZERO));
+        assertEquals(50, transactionRepository.count());
+        assertEquals(200, metrics.stream().mapToLong(ShardMetricsResponse::getProcessedOperations).sum());
+    }
+
+    @Test
+    void withdraw_overTheVelocityLimit_rejectedBeforeItIsQueued() {
+        AccountTypeEntity type = account.getType();
+        accountTypeRepository.save(type.setVelocityWindowMinutes(60).setVelocityMaxAmount(BigDecimal.valueOf(5)));
+        AccountShardExecutor executor = executor(false);
+
+        assertThrows(VelocityLimitExceededException.class, () -> executor.withdraw(user.getId(),
+                new TransactionCreationRequest().setIban(IBAN).setAmount(BigDecimal.TEN)));
+
+        assertEquals(0, executor.getMetrics().stream().mapToInt(ShardMetricsResponse::getQueueDepth).sum());
+        assertEquals(0, balance().compareTo(BigDecimal.valueOf(100)));
+    }
+
+    @Test
+    void stop_commandsStillQueued_failedInsteadOfLeftWaiting() {
+        AccountShardExecutor executor = executor(false);
+        CompletableFuture<?> queued = executor.submit(command(ShardCommand.Kind.DEPOSIT, user.getId(), 10));
+
+        executor.stop();
+
+        CompletionException thrown = assertThrows(CompletionException.class, queued::join);
+        assertTrue(thrown.getCause() instanceof ServiceOverloadedException);
+    }
+
+    @Test
+    void withdraw_afterStop_refused() {
+        AccountShardExecutor executor = executor(true);
+        executor.start();
+        executor.stop();
+
+        assertThrows(ServiceOverloadedException.class, () -> executor.withdraw(user.getId(),
+                new TransactionCreationRequest().setIban(IBAN).setAmount(BigDecimal.ONE)));
+        assertEquals(0, balance().compareTo(BigDecimal.valueOf(100)));
+    }
+
+    private AccountShardExecutor executor(boolean enabled) {
+        return new AccountShardExecutor(checkingAccountRepository, new TransactionBatchWriter(jdbcTemplate),
+                transactionManager, new ModelMapper(), eventPublisher, new VelocityLimiter(true), enabled, 4, 100, 1, 1000);
+    }
+
+    private ShardCommand command(ShardCommand.Kind kind, Long userId, int amount) {
+        return new ShardCommand(kind, userId, IBAN, BigDecimal.valueOf(amount));
+    }
+
+    private BigDecimal balance() {
+        return checkingAccountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+}